@@ -81,12 +81,20 @@ def load_modules():
             "org.apache.arrow:arrow-memory:0.16.0",
             "org.apache.arrow:arrow-format:0.16.0",
             "com.google.flatbuffers:flatbuffers-java:1.9.0",
+            "org.apache.parquet:parquet-hadoop:1.11.0",
+            "org.apache.parquet:parquet-column:1.11.0",
+            "org.apache.parquet:parquet-common:1.11.0",
+            "org.apache.parquet:parquet-encoding:1.11.0",
+            "org.apache.parquet:parquet-format-structures:1.11.0",
+            "org.apache.parquet:parquet-jackson:1.11.0",
             "javax.annotation:javax.annotation-api:1.3.2",
             "io.netty:netty-buffer:4.1.27.Final",
             "io.netty:netty-common:4.1.27.Final",
             "io.netty:netty-all:4.1.27.Final",
             "io.netty:netty-transport:4.1.27.Final",
             "io.netty:netty-transport-native-epoll:4.1.27.Final",
+            "org.openjdk.jmh:jmh-core:1.23",
+            "org.openjdk.jmh:jmh-generator-annprocess:1.23",
         ],
         repositories = [
             "https://repo1.maven.org/maven2",
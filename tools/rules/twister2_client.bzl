@@ -135,6 +135,16 @@ def twister2_arrow_lib_files():
 
     ]
 
+def twister2_parquet_lib_files():
+    return [
+        "@maven//:org_apache_parquet_parquet_hadoop",
+        "@maven//:org_apache_parquet_parquet_column",
+        "@maven//:org_apache_parquet_parquet_common",
+        "@maven//:org_apache_parquet_parquet_encoding",
+        "@maven//:org_apache_parquet_parquet_format_structures",
+        "@maven//:org_apache_parquet_parquet_jackson",
+    ]
+
 def twister2_client_lib_api_files():
     return [
         "//twister2/api/src/java:api-java",
@@ -17,6 +17,7 @@ import java.util.List;
 
 import edu.iu.dsc.tws.api.config.Config;
 import edu.iu.dsc.tws.api.config.Context;
+import edu.iu.dsc.tws.api.util.compress.BlockCodecs;
 
 public class CommunicationContext extends Context {
   public static final String REDUCE = "reduce";
@@ -42,6 +43,15 @@ public class CommunicationContext extends Context {
   public static final String ALLTOALL_ALGO_SIMPLE = "simple";
   public static final String ALLTOALL_ALGO_RING = "ring";
 
+  public static final String ALLREDUCE_ALGO_KEY =
+      "twister2.network.allreduce.algorithm";
+  public static final String ALLREDUCE_ALGO_TREE = "tree";
+  public static final String ALLREDUCE_ALGO_RING = "ring";
+  public static final String ALLREDUCE_ALGO_RECURSIVE_DOUBLING = "recursive-doubling";
+  public static final String ALLREDUCE_ALGO_AUTO = "auto";
+  public static final String ALLREDUCE_RING_MIN_BYTES =
+      "twister2.network.allreduce.ring.bytes.min";
+
   public static final String BUFFER_SIZE = "twister2.network.buffer.size";
 
   public static final String SEND_BUFFERS_COUNT = "twister2.network.sendBuffer.count";
@@ -65,8 +75,35 @@ public class CommunicationContext extends Context {
       "twister2.network.shuffle.file.bytes.max";
   public static final String SHUFFLE_PARALLEL_IO =
       "twister2.network.shuffle.parallel.io";
+  public static final String SHUFFLE_COMPRESSION_CODEC =
+      "twister2.network.shuffle.compression.codec";
+  public static final String LOCAL_SHORT_CIRCUIT =
+      "twister2.network.local.short.circuit";
+  public static final String LOCAL_COPY =
+      "twister2.network.local.copy";
+  public static final String TABLE_CHANNEL =
+      "twister2.network.table.channel";
+  public static final String TABLE_CHANNEL_MPI = "mpi";
+  public static final String TABLE_CHANNEL_TCP = "tcp";
   public static final String RING_GROUPING_WORKER_PER_GROUPS =
       "twister2.network.partition.ring.group.workers";
+  public static final String KEYED_BUFFER_VALUES_PER_KEY =
+      "twister2.network.keyed.buffer.values.max";
+  public static final String KEYED_BUFFER_KEYS =
+      "twister2.network.keyed.buffer.keys.max";
+  public static final String STREAM_FLOW_CONTROL =
+      "twister2.network.stream.flow.control";
+  public static final String STREAM_FLOW_CONTROL_CREDITS =
+      "twister2.network.stream.flow.control.credits";
+  public static final String COALESCE_RECORDS = "twister2.network.coalesce.records.max";
+  public static final String COALESCE_BYTES = "twister2.network.coalesce.bytes.max";
+  public static final String COALESCE_LATENCY =
+      "twister2.network.coalesce.latency.micros";
+  public static final String METRICS_ENABLED = "twister2.network.metrics.enabled";
+  public static final String METRICS_JMX = "twister2.network.metrics.jmx";
+  public static final String METRICS_REPORT_INTERVAL =
+      "twister2.network.metrics.report.interval";
+  public static final String METRICS_REPORT_FILE = "twister2.network.metrics.report.file";
 
   public static final int DEFAULT_DESTINATION = 0;
 
@@ -129,6 +166,20 @@ public class CommunicationContext extends Context {
     return getStringPropertyValue(cfg, ALLTOALL_ALGO_KEY, ALLTOALL_ALGO_RING);
   }
 
+  /**
+   * The all reduce algorithm, tree, ring, recursive-doubling or auto
+   */
+  public static String allReduceAlgorithm(Config cfg) {
+    return getStringPropertyValue(cfg, ALLREDUCE_ALGO_KEY, ALLREDUCE_ALGO_TREE);
+  }
+
+  /**
+   * The smallest array in bytes the auto all reduce algorithm reduces with the ring
+   */
+  public static int allReduceRingMinBytes(Config cfg) {
+    return getIntPropertyValue(cfg, ALLREDUCE_RING_MIN_BYTES, 64 * 1024);
+  }
+
   public static int bufferSize(Config cfg) {
     return getIntPropertyValue(cfg, BUFFER_SIZE, 2048000);
   }
@@ -177,7 +228,117 @@ public class CommunicationContext extends Context {
     return getIntPropertyValue(cfg, SHUFFLE_PARALLEL_IO, 1);
   }
 
+  /**
+   * Codec used to compress the files written by the disk based operations
+   */
+  public static String getShuffleCompressionCodec(Config cfg) {
+    return getStringPropertyValue(cfg, SHUFFLE_COMPRESSION_CODEC, BlockCodecs.NONE);
+  }
+
+  /**
+   * Hand the messages to a target in the same worker directly from the send call when nothing
+   * is queued before them
+   */
+  public static boolean isLocalShortCircuit(Config cfg) {
+    return cfg.getBooleanValue(LOCAL_SHORT_CIRCUIT, true);
+  }
+
+  /**
+   * Give a copy of the message to the targets in the same worker instead of the sent object
+   */
+  public static boolean isLocalCopy(Config cfg) {
+    return cfg.getBooleanValue(LOCAL_COPY, false);
+  }
+
+  /**
+   * The transport used by the table all-to-all, mpi or tcp. When this is not set, the table
+   * all-to-all uses the same transport as the worker channel.
+   */
+  public static String tableChannel(Config cfg) {
+    return cfg.getStringValue(TABLE_CHANNEL);
+  }
+
   public static int getRingWorkersPerGroup(Config cfg) {
     return getIntPropertyValue(cfg, RING_GROUPING_WORKER_PER_GROUPS, 128);
   }
+
+  /**
+   * Number of values buffered for a single key by the keyed receivers before they are flushed
+   */
+  public static int getKeyedBufferValuesPerKey(Config cfg) {
+    return getIntPropertyValue(cfg, KEYED_BUFFER_VALUES_PER_KEY, 100);
+  }
+
+  /**
+   * Number of keys buffered by the keyed receivers before they are flushed
+   */
+  public static int getKeyedBufferKeys(Config cfg) {
+    return getIntPropertyValue(cfg, KEYED_BUFFER_KEYS, 10);
+  }
+
+  /**
+   * Weather the streaming operations use credit based flow control between the workers
+   */
+  public static boolean isStreamFlowControl(Config cfg) {
+    return cfg.getBooleanValue(STREAM_FLOW_CONTROL, false);
+  }
+
+  /**
+   * Number of buffers a worker can send to another worker on a streaming edge before the
+   * receiver returns the credits, by default the number of receive buffers
+   */
+  public static int streamFlowControlCredits(Config cfg) {
+    return getIntPropertyValue(cfg, STREAM_FLOW_CONTROL_CREDITS, receiveBufferCount(cfg));
+  }
+
+  /**
+   * Weather the operations and the channels record metrics
+   */
+  public static boolean isMetricsEnabled(Config cfg) {
+    return cfg.getBooleanValue(METRICS_ENABLED, false);
+  }
+
+  /**
+   * Weather the metrics are exported through JMX
+   */
+  public static boolean isMetricsJmx(Config cfg) {
+    return cfg.getBooleanValue(METRICS_JMX, true);
+  }
+
+  /**
+   * Seconds between the metric reports, 0 to not report
+   */
+  public static int metricsReportInterval(Config cfg) {
+    return cfg.getIntegerValue(METRICS_REPORT_INTERVAL, 60);
+  }
+
+  /**
+   * The file the metric reports are appended to, the reports go to the log when this is not set
+   */
+  public static String metricsReportFile(Config cfg) {
+    return cfg.getStringValue(METRICS_REPORT_FILE);
+  }
+
+  /**
+   * Number of records a partition source batches for a target before sending them as one
+   * message, batching is disabled when this is less than 2. Only the partition and keyed
+   * partition operations using the simple algorithm batch the records.
+   */
+  public static int coalesceRecords(Config cfg) {
+    return getIntPropertyValue(cfg, COALESCE_RECORDS, 0);
+  }
+
+  /**
+   * Estimated bytes of a batch after which it is sent, by default the buffer size
+   */
+  public static int coalesceBytes(Config cfg) {
+    return getIntPropertyValue(cfg, COALESCE_BYTES, bufferSize(cfg));
+  }
+
+  /**
+   * Longest time in micro seconds a record waits in a batch
+   */
+  public static int coalesceLatencyMicros(Config cfg) {
+    return getIntPropertyValue(cfg, COALESCE_LATENCY, 1000);
+  }
 }
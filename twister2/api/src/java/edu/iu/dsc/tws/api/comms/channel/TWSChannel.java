@@ -99,6 +99,16 @@ public interface TWSChannel {
    */
   boolean isComplete();
 
+  /**
+   * Number of sends and receives completed by this channel so far. Executors compare the value
+   * between iterations to find out weather the channel delivered anything.
+   *
+   * @return number of completed requests, or 0 if the channel doesn't keep track
+   */
+  default long getCompletedRequests() {
+    return 0;
+  }
+
   /**
    * Create a buffer
    * @param capacity capacity
@@ -106,6 +116,14 @@ public interface TWSChannel {
    */
   ByteBuffer createBuffer(int capacity);
 
+  /**
+   * Give back a buffer created with {@link #createBuffer(int)} once the owner no longer
+   * needs it. Channels that pool their buffers can reuse it after this call.
+   * @param buffer the byte buffer
+   */
+  default void releaseBuffer(ByteBuffer buffer) {
+  }
+
   /**
    * Close the channel
    */
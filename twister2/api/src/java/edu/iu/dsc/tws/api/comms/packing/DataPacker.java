@@ -48,6 +48,24 @@ public interface DataPacker<D, W> {
                          int spaceLeft,
                          ByteBuffer targetBuffer);
 
+  /**
+   * Write the complete data to the buffer starting from its current position, if it fits in to
+   * the remaining space. This is used by the serializers before falling back to
+   * {@link DataPacker#determineLength(Object, PackerStore)}, so small records are written
+   * without an intermediate array. Check the remaining space before writing, don't rely on
+   * exceptions to find out the data doesn't fit.
+   *
+   * @param data the data
+   * @param store packers that serialize the data to find out it doesn't fit can keep the
+   * bytes here, {@link DataPacker#determineLength(Object, PackerStore)} is called next
+   * @param targetBuffer the buffer to write
+   * @return number of bytes written, or -1 if the data doesn't fit in the remaining space of
+   * the buffer. When -1 is returned buffer position is not changed
+   */
+  default int writeDataDirectly(D data, PackerStore store, ByteBuffer targetBuffer) {
+    return -1;
+  }
+
   /**
    * Read the buffer and build the actual object. This method will be called multiple times
    * per object until this method explicitly call {@link ObjectBuilder#setFinalObject(Object)}
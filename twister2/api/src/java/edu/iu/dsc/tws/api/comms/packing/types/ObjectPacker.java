@@ -46,6 +46,17 @@ public final class ObjectPacker implements DataPacker<Object, byte[]> {
     return store.retrieve().length;
   }
 
+  @Override
+  public int writeDataDirectly(Object data, PackerStore store, ByteBuffer targetBuffer) {
+    KryoSerializer kryoSerializer = serializer.get();
+    int length = kryoSerializer.serialize(data, targetBuffer);
+    if (length < 0) {
+      // keep the bytes, so determineLength doesn't serialize the object again
+      store.store(kryoSerializer.getSerialized());
+    }
+    return length;
+  }
+
   @Override
   public void writeDataToBuffer(Object data, PackerStore packerStore,
                                 int alreadyCopied, int leftToCopy, int spaceLeft,
@@ -65,6 +76,14 @@ public final class ObjectPacker implements DataPacker<Object, byte[]> {
                                 int currentBufferLocation, DataBuffer dataBuffer) {
     int totalObjectLength = objectBuilder.getTotalSize();
     int startIndex = objectBuilder.getCompletedSize();
+    // if the whole object is in this buffer, we read it from the buffer itself
+    if (startIndex == 0 && dataBuffer.getSize() - currentBufferLocation >= totalObjectLength) {
+      Object kryoValue = serializer.get().deserialize(dataBuffer.getByteBuffer(),
+          currentBufferLocation, totalObjectLength);
+      objectBuilder.setFinalObject(kryoValue);
+      return totalObjectLength;
+    }
+
     byte[] objectVal = (byte[]) objectBuilder.getPartialDataHolder();
     int value = dataBuffer.copyPartToByteArray(currentBufferLocation, objectVal,
         startIndex, totalObjectLength);
@@ -108,19 +127,15 @@ public final class ObjectPacker implements DataPacker<Object, byte[]> {
 
   @Override
   public Object unpackFromBuffer(ByteBuffer byteBuffer, int bufferOffset, int byteLength) {
-    byte[] bytes = new byte[byteLength];
-    // intentionally not using byteBuffer.get(byte[]). The contract of this method is not to update
-    // buffer position
-    for (int i = 0; i < byteLength; i++) {
-      bytes[i] = byteBuffer.get(bufferOffset + i);
-    }
-    return this.serializer.get().deserialize(bytes);
+    // the contract of this method is not to update buffer position
+    return this.serializer.get().deserialize(byteBuffer, bufferOffset, byteLength);
   }
 
   @Override
   public Object unpackFromBuffer(ByteBuffer byteBuffer, int byteLength) {
-    byte[] bytes = new byte[byteLength];
-    byteBuffer.get(bytes, 0, byteLength);
-    return serializer.get().deserialize(bytes);
+    int position = byteBuffer.position();
+    Object object = serializer.get().deserialize(byteBuffer, position, byteLength);
+    byteBuffer.position(position + byteLength);
+    return object;
   }
 }
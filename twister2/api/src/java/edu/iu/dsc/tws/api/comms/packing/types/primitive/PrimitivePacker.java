@@ -53,6 +53,16 @@ public interface PrimitivePacker<T> extends DataPacker<T, T> {
     }
   }
 
+  @Override
+  default int writeDataDirectly(T data, PackerStore store, ByteBuffer targetBuffer) {
+    int unitDataSize = this.getMessageType().getUnitSizeInBytes();
+    if (targetBuffer.remaining() < unitDataSize) {
+      return -1;
+    }
+    this.addToBuffer(targetBuffer, data);
+    return unitDataSize;
+  }
+
   @Override
   default int determineLength(T data, PackerStore store) {
     return this.getMessageType().getUnitSizeInBytes();
@@ -21,12 +21,15 @@ public class ExecutorContext extends Context {
       "twister2.exector.instance.queue.low.watermark";
   public static final String INSTANCE_QUEUE_HIGH_WATERMARK =
       "twister2.exector.instance.queue.high.watermark";
+  public static final String INSTANCE_QUEUE_SPSC = "twister2.executor.instance.queue.spsc";
   public static final String BATCH_EXECUTOR = "twister2.executor.batch.name";
   public static final String STREAM_EXECUTOR = "twister2.executor.stream.name";
   public static final String BATCH_EXECUTOR_SHARING_SEP_COMM
       = "edu.iu.dsc.tws.executor.threading.BatchSharingExecutor";
   public static final String BATCH_EXECUTOR_SHARING
       = "edu.iu.dsc.tws.executor.threading.BatchSharingExecutor2";
+  public static final String BATCH_EXECUTOR_EVENT
+      = "edu.iu.dsc.tws.executor.threading.BatchEventExecutor";
 
   public static final String STREAM_EXECUTOR_ALL_SHARING =
       "edu.iu.dsc.tws.executor.threading.StreamingAllSharingExecutor";
@@ -36,6 +39,11 @@ public class ExecutorContext extends Context {
 
   public static final String TWISTER2_RUNTIME_OBJECT = "_twister2.runtime_";
 
+  public static final String IDLE_SPINS = "twister2.executor.idle.spins";
+  public static final String IDLE_YIELDS = "twister2.executor.idle.yields";
+  public static final String IDLE_PARK_MIN_NANOS = "twister2.executor.idle.park.min.nanos";
+  public static final String IDLE_PARK_MAX_NANOS = "twister2.executor.idle.park.max.nanos";
+
   public static int threadsPerContainer(Config cfg) {
     return cfg.getIntegerValue(THREADS_PER_WORKER, 1);
   }
@@ -48,6 +56,30 @@ public class ExecutorContext extends Context {
     return cfg.getIntegerValue(INSTANCE_QUEUE_HIGH_WATERMARK, 128);
   }
 
+  /**
+   * Use the single producer, single consumer ring queues for the output queues of the task
+   * instances, only the instance writes to and reads from its output queue
+   */
+  public static boolean instanceQueueSpsc(Config cfg) {
+    return cfg.getBooleanValue(INSTANCE_QUEUE_SPSC, false);
+  }
+
+  public static int idleSpins(Config cfg) {
+    return cfg.getIntegerValue(IDLE_SPINS, 100);
+  }
+
+  public static int idleYields(Config cfg) {
+    return cfg.getIntegerValue(IDLE_YIELDS, 10);
+  }
+
+  public static long idleParkMinNanos(Config cfg) {
+    return cfg.getLongValue(IDLE_PARK_MIN_NANOS, 1000L);
+  }
+
+  public static long idleParkMaxNanos(Config cfg) {
+    return cfg.getLongValue(IDLE_PARK_MAX_NANOS, 1000000L);
+  }
+
   public static String getBatchExecutor(Config cfg) {
     return cfg.getStringValue(BATCH_EXECUTOR, BATCH_EXECUTOR_SHARING);
   }
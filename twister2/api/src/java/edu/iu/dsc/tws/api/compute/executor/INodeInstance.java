@@ -31,6 +31,16 @@ public interface INodeInstance {
    */
   boolean execute();
 
+  /**
+   * Weather the last call to {@link #execute()} made any progress. Executors use this to decide
+   * when a thread can back off, so an instance with pending work should not return false.
+   *
+   * @return true if the last execution made progress
+   */
+  default boolean isProgressed() {
+    return true;
+  }
+
   /**
    * Prepare for an execution
    *
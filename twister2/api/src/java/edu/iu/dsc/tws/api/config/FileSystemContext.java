@@ -31,6 +31,13 @@ public class FileSystemContext {
   public static final String TSET_STORAGE_TYPE_DEFAULT = "mounted";
   public static final String TSET_STORAGE_TYPE = "twister2.tset.storage.type";
 
+  public static final long TSET_STORAGE_READ_AHEAD_DEFAULT = 8388608;
+  public static final String TSET_STORAGE_READ_AHEAD = "twister2.tset.storage.read.ahead.bytes";
+
+  public static final String TSET_STORAGE_COMPRESSION_CODEC_DEFAULT = "none";
+  public static final String TSET_STORAGE_COMPRESSION_CODEC =
+      "twister2.tset.storage.compression.codec";
+
   protected FileSystemContext() { }
 
   public static String persistentStorageType(Config config) {
@@ -53,6 +60,21 @@ public class FileSystemContext {
     return rootPath + File.separator + Context.jobId(config);
   }
 
+  /**
+   * Amount of data read ahead in the background when iterating the data partitions on disk
+   */
+  public static long tsetStorageReadAhead(Config config) {
+    return config.getLongValue(TSET_STORAGE_READ_AHEAD, TSET_STORAGE_READ_AHEAD_DEFAULT);
+  }
+
+  /**
+   * Codec used to compress the data partitions written to the disk
+   */
+  public static String tsetStorageCompressionCodec(Config config) {
+    return config.getStringValue(TSET_STORAGE_COMPRESSION_CODEC,
+        TSET_STORAGE_COMPRESSION_CODEC_DEFAULT);
+  }
+
   public static String volatileStorageRoot(Config config) {
     if (Context.isKubernetesCluster(config)) {
       // this is from: KubernetesConstants.POD_VOLATILE_VOLUME
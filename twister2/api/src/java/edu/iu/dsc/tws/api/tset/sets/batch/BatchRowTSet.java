@@ -24,6 +24,7 @@ import edu.iu.dsc.tws.api.tset.schema.RowSchema;
 import edu.iu.dsc.tws.api.tset.sets.AcceptingData;
 import edu.iu.dsc.tws.api.tset.sets.TSet;
 import edu.iu.dsc.tws.common.table.Row;
+import edu.iu.dsc.tws.common.table.ops.Aggregation;
 
 public interface BatchRowTSet extends TBase, AcceptingData<Row>, StoringData<Row> {
   /**
@@ -56,6 +57,41 @@ public interface BatchRowTSet extends TBase, AcceptingData<Row>, StoringData<Row
   BatchRowTLink join(BatchRowTSet rightTSet, CommunicationContext.JoinType type,
                      Comparator<Row> keyComparator);
 
+  /**
+   * Hash joins with another {@link BatchRowTSet} on the given key columns. The rows of both
+   * tsets are partitioned on the first key column and each partition is joined on its arrow
+   * tables. The output rows have the columns of this tset followed by the columns of the right
+   * tset.
+   *
+   * @param rightTSet right tset
+   * @param type      {@link edu.iu.dsc.tws.api.comms.CommunicationContext.JoinType}
+   * @param leftKeys  key columns of this tset
+   * @param rightKeys key columns of the right tset
+   * @return joined tset
+   */
+  BatchRowTSet join(BatchRowTSet rightTSet, CommunicationContext.JoinType type,
+                    int[] leftKeys, int[] rightKeys);
+
+  /**
+   * Groups the rows by the key columns and computes the aggregations of each group. The output
+   * rows have the key columns followed by a column for each aggregation.
+   *
+   * @param keyColumns   key columns
+   * @param aggregations aggregations
+   * @return grouped tset
+   */
+  BatchRowTSet groupBy(int[] keyColumns, Aggregation... aggregations);
+
+  /**
+   * Sorts the rows of each partition on the given columns, partition the rows before this to
+   * get a range or a key order across the partitions
+   *
+   * @param columns   sort columns
+   * @param ascending order of each column
+   * @return sorted tset
+   */
+  BatchRowTSet sort(int[] columns, boolean[] ascending);
+
   /**
    * Sets the data type of the {@link TSet} output. This will be used in the packers for efficient
    * SER-DE operations in the following {@link TLink}s
@@ -12,9 +12,11 @@
 package edu.iu.dsc.tws.api.util;
 
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.Map;
 
 import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.io.ByteBufferInput;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
 
@@ -34,6 +36,10 @@ public class KryoSerializer {
    * Kryo input
    */
   private Input kryoIn;
+  /**
+   * Kryo input reading directly from a byte buffer
+   */
+  private ByteBufferInput kryoBufferIn;
 
   public KryoSerializer() {
     kryo = new Kryo();
@@ -41,6 +47,7 @@ public class KryoSerializer {
     kryo.setRegistrationRequired(false);
     kryoOut = new Output(2000, 2000000000);
     kryoIn = new Input(1);
+    kryoBufferIn = new ByteBufferInput();
   }
 
   public void init(Map<String, Object> config) {
@@ -52,6 +59,62 @@ public class KryoSerializer {
     return kryoOut.toBytes();
   }
 
+  /**
+   * Serialize the object and copy it to the buffer, starting from its current position, if it
+   * fits in to the remaining space. The object is serialized once to the reusable output and
+   * its length is checked before copying, so when it doesn't fit the bytes can be taken with
+   * {@link #getSerialized()} instead of serializing the object again.
+   *
+   * @param object the object
+   * @param buffer the buffer
+   * @return number of bytes written or -1 if the object doesn't fit in to the remaining
+   * space. Position of the buffer is updated only if the object is written
+   */
+  public int serialize(Object object, ByteBuffer buffer) {
+    kryoOut.clear();
+    kryo.writeClassAndObject(kryoOut, object);
+    int length = kryoOut.position();
+    if (length > buffer.remaining()) {
+      return -1;
+    }
+    buffer.put(kryoOut.getBuffer(), 0, length);
+    return length;
+  }
+
+  /**
+   * Get a copy of the bytes of the last object serialized by this serializer
+   *
+   * @return the serialized bytes
+   */
+  public byte[] getSerialized() {
+    return kryoOut.toBytes();
+  }
+
+  /**
+   * Deserialize an object from a region of the buffer without copying it to an array.
+   * Position of the buffer is not changed. Kryo temporarily modifies the buffer while reading
+   * strings, so read only buffers are copied to an array first.
+   *
+   * @param buffer the buffer
+   * @param offset start of the object
+   * @param length length of the object
+   * @return the object
+   */
+  public Object deserialize(ByteBuffer buffer, int offset, int length) {
+    if (buffer.isReadOnly()) {
+      byte[] bytes = new byte[length];
+      ByteBuffer view = buffer.duplicate();
+      view.position(offset);
+      view.get(bytes);
+      return deserialize(bytes);
+    }
+    ByteBuffer view = buffer.duplicate();
+    view.limit(offset + length);
+    view.position(offset);
+    kryoBufferIn.setBuffer(view);
+    return kryo.readClassAndObject(kryoBufferIn);
+  }
+
   public Object deserialize(byte[] input) {
     kryoIn.setBuffer(input);
     return kryo.readClassAndObject(kryoIn);
@@ -0,0 +1,95 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.api.util.compress;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compresses the blocks of the files written to the disk. A block is compressed and
+ * decompressed as a whole, so the codecs doesn't need to keep any state between the blocks.
+ * The implementations should be thread safe.
+ */
+public abstract class BlockCodec {
+  /**
+   * Bytes given to the codecs of this worker for compression
+   */
+  private static final AtomicLong RAW_BYTES = new AtomicLong();
+
+  /**
+   * Bytes produced by the codecs of this worker
+   */
+  private static final AtomicLong COMPRESSED_BYTES = new AtomicLong();
+
+  /**
+   * Name of the codec, this is the name used in the configurations. Codecs created by class
+   * name should return the class name.
+   */
+  public abstract String getName();
+
+  /**
+   * Maximum number of bytes the compressed form of the given length can take
+   *
+   * @param length raw length
+   * @return maximum compressed length
+   */
+  public abstract int maxCompressedLength(int length);
+
+  /**
+   * Compress the source bytes to the destination
+   *
+   * @param src source
+   * @param srcOff offset of the source
+   * @param length number of bytes to compress
+   * @param dest destination, it should have at least {@link #maxCompressedLength(int)} bytes
+   * from the offset
+   * @param destOff offset of the destination
+   * @return the compressed length
+   */
+  public final int compress(byte[] src, int srcOff, int length,
+                            byte[] dest, int destOff) throws IOException {
+    int compressed = doCompress(src, srcOff, length, dest, destOff);
+    RAW_BYTES.addAndGet(length);
+    COMPRESSED_BYTES.addAndGet(compressed);
+    return compressed;
+  }
+
+  protected abstract int doCompress(byte[] src, int srcOff, int length,
+                                    byte[] dest, int destOff) throws IOException;
+
+  /**
+   * Decompress the source bytes to the destination
+   *
+   * @param src source
+   * @param srcOff offset of the source
+   * @param length number of compressed bytes
+   * @param dest destination
+   * @param destOff offset of the destination
+   * @param rawLength the length of the bytes before compression
+   */
+  public abstract void decompress(byte[] src, int srcOff, int length,
+                                  byte[] dest, int destOff, int rawLength) throws IOException;
+
+  /**
+   * Total number of bytes compressed so far by this worker
+   */
+  public static long getRawBytes() {
+    return RAW_BYTES.get();
+  }
+
+  /**
+   * Total number of bytes after compression so far by this worker
+   */
+  public static long getCompressedBytes() {
+    return COMPRESSED_BYTES.get();
+  }
+}
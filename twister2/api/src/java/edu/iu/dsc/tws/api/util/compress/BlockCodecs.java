@@ -0,0 +1,131 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.api.util.compress;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates the block codecs by name and frames the compressed blocks.
+ * <p>
+ * A block is written as the raw length, the stored length and the stored bytes. When the codec
+ * can't make a block smaller it is stored as it is and the two lengths are equal.
+ */
+public final class BlockCodecs {
+  public static final String NONE = "none";
+  public static final String LZ4 = "lz4";
+  public static final String SNAPPY = "snappy";
+  public static final String DEFLATE = "deflate";
+
+  /**
+   * Raw length and the stored length
+   */
+  public static final int BLOCK_HEADER_SIZE = 2 * Integer.BYTES;
+
+  private static final Map<String, BlockCodec> CODECS = new ConcurrentHashMap<>();
+
+  private BlockCodecs() {
+  }
+
+  /**
+   * Get the codec with the given name, the name can be one of the built in codecs or the
+   * class name of a {@link BlockCodec} implementation
+   *
+   * @param name name of the codec
+   * @return the codec or null if no compression is used
+   */
+  public static BlockCodec get(String name) {
+    if (name == null || name.isEmpty() || NONE.equalsIgnoreCase(name)) {
+      return null;
+    }
+    return CODECS.computeIfAbsent(name.toLowerCase(), BlockCodecs::create);
+  }
+
+  private static BlockCodec create(String name) {
+    switch (name) {
+      case LZ4:
+        return new LZ4BlockCodec();
+      case SNAPPY:
+        return new SnappyBlockCodec();
+      case DEFLATE:
+        return new DeflateBlockCodec();
+      default:
+        try {
+          return (BlockCodec) Class.forName(name).newInstance();
+        } catch (ClassNotFoundException | InstantiationException
+            | IllegalAccessException | ClassCastException e) {
+          throw new IllegalArgumentException("Unknown compression codec: " + name, e);
+        }
+    }
+  }
+
+  /**
+   * Maximum size of a block frame with the given raw length
+   */
+  public static int maxFrameLength(BlockCodec codec, int rawLength) {
+    return BLOCK_HEADER_SIZE + Math.max(rawLength, codec.maxCompressedLength(rawLength));
+  }
+
+  /**
+   * Compress the bytes in to a block frame
+   *
+   * @param codec the codec
+   * @param src source bytes
+   * @param srcOff offset
+   * @param length number of bytes
+   * @param frame destination, should be at least {@link #maxFrameLength(BlockCodec, int)}
+   * @return length of the frame
+   */
+  public static int encode(BlockCodec codec, byte[] src, int srcOff, int length,
+                           byte[] frame) throws IOException {
+    int stored = codec.compress(src, srcOff, length, frame, BLOCK_HEADER_SIZE);
+    if (stored >= length) {
+      System.arraycopy(src, srcOff, frame, BLOCK_HEADER_SIZE, length);
+      stored = length;
+    }
+    putInt(frame, 0, length);
+    putInt(frame, Integer.BYTES, stored);
+    return BLOCK_HEADER_SIZE + stored;
+  }
+
+  /**
+   * Decompress the stored bytes of a block frame
+   *
+   * @param codec the codec
+   * @param stored the stored bytes
+   * @param storedOff offset of the stored bytes
+   * @param storedLength stored length read from the frame header
+   * @param dest destination
+   * @param rawLength raw length read from the frame header
+   */
+  public static void decode(BlockCodec codec, byte[] stored, int storedOff, int storedLength,
+                            byte[] dest, int rawLength) throws IOException {
+    if (storedLength == rawLength) {
+      System.arraycopy(stored, storedOff, dest, 0, rawLength);
+    } else {
+      codec.decompress(stored, storedOff, storedLength, dest, 0, rawLength);
+    }
+  }
+
+  public static int getInt(byte[] bytes, int offset) {
+    return ((bytes[offset] & 0xff) << 24) | ((bytes[offset + 1] & 0xff) << 16)
+        | ((bytes[offset + 2] & 0xff) << 8) | (bytes[offset + 3] & 0xff);
+  }
+
+  private static void putInt(byte[] bytes, int offset, int value) {
+    bytes[offset] = (byte) (value >>> 24);
+    bytes[offset + 1] = (byte) (value >>> 16);
+    bytes[offset + 2] = (byte) (value >>> 8);
+    bytes[offset + 3] = (byte) value;
+  }
+}
@@ -0,0 +1,109 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.api.util.compress;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads the block frames written by {@link BlockCompressedOutputStream}
+ */
+public class BlockCompressedInputStream extends InputStream {
+  private final InputStream in;
+
+  private final BlockCodec codec;
+
+  private final byte[] header = new byte[BlockCodecs.BLOCK_HEADER_SIZE];
+
+  private byte[] stored = new byte[0];
+
+  private byte[] block = new byte[0];
+
+  private int position;
+
+  private int limit;
+
+  public BlockCompressedInputStream(InputStream in, BlockCodec codec) {
+    this.in = in;
+    this.codec = codec;
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (position == limit && !readBlock()) {
+      return -1;
+    }
+    return block[position++] & 0xff;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    if (position == limit && !readBlock()) {
+      return -1;
+    }
+    int copy = Math.min(len, limit - position);
+    System.arraycopy(block, position, b, off, copy);
+    position += copy;
+    return copy;
+  }
+
+  @Override
+  public int available() {
+    return limit - position;
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+
+  private boolean readBlock() throws IOException {
+    int read = readFully(header, 0, header.length);
+    if (read == 0) {
+      return false;
+    } else if (read < header.length) {
+      throw new EOFException("Truncated block header");
+    }
+
+    int rawLength = BlockCodecs.getInt(header, 0);
+    int storedLength = BlockCodecs.getInt(header, Integer.BYTES);
+    if (stored.length < storedLength) {
+      stored = new byte[storedLength];
+    }
+    if (readFully(stored, 0, storedLength) < storedLength) {
+      throw new EOFException("Truncated block");
+    }
+    if (block.length < rawLength) {
+      block = new byte[rawLength];
+    }
+    BlockCodecs.decode(codec, stored, 0, storedLength, block, rawLength);
+    position = 0;
+    limit = rawLength;
+    return true;
+  }
+
+  private int readFully(byte[] b, int off, int len) throws IOException {
+    int total = 0;
+    while (total < len) {
+      int read = in.read(b, off + total, len - total);
+      if (read < 0) {
+        break;
+      }
+      total += read;
+    }
+    return total;
+  }
+}
@@ -0,0 +1,73 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.api.util.compress;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Buffers the written bytes and writes them as compressed block frames to the underlying stream.
+ * Read the stream back with {@link BlockCompressedInputStream}.
+ */
+public class BlockCompressedOutputStream extends FilterOutputStream {
+  private final BlockCodec codec;
+
+  private final byte[] block;
+
+  private final byte[] frame;
+
+  private int count;
+
+  public BlockCompressedOutputStream(OutputStream out, BlockCodec codec, int blockSize) {
+    super(out);
+    this.codec = codec;
+    this.block = new byte[blockSize];
+    this.frame = new byte[BlockCodecs.maxFrameLength(codec, blockSize)];
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    if (count == block.length) {
+      writeBlock();
+    }
+    block[count++] = (byte) b;
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    while (len > 0) {
+      if (count == block.length) {
+        writeBlock();
+      }
+      int copy = Math.min(len, block.length - count);
+      System.arraycopy(b, off, block, count, copy);
+      count += copy;
+      off += copy;
+      len -= copy;
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    writeBlock();
+    out.flush();
+  }
+
+  private void writeBlock() throws IOException {
+    if (count > 0) {
+      int length = BlockCodecs.encode(codec, block, 0, count, frame);
+      out.write(frame, 0, length);
+      count = 0;
+    }
+  }
+}
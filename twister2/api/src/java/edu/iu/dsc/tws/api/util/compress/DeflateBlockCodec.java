@@ -0,0 +1,72 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.api.util.compress;
+
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Deflate compression from the JDK. This is slower than the other codecs but doesn't need any
+ * additional libraries.
+ */
+public class DeflateBlockCodec extends BlockCodec {
+  private final ThreadLocal<Deflater> deflaters =
+      ThreadLocal.withInitial(() -> new Deflater(Deflater.BEST_SPEED));
+
+  private final ThreadLocal<Inflater> inflaters = ThreadLocal.withInitial(Inflater::new);
+
+  @Override
+  public String getName() {
+    return BlockCodecs.DEFLATE;
+  }
+
+  @Override
+  public int maxCompressedLength(int length) {
+    // the bound used by zlib for the stored blocks and the zlib header
+    return length + (length >> 12) + (length >> 14) + (length >> 25) + 13 + 6;
+  }
+
+  @Override
+  protected int doCompress(byte[] src, int srcOff, int length,
+                           byte[] dest, int destOff) {
+    Deflater deflater = deflaters.get();
+    try {
+      deflater.setInput(src, srcOff, length);
+      deflater.finish();
+      int written = deflater.deflate(dest, destOff, maxCompressedLength(length));
+      // we couldn't fit it, the block will be stored without compression
+      return deflater.finished() ? written : length;
+    } finally {
+      deflater.reset();
+    }
+  }
+
+  @Override
+  public void decompress(byte[] src, int srcOff, int length,
+                         byte[] dest, int destOff, int rawLength) throws IOException {
+    Inflater inflater = inflaters.get();
+    try {
+      inflater.setInput(src, srcOff, length);
+      int written = inflater.inflate(dest, destOff, rawLength);
+      if (written != rawLength) {
+        throw new IOException("Corrupted block, expected " + rawLength
+            + " bytes but got " + written);
+      }
+    } catch (DataFormatException e) {
+      throw new IOException("Failed to decompress the block", e);
+    } finally {
+      inflater.reset();
+    }
+  }
+}
@@ -0,0 +1,68 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.api.util.compress;
+
+import java.io.IOException;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+
+/**
+ * LZ4 compression, fast with a moderate compression ratio
+ */
+public class LZ4BlockCodec extends BlockCodec {
+  private final LZ4Compressor compressor;
+
+  private final LZ4FastDecompressor decompressor;
+
+  public LZ4BlockCodec() {
+    LZ4Factory factory = LZ4Factory.fastestInstance();
+    this.compressor = factory.fastCompressor();
+    this.decompressor = factory.fastDecompressor();
+  }
+
+  @Override
+  public String getName() {
+    return BlockCodecs.LZ4;
+  }
+
+  @Override
+  public int maxCompressedLength(int length) {
+    return compressor.maxCompressedLength(length);
+  }
+
+  @Override
+  protected int doCompress(byte[] src, int srcOff, int length,
+                           byte[] dest, int destOff) throws IOException {
+    try {
+      return compressor.compress(src, srcOff, length, dest, destOff,
+          compressor.maxCompressedLength(length));
+    } catch (LZ4Exception e) {
+      throw new IOException("Failed to compress the block", e);
+    }
+  }
+
+  @Override
+  public void decompress(byte[] src, int srcOff, int length,
+                         byte[] dest, int destOff, int rawLength) throws IOException {
+    try {
+      int read = decompressor.decompress(src, srcOff, dest, destOff, rawLength);
+      if (read != length) {
+        throw new IOException("Corrupted block, expected " + length + " bytes but read " + read);
+      }
+    } catch (LZ4Exception e) {
+      throw new IOException("Failed to decompress the block", e);
+    }
+  }
+}
@@ -0,0 +1,48 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.api.util.compress;
+
+import java.io.IOException;
+
+import org.xerial.snappy.Snappy;
+
+/**
+ * Snappy compression, this uses the native snappy library
+ */
+public class SnappyBlockCodec extends BlockCodec {
+
+  @Override
+  public String getName() {
+    return BlockCodecs.SNAPPY;
+  }
+
+  @Override
+  public int maxCompressedLength(int length) {
+    return Snappy.maxCompressedLength(length);
+  }
+
+  @Override
+  protected int doCompress(byte[] src, int srcOff, int length,
+                           byte[] dest, int destOff) throws IOException {
+    return Snappy.compress(src, srcOff, length, dest, destOff);
+  }
+
+  @Override
+  public void decompress(byte[] src, int srcOff, int length,
+                         byte[] dest, int destOff, int rawLength) throws IOException {
+    int written = Snappy.uncompress(src, srcOff, length, dest, destOff);
+    if (written != rawLength) {
+      throw new IOException("Corrupted block, expected " + rawLength
+          + " bytes but got " + written);
+    }
+  }
+}
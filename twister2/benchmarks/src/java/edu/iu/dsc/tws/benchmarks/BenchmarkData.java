@@ -0,0 +1,85 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import edu.iu.dsc.tws.api.comms.structs.Tuple;
+
+/**
+ * Generates the data used by the benchmarks. The generators are seeded with a fixed value so
+ * every run of a benchmark works on the same data and the results of releases can be compared.
+ */
+public final class BenchmarkData {
+  public static final long SEED = 0x7457697374657232L;
+
+  private BenchmarkData() {
+  }
+
+  public static int[] ints(int size) {
+    Random random = new Random(SEED);
+    int[] data = new int[size];
+    for (int i = 0; i < size; i++) {
+      data[i] = random.nextInt();
+    }
+    return data;
+  }
+
+  public static long[] longs(int size) {
+    Random random = new Random(SEED);
+    long[] data = new long[size];
+    for (int i = 0; i < size; i++) {
+      data[i] = random.nextLong();
+    }
+    return data;
+  }
+
+  public static double[] doubles(int size) {
+    Random random = new Random(SEED);
+    double[] data = new double[size];
+    for (int i = 0; i < size; i++) {
+      data[i] = random.nextDouble();
+    }
+    return data;
+  }
+
+  public static byte[] bytes(int size) {
+    byte[] data = new byte[size];
+    new Random(SEED).nextBytes(data);
+    return data;
+  }
+
+  /**
+   * Integer keyed tuples with integer array values, the keys are drawn from the given number of
+   * distinct keys
+   *
+   * @param count number of tuples
+   * @param distinctKeys number of distinct keys
+   * @param valueSize number of integers in a value
+   * @param seedOffset added to the seed, so two relations of a join are not identical
+   */
+  public static List<Tuple> keyedInts(int count, int distinctKeys, int valueSize,
+                                      int seedOffset) {
+    Random random = new Random(SEED + seedOffset);
+    List<Tuple> tuples = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      int[] value = new int[valueSize];
+      for (int j = 0; j < valueSize; j++) {
+        value[j] = random.nextInt();
+      }
+      tuples.add(new Tuple<>(random.nextInt(distinctKeys), value));
+    }
+    return tuples;
+  }
+}
@@ -0,0 +1,91 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageTypes;
+import edu.iu.dsc.tws.api.comms.structs.Tuple;
+import edu.iu.dsc.tws.comms.utils.HashJoinUtils;
+import edu.iu.dsc.tws.comms.utils.KeyComparatorWrapper;
+import edu.iu.dsc.tws.comms.utils.SortJoinUtils;
+
+/**
+ * In memory joins of two relations with integer keys. Every key appears about four times in
+ * each relation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JoinBenchmark {
+  private static final int VALUE_SIZE = 4;
+
+  @Param({"1000", "100000"})
+  private int relationSize;
+
+  private List<Tuple> left;
+
+  private List<Tuple> right;
+
+  private KeyComparatorWrapper comparator;
+
+  @Setup
+  public void setup() {
+    int keys = Math.max(1, relationSize / 4);
+    left = BenchmarkData.keyedInts(relationSize, keys, VALUE_SIZE, 0);
+    right = BenchmarkData.keyedInts(relationSize, keys, VALUE_SIZE, 1);
+    comparator = new KeyComparatorWrapper(Comparator.comparingInt(k -> (Integer) k));
+  }
+
+  @Benchmark
+  public List<Object> hashInnerJoin() {
+    return HashJoinUtils.innerJoin(left, right, MessageTypes.INTEGER);
+  }
+
+  @Benchmark
+  public List<Object> hashLeftOuterJoin() {
+    return HashJoinUtils.leftOuterJoin(left, right, MessageTypes.INTEGER);
+  }
+
+  /**
+   * The sort join sorts the relations in place, so it works on copies which are part of the
+   * measured time
+   */
+  @Benchmark
+  public List<Object> sortInnerJoin() {
+    return SortJoinUtils.innerJoin(new ArrayList<>(left), new ArrayList<>(right), comparator);
+  }
+
+  @Benchmark
+  public List<Object> sortLeftOuterJoin() {
+    return SortJoinUtils.leftOuterJoin(new ArrayList<>(left), new ArrayList<>(right),
+        comparator);
+  }
+}
@@ -0,0 +1,187 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.benchmarks;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.iu.dsc.tws.api.comms.CommunicationContext;
+import edu.iu.dsc.tws.api.comms.DataFlowOperation;
+import edu.iu.dsc.tws.api.comms.LogicalPlan;
+import edu.iu.dsc.tws.api.comms.Op;
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageType;
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageTypes;
+import edu.iu.dsc.tws.api.comms.structs.Tuple;
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.comms.dfw.io.KeyedReceiver;
+import edu.iu.dsc.tws.comms.dfw.io.gather.keyed.KGatherBatchPartialReceiver;
+import edu.iu.dsc.tws.comms.dfw.io.reduce.keyed.KReduceBatchPartialReceiver;
+import edu.iu.dsc.tws.comms.functions.reduction.ReduceOperationFunction;
+
+/**
+ * Delivers keyed messages to the partial receivers of the keyed gather and the keyed reduce.
+ * A new receiver takes {@link #MESSAGES} messages in each invocation, so the time is reported
+ * per message and includes a share of creating the receiver.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeyedReceiverBenchmark {
+  private static final int MESSAGES = 10000;
+
+  private static final int SOURCE = 0;
+
+  private static final int TARGET = 1;
+
+  @Param({"10", "1000"})
+  private int distinctKeys;
+
+  @Param({"16"})
+  private int valueSize;
+
+  private Tuple[] messages;
+
+  private Config config;
+
+  private Map<Integer, List<Integer>> expectedIds;
+
+  private DataFlowOperation operation;
+
+  @Setup
+  public void setup() {
+    messages = BenchmarkData.keyedInts(MESSAGES, distinctKeys, valueSize, 0)
+        .toArray(new Tuple[0]);
+    // buffer every message, so none of them are rejected for a flush
+    config = Config.newBuilder()
+        .put(CommunicationContext.KEYED_BUFFER_KEYS, MESSAGES)
+        .put(CommunicationContext.KEYED_BUFFER_VALUES_PER_KEY, MESSAGES)
+        .build();
+    expectedIds = new HashMap<>();
+    expectedIds.put(TARGET, Collections.singletonList(SOURCE));
+    operation = new BenchmarkOperation(createPlan());
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(MESSAGES)
+  public KeyedReceiver gather() {
+    return deliver(new KGatherBatchPartialReceiver(TARGET, MESSAGES));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(MESSAGES)
+  public KeyedReceiver reduce() {
+    return deliver(new KReduceBatchPartialReceiver(TARGET,
+        new ReduceOperationFunction(Op.SUM, MessageTypes.INTEGER_ARRAY)));
+  }
+
+  private KeyedReceiver deliver(KeyedReceiver receiver) {
+    receiver.init(config, operation, expectedIds);
+    for (Tuple message : messages) {
+      if (!receiver.onMessage(SOURCE, 0, TARGET, 0, message)) {
+        throw new IllegalStateException("The receiver didn't accept the message");
+      }
+    }
+    return receiver;
+  }
+
+  private static LogicalPlan createPlan() {
+    Set<Integer> tasks = new HashSet<>(Arrays.asList(SOURCE, TARGET));
+    Map<Integer, Set<Integer>> workerToTasks = new HashMap<>();
+    workerToTasks.put(0, tasks);
+    Map<Integer, Set<Integer>> groups = new HashMap<>();
+    groups.put(0, Collections.singleton(0));
+    Map<String, Set<Integer>> nodeToTasks = new HashMap<>();
+    nodeToTasks.put("localhost", tasks);
+    return new LogicalPlan(workerToTasks, groups, nodeToTasks, 0);
+  }
+
+  /**
+   * The receivers only ask the operation for the plan and the key type
+   */
+  private static final class BenchmarkOperation implements DataFlowOperation {
+    private final LogicalPlan plan;
+
+    BenchmarkOperation(LogicalPlan plan) {
+      this.plan = plan;
+    }
+
+    @Override
+    public boolean sendPartial(int source, Object message, int flags) {
+      return true;
+    }
+
+    @Override
+    public boolean send(int source, Object message, int flags) {
+      return true;
+    }
+
+    @Override
+    public boolean send(int source, Object message, int flags, int target) {
+      return true;
+    }
+
+    @Override
+    public boolean sendPartial(int source, Object message, int flags, int target) {
+      return true;
+    }
+
+    @Override
+    public boolean progress() {
+      return false;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public void reset() {
+    }
+
+    @Override
+    public MessageType getKeyType() {
+      return MessageTypes.INTEGER;
+    }
+
+    @Override
+    public LogicalPlan getLogicalPlan() {
+      return plan;
+    }
+
+    @Override
+    public String getUniqueId() {
+      return "benchmark";
+    }
+  }
+}
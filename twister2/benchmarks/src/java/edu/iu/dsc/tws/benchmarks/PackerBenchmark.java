@@ -0,0 +1,153 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.iu.dsc.tws.api.comms.packing.DataPacker;
+import edu.iu.dsc.tws.api.comms.packing.types.ObjectPacker;
+import edu.iu.dsc.tws.api.comms.packing.types.primitive.DoubleArrayPacker;
+import edu.iu.dsc.tws.api.comms.packing.types.primitive.IntegerArrayPacker;
+import edu.iu.dsc.tws.api.comms.packing.types.primitive.LongArrayPacker;
+import edu.iu.dsc.tws.api.comms.packing.types.primitive.LongPacker;
+
+/**
+ * Packing and unpacking of the primitive packers and the object packer
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PackerBenchmark {
+
+  @Param({"16", "1024", "65536"})
+  private int size;
+
+  private int[] ints;
+
+  private long[] longs;
+
+  private double[] doubles;
+
+  private List<Integer> objects;
+
+  private ByteBuffer buffer;
+
+  private byte[] packedObject;
+
+  private int intsLength;
+
+  private int longsLength;
+
+  private int doublesLength;
+
+  @Setup
+  public void setup() {
+    ints = BenchmarkData.ints(size);
+    longs = BenchmarkData.longs(size);
+    doubles = BenchmarkData.doubles(size);
+    objects = new ArrayList<>(size);
+    for (int i : ints) {
+      objects.add(i);
+    }
+    intsLength = size * Integer.BYTES;
+    longsLength = size * Long.BYTES;
+    doublesLength = size * Double.BYTES;
+    packedObject = ObjectPacker.getInstance().packToByteArray(objects);
+    buffer = ByteBuffer.allocateDirect(Math.max(longsLength, packedObject.length));
+
+    IntegerArrayPacker.getInstance().packToByteBuffer(buffer, 0, ints);
+  }
+
+  @Benchmark
+  public ByteBuffer packIntArray() {
+    return IntegerArrayPacker.getInstance().packToByteBuffer(buffer, 0, ints);
+  }
+
+  /**
+   * The path taken by the serializers, which copies the array in bulk when possible
+   */
+  @Benchmark
+  public ByteBuffer writeIntArray() {
+    buffer.clear();
+    IntegerArrayPacker.getInstance().writeDataToBuffer(ints, null, 0, intsLength,
+        buffer.remaining(), buffer);
+    return buffer;
+  }
+
+  @Benchmark
+  public int[] unpackIntArray() {
+    // unpacking reads relative to the position
+    buffer.clear();
+    return IntegerArrayPacker.getInstance().unpackFromBuffer(buffer, 0, intsLength);
+  }
+
+  @Benchmark
+  public ByteBuffer writeLongArray() {
+    buffer.clear();
+    LongArrayPacker.getInstance().writeDataToBuffer(longs, null, 0, longsLength,
+        buffer.remaining(), buffer);
+    return buffer;
+  }
+
+  @Benchmark
+  public ByteBuffer writeDoubleArray() {
+    buffer.clear();
+    DoubleArrayPacker.getInstance().writeDataToBuffer(doubles, null, 0, doublesLength,
+        buffer.remaining(), buffer);
+    return buffer;
+  }
+
+  @Benchmark
+  public double[] packUnpackDoubleArray() {
+    DoubleArrayPacker packer = DoubleArrayPacker.getInstance();
+    buffer.clear();
+    packer.packToByteBuffer(buffer, 0, doubles);
+    return packer.unpackFromBuffer(buffer, 0, doublesLength);
+  }
+
+  @Benchmark
+  public Long packUnpackLong() {
+    LongPacker packer = LongPacker.getInstance();
+    buffer.clear();
+    packer.packToByteBuffer(buffer, 0, longs[0]);
+    return packer.unpackFromBuffer(buffer, 0, Long.BYTES);
+  }
+
+  @Benchmark
+  public byte[] packObject() {
+    return ObjectPacker.getInstance().packToByteArray(objects);
+  }
+
+  @Benchmark
+  public Object unpackObject() {
+    DataPacker<Object, byte[]> packer = ObjectPacker.getInstance();
+    return packer.unpackFromByteArray(packedObject);
+  }
+}
@@ -0,0 +1,135 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.iu.dsc.tws.api.comms.messaging.ChannelMessage;
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageType;
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageTypes;
+import edu.iu.dsc.tws.api.comms.packing.DataBuffer;
+import edu.iu.dsc.tws.api.comms.packing.MessageSerializer;
+import edu.iu.dsc.tws.api.comms.structs.Tuple;
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.comms.dfw.OutMessage;
+import edu.iu.dsc.tws.comms.dfw.io.AggregatedObjects;
+import edu.iu.dsc.tws.comms.dfw.io.DataSerializer;
+import edu.iu.dsc.tws.comms.dfw.io.KeyedDataSerializer;
+
+/**
+ * Serializes messages in to the data buffers the way the channel operations do. The buffers are
+ * returned to the pool after each message, so only the serialization is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializerBenchmark {
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private static final int NO_OF_BUFFERS = 64;
+
+  /**
+   * Number of tuples in a keyed list message
+   */
+  private static final int TUPLES_PER_MESSAGE = 1024;
+
+  @Param({"16", "1024", "65536"})
+  private int size;
+
+  private Queue<DataBuffer> buffers;
+
+  private DataSerializer dataSerializer;
+
+  private KeyedDataSerializer keyedSerializer;
+
+  private int[] values;
+
+  private Tuple<Integer, int[]> tuple;
+
+  private List<Tuple> tuples;
+
+  @Setup
+  public void setup() {
+    buffers = new ArrayDeque<>(NO_OF_BUFFERS);
+    for (int i = 0; i < NO_OF_BUFFERS; i++) {
+      buffers.offer(new DataBuffer(ByteBuffer.allocateDirect(BUFFER_SIZE)));
+    }
+    Config config = Config.newBuilder().build();
+    dataSerializer = new DataSerializer();
+    dataSerializer.init(config, buffers);
+    keyedSerializer = new KeyedDataSerializer();
+    keyedSerializer.init(config, buffers);
+
+    values = BenchmarkData.ints(size);
+    tuple = new Tuple<>(1, values);
+    tuples = new AggregatedObjects<>(BenchmarkData.keyedInts(TUPLES_PER_MESSAGE,
+        TUPLES_PER_MESSAGE, Math.max(1, size / TUPLES_PER_MESSAGE), 0));
+  }
+
+  @Benchmark
+  public int serializeIntArray() {
+    return serialize(dataSerializer, values, MessageTypes.INTEGER_ARRAY, null);
+  }
+
+  @Benchmark
+  public int serializeKeyed() {
+    return serialize(keyedSerializer, tuple, MessageTypes.INTEGER_ARRAY, MessageTypes.INTEGER);
+  }
+
+  @Benchmark
+  public int serializeKeyedList() {
+    return serialize(keyedSerializer, tuples, MessageTypes.INTEGER_ARRAY, MessageTypes.INTEGER);
+  }
+
+  /**
+   * Serialize the message and return the buffers to the pool
+   *
+   * @return number of buffers used
+   */
+  private int serialize(MessageSerializer serializer, Object data,
+                        MessageType dataType, MessageType keyType) {
+    OutMessage outMessage = new OutMessage(0, 1, -1, 10, 0, null,
+        null, dataType, keyType, null, data);
+    int noOfBuffers = 0;
+    while (outMessage.getSendState() != OutMessage.SendState.SERIALIZED) {
+      ChannelMessage message = serializer.build(data, outMessage);
+      if (message == null) {
+        throw new IllegalStateException("Not enough buffers to serialize the message");
+      }
+      for (DataBuffer buffer : message.getBuffers()) {
+        buffer.getByteBuffer().clear();
+        buffers.offer(buffer);
+        noOfBuffers++;
+      }
+    }
+    return noOfBuffers;
+  }
+}
@@ -0,0 +1,140 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageTypes;
+import edu.iu.dsc.tws.api.comms.packing.types.primitive.IntegerArrayPacker;
+import edu.iu.dsc.tws.api.comms.structs.Tuple;
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.api.util.CommonThreadPool;
+import edu.iu.dsc.tws.comms.shuffle.FSKeyedSortedMerger2;
+
+/**
+ * Adds packed records to the {@link FSKeyedSortedMerger2} and reads them back sorted. With
+ * spilling one quarter of the records are kept in memory and the rest are written to files.
+ * Adding alone is always measured in memory, the spilled files are written in the background
+ * and they are waited for only when switching to reading.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SortedMergerBenchmark {
+  private static final int VALUE_SIZE = 64;
+
+  /**
+   * Records added before the merger is asked to write to the disk
+   */
+  private static final int RECORDS_PER_RUN = 1000;
+
+  @Param({"10000", "100000"})
+  private int records;
+
+  @Param({"false", "true"})
+  private boolean spill;
+
+  private File folder;
+
+  private Integer[] keys;
+
+  private byte[][] values;
+
+  private long maxBytesInMemory;
+
+  @Setup
+  public void setup() throws IOException {
+    CommonThreadPool.init(Config.newBuilder().build());
+    folder = Files.createTempDirectory("twister2-bench").toFile();
+
+    List<Tuple> tuples = BenchmarkData.keyedInts(records, records / 10, VALUE_SIZE, 0);
+    keys = new Integer[records];
+    values = new byte[records][];
+    for (int i = 0; i < records; i++) {
+      keys[i] = (Integer) tuples.get(i).getKey();
+      values[i] = IntegerArrayPacker.getInstance().packToByteArray(
+          (int[]) tuples.get(i).getValue());
+    }
+
+    long totalBytes = (long) records * VALUE_SIZE * Integer.BYTES;
+    maxBytesInMemory = spill ? totalBytes / 4 : Long.MAX_VALUE;
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    FileUtils.deleteDirectory(folder);
+  }
+
+  @Benchmark
+  public FSKeyedSortedMerger2 add() {
+    FSKeyedSortedMerger2 merger = createMerger(Long.MAX_VALUE);
+    addRecords(merger);
+    merger.clean();
+    return merger;
+  }
+
+  @Benchmark
+  public void addAndSort(Blackhole blackhole) {
+    FSKeyedSortedMerger2 merger = createMerger(maxBytesInMemory);
+    addRecords(merger);
+    merger.switchToReading();
+
+    Iterator<Object> it = merger.readIterator();
+    while (it.hasNext()) {
+      Tuple tuple = (Tuple) it.next();
+      Iterator<?> valueIt = (Iterator<?>) tuple.getValue();
+      while (valueIt.hasNext()) {
+        blackhole.consume(valueIt.next());
+      }
+    }
+    merger.clean();
+  }
+
+  private FSKeyedSortedMerger2 createMerger(long bytesInMemory) {
+    return new FSKeyedSortedMerger2(bytesInMemory, bytesInMemory / 2,
+        folder.getAbsolutePath(), "bench", MessageTypes.INTEGER, MessageTypes.INTEGER_ARRAY,
+        Comparator.comparingInt(i -> (Integer) i), 0, true, 2);
+  }
+
+  private void addRecords(FSKeyedSortedMerger2 merger) {
+    for (int i = 0; i < records; i++) {
+      merger.add(keys[i], values[i], values[i].length);
+      if (spill && (i + 1) % RECORDS_PER_RUN == 0) {
+        merger.run();
+      }
+    }
+  }
+}
@@ -0,0 +1,73 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.checkpointing.api;
+
+import edu.iu.dsc.tws.api.checkpointing.Snapshot;
+
+/**
+ * A version of a snapshot packed for persisting, either a full snapshot or a delta on top of
+ * its base version
+ */
+public final class CapturedSnapshot {
+  private final long version;
+
+  private final long baseVersion;
+
+  private final byte[] bytes;
+
+  private final boolean compact;
+
+  private final Snapshot persisted;
+
+  CapturedSnapshot(long version, long baseVersion, byte[] bytes, boolean compact,
+                   Snapshot persisted) {
+    this.version = version;
+    this.baseVersion = baseVersion;
+    this.bytes = bytes;
+    this.compact = compact;
+    this.persisted = persisted;
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * The version this delta is based on, 0 for a full snapshot
+   */
+  public long getBaseVersion() {
+    return baseVersion;
+  }
+
+  public boolean isDelta() {
+    return baseVersion != 0;
+  }
+
+  public byte[] getBytes() {
+    return bytes;
+  }
+
+  /**
+   * Weather the delta chain should be merged in to a full snapshot before persisting
+   */
+  public boolean isCompact() {
+    return compact;
+  }
+
+  /**
+   * A read only copy of the captured version, the task may have changed the live snapshot by
+   * the time this version is persisted
+   */
+  public Snapshot getSnapshot() {
+    return persisted;
+  }
+}
@@ -0,0 +1,75 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.checkpointing.api;
+
+import java.util.Map;
+
+import edu.iu.dsc.tws.api.checkpointing.Snapshot;
+import edu.iu.dsc.tws.api.comms.packing.DataPacker;
+import edu.iu.dsc.tws.api.comms.packing.types.ObjectPacker;
+
+/**
+ * A read only copy of a captured version of a snapshot. The mutable values are kept as they
+ * were packed at the capture and are unpacked when they are accessed.
+ */
+final class PersistedSnapshot implements Snapshot {
+  private final long version;
+
+  private final Map<String, DataPacker> packers;
+
+  private final Map<String, Object> values;
+
+  private final Map<String, byte[]> packedValues;
+
+  PersistedSnapshot(long version, Map<String, DataPacker> packers,
+                    Map<String, Object> values, Map<String, byte[]> packedValues) {
+    this.version = version;
+    this.packers = packers;
+    this.values = values;
+    this.packedValues = packedValues;
+  }
+
+  @Override
+  public void setPacker(String key, DataPacker dataPacker) {
+    throw new RuntimeException("A persisted snapshot can not be modified");
+  }
+
+  @Override
+  public void setValue(String key, Object value) {
+    throw new RuntimeException("A persisted snapshot can not be modified");
+  }
+
+  @Override
+  public Object getOrDefault(String key, Object defaultValue) {
+    return checkpointAvailable(key) ? get(key) : defaultValue;
+  }
+
+  @Override
+  public Object get(String key) {
+    byte[] packed = packedValues.remove(key);
+    if (packed != null) {
+      values.put(key, packers.getOrDefault(key, ObjectPacker.getInstance())
+          .unpackFromByteArray(packed));
+    }
+    return values.get(key);
+  }
+
+  @Override
+  public long getVersion() {
+    return version;
+  }
+
+  @Override
+  public boolean checkpointAvailable(String key) {
+    return values.containsKey(key) || packedValues.containsKey(key);
+  }
+}
@@ -12,10 +12,16 @@
 
 package edu.iu.dsc.tws.checkpointing.api;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.nio.ByteBuffer;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 import edu.iu.dsc.tws.api.checkpointing.Snapshot;
 import edu.iu.dsc.tws.api.comms.packing.DataPacker;
@@ -26,13 +32,47 @@ import edu.iu.dsc.tws.api.comms.packing.types.StringPacker;
  * This class implements {@link Snapshot} and will have some additional methods to
  * manipulate version and pack and unpack snapshot.User interfacing methods should always
  * accept {@link Snapshot} interface which doesn't contain those additional methods.
+ * <p>
+ * A snapshot can be persisted as a delta, which only has the values set after the previous
+ * capture along with the version it is based on. A delta starts with {@link #DELTA_MARKER},
+ * a full snapshot starts with its version.
+ * <p>
+ * Immutable values (strings, boxed primitives and enums) are in a delta only when they are set
+ * after the previous capture. Any other value can be mutated in place without calling
+ * {@link #setValue(String, Object)}, so it is packed at every capture and is in the delta when
+ * its packed bytes differ from the previous capture.
  */
 public class SnapshotImpl implements Snapshot {
 
+  /**
+   * First long of a delta, versions are never negative
+   */
+  private static final long DELTA_MARKER = -1L;
+
   private long version = 0L;
   private Map<String, Object> values = new HashMap<>();
   private Map<String, DataPacker> packers = new HashMap<>();
 
+  /**
+   * Keys set after the last capture
+   */
+  private Set<String> changedKeys = new HashSet<>();
+
+  /**
+   * The last captured or restored version, 0 if there is none
+   */
+  private long baseVersion = 0L;
+
+  /**
+   * Hash and length of the packed bytes of the mutable values at the last capture
+   */
+  private Map<String, long[]> packedHashes = new HashMap<>();
+
+  /**
+   * Number of deltas on top of the last full snapshot
+   */
+  private int deltaChainLength = 0;
+
   private String prefix;
 
   public SnapshotImpl() {
@@ -62,6 +102,7 @@ public class SnapshotImpl implements Snapshot {
   @Override
   public void setValue(String key, Object value) {
     this.values.put(key, value);
+    this.changedKeys.add(key);
 /*
     this.values.put(appendPrefix(key), value);
 */
@@ -93,33 +134,193 @@ public class SnapshotImpl implements Snapshot {
 
   public byte[] pack() {
     Map<String, byte[]> packedValues = new HashMap<>();
-    Map<String, byte[]> packedKeys = new HashMap<>();
-    int totalLength = 0;
     for (String key : values.keySet()) {
       DataPacker packer = packers.getOrDefault(key, ObjectPacker.getInstance());
-      byte[] dataBytes = packer.packToByteArray(values.get(key));
-      byte[] keyBytes = StringPacker.getInstance().packToByteArray(key);
-      packedValues.put(key, dataBytes);
-      packedKeys.put(key, keyBytes);
-      totalLength += dataBytes.length + keyBytes.length + (2 * Integer.BYTES);
+      packedValues.put(key, packer.packToByteArray(values.get(key)));
     }
-    ByteBuffer byteBuffer = ByteBuffer.allocate(totalLength + Long.BYTES);
-    byteBuffer.putLong(this.version);
-    for (String key : values.keySet()) {
-      byte[] keyBytes = packedKeys.get(key);
+    return packEntries(packedValues, Long.BYTES).putLong(0, this.version).array();
+  }
+
+  /**
+   * Capture the current version to persist it. Only the values changed after the previous
+   * capture are packed in to the delta, unless this is the first capture or the chain of deltas
+   * reached the compaction interval. The values are packed by the calling thread, so they can be
+   * modified as soon as this returns.
+   *
+   * @param compactionInterval a full snapshot is written after this many deltas
+   * @return the captured snapshot
+   */
+  public CapturedSnapshot capture(int compactionInterval) {
+    boolean full = baseVersion == 0;
+    Map<String, byte[]> packedValues = new HashMap<>();
+    // a copy of the captured version for the task, the mutable values are kept packed
+    Map<String, Object> immutableValues = new HashMap<>();
+    Map<String, byte[]> mutableValues = new HashMap<>();
+    for (Map.Entry<String, Object> e : values.entrySet()) {
+      String key = e.getKey();
+      Object value = e.getValue();
+      boolean changed = full || changedKeys.contains(key);
+      if (isImmutable(value)) {
+        immutableValues.put(key, value);
+        packedHashes.remove(key);
+        if (changed) {
+          packedValues.put(key, getPacker(key).packToByteArray(value));
+        }
+        continue;
+      }
+
+      byte[] packed = getPacker(key).packToByteArray(value);
+      mutableValues.put(key, packed);
+      long[] hash = {hash(packed), packed.length};
+      long[] previous = packedHashes.put(key, hash);
+      // values mutated in place are found by comparing the packed bytes
+      if (changed || previous == null || previous[0] != hash[0] || previous[1] != hash[1]) {
+        packedValues.put(key, packed);
+      }
+    }
+
+    CapturedSnapshot captured;
+    PersistedSnapshot persisted = new PersistedSnapshot(version, new HashMap<>(packers),
+        immutableValues, mutableValues);
+    if (full) {
+      byte[] bytes = packEntries(packedValues, Long.BYTES).putLong(0, this.version).array();
+      captured = new CapturedSnapshot(version, 0, bytes, false, persisted);
+      deltaChainLength = 0;
+    } else {
+      ByteBuffer delta = packEntries(packedValues, 3 * Long.BYTES);
+      delta.putLong(0, DELTA_MARKER).putLong(Long.BYTES, version)
+          .putLong(2 * Long.BYTES, baseVersion);
+
+      // the delta chain is compacted in to a full snapshot when it is persisted
+      boolean compact = ++deltaChainLength >= compactionInterval;
+      if (compact) {
+        deltaChainLength = 0;
+      }
+      captured = new CapturedSnapshot(version, baseVersion, delta.array(), compact, persisted);
+    }
+    changedKeys.clear();
+    baseVersion = version;
+    return captured;
+  }
+
+  private DataPacker getPacker(String key) {
+    return packers.getOrDefault(key, ObjectPacker.getInstance());
+  }
+
+  /**
+   * Weather the value can only change through {@link #setValue(String, Object)}
+   */
+  private static boolean isImmutable(Object value) {
+    return value == null || value instanceof String || value instanceof Integer
+        || value instanceof Long || value instanceof Double || value instanceof Float
+        || value instanceof Short || value instanceof Byte || value instanceof Character
+        || value instanceof Boolean || value instanceof BigInteger || value instanceof BigDecimal
+        || value instanceof Enum;
+  }
+
+  /**
+   * 64 bit FNV-1a hash of the packed bytes
+   */
+  private static long hash(byte[] bytes) {
+    long h = 0xcbf29ce484222325L;
+    for (byte b : bytes) {
+      h ^= b & 0xff;
+      h *= 0x100000001b3L;
+    }
+    return h;
+  }
+
+  /**
+   * Merge a chain of snapshots starting with a full snapshot and followed by the deltas on top
+   * of it, in to a single full snapshot of the last version
+   *
+   * @param chain the full snapshot and its deltas in order
+   * @return the full snapshot
+   */
+  public static byte[] compact(List<byte[]> chain) {
+    Map<String, byte[]> merged = new LinkedHashMap<>();
+    long lastVersion = 0;
+    for (byte[] bytes : chain) {
+      ByteBuffer wrapped = ByteBuffer.wrap(bytes);
+      lastVersion = readHeader(wrapped);
+      while (wrapped.position() < bytes.length) {
+        byte[] keyBytes = new byte[wrapped.getInt()];
+        wrapped.get(keyBytes);
+        byte[] valueBytes = new byte[wrapped.getInt()];
+        wrapped.get(valueBytes);
+        merged.put(StringPacker.getInstance().unpackFromByteArray(keyBytes), valueBytes);
+      }
+    }
+    return packEntries(merged, Long.BYTES).putLong(0, lastVersion).array();
+  }
+
+  /**
+   * Weather the persisted bytes are a delta
+   */
+  public static boolean isDelta(byte[] bytes) {
+    return bytes.length >= Long.BYTES && ByteBuffer.wrap(bytes).getLong(0) == DELTA_MARKER;
+  }
+
+  /**
+   * The version a delta is based on
+   */
+  public static long getBaseVersion(byte[] delta) {
+    return ByteBuffer.wrap(delta).getLong(2 * Long.BYTES);
+  }
+
+  private static ByteBuffer packEntries(Map<String, byte[]> packedValues, int headerLength) {
+    Map<String, byte[]> packedKeys = new HashMap<>();
+    int totalLength = 0;
+    for (Map.Entry<String, byte[]> e : packedValues.entrySet()) {
+      byte[] keyBytes = StringPacker.getInstance().packToByteArray(e.getKey());
+      packedKeys.put(e.getKey(), keyBytes);
+      totalLength += e.getValue().length + keyBytes.length + (2 * Integer.BYTES);
+    }
+    ByteBuffer byteBuffer = ByteBuffer.allocate(totalLength + headerLength);
+    byteBuffer.position(headerLength);
+    for (Map.Entry<String, byte[]> e : packedValues.entrySet()) {
+      byte[] keyBytes = packedKeys.get(e.getKey());
       byteBuffer.putInt(keyBytes.length);
       byteBuffer.put(keyBytes);
 
-      byte[] dataBytes = packedValues.get(key);
+      byte[] dataBytes = e.getValue();
       byteBuffer.putInt(dataBytes.length);
       byteBuffer.put(dataBytes);
     }
-    return byteBuffer.array();
+    return byteBuffer;
   }
 
+  /**
+   * Read the header of a full snapshot or a delta
+   *
+   * @return the version
+   */
+  private static long readHeader(ByteBuffer wrapped) {
+    long first = wrapped.getLong();
+    if (first != DELTA_MARKER) {
+      return first;
+    }
+    long deltaVersion = wrapped.getLong();
+    // skip the base version
+    wrapped.getLong();
+    return deltaVersion;
+  }
+
+  /**
+   * Unpack a full snapshot or a delta. When restoring from a delta, the snapshots it is based
+   * on should be unpacked first.
+   *
+   * @param bytes the persisted bytes
+   */
   public void unpack(byte[] bytes) {
     ByteBuffer wrapped = ByteBuffer.wrap(bytes);
-    this.setVersion(wrapped.getLong());
+    if (isDelta(bytes)) {
+      deltaChainLength++;
+    } else {
+      deltaChainLength = 0;
+    }
+    this.setVersion(readHeader(wrapped));
+    this.baseVersion = this.version;
     while (wrapped.position() < bytes.length) {
       int keyLength = wrapped.getInt();
       byte[] keyBytes = new byte[keyLength];
@@ -158,6 +359,10 @@ public class SnapshotImpl implements Snapshot {
     copy.packers = this.packers;
     copy.values = new HashMap<>(this.values);
     copy.version = this.version;
+    copy.changedKeys = new HashSet<>(this.changedKeys);
+    copy.packedHashes = new HashMap<>(this.packedHashes);
+    copy.baseVersion = this.baseVersion;
+    copy.deltaChainLength = this.deltaChainLength;
 
     this.values.clear();
     return copy;
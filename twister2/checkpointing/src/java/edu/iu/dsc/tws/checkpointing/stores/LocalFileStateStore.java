@@ -102,7 +102,8 @@ public class LocalFileStateStore implements StateStore {
   @Override
   public void put(String key, byte[] data) throws IOException {
     FileChannel fileChannel = this.getChannelForKey(key,
-        StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING);
     fileChannel.write(ByteBuffer.wrap(data));
     fileChannel.close();
   }
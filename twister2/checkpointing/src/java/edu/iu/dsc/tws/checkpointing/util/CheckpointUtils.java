@@ -12,11 +12,18 @@
 package edu.iu.dsc.tws.checkpointing.util;
 
 import java.io.IOException;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import edu.iu.dsc.tws.api.checkpointing.CheckpointingClient;
+import edu.iu.dsc.tws.api.checkpointing.Snapshot;
 import edu.iu.dsc.tws.api.checkpointing.StateStore;
 import edu.iu.dsc.tws.api.config.Config;
 import edu.iu.dsc.tws.api.net.request.MessageHandler;
+import edu.iu.dsc.tws.checkpointing.api.CapturedSnapshot;
 import edu.iu.dsc.tws.checkpointing.api.SnapshotImpl;
 
 public final class CheckpointUtils {
@@ -24,6 +31,16 @@ public final class CheckpointUtils {
   private static final String JOB_CONFIG_STATE_PREFIX = "JOB_CONFIG_";
   private static final String JOB_META_STATE_PREFIX = "JOB_META_";
 
+  /**
+   * Writes the snapshots in the background. A single thread keeps the snapshots in the order
+   * they were captured, so a delta is never persisted before the version it is based on.
+   */
+  private static final ExecutorService SNAPSHOT_WRITER = Executors.newSingleThreadExecutor(r -> {
+    Thread t = new Thread(r, "snapshot-writer");
+    t.setDaemon(true);
+    return t;
+  });
+
   private CheckpointUtils() {
   }
 
@@ -46,17 +63,80 @@ public final class CheckpointUtils {
     stateStore.put(Long.toString(snapshot.getVersion()), snapshot.pack());
   }
 
+  /**
+   * Capture the changes of the snapshot and persist them. The values are packed by the calling
+   * thread and written by a background thread when asynchronous snapshots are enabled.
+   *
+   * @param stateStore the store
+   * @param snapshot the snapshot
+   * @param config the configuration
+   * @return completes with a read only copy of the version when it is persisted
+   */
+  public static CompletableFuture<Snapshot> saveStateAsync(StateStore stateStore,
+                                                           SnapshotImpl snapshot,
+                                                           Config config) {
+    CapturedSnapshot captured = snapshot.capture(
+        CheckpointingContext.getCompactionInterval(config));
+    if (!CheckpointingContext.isAsyncSnapshots(config)) {
+      CompletableFuture<Snapshot> future = new CompletableFuture<>();
+      try {
+        writeCaptured(stateStore, captured);
+        future.complete(captured.getSnapshot());
+      } catch (IOException e) {
+        future.completeExceptionally(e);
+      }
+      return future;
+    }
+
+    return CompletableFuture.supplyAsync(() -> {
+      try {
+        writeCaptured(stateStore, captured);
+      } catch (IOException e) {
+        throw new RuntimeException("Failed to write the version " + captured.getVersion(), e);
+      }
+      return captured.getSnapshot();
+    }, SNAPSHOT_WRITER);
+  }
+
+  private static void writeCaptured(StateStore stateStore,
+                                    CapturedSnapshot captured) throws IOException {
+    byte[] bytes = captured.getBytes();
+    if (captured.isCompact()) {
+      List<byte[]> chain = readChain(stateStore, captured.getBaseVersion());
+      chain.add(bytes);
+      bytes = SnapshotImpl.compact(chain);
+    }
+    stateStore.put(Long.toString(captured.getVersion()), bytes);
+  }
+
+  /**
+   * Read the full snapshot the version is based on followed by the deltas up to the version
+   */
+  private static List<byte[]> readChain(StateStore stateStore, long version) throws IOException {
+    LinkedList<byte[]> chain = new LinkedList<>();
+    long current = version;
+    while (true) {
+      byte[] stateBytes = stateStore.get(Long.toString(current));
+      if (stateBytes == null) {
+        throw new RuntimeException("Couldn't find version " + current + " in store");
+      }
+      chain.addFirst(stateBytes);
+      if (!SnapshotImpl.isDelta(stateBytes)) {
+        return chain;
+      }
+      current = SnapshotImpl.getBaseVersion(stateBytes);
+    }
+  }
+
   public static void restoreSnapshot(StateStore stateStore,
                                      Long version,
                                      SnapshotImpl snapshot) throws IOException {
     if (version == 0) {
       return;
     }
-    byte[] stateBytes = stateStore.get(version.toString());
-    if (stateBytes == null) {
-      throw new RuntimeException("Couldn't find version " + version + " in store");
+    for (byte[] stateBytes : readChain(stateStore, version)) {
+      snapshot.unpack(stateBytes);
     }
-    snapshot.unpack(stateBytes);
   }
 
   public static StateStore getStateStore(Config config) {
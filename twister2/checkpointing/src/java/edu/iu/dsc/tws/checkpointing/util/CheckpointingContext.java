@@ -31,6 +31,10 @@ public final class CheckpointingContext {
 
   public static final String CHECKPOINTING_RESTORE_JOB = "twister2.checkpointing.restore.job";
 
+  public static final String CHECKPOINTING_ASYNC = "twister2.checkpointing.async";
+  public static final String CHECKPOINTING_COMPACTION_INTERVAL
+      = "twister2.checkpointing.compaction.interval";
+
   private CheckpointingContext() {
   }
 
@@ -69,6 +73,14 @@ public final class CheckpointingContext {
     return 1000L * config.getIntegerValue(REQUEST_TIMEOUT, REQUEST_TIMEOUT_DEFAULT);
   }
 
+  public static boolean isAsyncSnapshots(Config config) {
+    return config.getBooleanValue(CHECKPOINTING_ASYNC, true);
+  }
+
+  public static int getCompactionInterval(Config config) {
+    return config.getIntegerValue(CHECKPOINTING_COMPACTION_INTERVAL, 10);
+  }
+
   //todo: can checkpointing data be saved to nfs even above parameter is LocalFileStateStore
   public static boolean isNfsUsed(Config config) {
     return "edu.iu.dsc.tws.checkpointing.stores.LocalFileStateStore"
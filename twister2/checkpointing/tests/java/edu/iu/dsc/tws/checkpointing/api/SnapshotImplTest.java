@@ -0,0 +1,212 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.checkpointing.api;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import edu.iu.dsc.tws.api.checkpointing.Snapshot;
+import edu.iu.dsc.tws.api.checkpointing.StateStore;
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.checkpointing.util.CheckpointUtils;
+import edu.iu.dsc.tws.checkpointing.util.CheckpointingContext;
+
+public class SnapshotImplTest {
+
+  @Test
+  public void testDeltaCapture() {
+    SnapshotImpl snapshot = new SnapshotImpl();
+    snapshot.setValue("count", 1);
+    snapshot.setValue("name", "first");
+    snapshot.setValue("list", new ArrayList<>(Arrays.asList(1, 2)));
+    snapshot.setVersion(1);
+
+    CapturedSnapshot full = snapshot.capture(10);
+    Assert.assertFalse(full.isDelta());
+    Assert.assertEquals(3, keys(full).size());
+
+    // nothing changed
+    snapshot.setVersion(2);
+    CapturedSnapshot empty = snapshot.capture(10);
+    Assert.assertTrue(empty.isDelta());
+    Assert.assertEquals(1, empty.getBaseVersion());
+    Assert.assertTrue(keys(empty).isEmpty());
+
+    // only the value that is set again
+    snapshot.setValue("count", 2);
+    snapshot.setVersion(3);
+    CapturedSnapshot delta = snapshot.capture(10);
+    Assert.assertEquals(2, delta.getBaseVersion());
+    Assert.assertEquals(Arrays.asList("count"), keys(delta));
+  }
+
+  @Test
+  public void testMutatedInPlace() {
+    SnapshotImpl snapshot = new SnapshotImpl();
+    List<Integer> list = new ArrayList<>(Arrays.asList(1, 2));
+    Map<String, Integer> map = new HashMap<>();
+    snapshot.setValue("list", list);
+    snapshot.setValue("map", map);
+    snapshot.setVersion(1);
+    snapshot.capture(10);
+
+    // mutated without calling setValue
+    list.add(3);
+    snapshot.setVersion(2);
+    CapturedSnapshot delta = snapshot.capture(10);
+    Assert.assertEquals(Arrays.asList("list"), keys(delta));
+
+    SnapshotImpl read = new SnapshotImpl();
+    read.unpack(delta.getBytes());
+    Assert.assertEquals(Arrays.asList(1, 2, 3), read.get("list"));
+
+    map.put("a", 1);
+    snapshot.setVersion(3);
+    Assert.assertEquals(Arrays.asList("map"), keys(snapshot.capture(10)));
+  }
+
+  @Test
+  public void testPersistedCopy() {
+    SnapshotImpl snapshot = new SnapshotImpl();
+    List<Integer> list = new ArrayList<>(Arrays.asList(1, 2));
+    snapshot.setValue("list", list);
+    snapshot.setValue("count", 5);
+    snapshot.setVersion(1);
+    Snapshot persisted = snapshot.capture(10).getSnapshot();
+
+    // changes after the capture are not in the copy
+    list.add(3);
+    snapshot.setValue("count", 6);
+    snapshot.setValue("other", "x");
+    snapshot.setVersion(2);
+
+    Assert.assertEquals(1, persisted.getVersion());
+    Assert.assertEquals(Arrays.asList(1, 2), persisted.get("list"));
+    Assert.assertEquals(5, persisted.get("count"));
+    Assert.assertFalse(persisted.checkpointAvailable("other"));
+    Assert.assertEquals("d", persisted.getOrDefault("other", "d"));
+  }
+
+  @Test
+  public void testCompactionAndRestore() throws Exception {
+    MemoryStateStore store = new MemoryStateStore();
+    Config config = Config.newBuilder()
+        .put(CheckpointingContext.CHECKPOINTING_ASYNC, false)
+        .put(CheckpointingContext.CHECKPOINTING_COMPACTION_INTERVAL, 3)
+        .build();
+
+    SnapshotImpl snapshot = new SnapshotImpl();
+    List<Integer> list = new ArrayList<>();
+    snapshot.setValue("list", list);
+    for (int v = 1; v <= 8; v++) {
+      snapshot.setValue("count", v);
+      if (v % 2 == 0) {
+        snapshot.setValue("key-" + v, "value-" + v);
+      }
+      list.add(v);
+      snapshot.setVersion(v);
+      CompletableFuture<Snapshot> persisted = CheckpointUtils.saveStateAsync(store, snapshot,
+          config);
+      Assert.assertEquals(v, persisted.get().getVersion());
+    }
+
+    // 1 is full, 2 and 3 are deltas, 4 is compacted and so on
+    boolean[] full = {true, false, false, true, false, false, true, false};
+    for (int v = 1; v <= 8; v++) {
+      Assert.assertEquals("Version " + v, !full[v - 1],
+          SnapshotImpl.isDelta(store.get(Long.toString(v))));
+    }
+
+    for (int v = 1; v <= 8; v++) {
+      SnapshotImpl restored = new SnapshotImpl();
+      CheckpointUtils.restoreSnapshot(store, (long) v, restored);
+      Assert.assertEquals(v, restored.getVersion());
+      Assert.assertEquals(v, restored.get("count"));
+      List<Integer> expected = new ArrayList<>();
+      for (int i = 1; i <= v; i++) {
+        expected.add(i);
+        Assert.assertEquals(i % 2 == 0 && i <= v, restored.checkpointAvailable("key-" + i));
+      }
+      Assert.assertEquals(expected, restored.get("list"));
+    }
+
+    // a restored snapshot continues the chain with deltas
+    SnapshotImpl restored = new SnapshotImpl();
+    CheckpointUtils.restoreSnapshot(store, 8L, restored);
+    restored.setValue("count", 9);
+    restored.setVersion(9);
+    CheckpointUtils.saveStateAsync(store, restored, config).get();
+    Assert.assertTrue(SnapshotImpl.isDelta(store.get("9")));
+    Assert.assertEquals(8, SnapshotImpl.getBaseVersion(store.get("9")));
+
+    SnapshotImpl last = new SnapshotImpl();
+    CheckpointUtils.restoreSnapshot(store, 9L, last);
+    Assert.assertEquals(9, last.get("count"));
+    Assert.assertEquals(8, ((List) last.get("list")).size());
+  }
+
+  @Test(expected = RuntimeException.class)
+  public void testMissingBase() throws Exception {
+    MemoryStateStore store = new MemoryStateStore();
+    SnapshotImpl snapshot = new SnapshotImpl();
+    snapshot.setValue("count", 1);
+    snapshot.setVersion(1);
+    snapshot.capture(10);
+    snapshot.setValue("count", 2);
+    snapshot.setVersion(2);
+    store.put("2", snapshot.capture(10).getBytes());
+
+    CheckpointUtils.restoreSnapshot(store, 2L, new SnapshotImpl());
+  }
+
+  private static List<String> keys(CapturedSnapshot captured) {
+    SnapshotImpl read = new SnapshotImpl();
+    read.unpack(captured.getBytes());
+    List<String> keys = new ArrayList<>();
+    for (String key : Arrays.asList("count", "name", "list", "map")) {
+      if (read.checkpointAvailable(key)) {
+        keys.add(key);
+      }
+    }
+    return keys;
+  }
+
+  private static final class MemoryStateStore implements StateStore {
+    private final Map<String, byte[]> values = new HashMap<>();
+
+    @Override
+    public void init(Config config, String... path) {
+    }
+
+    @Override
+    public void put(String key, byte[] data) {
+      values.put(key, data);
+    }
+
+    @Override
+    public byte[] get(String key) {
+      return values.get(key);
+    }
+
+    @Override
+    public boolean contains(String key) {
+      return values.containsKey(key);
+    }
+  }
+}
@@ -16,6 +16,7 @@ import java.nio.ByteBuffer;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.SocketChannel;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
@@ -42,7 +43,30 @@ public abstract class BaseNetworkChannel {
 
   protected ByteBuffer readHeader;
 
-  protected ByteBuffer writeHeader;
+  /**
+   * The body being read followed by the header of the next message
+   */
+  private final ByteBuffer[] readVector;
+
+  /**
+   * Headers of the messages in the batch being written
+   */
+  private final ByteBuffer[] writeHeaders;
+
+  /**
+   * Header and body buffers of the batch being written, in the order they are sent
+   */
+  private final ByteBuffer[] writeVector;
+
+  /**
+   * Number of buffers in the batch being written
+   */
+  private int writeCount;
+
+  /**
+   * The first buffer of the batch that is not fully written yet
+   */
+  private int writeOffset;
 
   protected TCPMessage readingRequest;
 
@@ -52,10 +76,14 @@ public abstract class BaseNetworkChannel {
 
   protected DataStatus readStatus;
 
-  protected DataStatus writeStatus;
-
   protected ChannelHandler channelHandler;
 
+  /**
+   * Weather reading stops while a message waits for a receive buffer, only the connections
+   * moved to a dedicated I/O thread do this
+   */
+  protected boolean pauseReadsWithoutBuffer;
+
   // header size of each message, we use edge and length as the header
   private static final int HEADER_SIZE = 8;
 
@@ -70,10 +98,17 @@ public abstract class BaseNetworkChannel {
     pendingReceives = new HashMap<>();
 
     readHeader = ByteBuffer.allocate(HEADER_SIZE);
-    writeHeader = ByteBuffer.allocate(HEADER_SIZE);
+    readVector = new ByteBuffer[2];
+
+    // a message takes two buffers, the header and the body
+    int messagesPerWrite = Math.max(1, TCPContext.getMaxWriteIov(cfg) / 2);
+    writeVector = new ByteBuffer[messagesPerWrite * 2];
+    writeHeaders = new ByteBuffer[messagesPerWrite];
+    for (int i = 0; i < messagesPerWrite; i++) {
+      writeHeaders[i] = ByteBuffer.allocate(HEADER_SIZE);
+    }
 
     this.readStatus = DataStatus.INIT;
-    this.writeStatus = DataStatus.INIT;
   }
 
   public void read() {
@@ -115,81 +150,79 @@ public abstract class BaseNetworkChannel {
 
   public void write() {
     while (pendingSends.size() > 0) {
-      TCPMessage writeRequest = pendingSends.peek();
-      if (writeRequest == null) {
-        break;
-      }
-
-      int writeState = writeRequest(socketChannel, writeRequest);
+      int writeState = writeBatch();
       if (writeState > 0) {
         break;
       } else if (writeState < 0) {
-        LOG.severe("Something bad happened while writing to channel");
-        writeRequest.setError();
-        selectHandler.handleError(socketChannel);
         return;
-      } else {
-        // remove the request
-        pendingSends.poll();
-        writeRequest.setComplete();
-        // notify the handler
-        channelHandler.onSendComplete(socketChannel, writeRequest);
-        if (pendingSends.size() == 0) {
-          disableWriting();
-        }
       }
     }
 
-  }
-
-  private int writeRequest(SocketChannel channel, TCPMessage message) {
-    ByteBuffer buffer = message.getByteBuffer();
-    int written = 0;
-    if (writeStatus == DataStatus.INIT) {
-      // lets flip the buffer
-      writeHeader.clear();
-      writeStatus = DataStatus.HEADER;
-
-      writeHeader.putInt(message.getLength());
-      writeHeader.putInt(message.getEdge());
-      writeHeader.flip();
+    if (pendingSends.size() == 0 && writeCount == 0) {
+      disableWriting();
     }
+  }
 
-    if (writeStatus == DataStatus.HEADER) {
-      written = writeToChannel(channel, writeHeader);
-      if (written < 0) {
-        return written;
-      } else if (written == 0) {
-        writeStatus = DataStatus.BODY;
+  /**
+   * Write the headers and bodies of the queued messages with a single gathering write. A batch
+   * is kept until all its buffers are written, the messages are completed and removed from the
+   * queue as soon as their bodies are written.
+   *
+   * @return 0 if the batch is written fully, a positive value if the channel couldn't take all
+   * of it and a negative value on errors
+   */
+  private int writeBatch() {
+    if (writeCount == 0) {
+      Iterator<TCPMessage> itr = pendingSends.iterator();
+      while (itr.hasNext() && writeCount < writeVector.length) {
+        TCPMessage message = itr.next();
+        ByteBuffer header = writeHeaders[writeCount / 2];
+        header.clear();
+        header.putInt(message.getLength());
+        header.putInt(message.getEdge());
+        header.flip();
+
+        writeVector[writeCount++] = header;
+        writeVector[writeCount++] = message.getByteBuffer();
       }
-    }
-
-    if (writeStatus == DataStatus.BODY) {
-      written = writeToChannel(channel, buffer);
-      if (written < 0) {
-        return written;
-      } else if (written == 0) {
-        LOG.finest(String.format("WRITE BODY %d", buffer.limit()));
-        writeStatus = DataStatus.INIT;
-        return written;
+      writeOffset = 0;
+      if (writeCount == 0) {
+        return 0;
       }
     }
 
-    return written;
-  }
-
-  private int writeToChannel(SocketChannel channel, ByteBuffer buffer) {
-    int remaining = buffer.remaining();
-    assert remaining > 0;
-    int wrote;
     try {
-      wrote = channel.write(buffer);
+      long wrote = socketChannel.write(writeVector, writeOffset, writeCount - writeOffset);
       LOG.finest("Wrote " + wrote);
     } catch (IOException e) {
       LOG.log(Level.SEVERE, "Error writing to channel ", e);
+      TCPMessage writeRequest = pendingSends.peek();
+      if (writeRequest != null) {
+        writeRequest.setError();
+      }
+      selectHandler.handleError(socketChannel);
       return -1;
     }
-    return remaining - wrote;
+
+    while (writeOffset < writeCount && !writeVector[writeOffset].hasRemaining()) {
+      // odd positions hold the bodies
+      if (writeOffset % 2 == 1) {
+        TCPMessage writeRequest = pendingSends.poll();
+        LOG.finest(String.format("WRITE BODY %d", writeVector[writeOffset].limit()));
+        writeRequest.setComplete();
+        // notify the handler
+        channelHandler.onSendComplete(socketChannel, writeRequest);
+      }
+      writeVector[writeOffset] = null;
+      writeOffset++;
+    }
+
+    if (writeOffset == writeCount) {
+      writeCount = 0;
+      writeOffset = 0;
+      return 0;
+    }
+    return writeCount - writeOffset;
   }
 
   int readFromChannel(SocketChannel channel, ByteBuffer buffer) {
@@ -212,9 +245,50 @@ public abstract class BaseNetworkChannel {
     }
   }
 
+  /**
+   * Read the body of the current message and the header of the next one with a single
+   * scattering read, so a stream of small messages doesn't need a separate read for each
+   * header. The read header should be cleared before the body is read.
+   *
+   * @param channel channel
+   * @param body the body buffer
+   * @return the bytes remaining to read for the body, or a negative value on errors
+   */
+  int readBodyAndNextHeader(SocketChannel channel, ByteBuffer body) {
+    int remaining = body.remaining();
+    readVector[0] = body;
+    readVector[1] = readHeader;
+    long read;
+    try {
+      read = channel.read(readVector);
+    } catch (java.nio.channels.ClosedByInterruptException e) {
+      LOG.warning("ClosedByInterruptException thrown. "
+          + "Probably the Channel is closed by the user program intentionally.");
+      return -1;
+    } catch (IOException e) {
+      LOG.log(Level.SEVERE, "Error in channel.read ", e);
+      return -1;
+    } finally {
+      readVector[0] = null;
+    }
+    if (read < 0) {
+      return (int) read;
+    } else {
+      return (int) Math.max(0, remaining - read);
+    }
+  }
+
+  /**
+   * The read status after a body is read, the header of the next message may have been read
+   * with the body
+   */
+  DataStatus statusAfterBody() {
+    return readHeader.position() > 0 ? DataStatus.HEADER : DataStatus.INIT;
+  }
+
   public void forceFlush() {
     while (!pendingSends.isEmpty()) {
-      int writeState = writeRequest(socketChannel, pendingSends.poll());
+      int writeState = writeBatch();
       if (writeState != 0) {
         return;
       }
@@ -230,6 +304,36 @@ public abstract class BaseNetworkChannel {
     return sendPending || recvPending;
   }
 
+  /**
+   * The progress loop the connection is registered with
+   */
+  Progress getLooper() {
+    return looper;
+  }
+
+  /**
+   * Register the connection with another progress loop, keeping the current interests. After
+   * this the connection stops reading while a message waits for a receive buffer.
+   *
+   * @param progress the new loop
+   */
+  void moveTo(Progress progress) {
+    pauseReadsWithoutBuffer = true;
+    if (progress == looper) {
+      return;
+    }
+    boolean reading = looper.isReadRegistered(socketChannel);
+    boolean writing = looper.isWriteRegistered(socketChannel);
+    looper.removeAllInterest(socketChannel);
+    looper = progress;
+    if (reading) {
+      enableReading();
+    }
+    if (writing) {
+      enableWriting();
+    }
+  }
+
   public void enableReading() {
     if (!looper.isReadRegistered(socketChannel)) {
       try {
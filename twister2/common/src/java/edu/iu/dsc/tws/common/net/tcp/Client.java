@@ -165,6 +165,35 @@ public class Client implements SelectHandler {
     return null;
   }
 
+  /**
+   * Queue a send request created by another thread, a request that can't be sent because the
+   * client is not connected is marked as an error
+   *
+   * @return false if the queue of the channel is full and the request should be retried
+   */
+  boolean send(SocketChannel sc, TCPMessage request) {
+    if (sc != socketChannel || !isConnected) {
+      request.setError();
+      return true;
+    }
+
+    channel.enableWriting();
+    return channel.addWriteRequest(request);
+  }
+
+  /**
+   * Move the connection to another progress loop, this should be called by the thread
+   * progressing both loops
+   *
+   * @param looper the new loop
+   */
+  void moveTo(Progress looper) {
+    if (channel != null) {
+      channel.moveTo(looper);
+    }
+    this.progress = looper;
+  }
+
   public TCPMessage receive(SocketChannel sc, ByteBuffer buffer, int size, int edge) {
     if (sc != socketChannel) {
       return null;
@@ -65,6 +65,8 @@ public class DynamicBufferChannel extends BaseNetworkChannel {
       readHeader.flip();
       readMessageSize = readHeader.getInt();
       readEdge = readHeader.getInt();
+      // the header of the next message can be read together with the body
+      readHeader.clear();
       readStatus = DataStatus.BODY;
       LOG.finest(String.format("READ Header %d %d", readMessageSize, readEdge));
     }
@@ -80,7 +82,7 @@ public class DynamicBufferChannel extends BaseNetworkChannel {
         buffer = readingRequest.getByteBuffer();
       }
 
-      int retVal = readFromChannel(channel, buffer);
+      int retVal = readBodyAndNextHeader(channel, buffer);
       if (retVal < 0) {
         readMessageSize = 0;
         readEdge = 0;
@@ -100,7 +102,7 @@ public class DynamicBufferChannel extends BaseNetworkChannel {
 
         TCPMessage ret = readingRequest;
         readingRequest = null;
-        readStatus = DataStatus.INIT;
+        readStatus = statusAfterBody();
         LOG.finest(String.format("READ Body %d", buffer.limit()));
         return ret;
       }
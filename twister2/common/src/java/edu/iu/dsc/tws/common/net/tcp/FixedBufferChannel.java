@@ -51,7 +51,12 @@ public class FixedBufferChannel extends BaseNetworkChannel {
       inQueue = new ArrayBlockingQueue<>(1024);
       pendingReceives.put(request.getEdge(), inQueue);
     }
-    return inQueue.offer(request);
+    boolean offer = inQueue.offer(request);
+    if (pauseReadsWithoutBuffer) {
+      // reading stops while a message is waiting for a buffer
+      enableReading();
+    }
+    return offer;
   }
 
   /**
@@ -81,6 +86,8 @@ public class FixedBufferChannel extends BaseNetworkChannel {
       readHeader.flip();
       readMessageSize = readHeader.getInt();
       readEdge = readHeader.getInt();
+      // the header of the next message can be read together with the body
+      readHeader.clear();
       readStatus = DataStatus.BODY;
       LOG.finest(String.format("READ Header %d %d", readMessageSize, readEdge));
     }
@@ -90,6 +97,10 @@ public class FixedBufferChannel extends BaseNetworkChannel {
       if (readingRequest == null) {
         Queue<TCPMessage> readRequests = getReadRequest(readEdge);
         if (readRequests.size() == 0) {
+          if (pauseReadsWithoutBuffer) {
+            // no point in selecting the channel until a buffer is posted for this edge
+            disableReading();
+          }
           return null;
         }
         readingRequest = readRequests.poll();
@@ -99,7 +110,7 @@ public class FixedBufferChannel extends BaseNetworkChannel {
         buffer = readingRequest.getByteBuffer();
       }
 
-      int retVal = readFromChannel(channel, buffer);
+      int retVal = readBodyAndNextHeader(channel, buffer);
       if (retVal < 0) {
         readMessageSize = 0;
         readEdge = 0;
@@ -118,7 +129,7 @@ public class FixedBufferChannel extends BaseNetworkChannel {
 
         TCPMessage ret = readingRequest;
         readingRequest = null;
-        readStatus = DataStatus.INIT;
+        readStatus = statusAfterBody();
         LOG.finest(String.format("READ Body %d", buffer.limit()));
         return ret;
       } else {
@@ -0,0 +1,250 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.common.net.tcp;
+
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import edu.iu.dsc.tws.api.exceptions.Twister2RuntimeException;
+
+/**
+ * A selector and the connections registered on it, progressed by a dedicated thread. Other
+ * threads don't touch the connections, they post the sends and receives to a lock free queue
+ * and the reactor hands them to the connections. The completion of a message is published
+ * through its status.
+ * <p>
+ * When the thread is not running, the reactor is progressed by the thread calling
+ * {@link #progress()}.
+ * <p>
+ * The sends posted and not yet taken by the connections are bounded, a thread posting a send
+ * waits while the reactor holds the maximum number of them. The receives are bounded by the
+ * buffers the callers post.
+ */
+final class IOReactor {
+  private static final Logger LOG = Logger.getLogger(IOReactor.class.getName());
+
+  /**
+   * How long the thread blocks on the selector when there is nothing to do
+   */
+  private static final long SELECT_MILLIS = 10;
+
+  private final Progress progress = new Progress();
+
+  private final String name;
+
+  /**
+   * Sends and receives posted by the other threads
+   */
+  private final Queue<Post> posts = new ConcurrentLinkedQueue<>();
+
+  /**
+   * Sends that couldn't be queued on the connection because its queue is full, they are kept
+   * in order for each client
+   */
+  private final Map<Client, ArrayDeque<Post>> blockedSends = new HashMap<>();
+
+  /**
+   * A permit for each send that can be posted, the permit is given back when the connection
+   * takes the send
+   */
+  private final Semaphore sendPermits;
+
+  private volatile boolean running;
+
+  /**
+   * Weather the thread may be blocked on the selector
+   */
+  private volatile boolean sleeping;
+
+  private Thread thread;
+
+  IOReactor(String name, int maxPendingSends) {
+    this.name = name;
+    this.sendPermits = new Semaphore(maxPendingSends);
+  }
+
+  Progress getProgress() {
+    return progress;
+  }
+
+  boolean isRunning() {
+    return running;
+  }
+
+  /**
+   * Post a send to the connection of the client, waiting while the reactor holds the maximum
+   * number of sends
+   */
+  void postSend(Client client, SocketChannel channel, TCPMessage message) {
+    boolean acquired = sendPermits.tryAcquire();
+    while (!acquired) {
+      if (running) {
+        try {
+          acquired = sendPermits.tryAcquire(SELECT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new Twister2RuntimeException("Interrupted while posting a send to " + name, e);
+        }
+      } else {
+        // nobody else progresses the connections
+        progress();
+        acquired = sendPermits.tryAcquire();
+      }
+    }
+    post(new Post(client, null, channel, message));
+  }
+
+  /**
+   * Post a receive to a connection of the server
+   */
+  void postReceive(Server server, SocketChannel channel, TCPMessage message) {
+    post(new Post(null, server, channel, message));
+  }
+
+  private void post(Post post) {
+    posts.offer(post);
+    if (sleeping) {
+      progress.wakeup();
+    }
+  }
+
+  /**
+   * Hand over the posted requests and progress the selector once
+   */
+  void progress() {
+    drainPosts();
+    progress.loop();
+  }
+
+  synchronized void start() {
+    if (running) {
+      return;
+    }
+    running = true;
+    thread = new Thread(this::run, name);
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Stop the thread and wait for it to finish, the requests posted after this are handed over
+   * by {@link #progress()}
+   */
+  synchronized void stop() {
+    if (!running) {
+      return;
+    }
+    running = false;
+    progress.wakeup();
+    try {
+      thread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      LOG.log(Level.WARNING, "Interrupted while stopping the reactor " + name, e);
+    }
+    thread = null;
+  }
+
+  private void run() {
+    try {
+      while (running) {
+        if (drainPosts()) {
+          progress.loop();
+          continue;
+        }
+
+        sleeping = true;
+        if (posts.isEmpty()) {
+          progress.loopBlocking(SELECT_MILLIS);
+        } else {
+          progress.loop();
+        }
+        sleeping = false;
+      }
+    } catch (RuntimeException e) {
+      LOG.log(Level.SEVERE, "Reactor " + name + " failed", e);
+      running = false;
+    }
+  }
+
+  /**
+   * Hand the posted requests to the connections
+   *
+   * @return true if any request was handed over
+   */
+  private boolean drainPosts() {
+    boolean worked = retryBlockedSends();
+    Post post;
+    while ((post = posts.poll()) != null) {
+      worked = true;
+      if (post.client != null) {
+        ArrayDeque<Post> blocked = blockedSends.get(post.client);
+        if (blocked != null) {
+          blocked.add(post);
+        } else if (post.client.send(post.channel, post.message)) {
+          sendPermits.release();
+        } else {
+          blocked = new ArrayDeque<>();
+          blocked.add(post);
+          blockedSends.put(post.client, blocked);
+        }
+      } else {
+        post.server.receive(post.channel, post.message);
+      }
+    }
+    return worked;
+  }
+
+  private boolean retryBlockedSends() {
+    boolean worked = false;
+    Iterator<ArrayDeque<Post>> itr = blockedSends.values().iterator();
+    while (itr.hasNext()) {
+      ArrayDeque<Post> blocked = itr.next();
+      while (!blocked.isEmpty()) {
+        Post post = blocked.peek();
+        if (!post.client.send(post.channel, post.message)) {
+          break;
+        }
+        blocked.poll();
+        sendPermits.release();
+        worked = true;
+      }
+      if (blocked.isEmpty()) {
+        itr.remove();
+      }
+    }
+    return worked;
+  }
+
+  private static final class Post {
+    private final Client client;
+    private final Server server;
+    private final SocketChannel channel;
+    private final TCPMessage message;
+
+    Post(Client client, Server server, SocketChannel channel, TCPMessage message) {
+      this.client = client;
+      this.server = server;
+      this.channel = channel;
+      this.message = message;
+    }
+  }
+}
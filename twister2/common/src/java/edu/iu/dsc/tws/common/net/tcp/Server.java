@@ -18,8 +18,8 @@ import java.nio.ByteBuffer;
 import java.nio.channels.SelectableChannel;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -41,7 +41,7 @@ public class Server implements SelectHandler {
   /**
    * The current active connections
    */
-  private Map<SocketChannel, BaseNetworkChannel> connectedChannels = new HashMap<>();
+  private Map<SocketChannel, BaseNetworkChannel> connectedChannels = new ConcurrentHashMap<>();
 
   /**
    * Configuration of the server
@@ -126,7 +126,7 @@ public class Server implements SelectHandler {
     }
     for (Map.Entry<SocketChannel, BaseNetworkChannel> connections : connectedChannels.entrySet()) {
       SocketChannel channel = connections.getKey();
-      progress.removeAllInterest(channel);
+      connections.getValue().getLooper().removeAllInterest(channel);
 
       channelHandler.onClose(channel);
       connections.getValue().clear();
@@ -190,7 +190,7 @@ public class Server implements SelectHandler {
     // we need to handle the false
     channel.addWriteRequest(request);
 
-    progress.wakeup();
+    channel.getLooper().wakeup();
 
     return request;
   }
@@ -207,6 +207,32 @@ public class Server implements SelectHandler {
     return request;
   }
 
+  /**
+   * Queue a receive request created by another thread
+   */
+  void receive(SocketChannel sc, TCPMessage request) {
+    BaseNetworkChannel channel = connectedChannels.get(sc);
+    if (channel == null) {
+      request.setError();
+      return;
+    }
+    channel.addReadRequest(request);
+  }
+
+  /**
+   * Move an accepted connection to another progress loop, this should be called by the thread
+   * progressing both loops
+   *
+   * @param sc the connection
+   * @param looper the new loop
+   */
+  void moveTo(SocketChannel sc, Progress looper) {
+    BaseNetworkChannel channel = connectedChannels.get(sc);
+    if (channel != null) {
+      channel.moveTo(looper);
+    }
+  }
+
   @Override
   public void handleRead(SelectableChannel ch) {
     BaseNetworkChannel channel = connectedChannels.get(ch);
@@ -273,7 +299,7 @@ public class Server implements SelectHandler {
       return;
     }
     channel.clear();
-    progress.removeAllInterest(ch);
+    channel.getLooper().removeAllInterest(ch);
     try {
       ch.close();
     } catch (IOException e) {
@@ -83,6 +83,13 @@ public class TCPChannel {
   private int clientsCompleted = 0;
   private int clientsConnected = 0;
 
+  /**
+   * Dedicated I/O threads owning the connections, null if the threads calling progress do the
+   * I/O. The connections of a worker are moved to the reactor workerId % reactors after the
+   * handshake.
+   */
+  private IOReactor[] reactors;
+
   /**
    * Start the channel with the given network information
    * @param cfg configuration
@@ -98,6 +105,15 @@ public class TCPChannel {
     networkInfoMap = new HashMap<>();
     helloSendByteBuffers = new ArrayList<>();
     helloReceiveByteBuffers = new ArrayList<>();
+
+    int ioThreads = TCPContext.getIOThreads(cfg);
+    if (ioThreads > 0) {
+      reactors = new IOReactor[ioThreads];
+      for (int i = 0; i < ioThreads; i++) {
+        reactors[i] = new IOReactor("tcp-io-" + info.getProcId() + "-" + i,
+            TCPContext.getIOPendingSends(cfg));
+      }
+    }
   }
 
   /**
@@ -164,6 +180,14 @@ public class TCPChannel {
       throw new Twister2RuntimeException("Can not send to an un-connected worker: " + workerID);
     }
     Client client = clients.get(workerID);
+    if (reactors != null) {
+      // we set the limit to size and position to 0 in-order to write this message
+      buffer.limit(size);
+      buffer.position(0);
+      TCPMessage request = new TCPMessage(buffer.duplicate(), edge, size);
+      reactorOf(workerID).postSend(client, ch, request);
+      return request;
+    }
     return client.send(ch, buffer, size, edge);
   }
 
@@ -181,14 +205,61 @@ public class TCPChannel {
     if (ch == null) {
       throw new Twister2RuntimeException("Can not receive from an unconnected worker: " + workerID);
     }
+    if (reactors != null) {
+      TCPMessage request = new TCPMessage(buffer, edge, size);
+      reactorOf(workerID).postReceive(server, ch, request);
+      return request;
+    }
     return server.receive(ch, buffer, size, edge);
   }
 
   /**
-   * Progress the communication
+   * Progress the communication. With dedicated I/O threads this only accepts the new
+   * connections, unless the threads are stopped.
    */
   public void progress() {
     looper.loop();
+    if (reactors != null) {
+      for (IOReactor reactor : reactors) {
+        if (!reactor.isRunning()) {
+          reactor.progress();
+        }
+      }
+    }
+  }
+
+  private IOReactor reactorOf(int workerID) {
+    return reactors[workerID % reactors.length];
+  }
+
+  /**
+   * Move the connections to the reactors and start the I/O threads
+   */
+  private void startReactors() {
+    if (reactors == null) {
+      return;
+    }
+    for (Map.Entry<Integer, Client> e : clients.entrySet()) {
+      e.getValue().moveTo(reactorOf(e.getKey()).getProgress());
+    }
+    for (Map.Entry<Integer, SocketChannel> e : serverChannels.entrySet()) {
+      server.moveTo(e.getValue(), reactorOf(e.getKey()).getProgress());
+    }
+    for (IOReactor reactor : reactors) {
+      reactor.start();
+    }
+  }
+
+  /**
+   * Stop the I/O threads, after this the connections are progressed by {@link #progress()}
+   */
+  private void stopReactors() {
+    if (reactors == null) {
+      return;
+    }
+    for (IOReactor reactor : reactors) {
+      reactor.stop();
+    }
   }
 
   /**
@@ -218,6 +289,7 @@ public class TCPChannel {
    * Stop all the connections
    */
   public void stop() {
+    stopReactors();
     for (Client c : clients.values()) {
       c.disconnect();
     }
@@ -235,7 +307,7 @@ public class TCPChannel {
     //now wait for the handshakes to happen
     while (clientsConnected != (networkInfoMap.size() - 1)
         || (clientsCompleted != networkInfoMap.size() - 1)) {
-      looper.loop();
+      progress();
 
       delay = System.currentTimeMillis() - start;
       if (delay > timeLimit) {
@@ -245,7 +317,7 @@ public class TCPChannel {
     }
 
     while (serverChannels.size() != networkInfoMap.size() - 1) {
-      looper.loop();
+      progress();
 
       delay = System.currentTimeMillis() - start;
       if (delay > timeLimit) {
@@ -254,10 +326,19 @@ public class TCPChannel {
       }
     }
 
+    startReactors();
+
     LOG.log(Level.FINEST, "Everybody connected: " + clientsConnected + " " + clientsCompleted);
   }
 
+  /**
+   * Close the connections to a worker. The I/O threads are stopped and started again by
+   * {@link #waitForConnections(long)} after the new connections are established.
+   *
+   * @param workerID the worker id
+   */
   public void closeConnection(int workerID) {
+    stopReactors();
     Client client = clients.get(workerID);
     client.disconnect();
     clients.remove(workerID);
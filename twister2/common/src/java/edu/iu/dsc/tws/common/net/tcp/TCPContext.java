@@ -29,6 +29,16 @@ public class TCPContext extends Context {
   public static final String TWISTER2_SEND_BUFF_SIZE = "twister2.tcp.send.buffer.size";
   public static final String TWISTER2_RECV_BUFF_SIZE = "twister2.tcp.recv.buffer.size";
 
+  public static final String TWISTER2_DIRECT_BUFFERS = "twister2.tcp.buffer.direct";
+  public static final String TWISTER2_DIRECT_BUFFER_POOL_SIZE
+      = "twister2.tcp.buffer.direct.pool.bytes.max";
+
+  public static final String TWISTER2_WRITE_IOV_MAX = "twister2.tcp.write.iov.max";
+
+  public static final String TWISTER2_IO_THREADS = "twister2.tcp.io.threads";
+
+  public static final String TWISTER2_IO_PENDING_SENDS = "twister2.tcp.io.pending.sends";
+
   public static final String NETWORK_HOSTNAME = "twister2.tcp.hostname";
   public static final String NETWORK_PORT = "twister2.tcp.port";
 
@@ -64,6 +74,37 @@ public class TCPContext extends Context {
     return cfg.getIntegerValue(TWISTER2_MAX_PACKET_SIZE, def);
   }
 
+  public static boolean useDirectBuffers(Config cfg) {
+    return cfg.getBooleanValue(TWISTER2_DIRECT_BUFFERS, false);
+  }
+
+  public static long getDirectBufferPoolSize(Config cfg) {
+    return cfg.getLongValue(TWISTER2_DIRECT_BUFFER_POOL_SIZE, 268435456L);
+  }
+
+  /**
+   * Maximum number of buffers given to a single gathering write, each message takes two
+   */
+  public static int getMaxWriteIov(Config cfg) {
+    return cfg.getIntegerValue(TWISTER2_WRITE_IOV_MAX, 64);
+  }
+
+  /**
+   * Number of dedicated threads progressing the connections of the TCP channel, 0 if the
+   * threads calling the progress of the channel do the I/O
+   */
+  public static int getIOThreads(Config cfg) {
+    return cfg.getIntegerValue(TWISTER2_IO_THREADS, 0);
+  }
+
+  /**
+   * Maximum number of sends posted to a dedicated I/O thread and not yet queued on the
+   * connections, the threads posting more sends wait
+   */
+  public static int getIOPendingSends(Config cfg) {
+    return cfg.getIntegerValue(TWISTER2_IO_PENDING_SENDS, 4096);
+  }
+
   public static String getHostName(NetworkInfo networkInfo) {
     return (String) networkInfo.getProperties().get(NETWORK_HOSTNAME);
   }
@@ -33,9 +33,9 @@ public class TCPMessage {
   private final int edge;
 
   /**
-   * Status of the message
+   * Status of the message, the I/O threads publish the completion through this
    */
-  private TCPStatus status;
+  private volatile TCPStatus status;
 
   /**
    * Length of the message
@@ -26,14 +26,18 @@ public class BinaryColumn implements ArrowColumn<byte[]> {
 
   @Override
   public void addValue(byte[] value) {
-    vector.setSafe(currentIndex, value);
+    if (value == null) {
+      vector.setNull(currentIndex);
+    } else {
+      vector.setSafe(currentIndex, value);
+    }
     currentIndex++;
     vector.setValueCount(currentIndex);
   }
 
   @Override
   public byte[] get(int index) {
-    return vector.get(index);
+    return vector.isNull(index) ? null : vector.get(index);
   }
 
   @Override
@@ -26,7 +26,11 @@ public class Float4Column implements ArrowColumn<Float> {
 
   @Override
   public void addValue(Float value) {
-    vector.setSafe(currentIndex, value);
+    if (value == null) {
+      vector.setNull(currentIndex);
+    } else {
+      vector.setSafe(currentIndex, value);
+    }
     currentIndex++;
     vector.setValueCount(currentIndex);
   }
@@ -37,7 +41,7 @@ public class Float4Column implements ArrowColumn<Float> {
   }
 
   public Float get(int index) {
-    return vector.get(index);
+    return vector.isNull(index) ? null : vector.get(index);
   }
 
   @Override
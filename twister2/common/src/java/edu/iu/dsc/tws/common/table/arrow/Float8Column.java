@@ -27,7 +27,11 @@ public class Float8Column implements ArrowColumn<Double> {
 
   @Override
   public void addValue(Double value) {
-    vector.setSafe(currentIndex, value);
+    if (value == null) {
+      vector.setNull(currentIndex);
+    } else {
+      vector.setSafe(currentIndex, value);
+    }
     currentIndex++;
     vector.setValueCount(currentIndex);
   }
@@ -38,7 +42,7 @@ public class Float8Column implements ArrowColumn<Double> {
   }
 
   public Double get(int index) {
-    return vector.get(index);
+    return vector.isNull(index) ? null : vector.get(index);
   }
 
   @Override
@@ -28,7 +28,11 @@ public class Int4Column implements ArrowColumn<Integer> {
 
   @Override
   public void addValue(Integer value) {
-    vector.setSafe(currentIndex, value);
+    if (value == null) {
+      vector.setNull(currentIndex);
+    } else {
+      vector.setSafe(currentIndex, value);
+    }
     currentIndex++;
     vector.setValueCount(currentIndex);
   }
@@ -40,7 +44,7 @@ public class Int4Column implements ArrowColumn<Integer> {
 
   @Override
   public Integer get(int index) {
-    return vector.get(index);
+    return vector.isNull(index) ? null : vector.get(index);
   }
 
   @Override
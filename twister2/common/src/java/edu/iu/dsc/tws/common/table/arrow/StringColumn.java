@@ -29,7 +29,11 @@ public class StringColumn implements ArrowColumn<Text> {
 
   @Override
   public void addValue(Text value) {
-    vector.setSafe(currentIndex, value);
+    if (value == null) {
+      vector.setNull(currentIndex);
+    } else {
+      vector.setSafe(currentIndex, value);
+    }
     currentIndex++;
     vector.setValueCount(currentIndex);
   }
@@ -41,7 +45,7 @@ public class StringColumn implements ArrowColumn<Text> {
 
   @Override
   public Text get(int index) {
-    return new Text(vector.get(index));
+    return vector.isNull(index) ? null : new Text(vector.get(index));
   }
 
   @Override
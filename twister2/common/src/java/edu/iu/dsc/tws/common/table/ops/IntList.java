@@ -0,0 +1,45 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.common.table.ops;
+
+import java.util.Arrays;
+
+/**
+ * A growing list of primitive integers used to collect row indexes
+ */
+final class IntList {
+  private int[] values;
+
+  private int size;
+
+  IntList(int initialCapacity) {
+    this.values = new int[Math.max(initialCapacity, 16)];
+  }
+
+  void add(int value) {
+    if (size == values.length) {
+      values = Arrays.copyOf(values, values.length * 2);
+    }
+    values[size++] = value;
+  }
+
+  int size() {
+    return size;
+  }
+
+  /**
+   * The backing array, only the first {@link #size()} values are valid
+   */
+  int[] array() {
+    return values;
+  }
+}
@@ -0,0 +1,184 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.common.table.ops;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.types.pojo.Field;
+
+import edu.iu.dsc.tws.common.table.Table;
+import edu.iu.dsc.tws.common.table.arrow.ArrowTypes;
+
+/**
+ * Groups the rows of a table on key columns and aggregates the other columns of each group.
+ * The rows are assigned to groups with a hash table over the key columns and the aggregations
+ * are computed a column at a time over the group ids, without creating objects for the rows.
+ * <p>
+ * The result has the key columns followed by a column for each aggregation. Count gives an int
+ * column, sum and mean give double columns and min and max keep the type of the input column.
+ * The null values are not aggregated and the null keys make a group of their own.
+ */
+public final class TableGroupBy {
+  private TableGroupBy() {
+  }
+
+  /**
+   * Group the table
+   *
+   * @param table the table
+   * @param keys the key columns
+   * @param aggregations the aggregations
+   * @param allocator allocator for the result vectors
+   * @return a table with a row for each group, in the order the groups first appear
+   */
+  public static Table groupBy(Table table, int[] keys, List<Aggregation> aggregations,
+                              BufferAllocator allocator) {
+    VectorAccessor[] keyAccessors = VectorAccessor.of(table, keys);
+    int rows = table.rowCount();
+
+    // the group of each row and the first row of each group
+    int[] groups = new int[rows];
+    IntList firstRows = new IntList(16);
+
+    int[] heads = new int[TableUtils.tableSize(rows)];
+    Arrays.fill(heads, -1);
+    int mask = heads.length - 1;
+    IntList next = new IntList(16);
+    IntList hashes = new IntList(16);
+    for (int r = 0; r < rows; r++) {
+      int h = TableUtils.hash(keyAccessors, r);
+      int bucket = h & mask;
+      int group = -1;
+      for (int g = heads[bucket]; g >= 0; g = next.array()[g]) {
+        if (hashes.array()[g] == h
+            && TableUtils.equals(keyAccessors, firstRows.array()[g], keyAccessors, r)) {
+          group = g;
+          break;
+        }
+      }
+
+      if (group < 0) {
+        group = firstRows.size();
+        firstRows.add(r);
+        hashes.add(h);
+        next.add(heads[bucket]);
+        heads[bucket] = group;
+      }
+      groups[r] = group;
+    }
+
+    int groupCount = firstRows.size();
+    List<FieldVector> vectors = new ArrayList<>();
+    for (int key : keys) {
+      vectors.add(TableUtils.take(table.getColumns().get(key).getVector(),
+          firstRows.array(), groupCount, allocator));
+    }
+
+    for (Aggregation aggregation : aggregations) {
+      FieldVector input = table.getColumns().get(aggregation.getColumn()).getVector();
+      VectorAccessor values = VectorAccessor.of(input);
+      String name = aggregation.columnName(input.getField().getName());
+      switch (aggregation.getType()) {
+        case COUNT:
+          vectors.add(count(values, groups, groupCount, name, allocator));
+          break;
+        case SUM:
+          vectors.add(sum(values, groups, groupCount, name, false, allocator));
+          break;
+        case MEAN:
+          vectors.add(sum(values, groups, groupCount, name, true, allocator));
+          break;
+        case MIN:
+          vectors.add(select(values, groups, groupCount, name, -1, allocator));
+          break;
+        case MAX:
+          vectors.add(select(values, groups, groupCount, name, 1, allocator));
+          break;
+        default:
+          throw new IllegalArgumentException("Un-supported aggregation "
+              + aggregation.getType());
+      }
+    }
+    return TableUtils.newTable(vectors);
+  }
+
+  private static FieldVector count(VectorAccessor values, int[] groups, int groupCount,
+                                   String name, BufferAllocator allocator) {
+    int[] counts = new int[groupCount];
+    for (int r = 0; r < groups.length; r++) {
+      if (!values.isNull(r)) {
+        counts[groups[r]]++;
+      }
+    }
+
+    IntVector vector = (IntVector) TableUtils.newVector(
+        new Field(name, ArrowTypes.INT_FIELD_TYPE, null), groupCount, allocator);
+    for (int g = 0; g < groupCount; g++) {
+      vector.setSafe(g, counts[g]);
+    }
+    vector.setValueCount(groupCount);
+    return vector;
+  }
+
+  private static FieldVector sum(VectorAccessor values, int[] groups, int groupCount,
+                                 String name, boolean mean, BufferAllocator allocator) {
+    double[] sums = new double[groupCount];
+    int[] counts = new int[groupCount];
+    for (int r = 0; r < groups.length; r++) {
+      if (!values.isNull(r)) {
+        sums[groups[r]] += values.getDouble(r);
+        counts[groups[r]]++;
+      }
+    }
+
+    Float8Vector vector = (Float8Vector) TableUtils.newVector(
+        new Field(name, ArrowTypes.DOUBLE_FIELD_TYPE, null), groupCount, allocator);
+    for (int g = 0; g < groupCount; g++) {
+      if (!mean) {
+        vector.setSafe(g, sums[g]);
+      } else if (counts[g] > 0) {
+        vector.setSafe(g, sums[g] / counts[g]);
+      }
+      // the mean of a group without values is left as null
+    }
+    vector.setValueCount(groupCount);
+    return vector;
+  }
+
+  /**
+   * Pick the smallest (sign -1) or the largest (sign 1) value of each group
+   */
+  private static FieldVector select(VectorAccessor values, int[] groups, int groupCount,
+                                    String name, int sign, BufferAllocator allocator) {
+    int[] selected = new int[groupCount];
+    Arrays.fill(selected, -1);
+    for (int r = 0; r < groups.length; r++) {
+      if (values.isNull(r)) {
+        continue;
+      }
+      int g = groups[r];
+      if (selected[g] < 0 || values.compare(r, values, selected[g]) * sign > 0) {
+        selected[g] = r;
+      }
+    }
+    Field input = values.getVector().getField();
+    return TableUtils.take(values.getVector(),
+        new Field(name, input.getFieldType(), input.getChildren()), selected, groupCount,
+        allocator);
+  }
+}
@@ -0,0 +1,127 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.common.table.ops;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.FieldVector;
+
+import edu.iu.dsc.tws.api.comms.CommunicationContext;
+import edu.iu.dsc.tws.common.table.ArrowColumn;
+import edu.iu.dsc.tws.common.table.Table;
+
+/**
+ * Hash join of two tables on key columns. A hash table with the row indexes of the right table
+ * is built on its key columns and the left table is probed against it, so the matching is done
+ * on the column values in place. The joined columns are copied once from the matched indexes.
+ * <p>
+ * The joined table has the columns of the left table followed by the columns of the right
+ * table. The rows without a match in an outer join have nulls in the columns of the other table
+ * and the keys with nulls don't match any row.
+ */
+public final class TableJoin {
+  private TableJoin() {
+  }
+
+  /**
+   * Join the tables
+   *
+   * @param left the left table
+   * @param right the right table
+   * @param leftKeys key columns of the left table
+   * @param rightKeys key columns of the right table, in the same order as the left keys
+   * @param type join type
+   * @param allocator allocator for the joined vectors
+   * @return the joined table
+   */
+  public static Table join(Table left, Table right, int[] leftKeys, int[] rightKeys,
+                           CommunicationContext.JoinType type, BufferAllocator allocator) {
+    if (leftKeys.length != rightKeys.length || leftKeys.length == 0) {
+      throw new IllegalArgumentException("The left and right tables should have the same "
+          + "number of key columns");
+    }
+
+    VectorAccessor[] lKeys = VectorAccessor.of(left, leftKeys);
+    VectorAccessor[] rKeys = VectorAccessor.of(right, rightKeys);
+    int leftRows = left.rowCount();
+    int rightRows = right.rowCount();
+
+    // build a chained hash table of the right rows
+    int[] heads = new int[TableUtils.tableSize(rightRows)];
+    Arrays.fill(heads, -1);
+    int[] next = new int[rightRows];
+    int[] hashes = new int[rightRows];
+    int mask = heads.length - 1;
+    for (int r = rightRows - 1; r >= 0; r--) {
+      if (TableUtils.hasNull(rKeys, r)) {
+        continue;
+      }
+      int h = TableUtils.hash(rKeys, r);
+      int bucket = h & mask;
+      hashes[r] = h;
+      next[r] = heads[bucket];
+      heads[bucket] = r;
+    }
+
+    boolean keepLeft = type == CommunicationContext.JoinType.LEFT
+        || type == CommunicationContext.JoinType.FULL_OUTER;
+    boolean keepRight = type == CommunicationContext.JoinType.RIGHT
+        || type == CommunicationContext.JoinType.FULL_OUTER;
+    boolean[] rightMatched = keepRight ? new boolean[rightRows] : null;
+
+    IntList leftIndexes = new IntList(Math.max(leftRows, rightRows));
+    IntList rightIndexes = new IntList(Math.max(leftRows, rightRows));
+    for (int l = 0; l < leftRows; l++) {
+      boolean matched = false;
+      if (!TableUtils.hasNull(lKeys, l)) {
+        int h = TableUtils.hash(lKeys, l);
+        for (int r = heads[h & mask]; r >= 0; r = next[r]) {
+          if (hashes[r] == h && TableUtils.equals(lKeys, l, rKeys, r)) {
+            leftIndexes.add(l);
+            rightIndexes.add(r);
+            matched = true;
+            if (rightMatched != null) {
+              rightMatched[r] = true;
+            }
+          }
+        }
+      }
+
+      if (!matched && keepLeft) {
+        leftIndexes.add(l);
+        rightIndexes.add(-1);
+      }
+    }
+
+    if (keepRight) {
+      for (int r = 0; r < rightRows; r++) {
+        if (!rightMatched[r]) {
+          leftIndexes.add(-1);
+          rightIndexes.add(r);
+        }
+      }
+    }
+
+    int count = leftIndexes.size();
+    List<FieldVector> vectors = new ArrayList<>();
+    for (ArrowColumn column : left.getColumns()) {
+      vectors.add(TableUtils.take(column.getVector(), leftIndexes.array(), count, allocator));
+    }
+    for (ArrowColumn column : right.getColumns()) {
+      vectors.add(TableUtils.take(column.getVector(), rightIndexes.array(), count, allocator));
+    }
+    return TableUtils.newTable(vectors);
+  }
+}
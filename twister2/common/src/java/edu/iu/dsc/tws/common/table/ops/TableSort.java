@@ -0,0 +1,115 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.common.table.ops;
+
+import org.apache.arrow.memory.BufferAllocator;
+
+import edu.iu.dsc.tws.common.table.Table;
+
+/**
+ * Sorts a table on one or more columns. The row order is computed by comparing the column values
+ * in place and the columns are copied once in that order. The sort is stable and the nulls come
+ * first in the ascending order.
+ */
+public final class TableSort {
+  private TableSort() {
+  }
+
+  /**
+   * Sort the table
+   *
+   * @param table the table
+   * @param columns the columns to sort on, the first column is the most significant
+   * @param ascending sort order of each column, null to sort every column in ascending order
+   * @param allocator allocator for the sorted vectors
+   * @return a new sorted table
+   */
+  public static Table sort(Table table, int[] columns, boolean[] ascending,
+                           BufferAllocator allocator) {
+    int[] order = sortIndexes(table, columns, ascending);
+    return TableUtils.take(table, order, order.length, allocator);
+  }
+
+  /**
+   * The row indexes of the table in the sorted order
+   *
+   * @param table the table
+   * @param columns the columns to sort on, the first column is the most significant
+   * @param ascending sort order of each column, null to sort every column in ascending order
+   * @return the row indexes
+   */
+  public static int[] sortIndexes(Table table, int[] columns, boolean[] ascending) {
+    if (ascending != null && ascending.length != columns.length) {
+      throw new IllegalArgumentException("The sort order should be given for each column");
+    }
+
+    VectorAccessor[] keys = VectorAccessor.of(table, columns);
+    int rows = table.rowCount();
+    int[] order = new int[rows];
+    for (int i = 0; i < rows; i++) {
+      order[i] = i;
+    }
+    if (rows > 1) {
+      mergeSort(order.clone(), order, 0, rows, keys, ascending);
+    }
+    return order;
+  }
+
+  private static int compare(int r1, int r2, VectorAccessor[] keys, boolean[] ascending) {
+    for (int i = 0; i < keys.length; i++) {
+      int c = keys[i].compare(r1, keys[i], r2);
+      if (c != 0) {
+        return ascending == null || ascending[i] ? c : -c;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Sort src[from, to) in to dest[from, to), both arrays start with the same content
+   */
+  private static void mergeSort(int[] src, int[] dest, int from, int to,
+                                VectorAccessor[] keys, boolean[] ascending) {
+    int length = to - from;
+    if (length < 16) {
+      // insertion sort for the small ranges
+      for (int i = from + 1; i < to; i++) {
+        int row = dest[i];
+        int j = i - 1;
+        while (j >= from && compare(dest[j], row, keys, ascending) > 0) {
+          dest[j + 1] = dest[j];
+          j--;
+        }
+        dest[j + 1] = row;
+      }
+      return;
+    }
+
+    int mid = (from + to) >>> 1;
+    mergeSort(dest, src, from, mid, keys, ascending);
+    mergeSort(dest, src, mid, to, keys, ascending);
+
+    // the halves are already in order
+    if (compare(src[mid - 1], src[mid], keys, ascending) <= 0) {
+      System.arraycopy(src, from, dest, from, length);
+      return;
+    }
+
+    for (int i = from, p = from, q = mid; i < to; i++) {
+      if (q >= to || (p < mid && compare(src[p], src[q], keys, ascending) <= 0)) {
+        dest[i] = src[p++];
+      } else {
+        dest[i] = src[q++];
+      }
+    }
+  }
+}
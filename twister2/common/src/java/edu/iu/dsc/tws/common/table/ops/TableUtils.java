@@ -0,0 +1,185 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.common.table.ops;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.arrow.vector.util.TransferPair;
+
+import edu.iu.dsc.tws.common.table.ArrowColumn;
+import edu.iu.dsc.tws.common.table.Table;
+import edu.iu.dsc.tws.common.table.arrow.ArrowTable;
+
+/**
+ * Column at a time helpers used by the table operators. The values are copied between the
+ * vectors with transfer pairs, without creating objects for the values.
+ */
+public final class TableUtils {
+  private TableUtils() {
+  }
+
+  /**
+   * Create a table with the given rows of a table
+   *
+   * @param table the table
+   * @param rows the row indexes to copy, a negative index adds a null row
+   * @param count number of rows to take from the indexes
+   * @param allocator allocator for the new vectors
+   * @return the new table
+   */
+  public static Table take(Table table, int[] rows, int count, BufferAllocator allocator) {
+    List<FieldVector> vectors = new ArrayList<>();
+    for (ArrowColumn column : table.getColumns()) {
+      vectors.add(take(column.getVector(), rows, count, allocator));
+    }
+    return newTable(vectors);
+  }
+
+  /**
+   * Create a vector with the given rows of a vector
+   */
+  static FieldVector take(FieldVector from, int[] rows, int count, BufferAllocator allocator) {
+    return take(from, from.getField(), rows, count, allocator);
+  }
+
+  /**
+   * Create a vector of the given field with the given rows of a vector of the same type
+   */
+  static FieldVector take(FieldVector from, Field field, int[] rows, int count,
+                          BufferAllocator allocator) {
+    FieldVector to = newVector(field, count, allocator);
+    TransferPair pair = from.makeTransferPair(to);
+    for (int i = 0; i < count; i++) {
+      // the rows without a value are left as nulls
+      if (rows[i] >= 0) {
+        pair.copyValueSafe(rows[i], i);
+      }
+    }
+    to.setValueCount(count);
+    return to;
+  }
+
+  /**
+   * Append the rows of the tables to a single table, the tables should have the same schema
+   *
+   * @param tables the tables
+   * @param allocator allocator for the new vectors
+   * @return the table with all the rows, or the table itself if there is only one
+   */
+  public static Table concat(List<Table> tables, BufferAllocator allocator) {
+    if (tables.size() == 1) {
+      return tables.get(0);
+    }
+
+    int total = 0;
+    for (Table t : tables) {
+      total += t.rowCount();
+    }
+
+    List<FieldVector> vectors = new ArrayList<>();
+    List<ArrowColumn> first = tables.get(0).getColumns();
+    for (int c = 0; c < first.size(); c++) {
+      FieldVector to = newVector(first.get(c).getVector().getField(), total, allocator);
+      int index = 0;
+      for (Table t : tables) {
+        TransferPair pair = t.getColumns().get(c).getVector().makeTransferPair(to);
+        for (int r = 0; r < t.rowCount(); r++) {
+          pair.copyValueSafe(r, index++);
+        }
+      }
+      to.setValueCount(total);
+      vectors.add(to);
+    }
+    return newTable(vectors);
+  }
+
+  /**
+   * Create a table without rows
+   *
+   * @param schema schema of the table
+   * @param allocator allocator
+   * @return the table
+   */
+  public static Table empty(Schema schema, BufferAllocator allocator) {
+    List<FieldVector> vectors = new ArrayList<>();
+    for (Field field : schema.getFields()) {
+      FieldVector vector = newVector(field, 0, allocator);
+      vector.setValueCount(0);
+      vectors.add(vector);
+    }
+    return new ArrowTable(schema, vectors);
+  }
+
+  /**
+   * Release the memory of the table vectors
+   */
+  public static void close(Table table) {
+    for (ArrowColumn column : table.getColumns()) {
+      column.getVector().close();
+    }
+  }
+
+  static Table newTable(List<FieldVector> vectors) {
+    List<Field> fields = new ArrayList<>();
+    for (FieldVector v : vectors) {
+      fields.add(v.getField());
+    }
+    return new ArrowTable(new Schema(fields), vectors);
+  }
+
+  static FieldVector newVector(Field field, int capacity, BufferAllocator allocator) {
+    FieldVector vector = field.createVector(allocator);
+    vector.setInitialCapacity(Math.max(capacity, 1));
+    vector.allocateNew();
+    return vector;
+  }
+
+  static int hash(VectorAccessor[] keys, int row) {
+    int h = 1;
+    for (VectorAccessor key : keys) {
+      h = 31 * h + key.hash(row);
+    }
+    // spread the bits, the tables use the lower bits
+    return h ^ (h >>> 16);
+  }
+
+  static boolean equals(VectorAccessor[] keys, int row,
+                        VectorAccessor[] otherKeys, int otherRow) {
+    for (int i = 0; i < keys.length; i++) {
+      if (!keys[i].equals(row, otherKeys[i], otherRow)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  static boolean hasNull(VectorAccessor[] keys, int row) {
+    for (VectorAccessor key : keys) {
+      if (key.isNull(row)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Size of a hash table for the given number of entries, a power of two
+   */
+  static int tableSize(int entries) {
+    return Integer.highestOneBit(Math.max(entries, 8) * 2 - 1) * 2;
+  }
+}
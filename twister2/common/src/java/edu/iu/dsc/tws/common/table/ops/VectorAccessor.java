@@ -0,0 +1,282 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.common.table.ops;
+
+import org.apache.arrow.vector.BaseVariableWidthVector;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float4Vector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.SmallIntVector;
+import org.apache.arrow.vector.TinyIntVector;
+import org.apache.arrow.vector.UInt2Vector;
+import org.apache.arrow.vector.UInt4Vector;
+import org.apache.arrow.vector.UInt8Vector;
+
+import edu.iu.dsc.tws.api.exceptions.Twister2RuntimeException;
+import edu.iu.dsc.tws.common.table.Table;
+
+import io.netty.buffer.ArrowBuf;
+
+/**
+ * Reads the values of a vector as primitives, so the operators can hash, compare and aggregate
+ * a column without creating an object for every value. Null values hash to 0, equal only to
+ * other nulls and sort before the other values.
+ */
+abstract class VectorAccessor {
+  protected final FieldVector vector;
+
+  VectorAccessor(FieldVector vector) {
+    this.vector = vector;
+  }
+
+  static VectorAccessor of(FieldVector vector) {
+    if (vector instanceof IntVector) {
+      IntVector v = (IntVector) vector;
+      return new LongAccessor(v, v::get);
+    } else if (vector instanceof BigIntVector) {
+      BigIntVector v = (BigIntVector) vector;
+      return new LongAccessor(v, v::get);
+    } else if (vector instanceof UInt8Vector) {
+      UInt8Vector v = (UInt8Vector) vector;
+      return new LongAccessor(v, v::get);
+    } else if (vector instanceof UInt4Vector) {
+      UInt4Vector v = (UInt4Vector) vector;
+      return new LongAccessor(v, v::get);
+    } else if (vector instanceof SmallIntVector) {
+      SmallIntVector v = (SmallIntVector) vector;
+      return new LongAccessor(v, v::get);
+    } else if (vector instanceof UInt2Vector) {
+      UInt2Vector v = (UInt2Vector) vector;
+      return new LongAccessor(v, v::get);
+    } else if (vector instanceof TinyIntVector) {
+      TinyIntVector v = (TinyIntVector) vector;
+      return new LongAccessor(v, v::get);
+    } else if (vector instanceof Float8Vector) {
+      Float8Vector v = (Float8Vector) vector;
+      return new DoubleAccessor(v, v::get);
+    } else if (vector instanceof Float4Vector) {
+      Float4Vector v = (Float4Vector) vector;
+      return new DoubleAccessor(v, v::get);
+    } else if (vector instanceof BaseVariableWidthVector) {
+      return new BinaryAccessor((BaseVariableWidthVector) vector);
+    }
+    throw new Twister2RuntimeException("Un-supported vector type for table operations: "
+        + vector.getClass().getSimpleName());
+  }
+
+  /**
+   * Accessors for the given columns of the table
+   */
+  static VectorAccessor[] of(Table table, int[] columns) {
+    VectorAccessor[] accessors = new VectorAccessor[columns.length];
+    for (int i = 0; i < columns.length; i++) {
+      accessors[i] = of(table.getColumns().get(columns[i]).getVector());
+    }
+    return accessors;
+  }
+
+  boolean isNull(int row) {
+    return vector.isNull(row);
+  }
+
+  FieldVector getVector() {
+    return vector;
+  }
+
+  int hash(int row) {
+    return isNull(row) ? 0 : valueHash(row);
+  }
+
+  boolean equals(int row, VectorAccessor other, int otherRow) {
+    boolean null1 = isNull(row);
+    boolean null2 = other.isNull(otherRow);
+    if (null1 || null2) {
+      return null1 && null2;
+    }
+    return valueEquals(row, other, otherRow);
+  }
+
+  int compare(int row, VectorAccessor other, int otherRow) {
+    boolean null1 = isNull(row);
+    boolean null2 = other.isNull(otherRow);
+    if (null1 || null2) {
+      return null1 == null2 ? 0 : (null1 ? -1 : 1);
+    }
+    return valueCompare(row, other, otherRow);
+  }
+
+  /**
+   * The numeric value at the row, used by the aggregations
+   */
+  abstract double getDouble(int row);
+
+  protected abstract int valueHash(int row);
+
+  protected abstract boolean valueEquals(int row, VectorAccessor other, int otherRow);
+
+  protected abstract int valueCompare(int row, VectorAccessor other, int otherRow);
+
+  interface LongGetter {
+    long get(int row);
+  }
+
+  interface DoubleGetter {
+    double get(int row);
+  }
+
+  private static final class LongAccessor extends VectorAccessor {
+    private final LongGetter getter;
+
+    LongAccessor(FieldVector vector, LongGetter getter) {
+      super(vector);
+      this.getter = getter;
+    }
+
+    @Override
+    double getDouble(int row) {
+      return getter.get(row);
+    }
+
+    @Override
+    protected int valueHash(int row) {
+      return Long.hashCode(getter.get(row));
+    }
+
+    @Override
+    protected boolean valueEquals(int row, VectorAccessor other, int otherRow) {
+      if (other instanceof LongAccessor) {
+        return getter.get(row) == ((LongAccessor) other).getter.get(otherRow);
+      }
+      return getDouble(row) == other.getDouble(otherRow);
+    }
+
+    @Override
+    protected int valueCompare(int row, VectorAccessor other, int otherRow) {
+      if (other instanceof LongAccessor) {
+        return Long.compare(getter.get(row), ((LongAccessor) other).getter.get(otherRow));
+      }
+      return Double.compare(getDouble(row), other.getDouble(otherRow));
+    }
+  }
+
+  private static final class DoubleAccessor extends VectorAccessor {
+    private final DoubleGetter getter;
+
+    DoubleAccessor(FieldVector vector, DoubleGetter getter) {
+      super(vector);
+      this.getter = getter;
+    }
+
+    @Override
+    double getDouble(int row) {
+      return getter.get(row);
+    }
+
+    @Override
+    protected int valueHash(int row) {
+      return Double.hashCode(getter.get(row));
+    }
+
+    @Override
+    protected boolean valueEquals(int row, VectorAccessor other, int otherRow) {
+      return Double.compare(getter.get(row), other.getDouble(otherRow)) == 0;
+    }
+
+    @Override
+    protected int valueCompare(int row, VectorAccessor other, int otherRow) {
+      return Double.compare(getter.get(row), other.getDouble(otherRow));
+    }
+  }
+
+  /**
+   * Compares the bytes in the data buffer of the vector in place
+   */
+  private static final class BinaryAccessor extends VectorAccessor {
+    private static final int OFFSET_WIDTH = 4;
+
+    private final ArrowBuf offsets;
+    private final ArrowBuf data;
+
+    BinaryAccessor(BaseVariableWidthVector vector) {
+      super(vector);
+      this.offsets = vector.getOffsetBuffer();
+      this.data = vector.getDataBuffer();
+    }
+
+    private int start(int row) {
+      return offsets.getInt(row * OFFSET_WIDTH);
+    }
+
+    private int end(int row) {
+      return offsets.getInt((row + 1) * OFFSET_WIDTH);
+    }
+
+    @Override
+    double getDouble(int row) {
+      throw new Twister2RuntimeException("Can not aggregate a binary column: "
+          + vector.getField().getName());
+    }
+
+    @Override
+    protected int valueHash(int row) {
+      int h = 1;
+      for (int i = start(row), end = end(row); i < end; i++) {
+        h = 31 * h + data.getByte(i);
+      }
+      return h;
+    }
+
+    @Override
+    protected boolean valueEquals(int row, VectorAccessor other, int otherRow) {
+      if (!(other instanceof BinaryAccessor)) {
+        return false;
+      }
+      BinaryAccessor o = (BinaryAccessor) other;
+      int s1 = start(row);
+      int s2 = o.start(otherRow);
+      int length = end(row) - s1;
+      if (length != o.end(otherRow) - s2) {
+        return false;
+      }
+      for (int i = 0; i < length; i++) {
+        if (data.getByte(s1 + i) != o.data.getByte(s2 + i)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    protected int valueCompare(int row, VectorAccessor other, int otherRow) {
+      if (!(other instanceof BinaryAccessor)) {
+        throw new Twister2RuntimeException("Can not compare a binary column with "
+            + other.getVector().getClass().getSimpleName());
+      }
+      BinaryAccessor o = (BinaryAccessor) other;
+      int s1 = start(row);
+      int e1 = end(row);
+      int s2 = o.start(otherRow);
+      int e2 = o.end(otherRow);
+      int length = Math.min(e1 - s1, e2 - s2);
+      for (int i = 0; i < length; i++) {
+        // unsigned, so the order matches the utf-8 order of strings
+        int c = Integer.compare(data.getByte(s1 + i) & 0xff, o.data.getByte(s2 + i) & 0xff);
+        if (c != 0) {
+          return c;
+        }
+      }
+      return Integer.compare(e1 - s1, e2 - s2);
+    }
+  }
+}
@@ -0,0 +1,487 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.common.net.tcp.request;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.net.SocketOption;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.spi.SelectorProvider;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.api.net.StatusCode;
+import edu.iu.dsc.tws.common.net.tcp.ChannelHandler;
+import edu.iu.dsc.tws.common.net.tcp.FixedBufferChannel;
+import edu.iu.dsc.tws.common.net.tcp.Progress;
+import edu.iu.dsc.tws.common.net.tcp.SelectHandler;
+import edu.iu.dsc.tws.common.net.tcp.TCPContext;
+import edu.iu.dsc.tws.common.net.tcp.TCPMessage;
+
+/**
+ * Test the batched writes and the reads of the next header together with the body, over a
+ * socket channel that takes and gives a limited number of bytes in each call
+ */
+public class BatchedChannelTest {
+  private static final int HEADER_SIZE = 8;
+
+  /**
+   * A connected socket channel that writes to memory and reads from a given stream
+   */
+  private static class MemorySocketChannel extends SocketChannel {
+    private final ByteArrayOutputStream written = new ByteArrayOutputStream();
+
+    private ByteBuffer incoming = ByteBuffer.allocate(0);
+
+    /**
+     * Maximum bytes taken by a write call
+     */
+    private int writeCapacity = Integer.MAX_VALUE;
+
+    /**
+     * Sizes of the reads, the last size is repeated
+     */
+    private int[] readSizes = {Integer.MAX_VALUE};
+
+    private int reads;
+
+    private int writes;
+
+    MemorySocketChannel() {
+      super(SelectorProvider.provider());
+    }
+
+    private int nextReadSize() {
+      return readSizes[Math.min(reads++, readSizes.length - 1)];
+    }
+
+    @Override
+    public long write(ByteBuffer[] srcs, int offset, int length) {
+      writes++;
+      long wrote = 0;
+      for (int i = offset; i < offset + length && wrote < writeCapacity; i++) {
+        ByteBuffer src = srcs[i];
+        while (src.hasRemaining() && wrote < writeCapacity) {
+          written.write(src.get());
+          wrote++;
+        }
+      }
+      return wrote;
+    }
+
+    @Override
+    public int write(ByteBuffer src) {
+      return (int) write(new ByteBuffer[]{src}, 0, 1);
+    }
+
+    @Override
+    public long read(ByteBuffer[] dsts, int offset, int length) {
+      if (!incoming.hasRemaining()) {
+        return 0;
+      }
+      int size = nextReadSize();
+      long read = 0;
+      for (int i = offset; i < offset + length && read < size; i++) {
+        ByteBuffer dst = dsts[i];
+        while (dst.hasRemaining() && incoming.hasRemaining() && read < size) {
+          dst.put(incoming.get());
+          read++;
+        }
+      }
+      return read;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) {
+      return (int) read(new ByteBuffer[]{dst}, 0, 1);
+    }
+
+    @Override
+    public SocketChannel bind(SocketAddress local) {
+      return this;
+    }
+
+    @Override
+    public <T> SocketChannel setOption(SocketOption<T> name, T value) {
+      return this;
+    }
+
+    @Override
+    public <T> T getOption(SocketOption<T> name) {
+      return null;
+    }
+
+    @Override
+    public Set<SocketOption<?>> supportedOptions() {
+      return new HashSet<>();
+    }
+
+    @Override
+    public SocketChannel shutdownInput() {
+      return this;
+    }
+
+    @Override
+    public SocketChannel shutdownOutput() {
+      return this;
+    }
+
+    @Override
+    public Socket socket() {
+      return null;
+    }
+
+    @Override
+    public boolean isConnected() {
+      return true;
+    }
+
+    @Override
+    public boolean isConnectionPending() {
+      return false;
+    }
+
+    @Override
+    public boolean connect(SocketAddress remote) {
+      return true;
+    }
+
+    @Override
+    public boolean finishConnect() {
+      return true;
+    }
+
+    @Override
+    public SocketAddress getRemoteAddress() {
+      return null;
+    }
+
+    @Override
+    public SocketAddress getLocalAddress() {
+      return null;
+    }
+
+    @Override
+    protected void implCloseSelectableChannel() {
+    }
+
+    @Override
+    protected void implConfigureBlocking(boolean block) {
+    }
+  }
+
+  /**
+   * Keeps the interests without a selector
+   */
+  private static class MemoryProgress extends Progress {
+    private final Set<SelectableChannel> reads = new HashSet<>();
+
+    private final Set<SelectableChannel> writes = new HashSet<>();
+
+    @Override
+    public void registerRead(SelectableChannel channel, SelectHandler callback) {
+      reads.add(channel);
+    }
+
+    @Override
+    public void unregisterRead(SelectableChannel channel) {
+      reads.remove(channel);
+    }
+
+    @Override
+    public boolean isReadRegistered(SelectableChannel channel) {
+      return reads.contains(channel);
+    }
+
+    @Override
+    public void registerWrite(SelectableChannel channel, SelectHandler callback) {
+      writes.add(channel);
+    }
+
+    @Override
+    public void unregisterWrite(SelectableChannel channel) {
+      writes.remove(channel);
+    }
+
+    @Override
+    public boolean isWriteRegistered(SelectableChannel channel) {
+      return writes.contains(channel);
+    }
+
+    @Override
+    public void removeAllInterest(SelectableChannel channel) {
+      reads.remove(channel);
+      writes.remove(channel);
+    }
+  }
+
+  private static class Handler implements ChannelHandler, SelectHandler {
+    private final List<TCPMessage> sent = new ArrayList<>();
+
+    private final List<TCPMessage> received = new ArrayList<>();
+
+    private int errors;
+
+    @Override
+    public void onError(SocketChannel channel, StatusCode status) {
+      errors++;
+    }
+
+    @Override
+    public void onConnect(SocketChannel channel) {
+    }
+
+    @Override
+    public void onClose(SocketChannel channel) {
+    }
+
+    @Override
+    public void onReceiveComplete(SocketChannel channel, TCPMessage readRequest) {
+      received.add(readRequest);
+    }
+
+    @Override
+    public void onSendComplete(SocketChannel channel, TCPMessage writeRequest) {
+      sent.add(writeRequest);
+    }
+
+    @Override
+    public void handleRead(SelectableChannel channel) {
+    }
+
+    @Override
+    public void handleWrite(SelectableChannel channel) {
+    }
+
+    @Override
+    public void handleAccept(SelectableChannel channel) {
+    }
+
+    @Override
+    public void handleConnect(SelectableChannel channel) {
+    }
+
+    @Override
+    public void handleError(SelectableChannel channel) {
+      errors++;
+    }
+  }
+
+  private MemorySocketChannel socket = new MemorySocketChannel();
+
+  private MemoryProgress progress = new MemoryProgress();
+
+  private Handler handler = new Handler();
+
+  private FixedBufferChannel channel(Config cfg) {
+    return new FixedBufferChannel(cfg, progress, handler, socket, handler);
+  }
+
+  private static byte[] body(int index) {
+    byte[] b = new byte[1 + index % 13];
+    for (int i = 0; i < b.length; i++) {
+      b[i] = (byte) (index + i);
+    }
+    return b;
+  }
+
+  private static TCPMessage sendMessage(int index, int edge) {
+    byte[] b = body(index);
+    return new TCPMessage(ByteBuffer.wrap(b), edge, b.length);
+  }
+
+  /**
+   * The bytes of the messages as they are written to the socket
+   */
+  private static byte[] stream(int messages, int edges) {
+    ByteBuffer buffer = ByteBuffer.allocate(messages * (HEADER_SIZE + 13));
+    for (int i = 0; i < messages; i++) {
+      byte[] b = body(i);
+      buffer.putInt(b.length);
+      buffer.putInt(i % edges);
+      buffer.put(b);
+    }
+    byte[] bytes = new byte[buffer.position()];
+    buffer.flip();
+    buffer.get(bytes);
+    return bytes;
+  }
+
+  private static byte[] bytes(TCPMessage message) {
+    ByteBuffer buffer = message.getByteBuffer();
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.get(bytes);
+    return bytes;
+  }
+
+  private void write(FixedBufferChannel channel, int messages, int edges) {
+    for (int i = 0; i < messages; i++) {
+      Assert.assertTrue(channel.addWriteRequest(sendMessage(i, i % edges)));
+    }
+  }
+
+  /**
+   * Post the receives and read the stream, checking the messages arrive in order
+   */
+  private void readAndCheck(int messages, int edges) {
+    FixedBufferChannel channel = channel(Config.newBuilder().build());
+    socket.incoming = ByteBuffer.wrap(stream(messages, edges));
+    for (int i = 0; i < messages; i++) {
+      channel.addReadRequest(new TCPMessage(ByteBuffer.allocate(16), i % edges, 16));
+    }
+    for (int i = 0; i < messages * HEADER_SIZE * 2 && handler.received.size() < messages; i++) {
+      channel.read();
+    }
+    Assert.assertEquals(0, handler.errors);
+    Assert.assertEquals(messages, handler.received.size());
+    for (int i = 0; i < messages; i++) {
+      TCPMessage m = handler.received.get(i);
+      Assert.assertTrue(m.isComplete());
+      Assert.assertArrayEquals(body(i), bytes(m));
+    }
+    Assert.assertFalse(socket.incoming.hasRemaining());
+  }
+
+  @Test
+  public void testManySmallMessages() {
+    FixedBufferChannel channel = channel(Config.newBuilder()
+        .put(TCPContext.TWISTER2_WRITE_IOV_MAX, 16).build());
+    write(channel, 1000, 3);
+    channel.enableWriting();
+    channel.write();
+
+    Assert.assertEquals(1000, handler.sent.size());
+    for (TCPMessage m : handler.sent) {
+      Assert.assertTrue(m.isComplete());
+    }
+    // 8 messages go in each gathering write
+    Assert.assertEquals(125, socket.writes);
+    Assert.assertArrayEquals(stream(1000, 3), socket.written.toByteArray());
+    Assert.assertFalse(channel.isPending());
+    Assert.assertFalse(progress.isWriteRegistered(socket));
+
+    handler.sent.clear();
+    readAndCheck(1000, 3);
+  }
+
+  @Test
+  public void testPartialGatheringWrites() {
+    socket.writeCapacity = 7;
+    FixedBufferChannel channel = channel(Config.newBuilder()
+        .put(TCPContext.TWISTER2_WRITE_IOV_MAX, 6).build());
+    write(channel, 50, 1);
+    channel.enableWriting();
+    byte[] expected = stream(50, 1);
+
+    int calls = 0;
+    while (handler.sent.size() < 50) {
+      channel.write();
+      calls++;
+      Assert.assertTrue(calls < expected.length);
+      // a message completes only after its body is written, and in order
+      int written = socket.written.size();
+      int completed = 0;
+      for (int i = 0, end = 0; i < 50; i++) {
+        end += HEADER_SIZE + body(i).length;
+        if (end <= written) {
+          completed++;
+        }
+      }
+      Assert.assertEquals(completed, handler.sent.size());
+      Assert.assertEquals(handler.sent.size() < 50, progress.isWriteRegistered(socket));
+    }
+    for (int i = 0; i < 50; i++) {
+      Assert.assertEquals(body(i).length, handler.sent.get(i).getLength());
+    }
+    Assert.assertArrayEquals(expected, socket.written.toByteArray());
+    Assert.assertFalse(channel.isPending());
+  }
+
+  @Test
+  public void testNextHeaderSplitAcrossReads() {
+    // a body and 3 bytes of the next header, then the rest of the header with a part of the
+    // body, and every other split point after that
+    socket.readSizes = new int[]{8, 4, 10, 2, 1, 13};
+    readAndCheck(200, 2);
+  }
+
+  @Test
+  public void testRandomReadSizes() {
+    Random random = new Random(7);
+    int[] sizes = new int[500];
+    for (int i = 0; i < sizes.length; i++) {
+      sizes[i] = 1 + random.nextInt(30);
+    }
+    socket.readSizes = sizes;
+    readAndCheck(300, 4);
+  }
+
+  @Test
+  public void testReadWaitsForReceive() {
+    FixedBufferChannel channel = channel(Config.newBuilder().build());
+    socket.incoming = ByteBuffer.wrap(stream(2, 2));
+    channel.addReadRequest(new TCPMessage(ByteBuffer.allocate(16), 0, 16));
+    channel.read();
+    Assert.assertEquals(1, handler.received.size());
+    // the second message has no buffer, the next header is already read
+    channel.read();
+    Assert.assertEquals(1, handler.received.size());
+
+    channel.addReadRequest(new TCPMessage(ByteBuffer.allocate(16), 1, 16));
+    channel.read();
+    Assert.assertEquals(2, handler.received.size());
+    Assert.assertArrayEquals(body(1), bytes(handler.received.get(1)));
+  }
+
+  @Test
+  public void testForceFlush() {
+    FixedBufferChannel channel = channel(Config.newBuilder()
+        .put(TCPContext.TWISTER2_WRITE_IOV_MAX, 4).build());
+    write(channel, 10, 1);
+    // the flush writes all the batches without the write interest
+    channel.forceFlush();
+    Assert.assertEquals(10, handler.sent.size());
+    Assert.assertArrayEquals(stream(10, 1), socket.written.toByteArray());
+    Assert.assertFalse(channel.isPending());
+  }
+
+  @Test
+  public void testForceFlushStopsWhenFull() {
+    socket.writeCapacity = 0;
+    FixedBufferChannel channel = channel(Config.newBuilder().build());
+    write(channel, 5, 1);
+    channel.forceFlush();
+    Assert.assertTrue(handler.sent.isEmpty());
+    Assert.assertTrue(channel.isPending());
+
+    // the partly written batch is continued
+    socket.writeCapacity = 20;
+    channel.forceFlush();
+    Assert.assertEquals(2, handler.sent.size());
+    socket.writeCapacity = Integer.MAX_VALUE;
+    channel.forceFlush();
+    Assert.assertEquals(5, handler.sent.size());
+    Assert.assertArrayEquals(stream(5, 1), socket.written.toByteArray());
+    Assert.assertFalse(channel.isPending());
+  }
+}
@@ -0,0 +1,165 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.common.net.tcp.request;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.common.net.NetworkInfo;
+import edu.iu.dsc.tws.common.net.tcp.TCPChannel;
+import edu.iu.dsc.tws.common.net.tcp.TCPContext;
+import edu.iu.dsc.tws.common.net.tcp.TCPMessage;
+
+/**
+ * Two channels with dedicated I/O threads
+ */
+public class ReactorChannelTest {
+  private static final long TIME_LIMIT = 10000;
+
+  private static int nextPort = 10125;
+
+  private Config cfg;
+
+  private TCPChannel[] channels = new TCPChannel[2];
+
+  private NetworkInfo[] infos = new NetworkInfo[2];
+
+  @Before
+  public void setUp() throws Exception {
+    cfg = Config.newBuilder()
+        .put(TCPContext.TWISTER2_IO_THREADS, 2)
+        .put(TCPContext.TWISTER2_IO_PENDING_SENDS, 8)
+        .build();
+    for (int i = 0; i < 2; i++) {
+      channels[i] = listen(i);
+    }
+    connect(Arrays.asList(infos), Arrays.asList(infos));
+  }
+
+  @After
+  public void tearDown() {
+    for (TCPChannel channel : channels) {
+      channel.stop();
+    }
+  }
+
+  private TCPChannel listen(int worker) {
+    NetworkInfo info = new NetworkInfo(worker);
+    info.addProperty(TCPContext.NETWORK_PORT, nextPort++);
+    info.addProperty(TCPContext.NETWORK_HOSTNAME, "localhost");
+    infos[worker] = info;
+    TCPChannel channel = new TCPChannel(cfg, info);
+    channel.startListening();
+    return channel;
+  }
+
+  /**
+   * Connect the channels to the given workers and wait for the connections
+   */
+  private void connect(List<NetworkInfo> first, List<NetworkInfo> second)
+      throws InterruptedException {
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 2; i++) {
+      TCPChannel channel = channels[i];
+      List<NetworkInfo> workers = i == 0 ? first : second;
+      Thread t = new Thread(() -> {
+        channel.startConnections(workers);
+        channel.waitForConnections(TIME_LIMIT);
+      });
+      t.start();
+      threads.add(t);
+    }
+    for (Thread t : threads) {
+      t.join();
+    }
+  }
+
+  private static ByteBuffer message(int index, int length) {
+    ByteBuffer buffer = ByteBuffer.allocate(length);
+    for (int i = 0; i < length; i++) {
+      buffer.put((byte) (index + i));
+    }
+    return buffer;
+  }
+
+  /**
+   * Send the messages in both directions, the receives of one side are posted after its
+   * messages arrive
+   */
+  private void sendAndReceive(int count) {
+    List<TCPMessage> sends = new ArrayList<>();
+    List<List<TCPMessage>> receives = new ArrayList<>();
+    for (int i = 0; i < 2; i++) {
+      receives.add(new ArrayList<>());
+    }
+    for (int j = 0; j < count; j++) {
+      receives.get(0).add(channels[0].iRecv(ByteBuffer.allocate(64), 64, 1, j % 3));
+    }
+    for (int i = 0; i < 2; i++) {
+      for (int j = 0; j < count; j++) {
+        // more sends than the reactor holds, the posting waits for the I/O thread
+        sends.add(channels[i].iSend(message(j, 1 + j % 40), 1 + j % 40, 1 - i, j % 3));
+      }
+    }
+    for (int j = 0; j < count; j++) {
+      receives.get(1).add(channels[1].iRecv(ByteBuffer.allocate(64), 64, 0, j % 3));
+    }
+
+    long start = System.currentTimeMillis();
+    List<TCPMessage> all = new ArrayList<>(sends);
+    all.addAll(receives.get(0));
+    all.addAll(receives.get(1));
+    while (!all.stream().allMatch(TCPMessage::isComplete)) {
+      Assert.assertTrue("Timed out", System.currentTimeMillis() - start < TIME_LIMIT);
+      for (TCPChannel channel : channels) {
+        channel.progress();
+      }
+    }
+
+    for (List<TCPMessage> received : receives) {
+      for (int j = 0; j < count; j++) {
+        ByteBuffer buffer = received.get(j).getByteBuffer();
+        Assert.assertEquals(1 + j % 40, buffer.remaining());
+        for (int k = 0; k < buffer.remaining(); k++) {
+          Assert.assertEquals((byte) (j + k), buffer.get(k));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testSendReceive() {
+    sendAndReceive(300);
+  }
+
+  @Test
+  public void testReconnect() throws Exception {
+    sendAndReceive(20);
+
+    // the second worker restarts and the first one connects to it again
+    channels[0].closeConnection(1);
+    channels[1].stop();
+    channels[1] = listen(1);
+    connect(Collections.singletonList(infos[1]), Arrays.asList(infos));
+
+    sendAndReceive(100);
+  }
+}
@@ -0,0 +1,127 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.common.table.ops;
+
+import java.util.Arrays;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.types.Types;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.iu.dsc.tws.common.table.Table;
+
+import static edu.iu.dsc.tws.common.table.ops.TestTables.doubles;
+import static edu.iu.dsc.tws.common.table.ops.TestTables.ints;
+import static edu.iu.dsc.tws.common.table.ops.TestTables.row;
+import static edu.iu.dsc.tws.common.table.ops.TestTables.rows;
+import static edu.iu.dsc.tws.common.table.ops.TestTables.strings;
+import static edu.iu.dsc.tws.common.table.ops.TestTables.table;
+
+public class TableGroupByTest {
+  private BufferAllocator allocator;
+
+  private Table input;
+
+  @Before
+  public void setUp() {
+    allocator = new RootAllocator(Long.MAX_VALUE);
+    input = table(strings("item", allocator, "b", "a", "b", null, "a", "c", null),
+        ints("qty", allocator, 2, 5, null, 1, 3, null, 7),
+        doubles("price", allocator, 1.5, 2.0, 4.5, 8.0, 1.0, null, 2.0));
+  }
+
+  @After
+  public void tearDown() {
+    TableUtils.close(input);
+    allocator.close();
+  }
+
+  @Test
+  public void testAggregates() {
+    Table grouped = TableGroupBy.groupBy(input, new int[]{0}, Arrays.asList(
+        Aggregation.sum(1), Aggregation.count(1), Aggregation.min(2),
+        Aggregation.max(2), Aggregation.mean(2)), allocator);
+    try {
+      // the groups are in the order they first appear and the null keys form a group
+      Assert.assertEquals(Arrays.asList(
+          row("b", 2.0, 1, 1.5, 4.5, 3.0),
+          row("a", 8.0, 2, 1.0, 2.0, 1.5),
+          row(null, 8.0, 2, 2.0, 8.0, 5.0),
+          row("c", 0.0, 0, null, null, null)), rows(grouped));
+
+      Assert.assertEquals("item", grouped.getColumns().get(0).getVector().getName());
+      Assert.assertEquals("sum(qty)", grouped.getColumns().get(1).getVector().getName());
+      Assert.assertEquals("count(qty)", grouped.getColumns().get(2).getVector().getName());
+      Assert.assertEquals("mean(price)", grouped.getColumns().get(5).getVector().getName());
+      Assert.assertEquals(Types.MinorType.INT,
+          grouped.getColumns().get(2).getVector().getMinorType());
+      Assert.assertEquals(Types.MinorType.FLOAT8,
+          grouped.getColumns().get(1).getVector().getMinorType());
+    } finally {
+      TableUtils.close(grouped);
+    }
+  }
+
+  @Test
+  public void testMinMaxKeepType() {
+    Table grouped = TableGroupBy.groupBy(input, new int[]{0}, Arrays.asList(
+        Aggregation.min(1), Aggregation.max(1)), allocator);
+    try {
+      Assert.assertEquals(Types.MinorType.INT,
+          grouped.getColumns().get(1).getVector().getMinorType());
+      Assert.assertEquals(Arrays.asList(
+          row("b", 2, 2),
+          row("a", 3, 5),
+          row(null, 1, 7),
+          row("c", null, null)), rows(grouped));
+    } finally {
+      TableUtils.close(grouped);
+    }
+  }
+
+  @Test
+  public void testMultiColumnKeys() {
+    Table t = table(ints("a", allocator, 1, 1, 2, 1, 2),
+        ints("b", allocator, 1, 2, 1, 1, null),
+        ints("v", allocator, 10, 20, 30, 40, 50));
+    Table grouped = TableGroupBy.groupBy(t, new int[]{0, 1},
+        Arrays.asList(Aggregation.sum(2), Aggregation.count(2)), allocator);
+    try {
+      Assert.assertEquals(Arrays.asList(
+          row(1, 1, 50.0, 2),
+          row(1, 2, 20.0, 1),
+          row(2, 1, 30.0, 1),
+          row(2, null, 50.0, 1)), rows(grouped));
+    } finally {
+      TableUtils.close(grouped);
+      TableUtils.close(t);
+    }
+  }
+
+  @Test
+  public void testEmptyTable() {
+    Table t = table(ints("a", allocator), doubles("v", allocator));
+    Table grouped = TableGroupBy.groupBy(t, new int[]{0},
+        Arrays.asList(Aggregation.sum(1)), allocator);
+    try {
+      Assert.assertEquals(0, grouped.rowCount());
+      Assert.assertEquals(2, grouped.getColumns().size());
+    } finally {
+      TableUtils.close(grouped);
+      TableUtils.close(t);
+    }
+  }
+}
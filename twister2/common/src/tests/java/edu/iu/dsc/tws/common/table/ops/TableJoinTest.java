@@ -0,0 +1,162 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.common.table.ops;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.iu.dsc.tws.api.comms.CommunicationContext;
+import edu.iu.dsc.tws.common.table.Table;
+import edu.iu.dsc.tws.common.table.arrow.ArrowTable;
+
+import static edu.iu.dsc.tws.common.table.ops.TestTables.ints;
+import static edu.iu.dsc.tws.common.table.ops.TestTables.row;
+import static edu.iu.dsc.tws.common.table.ops.TestTables.rows;
+import static edu.iu.dsc.tws.common.table.ops.TestTables.strings;
+import static edu.iu.dsc.tws.common.table.ops.TestTables.table;
+
+public class TableJoinTest {
+  private BufferAllocator allocator;
+
+  private Table left;
+
+  private Table right;
+
+  @Before
+  public void setUp() {
+    allocator = new RootAllocator(Long.MAX_VALUE);
+    // key 1 is duplicated on both sides, 2 only on the left, 4 only on the right
+    left = table(ints("k", allocator, 1, 2, null, 1, 3),
+        strings("l", allocator, "a", "b", "c", "d", "e"));
+    right = table(ints("k", allocator, 3, 1, null, 1, 4),
+        strings("r", allocator, "v", "w", "x", "y", "z"));
+  }
+
+  @After
+  public void tearDown() {
+    TableUtils.close(left);
+    TableUtils.close(right);
+    allocator.close();
+  }
+
+  private List<List<Object>> join(CommunicationContext.JoinType type) {
+    Table joined = TableJoin.join(left, right, new int[]{0}, new int[]{0}, type, allocator);
+    try {
+      Assert.assertEquals(4, joined.getColumns().size());
+      return rows(joined);
+    } finally {
+      TableUtils.close(joined);
+    }
+  }
+
+  @Test
+  public void testInner() {
+    Assert.assertEquals(Arrays.asList(
+        row(1, "a", 1, "w"),
+        row(1, "a", 1, "y"),
+        row(1, "d", 1, "w"),
+        row(1, "d", 1, "y"),
+        row(3, "e", 3, "v")), join(CommunicationContext.JoinType.INNER));
+  }
+
+  @Test
+  public void testLeft() {
+    Assert.assertEquals(Arrays.asList(
+        row(1, "a", 1, "w"),
+        row(1, "a", 1, "y"),
+        row(2, "b", null, null),
+        row(null, "c", null, null),
+        row(1, "d", 1, "w"),
+        row(1, "d", 1, "y"),
+        row(3, "e", 3, "v")), join(CommunicationContext.JoinType.LEFT));
+  }
+
+  @Test
+  public void testRight() {
+    Assert.assertEquals(Arrays.asList(
+        row(1, "a", 1, "w"),
+        row(1, "a", 1, "y"),
+        row(1, "d", 1, "w"),
+        row(1, "d", 1, "y"),
+        row(3, "e", 3, "v"),
+        row(null, null, null, "x"),
+        row(null, null, 4, "z")), join(CommunicationContext.JoinType.RIGHT));
+  }
+
+  @Test
+  public void testFullOuter() {
+    Assert.assertEquals(Arrays.asList(
+        row(1, "a", 1, "w"),
+        row(1, "a", 1, "y"),
+        row(2, "b", null, null),
+        row(null, "c", null, null),
+        row(1, "d", 1, "w"),
+        row(1, "d", 1, "y"),
+        row(3, "e", 3, "v"),
+        row(null, null, null, "x"),
+        row(null, null, 4, "z")), join(CommunicationContext.JoinType.FULL_OUTER));
+  }
+
+  @Test
+  public void testMultiColumnKeys() {
+    Table l = table(ints("a", allocator, 1, 1, 2, 2),
+        strings("b", allocator, "x", "y", "x", null));
+    Table r = table(strings("b", allocator, "x", "x", null, "y"),
+        ints("a", allocator, 2, 1, 2, 3));
+    Table joined = TableJoin.join(l, r, new int[]{0, 1}, new int[]{1, 0},
+        CommunicationContext.JoinType.FULL_OUTER, allocator);
+    try {
+      Assert.assertEquals(Arrays.asList(
+          row(1, "x", "x", 1),
+          row(1, "y", null, null),
+          row(2, "x", "x", 2),
+          row(2, null, null, null),
+          row(null, null, null, 2),
+          row(null, null, "y", 3)), rows(joined));
+    } finally {
+      TableUtils.close(joined);
+      TableUtils.close(l);
+      TableUtils.close(r);
+    }
+  }
+
+  @Test
+  public void testEmptySide() {
+    Table empty = TableUtils.empty(((ArrowTable) right).getSchema(), allocator);
+    Table inner = TableJoin.join(left, empty, new int[]{0}, new int[]{0},
+        CommunicationContext.JoinType.INNER, allocator);
+    Table outer = TableJoin.join(left, empty, new int[]{0}, new int[]{0},
+        CommunicationContext.JoinType.LEFT, allocator);
+    try {
+      Assert.assertEquals(0, inner.rowCount());
+      Assert.assertEquals(5, outer.rowCount());
+      Assert.assertEquals(row(2, "b", null, null), rows(outer).get(1));
+    } finally {
+      TableUtils.close(inner);
+      TableUtils.close(outer);
+      TableUtils.close(empty);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testKeyCountMismatch() {
+    TableJoin.join(left, right, new int[]{0}, new int[]{0, 1},
+        CommunicationContext.JoinType.INNER, allocator);
+  }
+}
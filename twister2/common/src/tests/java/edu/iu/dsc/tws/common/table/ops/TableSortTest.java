@@ -0,0 +1,131 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.common.table.ops;
+
+import java.util.Arrays;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.iu.dsc.tws.common.table.Table;
+import edu.iu.dsc.tws.common.table.arrow.ArrowTable;
+
+import static edu.iu.dsc.tws.common.table.ops.TestTables.doubles;
+import static edu.iu.dsc.tws.common.table.ops.TestTables.ints;
+import static edu.iu.dsc.tws.common.table.ops.TestTables.row;
+import static edu.iu.dsc.tws.common.table.ops.TestTables.rows;
+import static edu.iu.dsc.tws.common.table.ops.TestTables.strings;
+import static edu.iu.dsc.tws.common.table.ops.TestTables.table;
+
+public class TableSortTest {
+  private BufferAllocator allocator;
+
+  private Table input;
+
+  @Before
+  public void setUp() {
+    allocator = new RootAllocator(Long.MAX_VALUE);
+    input = table(strings("s", allocator, "b", "a", null, "b", "a", "ab"),
+        ints("i", allocator, 1, 2, 3, null, 2, 1),
+        doubles("d", allocator, 0.5, 1.5, 2.5, 3.5, 4.5, 5.5));
+  }
+
+  @After
+  public void tearDown() {
+    TableUtils.close(input);
+    allocator.close();
+  }
+
+  @Test
+  public void testMultiColumnAscending() {
+    Table sorted = TableSort.sort(input, new int[]{0, 1}, null, allocator);
+    try {
+      // nulls first, equal keys keep the input order
+      Assert.assertEquals(Arrays.asList(
+          row(null, 3, 2.5),
+          row("a", 2, 1.5),
+          row("a", 2, 4.5),
+          row("ab", 1, 5.5),
+          row("b", null, 3.5),
+          row("b", 1, 0.5)), rows(sorted));
+    } finally {
+      TableUtils.close(sorted);
+    }
+  }
+
+  @Test
+  public void testMixedOrder() {
+    Table sorted = TableSort.sort(input, new int[]{1, 0}, new boolean[]{false, true},
+        allocator);
+    try {
+      Assert.assertEquals(Arrays.asList(
+          row(null, 3, 2.5),
+          row("a", 2, 1.5),
+          row("a", 2, 4.5),
+          row("ab", 1, 5.5),
+          row("b", 1, 0.5),
+          row("b", null, 3.5)), rows(sorted));
+    } finally {
+      TableUtils.close(sorted);
+    }
+  }
+
+  @Test
+  public void testSortIndexes() {
+    Assert.assertArrayEquals(new int[]{5, 4, 3, 2, 1, 0},
+        TableSort.sortIndexes(input, new int[]{2}, new boolean[]{false}));
+    Assert.assertArrayEquals(new int[]{3, 0, 5, 1, 4, 2},
+        TableSort.sortIndexes(input, new int[]{1}, null));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testOrderLengthMismatch() {
+    TableSort.sortIndexes(input, new int[]{0, 1}, new boolean[]{true});
+  }
+
+  @Test
+  public void testTake() {
+    Table taken = TableUtils.take(input, new int[]{4, -1, 0, 9}, 3, allocator);
+    try {
+      Assert.assertEquals(Arrays.asList(
+          row("a", 2, 4.5),
+          row(null, null, null),
+          row("b", 1, 0.5)), rows(taken));
+    } finally {
+      TableUtils.close(taken);
+    }
+  }
+
+  @Test
+  public void testConcat() {
+    Table other = table(strings("s", allocator, "z", null),
+        ints("i", allocator, null, 9),
+        doubles("d", allocator, 6.5, null));
+    Table empty = TableUtils.empty(((ArrowTable) input).getSchema(), allocator);
+    Table all = TableUtils.concat(Arrays.asList(input, empty, other), allocator);
+    try {
+      Assert.assertEquals(8, all.rowCount());
+      Assert.assertEquals(rows(input), rows(all).subList(0, 6));
+      Assert.assertEquals(Arrays.asList(row("z", null, 6.5), row(null, 9, null)),
+          rows(all).subList(6, 8));
+      Assert.assertSame(input, TableUtils.concat(Arrays.asList(input), allocator));
+    } finally {
+      TableUtils.close(all);
+      TableUtils.close(empty);
+      TableUtils.close(other);
+    }
+  }
+}
@@ -0,0 +1,106 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.common.table.ops;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+import edu.iu.dsc.tws.common.table.Table;
+import edu.iu.dsc.tws.common.table.arrow.ArrowTable;
+
+/**
+ * Builds small arrow tables for the tests and reads them back as rows of java objects
+ */
+final class TestTables {
+  private TestTables() {
+  }
+
+  static IntVector ints(String name, BufferAllocator allocator, Integer... values) {
+    IntVector vector = new IntVector(name, allocator);
+    vector.allocateNew(values.length);
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] == null) {
+        vector.setNull(i);
+      } else {
+        vector.set(i, values[i]);
+      }
+    }
+    vector.setValueCount(values.length);
+    return vector;
+  }
+
+  static Float8Vector doubles(String name, BufferAllocator allocator, Double... values) {
+    Float8Vector vector = new Float8Vector(name, allocator);
+    vector.allocateNew(values.length);
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] == null) {
+        vector.setNull(i);
+      } else {
+        vector.set(i, values[i]);
+      }
+    }
+    vector.setValueCount(values.length);
+    return vector;
+  }
+
+  static VarCharVector strings(String name, BufferAllocator allocator, String... values) {
+    VarCharVector vector = new VarCharVector(name, allocator);
+    vector.allocateNew();
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] == null) {
+        vector.setNull(i);
+      } else {
+        vector.setSafe(i, values[i].getBytes(StandardCharsets.UTF_8));
+      }
+    }
+    vector.setValueCount(values.length);
+    return vector;
+  }
+
+  static Table table(FieldVector... vectors) {
+    List<Field> fields = new ArrayList<>();
+    for (FieldVector v : vectors) {
+      fields.add(v.getField());
+    }
+    return new ArrowTable(new Schema(fields), Arrays.asList(vectors));
+  }
+
+  /**
+   * The rows of the table, the strings are returned as java strings
+   */
+  static List<List<Object>> rows(Table table) {
+    List<List<Object>> rows = new ArrayList<>();
+    for (int r = 0; r < table.rowCount(); r++) {
+      List<Object> row = new ArrayList<>();
+      for (int c = 0; c < table.getColumns().size(); c++) {
+        Object value = table.getColumns().get(c).get(r);
+        row.add(value == null || value instanceof Number ? value : value.toString());
+      }
+      rows.add(row);
+    }
+    return rows;
+  }
+
+  static List<Object> row(Object... values) {
+    return Arrays.asList(values);
+  }
+}
@@ -22,6 +22,7 @@ import edu.iu.dsc.tws.api.comms.SingularReceiver;
 import edu.iu.dsc.tws.api.comms.messaging.types.MessageType;
 import edu.iu.dsc.tws.api.comms.packing.MessageSchema;
 import edu.iu.dsc.tws.comms.dfw.AllReduce;
+import edu.iu.dsc.tws.comms.dfw.PeerAllReduce;
 import edu.iu.dsc.tws.comms.utils.LogicalPlanBuilder;
 
 /**
@@ -41,6 +42,13 @@ public class BAllReduce extends BaseOperation {
       throw new IllegalArgumentException("The destination cannot be empty");
     }
 
+    if (!CommunicationContext.ALLREDUCE_ALGO_TREE.equals(
+        CommunicationContext.allReduceAlgorithm(comm.getConfig()))) {
+      op = new PeerAllReduce(comm.getConfig(), comm.getChannel(), plan, sources, targets,
+          fnc, rcvr, dataType, reduceEdgeId, false, messageSchema, comm::nextId);
+      return;
+    }
+
     int middleTask = comm.nextId();
     int firstSource = sources.iterator().next();
     plan.addLogicalIdToWorker(plan.getWorkerForForLogicalId(firstSource), middleTask);
@@ -72,6 +72,11 @@ public class BJoin extends BaseOperation {
    */
   private TWSChannel channel;
 
+  /**
+   * Joins the relations once both are received
+   */
+  private JoinBatchCombinedReceiver commonReceiver;
+
   /*BARRIER RELATED FLAGS*/
   private byte[] currentBarrier = null;
   private boolean leftBarrierSent;
@@ -113,11 +118,12 @@ public class BJoin extends BaseOperation {
     this.destinationSelector = destSelector;
     this.channel = comm.getChannel();
 
-    JoinBatchCombinedReceiver commonReceiver = new JoinBatchCombinedReceiver(rcvr,
+    this.commonReceiver = new JoinBatchCombinedReceiver(rcvr,
         joinAlgorithm,
         joinType,
         new KeyComparatorWrapper(comparator),
-        keyType);
+        keyType,
+        comm.getPersistentDirectories());
 
     MessageReceiver leftFinalReceiver;
     MessageReceiver rightFinalReceiver;
@@ -298,6 +304,7 @@ public class BJoin extends BaseOperation {
   public void close() {
     partitionLeft.close();
     partitionRight.close();
+    commonReceiver.close();
   }
 
   /**
@@ -13,8 +13,10 @@ package edu.iu.dsc.tws.comms.dfw;
 
 import java.nio.ByteBuffer;
 import java.util.ArrayDeque;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -44,6 +46,8 @@ import edu.iu.dsc.tws.api.comms.packing.DataBuffer;
 import edu.iu.dsc.tws.api.comms.packing.MessageDeSerializer;
 import edu.iu.dsc.tws.api.comms.packing.MessageSerializer;
 import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.api.util.KryoSerializer;
+import edu.iu.dsc.tws.comms.metrics.OperationMetrics;
 
 public class ChannelDataFlowOperation implements ChannelListener, ChannelMessageReleaseCallback {
   private static final Logger LOG = Logger.getLogger(ChannelDataFlowOperation.class.getName());
@@ -140,6 +144,11 @@ public class ChannelDataFlowOperation implements ChannelListener, ChannelMessage
    */
   private Map<Integer, InMessage> currentMessages = new HashMap<>();
 
+  /**
+   * After the operation is closed the buffers coming back are given to the channel
+   */
+  private volatile boolean closed = false;
+
   /**
    * These are the workers from which we receive messages
    */
@@ -162,6 +171,26 @@ public class ChannelDataFlowOperation implements ChannelListener, ChannelMessage
 
   private AtomicInteger externalSendsPending = new AtomicInteger(0);
 
+  /**
+   * Deliver the messages to a single internal route from the send call
+   */
+  private boolean localShortCircuit;
+
+  /**
+   * Copies the messages delivered to the internal routes, null if the references are given
+   */
+  private KryoSerializer localCopier;
+
+  /**
+   * Credit based flow control of a streaming edge, null if not used
+   */
+  private CreditFlowControl flowControl;
+
+  /**
+   * Metrics of the edge, null if the metrics are not enabled
+   */
+  private OperationMetrics metrics;
+
   ChannelDataFlowOperation(TWSChannel channel) {
     this.channel = channel;
   }
@@ -194,6 +223,11 @@ public class ChannelDataFlowOperation implements ChannelListener, ChannelMessage
     this.messageSerializer = serializer;
     this.messageDeSerializer = deSerializer;
 
+    this.localShortCircuit = CommunicationContext.isLocalShortCircuit(config);
+    if (CommunicationContext.isLocalCopy(config)) {
+      this.localCopier = new KryoSerializer();
+    }
+
     int noOfSendBuffers = CommunicationContext.sendBuffersCount(config);
     int sendBufferSize = CommunicationContext.bufferSize(config);
 
@@ -204,6 +238,8 @@ public class ChannelDataFlowOperation implements ChannelListener, ChannelMessage
     this.receiveBuffers = new HashMap<>();
     this.localReceiveBuffers = new ArrayDeque<>();
 
+    initMetrics();
+
     LOG.log(Level.FINE, String.format("%d setup communication", instancePlan.getThisWorker()));
     // now setup the sends and receives
     setupCommunication();
@@ -264,10 +300,36 @@ public class ChannelDataFlowOperation implements ChannelListener, ChannelMessage
     receiveProgressTracker = new ProgressionTracker(items);
   }
 
+  private void initMetrics() {
+    metrics = OperationMetrics.create(config, executor, edge);
+    if (metrics == null) {
+      return;
+    }
+    metrics.gauge("send.queue.depth", () -> queuedMessages(pendingSendMessagesPerSource));
+    metrics.gauge("receive.queue.depth", () -> queuedMessages(pendingReceiveMessagesPerSource)
+        + queuedMessages(pendingReceiveDeSerializations));
+    metrics.gauge("send.buffers.free", () -> sendBuffers.size());
+  }
+
+  private static long queuedMessages(Map<Integer, ? extends Queue<?>> queues) {
+    long total = 0;
+    for (Queue<?> queue : queues.values()) {
+      total += queue.size();
+    }
+    return total;
+  }
+
   /**
    * Setup the receives and send sendBuffers
    */
   private void setupCommunication() {
+    if (config.getBooleanValue(CommunicationContext.STREAMING, false)
+        && CommunicationContext.isStreamFlowControl(config)) {
+      flowControl = new CreditFlowControl(channel, edge, executor,
+          instancePlan.getAllWorkers(), receivingExecutors,
+          CommunicationContext.streamFlowControlCredits(config));
+    }
+
     // we will receive from these
     int maxReceiveBuffers = CommunicationContext.receiveBufferCount(config);
     int receiveBufferSize = CommunicationContext.bufferSize(config);
@@ -287,7 +349,9 @@ public class ChannelDataFlowOperation implements ChannelListener, ChannelMessage
     int sendBufferCount = CommunicationContext.sendBuffersCount(config);
     for (int i = 0; i < sendBufferCount; i++) {
       DataBuffer buffer = new DataBuffer(channel.createBuffer(sendBufferSize));
-      sendBuffers.offer(buffer);
+      if (!sendBuffers.offer(buffer)) {
+        channel.releaseBuffer(buffer.getByteBuffer());
+      }
     }
   }
 
@@ -337,6 +401,24 @@ public class ChannelDataFlowOperation implements ChannelListener, ChannelMessage
     byteBuffer.position(buffer.getSize());
     byteBuffer.flip();
 
+    if (flowControl != null) {
+      if (CreditFlowControl.isCredit(buffer)) {
+        // the credits come on the data buffers, give the buffer back to the channel
+        flowControl.onCredits(id, buffer);
+        byteBuffer.clear();
+        if (closed) {
+          channel.releaseBuffer(byteBuffer);
+        } else {
+          receiveBuffers.get(id).offer(buffer);
+        }
+        return;
+      }
+      flowControl.received(id);
+    }
+    if (metrics != null) {
+      metrics.bytesReceived(id, buffer.getSize());
+    }
+
     // we have the source of the message at 0th position as an integer
     int source = byteBuffer.getInt(0);
     InMessage currentMessage = currentMessages.get(source);
@@ -403,6 +485,10 @@ public class ChannelDataFlowOperation implements ChannelListener, ChannelMessage
    * send messages through this communication
    */
   public void progress() {
+    if (flowControl != null) {
+      flowControl.progress();
+    }
+
     if (sendProgressTracker.canProgress()) {
       int sendId = sendProgressTracker.next();
       if (sendId != Integer.MIN_VALUE) {
@@ -443,6 +529,15 @@ public class ChannelDataFlowOperation implements ChannelListener, ChannelMessage
   private boolean offerForSend(int source, Object message, int target, int flags,
                                RoutingParameters routingParameters,
                                ArrayBlockingQueue<OutMessage> pendingSendMessages) {
+    if (localShortCircuit && routingParameters.getExternalRoutes().isEmpty()
+        && routingParameters.getInternalRoutes().size() == 1
+        && sendLocally(source, message, target, flags, routingParameters, pendingSendMessages)) {
+      if (metrics != null) {
+        metrics.messageSent();
+      }
+      return true;
+    }
+
     if (pendingSendMessages.remainingCapacity() > 0) {
       int path = DEFAULT_PATH;
       if (routingParameters.getExternalRoutes().size() > 0) {
@@ -454,11 +549,50 @@ public class ChannelDataFlowOperation implements ChannelListener, ChannelMessage
           routingParameters.getExternalRoutes(), dataType, keyType, this, message);
 
       // now try to put this into pending
-      return pendingSendMessages.offer(sendMessage);
+      boolean accepted = pendingSendMessages.offer(sendMessage);
+      if (accepted && metrics != null) {
+        metrics.messageSent();
+      }
+      return accepted;
     }
     return false;
   }
 
+  /**
+   * Hand a message with a single internal route directly to the receiver. This is done only
+   * when no earlier message of the source is pending, so the messages including the syncs are
+   * received in the order they are sent. The receiver is called under the lock as in the
+   * progress.
+   *
+   * @return true if the receiver accepted the message, otherwise it should be queued
+   */
+  private boolean sendLocally(int source, Object message, int target, int flags,
+                              RoutingParameters routingParameters,
+                              Queue<OutMessage> pendingSendMessages) {
+    lock.lock();
+    try {
+      if (!pendingSendMessages.isEmpty()) {
+        return false;
+      }
+      return receiver.receiveSendInternally(source, routingParameters.getInternalRoutes().get(0),
+          target, flags, localMessage(message, flags));
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * The object given to a target in the same worker, this must be called under the lock
+   */
+  private Object localMessage(Object message, int flags) {
+    if (localCopier == null || message == null
+        || (flags & (MessageFlags.SYNC_MESSAGE | MessageFlags.SYNC_EMPTY
+        | MessageFlags.SYNC_BARRIER)) != 0) {
+      return message;
+    }
+    return localCopier.deserialize(localCopier.serialize(message));
+  }
+
   /**
    * Go through the out messages, create channel messages by using the serializer send them
    *
@@ -484,8 +618,12 @@ public class ChannelDataFlowOperation implements ChannelListener, ChannelMessage
         }
         Queue<ChannelMessage> channelMessages = outMessage.getChannelMessages();
         // at this point lets build the message
+        long serializeStart = metrics != null ? System.nanoTime() : 0;
         ChannelMessage serializeMessage = (ChannelMessage)
             messageSerializer.get(sendId).build(outMessage.getData(), outMessage);
+        if (metrics != null) {
+          metrics.serialized(System.nanoTime() - serializeStart);
+        }
         if (serializeMessage != null) {
           // we are incrementing the reference count here
           channelMessages.offer(serializeMessage);
@@ -521,6 +659,10 @@ public class ChannelDataFlowOperation implements ChannelListener, ChannelMessage
         }
       }
     }
+
+    if (metrics != null) {
+      metrics.waitingForBuffers(pendingSendMessages.size() > 0 && sendBuffers.isEmpty());
+    }
   }
 
   private boolean sendExternally(OutMessage outMessage, ChannelMessage chMessage,
@@ -562,7 +704,7 @@ public class ChannelDataFlowOperation implements ChannelListener, ChannelMessage
         try {
           receiveAccepted = receiver.receiveSendInternally(
               outMessage.getSource(), inRoutes.get(i), outMessage.getTarget(),
-              outMessage.getFlags(), messageObject);
+              outMessage.getFlags(), localMessage(messageObject, outMessage.getFlags()));
         } finally {
           lock.unlock();
         }
@@ -598,8 +740,12 @@ public class ChannelDataFlowOperation implements ChannelListener, ChannelMessage
         currentMessage.setReceivedState(InMessage.ReceivedState.BUILDING);
       }
 
+      long deserializeStart = metrics != null ? System.nanoTime() : 0;
       messageDeSerializer.get(receiveId).build(currentMessage,
           currentMessage.getHeader().getEdge());
+      if (metrics != null) {
+        metrics.deserialized(System.nanoTime() - deserializeStart);
+      }
 
       // lets check weather we have read everythong
       int readObjectNumber = currentMessage.getUnPkNumberObjects();
@@ -652,6 +798,9 @@ public class ChannelDataFlowOperation implements ChannelListener, ChannelMessage
           }
           currentMessage.setReceivedState(InMessage.ReceivedState.DONE);
           pendingReceiveMessages.poll();
+          if (metrics != null) {
+            metrics.messageReceived();
+          }
         } else {
           break;
         }
@@ -663,7 +812,25 @@ public class ChannelDataFlowOperation implements ChannelListener, ChannelMessage
 
   private boolean sendMessageToTarget(ChannelMessage channelMessage, int i) {
     int e = instancePlan.getWorkerForForLogicalId(i);
-    return channel.sendMessage(e, channelMessage, this);
+    int buffers = channelMessage.getNormalBuffers().size();
+    if (flowControl != null && !flowControl.acquire(e, buffers)) {
+      return false;
+    }
+    if (!channel.sendMessage(e, channelMessage, this)) {
+      if (flowControl != null) {
+        flowControl.cancel(e, buffers);
+      }
+      return false;
+    }
+
+    if (metrics != null) {
+      long bytes = 0;
+      for (DataBuffer buffer : channelMessage.getNormalBuffers()) {
+        bytes += buffer.getSize();
+      }
+      metrics.bytesSent(e, bytes);
+    }
+    return true;
   }
 
   @Override
@@ -682,7 +849,14 @@ public class ChannelDataFlowOperation implements ChannelListener, ChannelMessage
   }
 
   private void releaseTheBuffers(int id, ChannelMessage message) {
+    if (closed) {
+      releaseToChannel(message);
+      return;
+    }
     if (MessageDirection.IN == message.getMessageDirection()) {
+      if (flowControl != null) {
+        flowControl.released(id, message.getNormalBuffers().size());
+      }
       Queue<DataBuffer> list = receiveBuffers.get(id);
       for (DataBuffer buffer : message.getNormalBuffers()) {
         // we need to clean the buffer so it can be used again
@@ -728,8 +902,95 @@ public class ChannelDataFlowOperation implements ChannelListener, ChannelMessage
   }
 
   public void close() {
+    closed = true;
     for (int exec : receivingExecutors) {
       channel.releaseBuffers(exec, edge);
     }
+    if (flowControl != null) {
+      flowControl.close();
+    }
+    if (metrics != null) {
+      metrics.close();
+    }
+
+    releasePendingSends();
+    releasePendingReceives();
+
+    // give the buffers we hold back to the channel, buffers still used by the channel
+    // are returned by it once the pending requests are done
+    releaseBuffers(sendBuffers);
+    releaseBuffers(localReceiveBuffers);
+    for (Queue<DataBuffer> buffers : receiveBuffers.values()) {
+      releaseBuffers(buffers);
+    }
+  }
+
+  private void releaseBuffers(Queue<DataBuffer> buffers) {
+    DataBuffer buffer;
+    while ((buffer = buffers.poll()) != null) {
+      channel.releaseBuffer(buffer.getByteBuffer());
+    }
+  }
+
+  private void releaseToChannel(ChannelMessage message) {
+    for (DataBuffer buffer : message.getNormalBuffers()) {
+      channel.releaseBuffer(buffer.getByteBuffer());
+    }
+    for (DataBuffer buffer : message.getOverflowBuffers()) {
+      channel.releaseBuffer(buffer.getByteBuffer());
+    }
+    message.getOverflowBuffers().clear();
+  }
+
+  /**
+   * Release the buffers of the messages that are not sent, the channel messages given to the
+   * channel are released when their sends complete
+   */
+  private void releasePendingSends() {
+    for (Queue<OutMessage> messages : pendingSendMessagesPerSource.values()) {
+      OutMessage message;
+      while ((message = messages.poll()) != null) {
+        ChannelMessage chMessage;
+        while ((chMessage = message.getChannelMessages().poll()) != null) {
+          if (chMessage.isOutCountUpdated()) {
+            // the routes the channel didn't accept will never complete
+            int notSent = message.getExternalSends().size()
+                - chMessage.getAcceptedExternalSends();
+            for (int i = 0; i < notSent; i++) {
+              chMessage.release();
+            }
+          } else {
+            releaseToChannel(chMessage);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Release the buffers of the messages that are received but not yet handed over
+   */
+  private void releasePendingReceives() {
+    Set<InMessage> pending = Collections.newSetFromMap(new IdentityHashMap<>());
+    pending.addAll(currentMessages.values());
+    currentMessages.clear();
+    for (Queue<InMessage> messages : pendingReceiveDeSerializations.values()) {
+      pending.addAll(messages);
+      messages.clear();
+    }
+    for (Queue<InMessage> messages : pendingReceiveMessagesPerSource.values()) {
+      pending.addAll(messages);
+      messages.clear();
+    }
+    for (InMessage message : pending) {
+      DataBuffer buffer;
+      while ((buffer = message.getBuffers().poll()) != null) {
+        channel.releaseBuffer(buffer.getByteBuffer());
+      }
+      ChannelMessage built;
+      while ((built = message.getBuiltMessages().poll()) != null) {
+        built.release();
+      }
+    }
   }
 }
@@ -12,7 +12,9 @@
 package edu.iu.dsc.tws.comms.dfw;
 
 import java.nio.ByteBuffer;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -134,6 +136,11 @@ public class ControlledChannelOperation implements ChannelListener, ChannelMessa
    */
   private Map<Integer, InMessage> currentMessages = new HashMap<>();
 
+  /**
+   * After the operation is closed the buffers coming back are given to the channel
+   */
+  private volatile boolean closed = false;
+
   /**
    * These are the workers from which we receive messages
    */
@@ -309,7 +316,9 @@ public class ControlledChannelOperation implements ChannelListener, ChannelMessa
     int sendBufferCount = CommunicationContext.sendBuffersCount(config);
     for (int i = 0; i < sendBufferCount; i++) {
       DataBuffer buffer = new DataBuffer(channel.createBuffer(sendBufferSize));
-      sendBuffers.offer(buffer);
+      if (!sendBuffers.offer(buffer)) {
+        channel.releaseBuffer(buffer.getByteBuffer());
+      }
     }
   }
 
@@ -774,6 +783,10 @@ public class ControlledChannelOperation implements ChannelListener, ChannelMessa
   private int addedFreedBuffers = 0;
 
   private void releaseTheBuffers(int id, ChannelMessage message) {
+    if (closed) {
+      releaseToChannel(message);
+      return;
+    }
     if (MessageDirection.IN == message.getMessageDirection()) {
       // if we have received the full message we can release the buffer to free buffers,
       // otherwise we need to release to receive more
@@ -812,8 +825,85 @@ public class ControlledChannelOperation implements ChannelListener, ChannelMessa
   }
 
   public void close() {
+    closed = true;
     for (int exec : receivingExecutors) {
       channel.releaseBuffers(exec, edge);
     }
+
+    releasePendingSends();
+    releasePendingReceives();
+
+    // give the buffers we hold back to the channel, buffers still used by the channel
+    // are returned by it once the pending requests are done
+    releaseBuffers(sendBuffers);
+    releaseBuffers(freeReceiveBuffers);
+    for (Queue<DataBuffer> buffers : receiveBuffers.values()) {
+      releaseBuffers(buffers);
+    }
+  }
+
+  private void releaseBuffers(Queue<DataBuffer> buffers) {
+    DataBuffer buffer;
+    while ((buffer = buffers.poll()) != null) {
+      channel.releaseBuffer(buffer.getByteBuffer());
+    }
+  }
+
+  private void releaseToChannel(ChannelMessage message) {
+    for (DataBuffer buffer : message.getNormalBuffers()) {
+      channel.releaseBuffer(buffer.getByteBuffer());
+    }
+  }
+
+  /**
+   * Release the buffers of the messages that are not sent, the channel messages given to the
+   * channel are released when their sends complete
+   */
+  private void releasePendingSends() {
+    for (Queue<OutMessage> messages : pendingSendMessagesPerSource.values()) {
+      OutMessage message;
+      while ((message = messages.poll()) != null) {
+        ChannelMessage chMessage;
+        while ((chMessage = message.getChannelMessages().poll()) != null) {
+          if (chMessage.isOutCountUpdated()) {
+            // the routes the channel didn't accept will never complete
+            int notSent = message.getExternalSends().size()
+                - chMessage.getAcceptedExternalSends();
+            for (int i = 0; i < notSent; i++) {
+              chMessage.release();
+            }
+          } else {
+            releaseToChannel(chMessage);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Release the buffers of the messages that are received but not yet handed over
+   */
+  private void releasePendingReceives() {
+    Set<InMessage> pending = Collections.newSetFromMap(new IdentityHashMap<>());
+    pending.addAll(currentMessages.values());
+    currentMessages.clear();
+    for (Queue<InMessage> messages : pendingReceiveDeSerializations.values()) {
+      pending.addAll(messages);
+      messages.clear();
+    }
+    for (Queue<InMessage> messages : pendingReceiveMessagesPerSource.values()) {
+      pending.addAll(messages);
+      messages.clear();
+    }
+    for (InMessage message : pending) {
+      DataBuffer buffer;
+      while ((buffer = message.getBuffers().poll()) != null) {
+        channel.releaseBuffer(buffer.getByteBuffer());
+      }
+      ChannelMessage built;
+      while ((built = message.getBuiltMessages().poll()) != null) {
+        built.release();
+      }
+    }
   }
 }
@@ -0,0 +1,360 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.dfw;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import edu.iu.dsc.tws.api.comms.channel.ChannelListener;
+import edu.iu.dsc.tws.api.comms.channel.TWSChannel;
+import edu.iu.dsc.tws.api.comms.messaging.ChannelMessage;
+import edu.iu.dsc.tws.api.comms.messaging.MessageDirection;
+import edu.iu.dsc.tws.api.comms.messaging.MessageHeader;
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageTypes;
+import edu.iu.dsc.tws.api.comms.packing.DataBuffer;
+import edu.iu.dsc.tws.comms.metrics.MetricsRegistry;
+
+/**
+ * Credit based flow control between the workers of an edge. A receiving worker grants each
+ * sending worker a number of buffer credits, the sender uses a credit for every buffer it gives
+ * to the channel and stops sending to a worker once its credits are used up. The credits are
+ * returned after the receiver releases the buffers, so a slow receiver holds back the senders
+ * instead of the messages piling up in the channel.
+ * <p>
+ * The credits travel on the same edge as the data. A credit buffer carries
+ * {@link #CREDIT_MARKER} in the place of the source id followed by the number of credits.
+ */
+public final class CreditFlowControl implements ChannelListener {
+  private static final Logger LOG = Logger.getLogger(CreditFlowControl.class.getName());
+
+  /**
+   * Marks a credit buffer, the data buffers start with a source id
+   */
+  static final int CREDIT_MARKER = Integer.MIN_VALUE;
+
+  /**
+   * Size of a credit buffer, the marker and the number of credits
+   */
+  private static final int CREDIT_BUFFER_SIZE = Integer.BYTES * 2;
+
+  /**
+   * Credit buffers that can be in flight to or from a single worker
+   */
+  private static final int CREDIT_BUFFERS_PER_WORKER = 2;
+
+  /**
+   * Value of the blocked time when the sends to a worker are not blocked
+   */
+  private static final long NOT_BLOCKED = Long.MIN_VALUE;
+
+  /**
+   * Number of times the sends of this worker were stopped for credits
+   */
+  private static final AtomicLong STALLS = new AtomicLong();
+
+  /**
+   * Time the sends of this worker spent waiting for credits
+   */
+  private static final AtomicLong BLOCKED_NANOS = new AtomicLong();
+
+  /**
+   * Credit messages sent by this worker
+   */
+  private static final AtomicLong CREDIT_MESSAGES = new AtomicLong();
+
+  private final TWSChannel channel;
+
+  private final int edge;
+
+  private final int thisWorker;
+
+  /**
+   * Credits granted to a sending worker at the start
+   */
+  private final int initialCredits;
+
+  /**
+   * Returned credits are sent once this many are collected
+   */
+  private final int creditBatch;
+
+  /**
+   * Credits for sending to the workers
+   */
+  private final Map<Integer, AtomicInteger> sendCredits = new HashMap<>();
+
+  /**
+   * Credits released by the receiver and not yet returned to the sending workers
+   */
+  private final Map<Integer, AtomicInteger> releasedCredits = new HashMap<>();
+
+  /**
+   * Buffers received from the sending workers and not yet released
+   */
+  private final Map<Integer, AtomicInteger> heldBuffers = new HashMap<>();
+
+  /**
+   * Receive buffers for the workers we only get credits from
+   */
+  private final Map<Integer, Queue<DataBuffer>> creditReceiveBuffers = new HashMap<>();
+
+  /**
+   * Buffers for sending the credits
+   */
+  private final Queue<DataBuffer> creditSendBuffers;
+
+  /**
+   * When the sends to a worker got blocked, or {@link #NOT_BLOCKED}. The sends of different
+   * threads may be waiting for the same worker, so the first one to block and the first one to
+   * get through record the time.
+   */
+  private final Map<Integer, AtomicLong> blockedSince = new HashMap<>();
+
+  /**
+   * Create the flow control, the receives for the workers that doesn't send data on this edge
+   * are registered here
+   *
+   * @param channel the channel
+   * @param edge the data edge
+   * @param thisWorker this worker
+   * @param allWorkers the workers we may send to
+   * @param sendingWorkers the workers we receive data from, their buffers carry the credits too
+   * @param credits credits granted to a sending worker
+   */
+  CreditFlowControl(TWSChannel channel, int edge, int thisWorker, Set<Integer> allWorkers,
+                    Set<Integer> sendingWorkers, int credits) {
+    this.channel = channel;
+    this.edge = edge;
+    this.thisWorker = thisWorker;
+    this.initialCredits = Math.max(1, credits);
+    this.creditBatch = Math.max(1, initialCredits / 2);
+
+    for (int worker : allWorkers) {
+      if (worker == thisWorker) {
+        continue;
+      }
+      sendCredits.put(worker, new AtomicInteger(initialCredits));
+      blockedSince.put(worker, new AtomicLong(NOT_BLOCKED));
+      if (!sendingWorkers.contains(worker)) {
+        Queue<DataBuffer> buffers = new LinkedBlockingQueue<>();
+        for (int i = 0; i < CREDIT_BUFFERS_PER_WORKER; i++) {
+          buffers.add(new DataBuffer(channel.createBuffer(CREDIT_BUFFER_SIZE)));
+        }
+        channel.receiveMessage(0, worker, edge, this, buffers);
+        creditReceiveBuffers.put(worker, buffers);
+      }
+    }
+
+    for (int worker : sendingWorkers) {
+      releasedCredits.put(worker, new AtomicInteger());
+      heldBuffers.put(worker, new AtomicInteger());
+    }
+
+    int noOfCreditBuffers = Math.max(1, sendingWorkers.size() * CREDIT_BUFFERS_PER_WORKER);
+    this.creditSendBuffers = new ArrayBlockingQueue<>(noOfCreditBuffers);
+    for (int i = 0; i < noOfCreditBuffers; i++) {
+      creditSendBuffers.offer(new DataBuffer(channel.createBuffer(CREDIT_BUFFER_SIZE)));
+    }
+
+    MetricsRegistry registry = MetricsRegistry.get();
+    if (registry.isEnabled()) {
+      registry.gauge("comms.flow.control.stalls", CreditFlowControl::getStalls);
+      registry.gauge("comms.flow.control.blocked.nanos", CreditFlowControl::getBlockedNanos);
+      registry.gauge("comms.flow.control.credit.messages", CreditFlowControl::getCreditMessages);
+    }
+  }
+
+  /**
+   * Take the credits for sending a channel message to a worker. A message needing more buffers
+   * than the granted credits is let through once all the credits are back.
+   *
+   * @param worker the worker
+   * @param buffers number of buffers of the message
+   * @return true if the message can be sent
+   */
+  boolean acquire(int worker, int buffers) {
+    AtomicInteger credits = sendCredits.get(worker);
+    if (credits == null) {
+      return true;
+    }
+
+    AtomicLong since = blockedSince.get(worker);
+    while (true) {
+      int available = credits.get();
+      if (available < buffers && available < initialCredits) {
+        break;
+      }
+      if (credits.compareAndSet(available, available - buffers)) {
+        long start = since.getAndSet(NOT_BLOCKED);
+        if (start != NOT_BLOCKED) {
+          BLOCKED_NANOS.addAndGet(System.nanoTime() - start);
+        }
+        return true;
+      }
+    }
+
+    if (since.get() == NOT_BLOCKED && since.compareAndSet(NOT_BLOCKED, System.nanoTime())) {
+      STALLS.incrementAndGet();
+    }
+    return false;
+  }
+
+  /**
+   * Give back the credits of a message the channel didn't accept
+   */
+  void cancel(int worker, int buffers) {
+    AtomicInteger credits = sendCredits.get(worker);
+    if (credits != null) {
+      credits.addAndGet(buffers);
+    }
+  }
+
+  /**
+   * Check weather a received buffer carries credits
+   */
+  static boolean isCredit(DataBuffer buffer) {
+    return buffer.getSize() == CREDIT_BUFFER_SIZE
+        && buffer.getByteBuffer().getInt(0) == CREDIT_MARKER;
+  }
+
+  /**
+   * Add the credits of a credit buffer received from a worker
+   */
+  void onCredits(int worker, DataBuffer buffer) {
+    AtomicInteger credits = sendCredits.get(worker);
+    if (credits != null) {
+      credits.addAndGet(buffer.getByteBuffer().getInt(Integer.BYTES));
+    }
+  }
+
+  /**
+   * A data buffer is received from a sending worker
+   */
+  void received(int worker) {
+    AtomicInteger held = heldBuffers.get(worker);
+    if (held != null) {
+      held.incrementAndGet();
+    }
+  }
+
+  /**
+   * The receiver released the buffers of a sending worker, these are returned as credits
+   */
+  void released(int worker, int buffers) {
+    AtomicInteger held = heldBuffers.get(worker);
+    if (held != null) {
+      held.addAndGet(-buffers);
+      releasedCredits.get(worker).addAndGet(buffers);
+    }
+  }
+
+  /**
+   * Return the released credits to the sending workers. The credits are sent in batches, or all
+   * at once when the receiver doesn't hold any more buffers of the worker.
+   */
+  void progress() {
+    for (Map.Entry<Integer, AtomicInteger> e : releasedCredits.entrySet()) {
+      int credits = e.getValue().get();
+      if (credits == 0
+          || (credits < creditBatch && heldBuffers.get(e.getKey()).get() > 0)) {
+        continue;
+      }
+
+      DataBuffer buffer = creditSendBuffers.poll();
+      if (buffer == null) {
+        return;
+      }
+      ByteBuffer byteBuffer = buffer.getByteBuffer();
+      byteBuffer.clear();
+      byteBuffer.putInt(CREDIT_MARKER);
+      byteBuffer.putInt(credits);
+      buffer.setSize(CREDIT_BUFFER_SIZE);
+
+      ChannelMessage message = new ChannelMessage(e.getKey(), MessageTypes.INTEGER,
+          MessageDirection.OUT, m -> { });
+      message.setHeader(MessageHeader.newBuilder(CREDIT_MARKER, edge).build());
+      message.addBuffer(buffer);
+      if (!channel.sendMessage(e.getKey(), message, this)) {
+        creditSendBuffers.offer(buffer);
+        return;
+      }
+      e.getValue().addAndGet(-credits);
+      CREDIT_MESSAGES.incrementAndGet();
+    }
+  }
+
+  @Override
+  public void onReceiveComplete(int id, int stream, DataBuffer buffer) {
+    if (isCredit(buffer)) {
+      onCredits(id, buffer);
+    } else {
+      LOG.warning(String.format("%d Unexpected data from %d on edge %d", thisWorker, id, edge));
+    }
+    buffer.getByteBuffer().clear();
+    creditReceiveBuffers.get(id).offer(buffer);
+  }
+
+  @Override
+  public void onSendComplete(int id, int stream, ChannelMessage message) {
+    for (DataBuffer buffer : message.getNormalBuffers()) {
+      buffer.getByteBuffer().clear();
+      creditSendBuffers.offer(buffer);
+    }
+  }
+
+  /**
+   * Give the buffers back to the channel
+   */
+  void close() {
+    for (Map.Entry<Integer, Queue<DataBuffer>> e : creditReceiveBuffers.entrySet()) {
+      channel.releaseBuffers(e.getKey(), edge);
+      releaseBuffers(e.getValue());
+    }
+    releaseBuffers(creditSendBuffers);
+  }
+
+  private void releaseBuffers(Queue<DataBuffer> buffers) {
+    DataBuffer buffer;
+    while ((buffer = buffers.poll()) != null) {
+      channel.releaseBuffer(buffer.getByteBuffer());
+    }
+  }
+
+  /**
+   * Number of times the sends of this worker were stopped for credits
+   */
+  public static long getStalls() {
+    return STALLS.get();
+  }
+
+  /**
+   * Total time in nanoseconds the sends of this worker waited for credits
+   */
+  public static long getBlockedNanos() {
+    return BLOCKED_NANOS.get();
+  }
+
+  /**
+   * Number of credit messages sent by this worker
+   */
+  public static long getCreditMessages() {
+    return CREDIT_MESSAGES.get();
+  }
+}
@@ -18,6 +18,7 @@ import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
@@ -145,6 +146,11 @@ public class MToNSimple implements DataFlowOperation, ChannelReceiver {
 
   private MessageSchema messageSchema;
 
+  /**
+   * Batches the records of the sources, null if the records are sent one by one
+   */
+  private MessageCoalescer coalescer;
+
   public MToNSimple(TWSChannel channel, Set<Integer> sourceTasks, Set<Integer> destTasks,
                     MessageReceiver finalRcvr, MessageReceiver partialRcvr,
                     MessageType dataType, MessageType keyType, MessageSchema messageSchema) {
@@ -253,6 +259,18 @@ public class MToNSimple implements DataFlowOperation, ChannelReceiver {
     this.finalReceiver.init(cfg, this, receiveExpectedTaskIds());
     this.partialReceiver.init(cfg, this, router.partialExpectedTaskIds());
 
+    // only the partition receivers take the batches as lists of records, the keyed reduce and
+    // gather receivers expect the records one by one
+    String opName = cfg.getStringValue(CommunicationContext.OPERATION_NAME, "");
+    int coalesceRecords = CommunicationContext.coalesceRecords(cfg);
+    if (coalesceRecords > 1 && (CommunicationContext.PARTITION.equals(opName)
+        || CommunicationContext.KEYED_PARTITION.equals(opName))) {
+      this.coalescer = new MessageCoalescer(thisSources, coalesceRecords,
+          CommunicationContext.coalesceBytes(cfg),
+          TimeUnit.MICROSECONDS.toNanos(CommunicationContext.coalesceLatencyMicros(cfg)),
+          dataType, isKeyed ? keyType : null, this::sendBatch);
+    }
+
     Map<Integer, ArrayBlockingQueue<OutMessage>> pendingSendMessagesPerSource =
         new HashMap<>();
     Map<Integer, Queue<InMessage>> pendingReceiveMessagesPerSource
@@ -316,19 +334,32 @@ public class MToNSimple implements DataFlowOperation, ChannelReceiver {
 
   @Override
   public boolean send(int source, Object message, int flags) {
-    int newFlags = flags | MessageFlags.ORIGIN_SENDER;
-    return delegete.sendMessage(source, message, 0, newFlags, sendRoutingParameters(source, 0));
+    return send(source, message, flags, 0);
   }
 
   @Override
   public boolean send(int source, Object message, int flags, int target) {
+    if (coalescer != null) {
+      if (flags == 0) {
+        return coalescer.add(source, message, target);
+      }
+      // the records sent before the control messages should reach the targets first
+      if (!coalescer.flush(source)) {
+        return false;
+      }
+    }
     int newFlags = flags | MessageFlags.ORIGIN_SENDER;
     return delegete.sendMessage(source, message, target, newFlags,
         sendRoutingParameters(source, target));
   }
 
+  private boolean sendBatch(int source, Object batch, int target) {
+    return delegete.sendMessage(source, batch, target, MessageFlags.ORIGIN_SENDER,
+        sendRoutingParameters(source, target));
+  }
+
   public boolean isComplete() {
-    boolean done = delegete.isComplete();
+    boolean done = delegete.isComplete() && (coalescer == null || coalescer.isEmpty());
     boolean complete = OperationUtils.areReceiversComplete(lock, finalReceiver,
         partialLock, partialReceiver);
     return done && complete;
@@ -340,8 +371,9 @@ public class MToNSimple implements DataFlowOperation, ChannelReceiver {
 
   @Override
   public boolean progress() {
+    boolean batchesWaiting = coalescer != null && coalescer.progress();
     return OperationUtils.progressReceivers(delegete, lock, finalReceiver,
-        partialLock, partialReceiver);
+        partialLock, partialReceiver) || batchesWaiting;
   }
 
   @Override
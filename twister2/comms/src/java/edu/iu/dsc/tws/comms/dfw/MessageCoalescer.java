@@ -0,0 +1,216 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.dfw;
+
+import java.util.Set;
+
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageType;
+import edu.iu.dsc.tws.api.comms.structs.Tuple;
+import edu.iu.dsc.tws.comms.dfw.io.AggregatedObjects;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+
+/**
+ * Collects the records a source sends to the same target in to a single message, so small
+ * records doesn't pay the per message costs of the operation one by one. The receivers get the
+ * records as an {@link AggregatedObjects} list. A batch is sent when it reaches the record or the
+ * byte limit, or by the progress once its first record waited longer than the latency limit.
+ * <p>
+ * The sizes are estimated from the message types, so only the record limit applies to objects.
+ */
+final class MessageCoalescer {
+  /**
+   * Sends a batch through the operation
+   */
+  interface BatchSender {
+    boolean send(int source, Object batch, int target);
+  }
+
+  private final int maxRecords;
+
+  private final long maxBytes;
+
+  private final long maxLatencyNanos;
+
+  private final MessageType dataType;
+
+  /**
+   * The key type, null if the records are not keyed
+   */
+  private final MessageType keyType;
+
+  private final BatchSender sender;
+
+  /**
+   * The batches of the sources of this worker, the map is not modified after the creation
+   */
+  private final Int2ObjectOpenHashMap<SourceBatches> batches = new Int2ObjectOpenHashMap<>();
+
+  MessageCoalescer(Set<Integer> sources, int maxRecords, long maxBytes, long maxLatencyNanos,
+                   MessageType dataType, MessageType keyType, BatchSender sender) {
+    this.maxRecords = maxRecords;
+    this.maxBytes = maxBytes;
+    this.maxLatencyNanos = maxLatencyNanos;
+    this.dataType = dataType;
+    this.keyType = keyType;
+    this.sender = sender;
+    for (int source : sources) {
+      batches.put(source, new SourceBatches());
+    }
+  }
+
+  /**
+   * Add a record to the batch of the target
+   *
+   * @return true if the record is accepted, false if the full batch is not yet taken by the
+   * operation
+   */
+  boolean add(int source, Object record, int target) {
+    SourceBatches sourceBatches = batches.get(source);
+    if (sourceBatches == null) {
+      return sender.send(source, record, target);
+    }
+
+    synchronized (sourceBatches) {
+      Batch batch = sourceBatches.targets.get(target);
+      if (batch == null) {
+        batch = new Batch();
+        sourceBatches.targets.put(target, batch);
+      } else if (batch.isFull() && !send(sourceBatches, source, target, batch)) {
+        // the operation still doesn't take the batch filled earlier
+        return false;
+      }
+
+      if (batch.records.isEmpty()) {
+        batch.firstRecordTime = System.nanoTime();
+        sourceBatches.pending++;
+      }
+      batch.records.add(record);
+      batch.bytes += estimateSize(record);
+      if (batch.isFull()) {
+        // if this is not accepted we try again with the next record or the progress
+        send(sourceBatches, source, target, batch);
+      }
+      return true;
+    }
+  }
+
+  /**
+   * Send all the batches of a source, this is done before the control messages of the source
+   *
+   * @return true if all the batches are sent
+   */
+  boolean flush(int source) {
+    SourceBatches sourceBatches = batches.get(source);
+    if (sourceBatches == null) {
+      return true;
+    }
+    synchronized (sourceBatches) {
+      return sendBatches(source, sourceBatches, false);
+    }
+  }
+
+  /**
+   * Send the batches that waited longer than the latency limit
+   *
+   * @return true if there are batches waiting
+   */
+  boolean progress() {
+    boolean waiting = false;
+    for (Int2ObjectOpenHashMap.Entry<SourceBatches> e : batches.int2ObjectEntrySet()) {
+      SourceBatches sourceBatches = e.getValue();
+      synchronized (sourceBatches) {
+        if (sourceBatches.pending > 0 && !sendBatches(e.getIntKey(), sourceBatches, true)) {
+          waiting = true;
+        }
+      }
+    }
+    return waiting;
+  }
+
+  /**
+   * Weather all the batches are sent
+   */
+  boolean isEmpty() {
+    for (SourceBatches sourceBatches : batches.values()) {
+      synchronized (sourceBatches) {
+        if (sourceBatches.pending > 0) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private boolean sendBatches(int source, SourceBatches sourceBatches, boolean onlyExpired) {
+    if (sourceBatches.pending == 0) {
+      return true;
+    }
+
+    long now = System.nanoTime();
+    boolean allSent = true;
+    for (Int2ObjectOpenHashMap.Entry<Batch> e : sourceBatches.targets.int2ObjectEntrySet()) {
+      Batch batch = e.getValue();
+      if (batch.records.isEmpty()) {
+        continue;
+      }
+      if ((onlyExpired && now - batch.firstRecordTime < maxLatencyNanos)
+          || !send(sourceBatches, source, e.getIntKey(), batch)) {
+        allSent = false;
+      }
+    }
+    return allSent;
+  }
+
+  private boolean send(SourceBatches sourceBatches, int source, int target, Batch batch) {
+    if (!sender.send(source, batch.records, target)) {
+      return false;
+    }
+    // the list is given to the operation, start a new one
+    batch.records = new AggregatedObjects<>();
+    batch.bytes = 0;
+    sourceBatches.pending--;
+    return true;
+  }
+
+  @SuppressWarnings("unchecked")
+  private long estimateSize(Object record) {
+    // every record has a length in the message, and the keyed records a key length
+    if (keyType != null && record instanceof Tuple) {
+      Tuple tuple = (Tuple) record;
+      return 2 * Integer.BYTES + keyType.getDataSizeInBytes(tuple.getKey())
+          + dataType.getDataSizeInBytes(tuple.getValue());
+    }
+    return Integer.BYTES + dataType.getDataSizeInBytes(record);
+  }
+
+  private final class Batch {
+    private AggregatedObjects<Object> records = new AggregatedObjects<>();
+
+    private long bytes;
+
+    private long firstRecordTime;
+
+    boolean isFull() {
+      return records.size() >= maxRecords || bytes >= maxBytes;
+    }
+  }
+
+  private final class SourceBatches {
+    private final Int2ObjectOpenHashMap<Batch> targets = new Int2ObjectOpenHashMap<>();
+
+    /**
+     * Number of batches with records
+     */
+    private int pending;
+  }
+}
@@ -0,0 +1,874 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.dfw;
+
+import java.lang.reflect.Array;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.IntSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import edu.iu.dsc.tws.api.comms.CommunicationContext;
+import edu.iu.dsc.tws.api.comms.DataFlowOperation;
+import edu.iu.dsc.tws.api.comms.LogicalPlan;
+import edu.iu.dsc.tws.api.comms.ReduceFunction;
+import edu.iu.dsc.tws.api.comms.SingularReceiver;
+import edu.iu.dsc.tws.api.comms.channel.TWSChannel;
+import edu.iu.dsc.tws.api.comms.messaging.MessageFlags;
+import edu.iu.dsc.tws.api.comms.messaging.MessageReceiver;
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageType;
+import edu.iu.dsc.tws.api.comms.packing.MessageSchema;
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.comms.utils.TaskPlanUtils;
+
+/**
+ * An all reduce that reduces the values of a worker locally and then exchanges the worker values
+ * with peers, instead of reducing to a single task and broadcasting from it.
+ * <p>
+ * The ring algorithm splits the arrays in to a chunk per worker, reduce scatters the chunks
+ * around the ring and then all gathers the reduced chunks. A worker sends and receives about
+ * twice the array size regardless of the number of workers, so it suits large arrays. The
+ * recursive doubling algorithm exchanges the whole value with a different peer in each of the
+ * log(p) steps, so it suits small values where the latency dominates. In the auto mode the ring
+ * is used when the previous result was at least the configured size. Every worker sees the same
+ * result, so they agree on the algorithm without exchanging anything. The first round uses
+ * recursive doubling.
+ * <p>
+ * The ring reduces the chunks of the arrays, so it is only used with primitive array types and
+ * reduce functions that work element wise. The values are reduced in different orders in
+ * different workers as in the tree, so the reduce function should be associative and
+ * commutative. The workers with targets but no sources get the result from a peer. The barriers
+ * are given only to the targets in the same worker as the sources.
+ */
+public class PeerAllReduce implements DataFlowOperation {
+  private static final Logger LOG = Logger.getLogger(PeerAllReduce.class.getName());
+
+  private enum Algorithm {
+    RING,
+    RECURSIVE_DOUBLING
+  }
+
+  /**
+   * Marks a missing value in the queues
+   */
+  private static final Object EMPTY = new Object();
+
+  private Set<Integer> sources;
+
+  private Set<Integer> destinations;
+
+  /**
+   * Sources of this worker
+   */
+  private Set<Integer> thisSources;
+
+  /**
+   * Targets of this worker
+   */
+  private Set<Integer> thisTargets;
+
+  private ReduceFunction reduceFunction;
+
+  private SingularReceiver finalReceiver;
+
+  private LogicalPlan logicalPlan;
+
+  private int edge;
+
+  private boolean streaming;
+
+  /**
+   * The configured algorithm
+   */
+  private String algorithm;
+
+  /**
+   * The smallest result in bytes reduced with the ring in the auto mode
+   */
+  private int ringMinBytes;
+
+  /**
+   * Weather the data type can be split in to chunks
+   */
+  private boolean ringCapable;
+
+  /**
+   * Algorithm picked from the last result in the auto mode
+   */
+  private Algorithm autoAlgorithm = Algorithm.RECURSIVE_DOUBLING;
+
+  /**
+   * Workers with sources, they reduce the values among them
+   */
+  private int[] participants;
+
+  /**
+   * Index of this worker in the participants or -1
+   */
+  private int rank = -1;
+
+  /**
+   * Workers with targets but no sources, they get the result from a participant
+   */
+  private int[] receivers;
+
+  /**
+   * Index of this worker in the receivers or -1
+   */
+  private int receiverIndex = -1;
+
+  /**
+   * Largest power of two not larger than the number of participants
+   */
+  private int powerOfTwo;
+
+  // logical ids used to exchange the values, the send id of a participant is in its worker and
+  // the receive id is in the worker of the peer
+  private int[] ringSend;
+  private int[] ringRecv;
+  private int[] foldSend;
+  private int[] foldRecv;
+  private int[][] stepSend;
+  private int[][] stepRecv;
+  private int[] unfoldSend;
+  private int[] unfoldRecv;
+  private int[] resultSend;
+  private int[] resultRecv;
+
+  /**
+   * Sends the values between the peers, null if there is no one to exchange with
+   */
+  private PeerExchange exchange;
+
+  /**
+   * Values received from the peers for each receive id of this worker
+   */
+  private Map<Integer, Queue<Object>> received = new HashMap<>();
+
+  /**
+   * The value reduced locally in batch mode
+   */
+  private Object localValue;
+
+  /**
+   * Sources finished in batch mode
+   */
+  private Set<Integer> finishedSources = new HashSet<>();
+
+  /**
+   * Weather the round of the batch has started
+   */
+  private boolean started;
+
+  /**
+   * Weather the result of the batch is delivered
+   */
+  private boolean done;
+
+  /**
+   * Values of the sources waiting for a round in streaming mode
+   */
+  private Map<Integer, Queue<Object>> pendingValues = new HashMap<>();
+
+  private int sendPendingMax;
+
+  /**
+   * The barrier and the sources that sent it
+   */
+  private byte[] barrier;
+  private Set<Integer> barrierSources = new HashSet<>();
+
+  /**
+   * The current round
+   */
+  private Round round;
+
+  /**
+   * Results to be given to the targets of this worker
+   */
+  private Queue<Object> results = new ArrayDeque<>();
+
+  /**
+   * Targets that got the first result and the sync
+   */
+  private Set<Integer> delivered = new HashSet<>();
+  private Set<Integer> synced = new HashSet<>();
+
+  public PeerAllReduce(Config config, TWSChannel channel, LogicalPlan plan,
+                       Set<Integer> sources, Set<Integer> destinations,
+                       ReduceFunction reduceFn, SingularReceiver finalRecv,
+                       MessageType dataType, int edge, boolean streaming,
+                       MessageSchema messageSchema, IntSupplier idGenerator) {
+    this.sources = sources;
+    this.destinations = destinations;
+    this.reduceFunction = reduceFn;
+    this.finalReceiver = finalRecv;
+    this.logicalPlan = plan;
+    this.edge = edge;
+    this.streaming = streaming;
+    this.algorithm = CommunicationContext.allReduceAlgorithm(config);
+    this.ringMinBytes = CommunicationContext.allReduceRingMinBytes(config);
+    this.ringCapable = dataType.isPrimitive() && dataType.isArray();
+    this.sendPendingMax = CommunicationContext.sendPendingMax(config);
+    if (CommunicationContext.ALLREDUCE_ALGO_RING.equals(algorithm) && !ringCapable) {
+      LOG.warning("Ring all reduce needs a primitive array type, using recursive doubling");
+    }
+
+    this.thisSources = TaskPlanUtils.getTasksOfThisWorker(plan, sources);
+    this.thisTargets = TaskPlanUtils.getTasksOfThisWorker(plan, destinations);
+    for (int s : thisSources) {
+      pendingValues.put(s, new ArrayDeque<>());
+    }
+    init(config, channel, dataType, messageSchema, idGenerator);
+    finalReceiver.init(config, thisTargets);
+  }
+
+  private void init(Config config, TWSChannel channel, MessageType dataType,
+                    MessageSchema messageSchema, IntSupplier idGenerator) {
+    TreeSet<Integer> sourceWorkers = new TreeSet<>();
+    for (int s : sources) {
+      sourceWorkers.add(logicalPlan.getWorkerForForLogicalId(s));
+    }
+    TreeSet<Integer> targetWorkers = new TreeSet<>();
+    for (int t : destinations) {
+      int worker = logicalPlan.getWorkerForForLogicalId(t);
+      if (!sourceWorkers.contains(worker)) {
+        targetWorkers.add(worker);
+      }
+    }
+    participants = toArray(sourceWorkers);
+    receivers = toArray(targetWorkers);
+
+    int thisWorker = logicalPlan.getThisWorker();
+    for (int i = 0; i < participants.length; i++) {
+      if (participants[i] == thisWorker) {
+        rank = i;
+      }
+    }
+    for (int i = 0; i < receivers.length; i++) {
+      if (receivers[i] == thisWorker) {
+        receiverIndex = i;
+      }
+    }
+
+    // every worker allocates the ids in the same order, so they agree on them
+    int p = participants.length;
+    powerOfTwo = Integer.highestOneBit(p);
+    List<Integer> sendIds = new ArrayList<>();
+    List<Integer> recvIds = new ArrayList<>();
+    if (p > 1 && ringCapable
+        && !CommunicationContext.ALLREDUCE_ALGO_RECURSIVE_DOUBLING.equals(algorithm)) {
+      ringSend = newIds(idGenerator, participants, 0, p);
+      ringRecv = newIds(idGenerator, participants, 0, p);
+      for (int r = 0; r < p; r++) {
+        addRoute(sendIds, recvIds, ringSend[r], ringRecv[(r + 1) % p]);
+      }
+    }
+
+    if (p > 1 && (!ringCapable || !CommunicationContext.ALLREDUCE_ALGO_RING.equals(algorithm))) {
+      int extra = p - powerOfTwo;
+      foldSend = newIds(idGenerator, participants, powerOfTwo, extra);
+      foldRecv = newIds(idGenerator, participants, 0, extra);
+      for (int i = 0; i < extra; i++) {
+        addRoute(sendIds, recvIds, foldSend[i], foldRecv[i]);
+      }
+
+      int steps = Integer.numberOfTrailingZeros(powerOfTwo);
+      stepSend = new int[steps][];
+      stepRecv = new int[steps][];
+      for (int k = 0; k < steps; k++) {
+        stepSend[k] = newIds(idGenerator, participants, 0, powerOfTwo);
+        stepRecv[k] = newIds(idGenerator, participants, 0, powerOfTwo);
+        for (int r = 0; r < powerOfTwo; r++) {
+          addRoute(sendIds, recvIds, stepSend[k][r], stepRecv[k][r ^ (1 << k)]);
+        }
+      }
+
+      unfoldSend = newIds(idGenerator, participants, 0, extra);
+      unfoldRecv = newIds(idGenerator, participants, powerOfTwo, extra);
+      for (int i = 0; i < extra; i++) {
+        addRoute(sendIds, recvIds, unfoldSend[i], unfoldRecv[i]);
+      }
+    }
+
+    if (p > 0) {
+      resultSend = new int[receivers.length];
+      resultRecv = newIds(idGenerator, receivers, 0, receivers.length);
+      for (int j = 0; j < receivers.length; j++) {
+        resultSend[j] = newId(idGenerator, participants[j % p]);
+        addRoute(sendIds, recvIds, resultSend[j], resultRecv[j]);
+      }
+    }
+
+    if (!sendIds.isEmpty()) {
+      exchange = new PeerExchange(config, channel, logicalPlan, sendIds, recvIds,
+          new ExchangeReceiver(), dataType, edge, messageSchema);
+    }
+  }
+
+  private void addRoute(List<Integer> sendIds, List<Integer> recvIds, int send, int recv) {
+    sendIds.add(send);
+    recvIds.add(recv);
+    if (logicalPlan.getWorkerForForLogicalId(recv) == logicalPlan.getThisWorker()) {
+      received.put(recv, new ArrayDeque<>());
+    }
+  }
+
+  private int[] newIds(IntSupplier idGenerator, int[] workers, int from, int count) {
+    int[] ids = new int[count];
+    for (int i = 0; i < count; i++) {
+      ids[i] = newId(idGenerator, workers[from + i]);
+    }
+    return ids;
+  }
+
+  private int newId(IntSupplier idGenerator, int worker) {
+    int id = idGenerator.getAsInt();
+    logicalPlan.addLogicalIdToWorker(worker, id);
+    return id;
+  }
+
+  private static int[] toArray(Set<Integer> set) {
+    int[] array = new int[set.size()];
+    int i = 0;
+    for (int v : set) {
+      array[i++] = v;
+    }
+    return array;
+  }
+
+  @Override
+  public synchronized boolean send(int source, Object message, int flags) {
+    if ((flags & MessageFlags.SYNC_BARRIER) == MessageFlags.SYNC_BARRIER) {
+      barrier = (byte[]) message;
+      barrierSources.add(source);
+      return true;
+    }
+
+    if (streaming) {
+      Queue<Object> values = pendingValues.get(source);
+      return values.size() < sendPendingMax && values.offer(message);
+    }
+
+    localValue = localValue == null ? message : reduceFunction.reduce(localValue, message);
+    return true;
+  }
+
+  @Override
+  public boolean sendPartial(int source, Object message, int flags) {
+    // the values are reduced locally before the exchange, so a partial value is just a value
+    return send(source, message, flags);
+  }
+
+  @Override
+  public boolean send(int source, Object message, int flags, int target) {
+    throw new RuntimeException("Not-implemented");
+  }
+
+  @Override
+  public boolean sendPartial(int source, Object message, int flags, int target) {
+    throw new RuntimeException("Not-implemented");
+  }
+
+  @Override
+  public synchronized void finish(int source) {
+    finishedSources.add(source);
+  }
+
+  @Override
+  public synchronized boolean progress() {
+    try {
+      if (exchange != null) {
+        exchange.progress();
+      }
+
+      boolean needsProgress = deliverResults();
+      while (round != null || startRound()) {
+        if (!round.progress()) {
+          needsProgress = true;
+          break;
+        }
+        Object result = round.result;
+        if (CommunicationContext.ALLREDUCE_ALGO_AUTO.equals(algorithm)) {
+          autoAlgorithm = result != null && sizeInBytes(result) >= ringMinBytes
+              ? Algorithm.RING : Algorithm.RECURSIVE_DOUBLING;
+        }
+        results.offer(result == null ? EMPTY : result);
+        round = null;
+        needsProgress |= deliverResults();
+      }
+
+      if (streaming && !barrierSources.isEmpty() && deliverBarrier()) {
+        barrierSources.clear();
+      }
+      return needsProgress || !results.isEmpty()
+          || (exchange != null && !exchange.isDelegateComplete());
+    } catch (Throwable t) {
+      LOG.log(Level.SEVERE, "un-expected error", t);
+      throw new RuntimeException(t);
+    }
+  }
+
+  /**
+   * Start a round if this worker has the values for it
+   *
+   * @return true if a round is started
+   */
+  private boolean startRound() {
+    if (!results.isEmpty()) {
+      // the results are given to the targets before starting another round
+      return false;
+    }
+
+    if (rank < 0) {
+      if (receiverIndex >= 0 && !(started && !streaming)) {
+        Object result = received.get(resultRecv[receiverIndex]).poll();
+        if (result != null) {
+          started = true;
+          results.offer(result);
+        }
+      }
+      return false;
+    }
+
+    Object value = null;
+    if (streaming) {
+      for (Queue<Object> values : pendingValues.values()) {
+        if (values.isEmpty()) {
+          return false;
+        }
+      }
+      for (Queue<Object> values : pendingValues.values()) {
+        Object v = values.poll();
+        value = value == null ? v : reduceFunction.reduce(value, v);
+      }
+    } else {
+      if (started || !finishedSources.containsAll(thisSources)) {
+        return false;
+      }
+      started = true;
+      value = localValue;
+      localValue = null;
+    }
+    round = new Round(pickAlgorithm(), value);
+    return true;
+  }
+
+  private Algorithm pickAlgorithm() {
+    if (!ringCapable || ringSend == null) {
+      return Algorithm.RECURSIVE_DOUBLING;
+    }
+    if (CommunicationContext.ALLREDUCE_ALGO_AUTO.equals(algorithm)) {
+      return autoAlgorithm;
+    }
+    return Algorithm.RING;
+  }
+
+  /**
+   * Give the results to the targets of this worker
+   *
+   * @return true if there are results left
+   */
+  private boolean deliverResults() {
+    while (!results.isEmpty()) {
+      // the result may be still serializing for a peer
+      if (exchange != null && !exchange.isDelegateComplete()) {
+        return true;
+      }
+
+      Object head = results.peek();
+      Object value = head == EMPTY ? null : head;
+      for (int target : thisTargets) {
+        if (!delivered.contains(target)) {
+          if (value != null && !finalReceiver.receive(target, value)) {
+            return true;
+          }
+          delivered.add(target);
+        }
+
+        if (!streaming && !synced.contains(target)) {
+          if (!finalReceiver.sync(target, barrier)) {
+            return true;
+          }
+          synced.add(target);
+        }
+      }
+      results.poll();
+      delivered.clear();
+      synced.clear();
+      if (!streaming) {
+        done = true;
+      }
+    }
+    return false;
+  }
+
+  private boolean deliverBarrier() {
+    if (!barrierSources.containsAll(thisSources)) {
+      return false;
+    }
+    for (int target : thisTargets) {
+      if (!synced.contains(target)) {
+        if (!finalReceiver.sync(target, barrier)) {
+          return false;
+        }
+        synced.add(target);
+      }
+    }
+    synced.clear();
+    return true;
+  }
+
+  private boolean sendValue(int sendId, Object value) {
+    if (value == null) {
+      return exchange.send(sendId, new byte[0], MessageFlags.SYNC_EMPTY);
+    }
+    return exchange.send(sendId, value, 0);
+  }
+
+  /**
+   * The next value received for the id
+   *
+   * @return the value, {@link #EMPTY} if the peer didn't have a value or null if nothing is
+   * received yet
+   */
+  private Object poll(int recvId) {
+    return received.get(recvId).poll();
+  }
+
+  /**
+   * Reduce a received value with a value of this worker, the received value is given first as
+   * the value of this worker may be still serializing
+   */
+  private Object combine(Object receivedValue, Object value) {
+    if (receivedValue == EMPTY || receivedValue == null) {
+      return value;
+    }
+    if (value == null) {
+      return receivedValue;
+    }
+    return reduceFunction.reduce(receivedValue, value);
+  }
+
+  private static int mod(int value, int p) {
+    return ((value % p) + p) % p;
+  }
+
+  private static long sizeInBytes(Object value) {
+    if (!value.getClass().isArray()) {
+      return 0;
+    }
+    Class<?> type = value.getClass().getComponentType();
+    int length = Array.getLength(value);
+    if (type == double.class || type == long.class) {
+      return (long) length * Long.BYTES;
+    } else if (type == int.class || type == float.class) {
+      return (long) length * Integer.BYTES;
+    } else if (type == short.class || type == char.class) {
+      return (long) length * Short.BYTES;
+    }
+    return length;
+  }
+
+  private static Object[] split(Object array, int parts) {
+    Object[] chunks = new Object[parts];
+    if (array == null) {
+      return chunks;
+    }
+    Class<?> type = array.getClass().getComponentType();
+    int length = Array.getLength(array);
+    for (int c = 0; c < parts; c++) {
+      int from = (int) ((long) length * c / parts);
+      int to = (int) ((long) length * (c + 1) / parts);
+      chunks[c] = Array.newInstance(type, to - from);
+      System.arraycopy(array, from, chunks[c], 0, to - from);
+    }
+    return chunks;
+  }
+
+  /**
+   * Join the chunks, the empty chunks may come back as missing values
+   *
+   * @return the array or null if no one had a value
+   */
+  private static Object concat(Object[] chunks) {
+    int length = 0;
+    Object first = null;
+    for (Object c : chunks) {
+      if (c != null) {
+        length += Array.getLength(c);
+        first = first == null ? c : first;
+      }
+    }
+    if (first == null) {
+      return null;
+    }
+    Object array = Array.newInstance(first.getClass().getComponentType(), length);
+    int offset = 0;
+    for (Object c : chunks) {
+      if (c != null) {
+        int chunkLength = Array.getLength(c);
+        System.arraycopy(c, 0, array, offset, chunkLength);
+        offset += chunkLength;
+      }
+    }
+    return array;
+  }
+
+  @Override
+  public synchronized boolean isComplete() {
+    boolean sent = exchange == null || exchange.isDelegateComplete();
+    if (streaming) {
+      return sent && round == null && results.isEmpty();
+    }
+    return sent && (done || (rank < 0 && receiverIndex < 0));
+  }
+
+  @Override
+  public boolean isDelegateComplete() {
+    return exchange == null || exchange.isDelegateComplete();
+  }
+
+  @Override
+  public void close() {
+    if (exchange != null) {
+      exchange.close();
+    }
+  }
+
+  @Override
+  public synchronized void reset() {
+    // the values already received from the peers belong to the next round, so they are kept
+    localValue = null;
+    finishedSources.clear();
+    started = false;
+    done = false;
+    barrier = null;
+    barrierSources.clear();
+    delivered.clear();
+    synced.clear();
+  }
+
+  @Override
+  public LogicalPlan getLogicalPlan() {
+    return logicalPlan;
+  }
+
+  @Override
+  public String getUniqueId() {
+    return String.valueOf(edge);
+  }
+
+  @Override
+  public Set<Integer> getSources() {
+    return sources;
+  }
+
+  @Override
+  public Set<Integer> getTargets() {
+    return destinations;
+  }
+
+  /**
+   * A round of the exchange, it progresses as far as the received values allow
+   */
+  private final class Round {
+    private final Algorithm roundAlgorithm;
+
+    private Object value;
+
+    private Object[] chunks;
+
+    private int phase;
+
+    private int step;
+
+    /**
+     * Weather the value of the current step is sent
+     */
+    private boolean sent;
+
+    /**
+     * Next receiver to get the result
+     */
+    private int nextReceiver;
+
+    private boolean reduced;
+
+    private Object result;
+
+    Round(Algorithm alg, Object value) {
+      this.roundAlgorithm = alg;
+      this.value = value;
+      if (alg == Algorithm.RING && participants.length > 1) {
+        this.chunks = split(value, participants.length);
+      }
+    }
+
+    /**
+     * Progress the round
+     *
+     * @return true if the round is done
+     */
+    boolean progress() {
+      if (!reduced) {
+        if (participants.length == 1) {
+          result = value;
+        } else if (roundAlgorithm == Algorithm.RING) {
+          if (!progressRing()) {
+            return false;
+          }
+        } else if (!progressRecursiveDoubling()) {
+          return false;
+        }
+        reduced = true;
+      }
+
+      // the receivers are given to the participants in round robin
+      while (nextReceiver < receivers.length) {
+        if (nextReceiver % participants.length == rank
+            && !sendValue(resultSend[nextReceiver], result)) {
+          return false;
+        }
+        nextReceiver++;
+      }
+      return true;
+    }
+
+    private boolean progressRing() {
+      int p = participants.length;
+      // reduce scatter in phase 0 and all gather in phase 1, after the reduce scatter this
+      // worker has the reduced chunk rank + 1
+      while (phase < 2) {
+        if (!sent) {
+          int chunk = phase == 0 ? mod(rank - step, p) : mod(rank + 1 - step, p);
+          // the arrays shorter than the workers have empty chunks, they can't be serialized
+          // so they are sent as missing values
+          Object c = chunks[chunk];
+          if (!sendValue(ringSend[rank], c != null && Array.getLength(c) == 0 ? null : c)) {
+            return false;
+          }
+          sent = true;
+        }
+
+        Object received = poll(ringRecv[rank]);
+        if (received == null) {
+          return false;
+        }
+        if (phase == 0) {
+          int chunk = mod(rank - step - 1, p);
+          chunks[chunk] = combine(received, chunks[chunk]);
+        } else {
+          chunks[mod(rank - step, p)] = received == EMPTY ? null : received;
+        }
+        sent = false;
+        step++;
+        if (step == p - 1) {
+          phase++;
+          step = 0;
+        }
+      }
+      result = concat(chunks);
+      return true;
+    }
+
+    private boolean progressRecursiveDoubling() {
+      // the participants after the largest power of two give their values to a peer before
+      // the exchange and get the result back from it
+      if (rank >= powerOfTwo) {
+        if (!sent) {
+          if (!sendValue(foldSend[rank - powerOfTwo], value)) {
+            return false;
+          }
+          sent = true;
+        }
+        Object received = poll(unfoldRecv[rank - powerOfTwo]);
+        if (received == null) {
+          return false;
+        }
+        result = received == EMPTY ? null : received;
+        return true;
+      }
+
+      boolean hasExtra = rank + powerOfTwo < participants.length;
+      if (phase == 0) {
+        if (hasExtra) {
+          Object received = poll(foldRecv[rank]);
+          if (received == null) {
+            return false;
+          }
+          value = combine(received, value);
+        }
+        phase = 1;
+      }
+
+      while (step < stepSend.length) {
+        if (!sent) {
+          if (!sendValue(stepSend[step][rank], value)) {
+            return false;
+          }
+          sent = true;
+        }
+        Object received = poll(stepRecv[step][rank]);
+        if (received == null) {
+          return false;
+        }
+        value = combine(received, value);
+        sent = false;
+        step++;
+      }
+
+      if (hasExtra && !sendValue(unfoldSend[rank], value)) {
+        return false;
+      }
+      result = value;
+      return true;
+    }
+  }
+
+  /**
+   * Queues the values received from the peers
+   */
+  private final class ExchangeReceiver implements MessageReceiver {
+    @Override
+    public void init(Config cfg, DataFlowOperation op, Map<Integer, List<Integer>> expectedIds) {
+    }
+
+    @Override
+    public boolean onMessage(int source, int path, int target, int flags, Object object) {
+      Queue<Object> queue = received.get(target);
+      if (queue == null) {
+        throw new RuntimeException("Un-expected message to " + target + " from " + source);
+      }
+      boolean empty = (flags & MessageFlags.SYNC_EMPTY) == MessageFlags.SYNC_EMPTY;
+      return queue.offer(empty ? EMPTY : object);
+    }
+
+    @Override
+    public boolean progress() {
+      return false;
+    }
+
+    @Override
+    public boolean isComplete() {
+      return true;
+    }
+  }
+}
@@ -0,0 +1,255 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.dfw;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import edu.iu.dsc.tws.api.comms.CommunicationContext;
+import edu.iu.dsc.tws.api.comms.DataFlowOperation;
+import edu.iu.dsc.tws.api.comms.LogicalPlan;
+import edu.iu.dsc.tws.api.comms.channel.ChannelReceiver;
+import edu.iu.dsc.tws.api.comms.channel.TWSChannel;
+import edu.iu.dsc.tws.api.comms.messaging.MessageHeader;
+import edu.iu.dsc.tws.api.comms.messaging.MessageReceiver;
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageType;
+import edu.iu.dsc.tws.api.comms.packing.MessageDeSerializer;
+import edu.iu.dsc.tws.api.comms.packing.MessageSchema;
+import edu.iu.dsc.tws.api.comms.packing.MessageSerializer;
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.comms.dfw.io.Deserializers;
+import edu.iu.dsc.tws.comms.dfw.io.Serializers;
+
+/**
+ * Sends messages over a fixed set of source and target pairs, the i th source sends only to the
+ * i th target. The sources and targets are logical ids and each of them can appear only once.
+ * Unlike {@link OneToOne} there is no finish protocol, the operations built on top of this
+ * decide when they are done.
+ */
+public class PeerExchange implements DataFlowOperation, ChannelReceiver {
+  private static final Logger LOG = Logger.getLogger(PeerExchange.class.getName());
+
+  /**
+   * The sources, a source only sends to the target at the same index
+   */
+  private List<Integer> sources;
+
+  /**
+   * The targets
+   */
+  private List<Integer> targets;
+
+  /**
+   * The receiver of the messages to the targets of this worker
+   */
+  private MessageReceiver receiver;
+
+  /**
+   * The delegate
+   */
+  private ChannelDataFlowOperation delegate;
+
+  private LogicalPlan logicalPlan;
+
+  private int edge;
+
+  private MessageType dataType;
+
+  /**
+   * Routing of the sources in this worker
+   */
+  private Map<Integer, RoutingParameters> routes = new HashMap<>();
+
+  private Lock lock = new ReentrantLock();
+
+  public PeerExchange(Config cfg, TWSChannel channel, LogicalPlan plan,
+                      List<Integer> srcs, List<Integer> tgts, MessageReceiver rcvr,
+                      MessageType dType, int e, MessageSchema messageSchema) {
+    if (srcs.size() != tgts.size()) {
+      throw new IllegalArgumentException("Every source should have a target");
+    }
+    this.sources = srcs;
+    this.targets = tgts;
+    this.receiver = rcvr;
+    this.delegate = new ChannelDataFlowOperation(channel);
+    this.logicalPlan = plan;
+    this.edge = e;
+    this.dataType = dType;
+    init(cfg, messageSchema);
+  }
+
+  private void init(Config cfg, MessageSchema messageSchema) {
+    Map<Integer, ArrayBlockingQueue<OutMessage>> pendingSendMessagesPerSource = new HashMap<>();
+    Map<Integer, Queue<InMessage>> pendingReceiveMessagesPerSource = new HashMap<>();
+    Map<Integer, Queue<InMessage>> pendingReceiveDeSerializations = new HashMap<>();
+    Map<Integer, MessageSerializer> serializerMap = new HashMap<>();
+    Map<Integer, MessageDeSerializer> deSerializerMap = new HashMap<>();
+    Map<Integer, List<Integer>> expectedIds = new HashMap<>();
+    Set<Integer> receivingExecutors = new HashSet<>();
+
+    int thisWorker = logicalPlan.getThisWorker();
+    Set<Integer> thisIds = logicalPlan.getLogicalIdsOfThisWorker();
+    if (thisIds == null) {
+      thisIds = Collections.emptySet();
+    }
+    int pendingMax = CommunicationContext.sendPendingMax(cfg);
+    for (int i = 0; i < sources.size(); i++) {
+      int src = sources.get(i);
+      int tar = targets.get(i);
+
+      if (thisIds.contains(src)) {
+        pendingSendMessagesPerSource.put(src, new ArrayBlockingQueue<>(pendingMax));
+        serializerMap.put(src, Serializers.get(false, messageSchema));
+
+        RoutingParameters routingParameters = new RoutingParameters();
+        if (thisIds.contains(tar)) {
+          routingParameters.addInteranlRoute(tar);
+        } else {
+          routingParameters.addExternalRoute(tar);
+        }
+        routingParameters.setDestinationId(tar);
+        routes.put(src, routingParameters);
+      }
+
+      if (thisIds.contains(tar)) {
+        // the messages are tracked by the source as the channel does
+        pendingReceiveMessagesPerSource.put(src, new ArrayBlockingQueue<>(pendingMax));
+        pendingReceiveDeSerializations.put(src, new ArrayBlockingQueue<>(pendingMax));
+        deSerializerMap.put(src, Deserializers.get(false, messageSchema));
+        expectedIds.put(tar, Collections.singletonList(src));
+
+        int worker = logicalPlan.getWorkerForForLogicalId(src);
+        if (worker != thisWorker) {
+          receivingExecutors.add(worker);
+        }
+      }
+    }
+
+    receiver.init(cfg, this, expectedIds);
+    delegate.init(cfg, dataType, dataType, logicalPlan, edge, receivingExecutors, this,
+        pendingSendMessagesPerSource, pendingReceiveMessagesPerSource,
+        pendingReceiveDeSerializations, serializerMap, deSerializerMap, false);
+  }
+
+  @Override
+  public boolean receiveMessage(MessageHeader header, Object object) {
+    return receiver.onMessage(header.getSourceId(), CommunicationContext.DEFAULT_DESTINATION,
+        header.getDestinationIdentifier(), header.getFlags(), object);
+  }
+
+  @Override
+  public boolean receiveSendInternally(int source, int target, int path, int flags,
+                                       Object message) {
+    return receiver.onMessage(source, path, target, flags, message);
+  }
+
+  @Override
+  public boolean sendPartial(int source, Object message, int flags) {
+    // a source has a single target, so the partial messages take the same route
+    return send(source, message, flags);
+  }
+
+  @Override
+  public boolean send(int source, Object message, int flags) {
+    RoutingParameters routingParameters = routes.get(source);
+    if (routingParameters == null) {
+      throw new RuntimeException("Un-expected message from source: " + source);
+    }
+    return delegate.sendMessage(source, message, routingParameters.getDestinationId(), flags,
+        routingParameters);
+  }
+
+  @Override
+  public boolean send(int source, Object message, int flags, int target) {
+    return send(source, message, flags);
+  }
+
+  @Override
+  public boolean sendPartial(int source, Object message, int flags, int target) {
+    return sendPartial(source, message, flags);
+  }
+
+  @Override
+  public boolean progress() {
+    boolean needsProgress = false;
+    try {
+      delegate.progress();
+      if (lock.tryLock()) {
+        try {
+          needsProgress = receiver.progress();
+        } finally {
+          lock.unlock();
+        }
+      }
+    } catch (Throwable t) {
+      LOG.log(Level.SEVERE, "un-expected error", t);
+      throw new RuntimeException(t);
+    }
+    return needsProgress;
+  }
+
+  @Override
+  public boolean isDelegateComplete() {
+    return delegate.isComplete();
+  }
+
+  @Override
+  public boolean isComplete() {
+    return delegate.isComplete() && receiver.isComplete();
+  }
+
+  @Override
+  public void close() {
+    receiver.close();
+    delegate.close();
+  }
+
+  @Override
+  public void reset() {
+    receiver.clean();
+  }
+
+  @Override
+  public LogicalPlan getLogicalPlan() {
+    return logicalPlan;
+  }
+
+  @Override
+  public String getUniqueId() {
+    return String.valueOf(edge);
+  }
+
+  @Override
+  public MessageType getDataType() {
+    return dataType;
+  }
+
+  @Override
+  public Set<Integer> getSources() {
+    return new HashSet<>(sources);
+  }
+
+  @Override
+  public Set<Integer> getTargets() {
+    return new HashSet<>(targets);
+  }
+}
@@ -72,6 +72,12 @@ public class DataSerializer extends BaseSerializer {
     ByteBuffer byteBuffer = targetBuffer.getByteBuffer();
     // okay we need to serialize the header
     if (state.getPart() == SerializeState.Part.INIT) {
+      // first try to write the complete message directly to this buffer
+      if (writeDirectly(payload, state, byteBuffer, dataPacker)) {
+        targetBuffer.setSize(byteBuffer.position());
+        return state.reset(true);
+      }
+
       // okay we need to serialize the data
       int dataLength = dataPacker.determineLength(payload, state);
       state.getActive().setTotalToCopy(dataLength);
@@ -111,6 +117,30 @@ public class DataSerializer extends BaseSerializer {
     return state.reset(completed);
   }
 
+  /**
+   * Write the header and the data to the buffer in one go, if the message fits in to the
+   * remaining space of the buffer. The length is filled after the data is written, so packers
+   * don't need to serialize the data beforehand to find the length
+   *
+   * @return true if the message is written
+   */
+  private boolean writeDirectly(Object payload, SerializeState state,
+                                ByteBuffer byteBuffer, DataPacker dataPacker) {
+    int start = byteBuffer.position();
+    if (byteBuffer.remaining() <= NORMAL_SUB_MESSAGE_HEADER_SIZE) {
+      return false;
+    }
+    byteBuffer.position(start + NORMAL_SUB_MESSAGE_HEADER_SIZE);
+    int dataLength = dataPacker.writeDataDirectly(payload, state, byteBuffer);
+    if (dataLength < 0) {
+      byteBuffer.position(start);
+      return false;
+    }
+    byteBuffer.putInt(start, dataLength);
+    state.incrementTotalBytes(dataLength);
+    return true;
+  }
+
   /**
    * Builds the sub message header which is used in multi messages to identify the lengths of each
    * sub message. The structure of the sub message header is |length + (key length)|. The key length
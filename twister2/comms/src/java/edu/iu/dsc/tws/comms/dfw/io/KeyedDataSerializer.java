@@ -77,6 +77,12 @@ public class KeyedDataSerializer extends BaseSerializer {
     ByteBuffer byteBuffer = targetBuffer.getByteBuffer();
     // okay we need to serialize the header
     if (state.getPart() == SerializeState.Part.INIT) {
+      // first try to write the complete message directly to this buffer
+      if (writeDirectly(payload, key, dataPacker, keyPacker, state, byteBuffer)) {
+        targetBuffer.setSize(byteBuffer.position());
+        return state.reset(true);
+      }
+
       int keyLength = keyPacker.determineLength(key, state);
       state.getActive().setTotalToCopy(keyLength);
 
@@ -141,6 +147,46 @@ public class KeyedDataSerializer extends BaseSerializer {
     return state.reset(completed);
   }
 
+  /**
+   * Write the header, key and the data to the buffer in one go, if the message fits in to the
+   * remaining space of the buffer. The lengths are filled after the key and data are written,
+   * so packers don't need to serialize them beforehand to find the lengths
+   *
+   * @return true if the message is written
+   */
+  private boolean writeDirectly(Object payload, Object key,
+                                DataPacker dataPacker, DataPacker keyPacker,
+                                SerializeState state, ByteBuffer byteBuffer) {
+    int start = byteBuffer.position();
+    int headerSize = keyPacker.isHeaderRequired()
+        ? MAX_SUB_MESSAGE_HEADER_SPACE : NORMAL_SUB_MESSAGE_HEADER_SIZE;
+    if (byteBuffer.remaining() <= headerSize) {
+      return false;
+    }
+    byteBuffer.position(start + headerSize);
+    // the key and the data are kept in their own stores if they don't fit
+    int keyLength = keyPacker.writeDataDirectly(key, state, byteBuffer);
+    if (keyLength < 0) {
+      byteBuffer.position(start);
+      return false;
+    }
+    state.swap();
+    int dataLength = dataPacker.writeDataDirectly(payload, state, byteBuffer);
+    state.swap();
+    if (dataLength < 0) {
+      byteBuffer.position(start);
+      return false;
+    }
+
+    int keyLengthSize = keyPacker.isHeaderRequired() ? Integer.BYTES : 0;
+    byteBuffer.putInt(start, keyLength + dataLength + keyLengthSize);
+    if (keyPacker.isHeaderRequired()) {
+      byteBuffer.putInt(start + Integer.BYTES, keyLength);
+    }
+    state.incrementTotalBytes(keyLength + dataLength);
+    return true;
+  }
+
   /**
    * Builds the sub message header which is used in multi messages to identify the lengths of each
    * sub message. The structure of the sub message header is |length + (key length)|. The key length
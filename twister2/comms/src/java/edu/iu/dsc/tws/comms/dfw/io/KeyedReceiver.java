@@ -21,6 +21,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.logging.Logger;
 
+import edu.iu.dsc.tws.api.comms.CommunicationContext;
 import edu.iu.dsc.tws.api.comms.DataFlowOperation;
 import edu.iu.dsc.tws.api.comms.messaging.MessageFlags;
 import edu.iu.dsc.tws.api.comms.messaging.MessageReceiver;
@@ -110,8 +111,8 @@ public abstract class KeyedReceiver implements MessageReceiver {
   public void init(Config cfg, DataFlowOperation op, Map<Integer, List<Integer>> expectedIds) {
     this.dataFlowOperation = op;
     this.executor = dataFlowOperation.getLogicalPlan().getThisWorker();
-    this.limitPerKey = 100; //TODO: use config to init this
-    this.keyLimit = 10; //TODO: use config to init this
+    this.limitPerKey = CommunicationContext.getKeyedBufferValuesPerKey(cfg);
+    this.keyLimit = CommunicationContext.getKeyedBufferKeys(cfg);
     this.thisSources = TaskPlanUtils.getTasksOfThisWorker(op.getLogicalPlan(), op.getSources());
 
     for (Map.Entry<Integer, List<Integer>> expectedIdPerTarget : expectedIds.entrySet()) {
@@ -398,7 +399,7 @@ public abstract class KeyedReceiver implements MessageReceiver {
       sourcesFinished = isSourcesFinished(target);
 
       if (!sourcesFinished && !(dataFlowOperation.isDelegateComplete()
-          && messages.get(target).isEmpty() && targetSendQueue.isEmpty())) {
+          && isBufferEmpty(target) && targetSendQueue.isEmpty())) {
         needsFurtherProgress = true;
       }
 
@@ -451,6 +452,17 @@ public abstract class KeyedReceiver implements MessageReceiver {
     return needsProgress;
   }
 
+  /**
+   * checks if there are no buffered messages for the target. If the messages are buffered in a
+   * different data structure this method needs to be overwritten
+   *
+   * @param target the target
+   * @return true if nothing is buffered for the target
+   */
+  protected boolean isBufferEmpty(int target) {
+    return messages.get(target).isEmpty();
+  }
+
   /**
    * checks if the queue structures used to send data is empty. If Additional data structures are
    * used this method needs to be overwritten to include them
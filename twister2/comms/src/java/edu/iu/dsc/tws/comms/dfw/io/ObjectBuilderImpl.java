@@ -31,6 +31,7 @@ public class ObjectBuilderImpl<D, W> implements ObjectBuilder<D, W> {
   private boolean built;
 
   private W partialDataHolder;
+  private DataPacker<D, W> packer;
   private D finalObject;
 
   private int totalSize;
@@ -38,7 +39,9 @@ public class ObjectBuilderImpl<D, W> implements ObjectBuilder<D, W> {
 
   void init(DataPacker<D, W> dataPacker, int totSize) {
     this.reset();
-    this.partialDataHolder = dataPacker.wrapperForByteLength(totSize);
+    // the holder is created only if the packer asks for it, packers that can read the
+    // object straight from the buffer will not need it
+    this.packer = dataPacker;
     this.totalSize = totSize;
   }
 
@@ -63,6 +66,9 @@ public class ObjectBuilderImpl<D, W> implements ObjectBuilder<D, W> {
   }
 
   public W getPartialDataHolder() {
+    if (partialDataHolder == null && packer != null) {
+      partialDataHolder = packer.wrapperForByteLength(totalSize);
+    }
     return partialDataHolder;
   }
 
@@ -77,6 +83,7 @@ public class ObjectBuilderImpl<D, W> implements ObjectBuilder<D, W> {
 
   private void reset() {
     this.partialDataHolder = null;
+    this.packer = null;
     this.totalSize = 0;
     this.finalObject = null;
     this.built = false;
@@ -27,6 +27,8 @@ import edu.iu.dsc.tws.api.comms.messaging.MessageFlags;
 import edu.iu.dsc.tws.api.comms.messaging.MessageReceiver;
 import edu.iu.dsc.tws.api.config.Config;
 import edu.iu.dsc.tws.api.util.KryoSerializer;
+import edu.iu.dsc.tws.api.util.compress.BlockCodec;
+import edu.iu.dsc.tws.api.util.compress.BlockCodecs;
 import edu.iu.dsc.tws.comms.dfw.io.AggregatedObjects;
 import edu.iu.dsc.tws.comms.shuffle.FSMerger;
 import edu.iu.dsc.tws.comms.shuffle.Shuffle;
@@ -91,6 +93,7 @@ public class DGatherBatchFinalReceiver implements MessageReceiver {
   public void init(Config cfg, DataFlowOperation op, Map<Integer, List<Integer>> expectedIds) {
     long maxBytesInMemory = CommunicationContext.getShuffleMaxBytesInMemory(cfg);
     long maxRecordsInMemory = CommunicationContext.getShuffleMaxRecordsInMemory(cfg);
+    BlockCodec codec = BlockCodecs.get(CommunicationContext.getShuffleCompressionCodec(cfg));
 
     gather = op;
     sendPendingMax = CommunicationContext.sendPendingMax(cfg);
@@ -108,7 +111,7 @@ public class DGatherBatchFinalReceiver implements MessageReceiver {
       batchDone.put(e.getKey(), false);
 
       FSMerger merger = new FSMerger(maxBytesInMemory, maxRecordsInMemory, shuffleDirectory,
-          getOperationName(e.getKey()), gather.getDataType());
+          getOperationName(e.getKey()), gather.getDataType(), codec);
       sortedMergers.put(e.getKey(), merger);
     }
     this.bulkReceiver.init(cfg, expectedIds.keySet());
@@ -25,6 +25,8 @@ import edu.iu.dsc.tws.api.comms.DataFlowOperation;
 import edu.iu.dsc.tws.api.comms.structs.Tuple;
 import edu.iu.dsc.tws.api.config.Config;
 import edu.iu.dsc.tws.api.util.KryoSerializer;
+import edu.iu.dsc.tws.api.util.compress.BlockCodec;
+import edu.iu.dsc.tws.api.util.compress.BlockCodecs;
 import edu.iu.dsc.tws.comms.dfw.io.KeyedReceiver;
 import edu.iu.dsc.tws.comms.shuffle.FSKeyedMerger;
 import edu.iu.dsc.tws.comms.shuffle.FSKeyedSortedMerger2;
@@ -89,6 +91,7 @@ public class DKGatherBatchFinalReceiver extends KeyedReceiver {
     long maxRecordsInMemory = CommunicationContext.getShuffleMaxRecordsInMemory(cfg);
     long maxBytesToFile = CommunicationContext.getShuffleFileSize(cfg);
     int parallelIOAllowance = CommunicationContext.getParallelIOAllowance(cfg);
+    BlockCodec codec = BlockCodecs.get(CommunicationContext.getShuffleCompressionCodec(cfg));
 
     for (Integer target : expectedIds.keySet()) {
 
@@ -97,11 +100,11 @@ public class DKGatherBatchFinalReceiver extends KeyedReceiver {
         sortedMerger = new FSKeyedSortedMerger2(maxBytesInMemory,
             maxBytesToFile, shuffleDirectory, getOperationName(target),
             dataFlowOperation.getKeyType(), dataFlowOperation.getDataType(), comparator, target,
-            this.groupByKey, parallelIOAllowance);
+            this.groupByKey, parallelIOAllowance, codec);
       } else {
         sortedMerger = new FSKeyedMerger(maxBytesInMemory, maxRecordsInMemory, shuffleDirectory,
             getOperationName(target), dataFlowOperation.getKeyType(),
-            dataFlowOperation.getDataType());
+            dataFlowOperation.getDataType(), codec);
       }
       sortedMergers.put(target, sortedMerger);
     }
@@ -11,6 +11,7 @@
 //  limitations under the License.
 package edu.iu.dsc.tws.comms.dfw.io.join;
 
+import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -28,7 +29,7 @@ import edu.iu.dsc.tws.api.config.Config;
 import edu.iu.dsc.tws.api.exceptions.Twister2RuntimeException;
 import edu.iu.dsc.tws.comms.shuffle.ResettableIterator;
 import edu.iu.dsc.tws.comms.shuffle.RestorableIterator;
-import edu.iu.dsc.tws.comms.utils.HashJoinUtils;
+import edu.iu.dsc.tws.comms.utils.GraceHashJoin;
 import edu.iu.dsc.tws.comms.utils.JoinRelation;
 import edu.iu.dsc.tws.comms.utils.KeyComparatorWrapper;
 import edu.iu.dsc.tws.comms.utils.SortJoinUtils;
@@ -54,15 +55,40 @@ public class JoinBatchCombinedReceiver {
   private MessageType keyType;
   private Config config;
 
+  /**
+   * The directory used by the hash join when the relations doesn't fit in to the memory
+   */
+  private String spillDirectory;
+
+  /**
+   * The last hash join of each target, closed when the target gets a new join or the
+   * operation is closed so the spill files of a join which is not fully read are removed
+   */
+  private Map<Integer, GraceHashJoin> hashJoins = new HashMap<>();
+
   public JoinBatchCombinedReceiver(BulkReceiver recvr,
                                    CommunicationContext.JoinAlgorithm algorithm,
                                    CommunicationContext.JoinType joinType,
                                    KeyComparatorWrapper keyComparator, MessageType keyType) {
+    this(recvr, algorithm, joinType, keyComparator, keyType, null);
+  }
+
+  public JoinBatchCombinedReceiver(BulkReceiver recvr,
+                                   CommunicationContext.JoinAlgorithm algorithm,
+                                   CommunicationContext.JoinType joinType,
+                                   KeyComparatorWrapper keyComparator, MessageType keyType,
+                                   List<String> spillDirectories) {
     this.rcvr = recvr;
     this.algorithm = algorithm;
     this.joinType = joinType;
     this.keyComparator = keyComparator;
     this.keyType = keyType;
+    if (spillDirectories != null && !spillDirectories.isEmpty()) {
+      this.spillDirectory = Paths.get(spillDirectories.get(0), "join").toString();
+    } else {
+      this.spillDirectory = Paths.get(System.getProperty("java.io.tmpdir"),
+          "twister2-join").toString();
+    }
   }
 
   public void init(Config cfg, Set<Integer> targets) {
@@ -78,7 +104,7 @@ public class JoinBatchCombinedReceiver {
     }
   }
 
-  private Iterator doJoin(Object left, Object right) {
+  private Iterator doJoin(int target, Object left, Object right) {
     if (algorithm.equals(CommunicationContext.JoinAlgorithm.SORT)) {
       if (left instanceof RestorableIterator) {
         if (config.getBooleanValue(CONFIG_USE_SORT_JOIN_CACHE, true)) {
@@ -102,24 +128,51 @@ public class JoinBatchCombinedReceiver {
             + left.getClass());
       }
     } else {
+      closeHashJoin(target);
+      GraceHashJoin join;
       if (left instanceof ResettableIterator) {
-        return HashJoinUtils.join(
+        join = GraceHashJoin.create(
             (ResettableIterator) left,
             (ResettableIterator) right,
             joinType,
-            keyType
+            keyType,
+            config,
+            spillDirectory
         );
       } else if (left instanceof List) {
-        return HashJoinUtils.join(
-            (List<Tuple>) left,
-            (List<Tuple>) right,
+        join = GraceHashJoin.create(
+            ((List<Tuple>) left).iterator(),
+            ((List<Tuple>) right).iterator(),
             joinType,
-            keyType
+            keyType,
+            config,
+            spillDirectory
         );
       } else {
         throw new Twister2RuntimeException("Unsupported data formats received from sources");
       }
+      if (join.isSpilled()) {
+        hashJoins.put(target, join);
+      }
+      return join;
+    }
+  }
+
+  private void closeHashJoin(int target) {
+    GraceHashJoin join = hashJoins.remove(target);
+    if (join != null) {
+      join.close();
+    }
+  }
+
+  /**
+   * Remove the spill files of the joins
+   */
+  public void close() {
+    for (GraceHashJoin join : hashJoins.values()) {
+      join.close();
     }
+    hashJoins.clear();
   }
 
   public boolean receive(int target, Object object, JoinRelation joinRelation) {
@@ -130,7 +183,7 @@ public class JoinBatchCombinedReceiver {
     if (count == JoinRelation.values().length) {
       // ready to do join
       long t1 = System.currentTimeMillis();
-      this.rcvr.receive(target, doJoin(values[JoinRelation.LEFT.ordinal()],
+      this.rcvr.receive(target, doJoin(target, values[JoinRelation.LEFT.ordinal()],
           values[JoinRelation.RIGHT.ordinal()]));
       LOG.info("Join time : " + (System.currentTimeMillis() - t1));
 
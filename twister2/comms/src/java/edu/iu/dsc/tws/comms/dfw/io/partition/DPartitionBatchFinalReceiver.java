@@ -31,6 +31,8 @@ import edu.iu.dsc.tws.api.comms.messaging.MessageReceiver;
 import edu.iu.dsc.tws.api.comms.messaging.types.MessageTypes;
 import edu.iu.dsc.tws.api.comms.structs.Tuple;
 import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.api.util.compress.BlockCodec;
+import edu.iu.dsc.tws.api.util.compress.BlockCodecs;
 import edu.iu.dsc.tws.comms.dfw.io.DFWIOUtils;
 import edu.iu.dsc.tws.comms.dfw.io.ReceiverState;
 import edu.iu.dsc.tws.comms.shuffle.FSKeyedMerger;
@@ -129,6 +131,11 @@ public class DPartitionBatchFinalReceiver implements MessageReceiver {
    */
   private boolean complete = false;
 
+  /**
+   * Codec to compress the files, null if not compressed
+   */
+  private BlockCodec codec;
+
   public DPartitionBatchFinalReceiver(BulkReceiver receiver,
                                       List<String> shuffleDirs,
                                       Comparator<Object> com,
@@ -144,6 +151,7 @@ public class DPartitionBatchFinalReceiver implements MessageReceiver {
     long maxRecordsInMemory = CommunicationContext.getShuffleMaxRecordsInMemory(cfg);
     long maxFileSize = CommunicationContext.getShuffleFileSize(cfg);
     int parallelIOAllowance = CommunicationContext.getParallelIOAllowance(cfg);
+    codec = BlockCodecs.get(CommunicationContext.getShuffleCompressionCodec(cfg));
 
     expIds = expectedIds;
     thisWorker = op.getLogicalPlan().getThisWorker();
@@ -173,17 +181,18 @@ public class DPartitionBatchFinalReceiver implements MessageReceiver {
       Shuffle sortedMerger;
       if (partition.getKeyType() == null) {
         sortedMerger = new FSMerger(maxBytesInMemory, maxRecordsInMemory, shuffleDirectory,
-            DFWIOUtils.getOperationName(target, partition, refresh), partition.getDataType());
+            DFWIOUtils.getOperationName(target, partition, refresh), partition.getDataType(),
+            codec);
       } else {
         if (comparator != null) {
           sortedMerger = new FSKeyedSortedMerger2(maxBytesInMemory, maxFileSize,
               shuffleDirectory, DFWIOUtils.getOperationName(target, partition, refresh),
               partition.getKeyType(), partition.getDataType(), comparator, target,
-              groupByKey, parallelIOAllowance);
+              groupByKey, parallelIOAllowance, codec);
         } else {
           sortedMerger = new FSKeyedMerger(maxBytesInMemory, maxRecordsInMemory, shuffleDirectory,
               DFWIOUtils.getOperationName(target, partition, refresh), partition.getKeyType(),
-              partition.getDataType());
+              partition.getDataType(), codec);
         }
       }
       sortedMergers.put(target, sortedMerger);
@@ -11,7 +11,6 @@
 //  limitations under the License.
 package edu.iu.dsc.tws.comms.dfw.io.reduce.keyed;
 
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -23,8 +22,6 @@ import edu.iu.dsc.tws.api.config.Config;
 import edu.iu.dsc.tws.comms.dfw.io.ReceiverState;
 import edu.iu.dsc.tws.comms.dfw.io.TargetFinalReceiver;
 
-import edu.iu.dsc.tws.comms.utils.THashMap;
-
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 
 public class KReduceBatchFinalReceiver extends TargetFinalReceiver {
@@ -41,7 +38,7 @@ public class KReduceBatchFinalReceiver extends TargetFinalReceiver {
   /**
    * The reduced values for each target and key
    */
-  protected Int2ObjectOpenHashMap<Map<Object, Object>> reduced = new Int2ObjectOpenHashMap<>();
+  protected Int2ObjectOpenHashMap<ReducedValueMap> reduced = new Int2ObjectOpenHashMap<>();
 
   public KReduceBatchFinalReceiver(ReduceFunction reduce, BulkReceiver receiver) {
     this.reduceFunction = reduce;
@@ -53,13 +50,13 @@ public class KReduceBatchFinalReceiver extends TargetFinalReceiver {
     super.init(cfg, op, expectedIds);
     this.bulkReceiver.init(cfg, expectedIds.keySet());
     for (int t : expectedIds.keySet()) {
-      reduced.put(t, new THashMap<>(op.getKeyType()));
+      reduced.put(t, ReducedValueMap.create(op.getKeyType(), reduceFunction));
     }
   }
 
   @Override
   protected void merge(int dest, List<Object> dests) {
-    Map<Object, Object> targetValues = reduced.get(dest);
+    ReducedValueMap targetValues = reduced.get(dest);
 
     for (int i = 0; i < dests.size(); i++) {
       Object val = dests.get(i);
@@ -70,13 +67,7 @@ public class KReduceBatchFinalReceiver extends TargetFinalReceiver {
       } else {
         throw new RuntimeException("Un-expected type: " + val.getClass());
       }
-      Object currentVal = targetValues.get(t.getKey());
-      if (currentVal != null) {
-        Object newVal = reduceFunction.reduce(currentVal, t.getValue());
-        targetValues.put(t.getKey(), newVal);
-      } else {
-        targetValues.put(t.getKey(), t.getValue());
-      }
+      targetValues.reduce(t.getKey(), t.getValue());
     }
     dests.clear();
   }
@@ -84,23 +75,22 @@ public class KReduceBatchFinalReceiver extends TargetFinalReceiver {
   @Override
   protected boolean isAllEmpty(int target) {
     if (reduced.containsKey(target)) {
-      Map<Object, Object> queue = reduced.get(target);
-      return queue.isEmpty();
+      return reduced.get(target).isEmpty();
     }
     return true;
   }
 
   @Override
   protected boolean sendToTarget(int source, int target) {
-    Map<Object, Object> values = reduced.get(target);
+    ReducedValueMap values = reduced.get(target);
 
     if (values == null || values.isEmpty()) {
       return isFilledToSend(target);
     }
 
-    boolean send = bulkReceiver.receive(target, new ReduceIterator(values));
+    boolean send = bulkReceiver.receive(target, values.iterator());
     if (send) {
-      reduced.put(target, new THashMap<>(operation.getKeyType()));
+      reduced.put(target, ReducedValueMap.create(operation.getKeyType(), reduceFunction));
     }
     return send;
   }
@@ -111,26 +101,6 @@ public class KReduceBatchFinalReceiver extends TargetFinalReceiver {
         && messages.get(target).isEmpty();
   }
 
-  @SuppressWarnings({"unchecked", "rawtypes"})
-  private class ReduceIterator implements Iterator<Object> {
-    private Iterator<Map.Entry<Object, Object>> it;
-
-    ReduceIterator(Map<Object, Object> messageMap) {
-      it = messageMap.entrySet().iterator();
-    }
-
-    @Override
-    public boolean hasNext() {
-      return it.hasNext();
-    }
-
-    @Override
-    public Tuple next() {
-      Map.Entry<Object, Object> entry = it.next();
-      return new Tuple(entry.getKey(), entry.getValue());
-    }
-  }
-
   @Override
   public boolean onSyncEvent(int target, byte[] value) {
     return bulkReceiver.sync(target, value);
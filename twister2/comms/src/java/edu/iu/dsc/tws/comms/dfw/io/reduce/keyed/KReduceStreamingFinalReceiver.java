@@ -47,7 +47,7 @@ public class KReduceStreamingFinalReceiver extends KReduceStreamingReceiver {
       Queue<Object> targetSendQueue = sendQueue.get(target);
       sourcesFinished = isSourcesFinished(target);
       if (!sourcesFinished && !(dataFlowOperation.isDelegateComplete()
-          && messages.get(target).isEmpty())) {
+          && isBufferEmpty(target))) {
         needsFurtherProgress = true;
       }
 
@@ -11,16 +11,19 @@
 //  limitations under the License.
 package edu.iu.dsc.tws.comms.dfw.io.reduce.keyed;
 
-import java.util.ArrayDeque;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.logging.Logger;
 
+import edu.iu.dsc.tws.api.comms.DataFlowOperation;
 import edu.iu.dsc.tws.api.comms.ReduceFunction;
 import edu.iu.dsc.tws.api.comms.structs.Tuple;
+import edu.iu.dsc.tws.api.config.Config;
 import edu.iu.dsc.tws.comms.dfw.io.KeyedReceiver;
 
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+
 /**
  * Abstract class that is extended by keyed reduce streaming receivers
  */
@@ -33,6 +36,12 @@ public abstract class KReduceStreamingReceiver extends KeyedReceiver {
    */
   protected ReduceFunction reduceFunction;
 
+  /**
+   * The reduced values for each target and key. The reduce operation keeps a single value for
+   * each key, so these are used instead of the messages data structure
+   */
+  protected Int2ObjectOpenHashMap<ReducedValueMap> reduced = new Int2ObjectOpenHashMap<>();
+
   /**
    * Streaming messages are only kept until the window size is met. by default the window size
    * is 1, so all messages are forwarded as they arrive.
@@ -45,10 +54,18 @@ public abstract class KReduceStreamingReceiver extends KeyedReceiver {
    */
   protected int localWindowCount;
 
+  @Override
+  public void init(Config cfg, DataFlowOperation op, Map<Integer, List<Integer>> expectedIds) {
+    super.init(cfg, op, expectedIds);
+    for (int target : expectedIds.keySet()) {
+      reduced.put(target, ReducedValueMap.create(op.getKeyType(), reduceFunction));
+    }
+  }
+
   /**
    * The reduce operation overrides the offer method because the reduce operation
    * does not save all the incoming messages, it rather reduces messages with the same key and
-   * saves only the reduced values. So the messages data structure will only have a single
+   * saves only the reduced values. So the reduced map will only have a single
    * entry for each target, key pair
    *
    * @param target target for which the messages are to be added
@@ -58,35 +75,29 @@ public abstract class KReduceStreamingReceiver extends KeyedReceiver {
   @Override
   @SuppressWarnings("rawtypes")
   protected boolean offerMessage(int target, Object object) {
+    ReducedValueMap reducedPerTarget = reduced.get(target);
 
-
-    Map<Object, Queue<Object>> messagesPerTarget = messages.get(target);
-
-    if (messagesPerTarget.size() > keyLimit) {
+    if (reducedPerTarget.size() > keyLimit) {
       LOG.fine(String.format("Executor %d Partial cannot add any further keys needs flush ",
           executor));
-      moveMessagesToSendQueue(target, messagesPerTarget);
+      reducedPerTarget.drainTo(sendQueue.get(target));
       return false;
     }
     if (object instanceof List) {
       List dataList = (List) object;
       for (Object dataEntry : dataList) {
         Tuple tuple = (Tuple) dataEntry;
-        if (!reduceAndInsert(messagesPerTarget, tuple)) {
-          throw new RuntimeException("Reduce operation should not fail to insert key");
-        }
+        reducedPerTarget.reduce(tuple.getKey(), tuple.getValue());
         this.localWindowCount++;
       }
     } else {
       Tuple tuple = (Tuple) object;
-      if (!reduceAndInsert(messagesPerTarget, tuple)) {
-        throw new RuntimeException("Reduce operation should not fail to insert key");
-      }
+      reducedPerTarget.reduce(tuple.getKey(), tuple.getValue());
       this.localWindowCount++;
     }
 
     if (localWindowCount > windowSize) {
-      if (moveMessagesToSendQueue(target, messagesPerTarget)) {
+      if (reducedPerTarget.drainTo(sendQueue.get(target))) {
         //TODO: what if the move returns false, do we still set the localWindowCount to zero?
         localWindowCount = 0;
       }
@@ -95,44 +106,21 @@ public abstract class KReduceStreamingReceiver extends KeyedReceiver {
   }
 
   /**
-   * reduces the given Tuple value with the existing value in the messages for the same key.
-   * If the key is not present it will insert the key with the given value.
-   *
-   * @param messagesPerTarget messages for the current target
-   * @param tuple value to be reduced and inserted
-   */
-  private boolean reduceAndInsert(Map<Object, Queue<Object>> messagesPerTarget,
-                                  Tuple tuple) {
-    Object currentEntry;
-    Object key = tuple.getKey();
-    if (!messagesPerTarget.containsKey(key)) {
-      messagesPerTarget.put(key, new ArrayDeque<>());
-      return messagesPerTarget.get(tuple.getKey()).offer(tuple.getValue());
-    } else {
-      currentEntry = messagesPerTarget.get(tuple.getKey()).poll();
-      currentEntry = reduceFunction.reduce(currentEntry, tuple.getValue());
-      return messagesPerTarget.get(tuple.getKey()).offer(currentEntry);
-    }
-  }
-
-  /**
-   * moves all the buffered messages into the sendQueue for the given target, this method assumes
-   * that for each target that there is only one object in the queue. This is required when working
-   * with reduce operations
+   * moves all the reduced values into the sendQueue for the given target. The messages
+   * data structure is not used by the reduce operation
    *
    * @param target target for which the move needs to be done
-   * @return true if the messagesPerTarget is not empty at the end of the moving process or false
-   * otherwise
+   * @param messagesPerTarget not used
+   * @return true if all the reduced values are moved
    */
   @Override
   protected boolean moveMessagesToSendQueue(int target,
                                             Map<Object, Queue<Object>> messagesPerTarget) {
-    Queue<Object> targetSendQueue = sendQueue.get(target);
-    messagesPerTarget.entrySet().removeIf(entry -> {
-      Tuple send = new Tuple(entry.getKey(), entry.getValue().peek());
-      return targetSendQueue.offer(send);
-    });
+    return reduced.get(target).drainTo(sendQueue.get(target));
+  }
 
-    return messagesPerTarget.isEmpty();
+  @Override
+  protected boolean isBufferEmpty(int target) {
+    return reduced.get(target).isEmpty();
   }
 }
@@ -0,0 +1,73 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.dfw.io.reduce.keyed;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+
+import edu.iu.dsc.tws.api.comms.ReduceFunction;
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageType;
+import edu.iu.dsc.tws.api.comms.structs.Tuple;
+import edu.iu.dsc.tws.comms.utils.THashMap;
+
+/**
+ * Reduced values for arbitrary keys and values
+ */
+public class ObjectReducedValueMap extends ReducedValueMap {
+  private final ReduceFunction reduceFunction;
+
+  private final Map<Object, Object> values;
+
+  public ObjectReducedValueMap(MessageType keyType, ReduceFunction function) {
+    this.reduceFunction = function;
+    this.values = new THashMap<>(keyType);
+  }
+
+  @Override
+  public void reduce(Object key, Object value) {
+    Object current = values.get(key);
+    if (current != null) {
+      values.put(key, reduceFunction.reduce(current, value));
+    } else {
+      values.put(key, value);
+    }
+  }
+
+  @Override
+  public int size() {
+    return values.size();
+  }
+
+  @Override
+  public boolean drainTo(Queue<Object> queue) {
+    values.entrySet().removeIf(entry -> queue.offer(new Tuple(entry.getKey(), entry.getValue())));
+    return values.isEmpty();
+  }
+
+  @Override
+  public Iterator<Object> iterator() {
+    Iterator<Map.Entry<Object, Object>> it = values.entrySet().iterator();
+    return new Iterator<Object>() {
+      @Override
+      public boolean hasNext() {
+        return it.hasNext();
+      }
+
+      @Override
+      public Tuple next() {
+        Map.Entry<Object, Object> entry = it.next();
+        return new Tuple(entry.getKey(), entry.getValue());
+      }
+    };
+  }
+}
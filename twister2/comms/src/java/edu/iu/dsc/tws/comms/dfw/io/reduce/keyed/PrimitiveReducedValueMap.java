@@ -0,0 +1,172 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.dfw.io.reduce.keyed;
+
+import java.util.Iterator;
+import java.util.Queue;
+
+import edu.iu.dsc.tws.api.comms.ReduceFunction;
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageType;
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageTypes;
+import edu.iu.dsc.tws.api.comms.structs.Tuple;
+import edu.iu.dsc.tws.comms.functions.reduction.AbstractOp;
+import edu.iu.dsc.tws.comms.functions.reduction.ReduceOperationFunction;
+
+import it.unimi.dsi.fastutil.longs.Long2LongMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+
+/**
+ * Reduced values for integer, long and double keys and values. Both the keys and the values are
+ * kept as raw long bits in a primitive map and the values are combined in place, so reducing a
+ * record doesn't allocate.
+ */
+public class PrimitiveReducedValueMap extends ReducedValueMap {
+  private static final int INTEGER = 0;
+  private static final int LONG = 1;
+  private static final int DOUBLE = 2;
+
+  /**
+   * Returned by the map for missing keys, we check the presence of the key only when a value
+   * equals to this
+   */
+  private static final long MISSING = Long.MIN_VALUE + 7;
+
+  private final Long2LongOpenHashMap values = new Long2LongOpenHashMap();
+
+  private final int keyKind;
+
+  private final int valueKind;
+
+  private final AbstractOp op;
+
+  public PrimitiveReducedValueMap(MessageType keyType, ReduceFunction function) {
+    if (!isSupported(keyType, function)) {
+      throw new IllegalArgumentException("Primitive reduce is not supported for key type "
+          + keyType + " and function " + function.getClass());
+    }
+    ReduceOperationFunction opFunction = (ReduceOperationFunction) function;
+    this.keyKind = kind(keyType);
+    this.valueKind = kind(opFunction.getMessageType());
+    this.op = opFunction.getAbstractOp();
+    this.values.defaultReturnValue(MISSING);
+  }
+
+  /**
+   * Check weather the keys and the values of this reduce can be kept as primitives
+   *
+   * @param keyType key type
+   * @param function reduce function
+   * @return true if supported
+   */
+  public static boolean isSupported(MessageType keyType, ReduceFunction function) {
+    return kind(keyType) >= 0 && function instanceof ReduceOperationFunction
+        && kind(((ReduceOperationFunction) function).getMessageType()) >= 0;
+  }
+
+  private static int kind(MessageType type) {
+    if (type == MessageTypes.INTEGER) {
+      return INTEGER;
+    } else if (type == MessageTypes.LONG) {
+      return LONG;
+    } else if (type == MessageTypes.DOUBLE) {
+      return DOUBLE;
+    }
+    return -1;
+  }
+
+  @Override
+  public void reduce(Object key, Object value) {
+    long k = encode(keyKind, key);
+    long v = encode(valueKind, value);
+
+    long current = values.get(k);
+    if (current == MISSING && !values.containsKey(k)) {
+      values.put(k, v);
+      return;
+    }
+
+    switch (valueKind) {
+      case INTEGER:
+        values.put(k, op.doInt((int) current, (int) v));
+        break;
+      case LONG:
+        values.put(k, op.doLong(current, v));
+        break;
+      default:
+        values.put(k, Double.doubleToRawLongBits(op.doDouble(Double.longBitsToDouble(current),
+            Double.longBitsToDouble(v))));
+        break;
+    }
+  }
+
+  @Override
+  public int size() {
+    return values.size();
+  }
+
+  @Override
+  public boolean drainTo(Queue<Object> queue) {
+    ObjectIterator<Long2LongMap.Entry> it = values.long2LongEntrySet().fastIterator();
+    while (it.hasNext()) {
+      Long2LongMap.Entry entry = it.next();
+      if (!queue.offer(toTuple(entry))) {
+        return false;
+      }
+      it.remove();
+    }
+    return true;
+  }
+
+  @Override
+  public Iterator<Object> iterator() {
+    ObjectIterator<Long2LongMap.Entry> it = values.long2LongEntrySet().fastIterator();
+    return new Iterator<Object>() {
+      @Override
+      public boolean hasNext() {
+        return it.hasNext();
+      }
+
+      @Override
+      public Tuple next() {
+        return toTuple(it.next());
+      }
+    };
+  }
+
+  private Tuple toTuple(Long2LongMap.Entry entry) {
+    return new Tuple(decode(keyKind, entry.getLongKey()), decode(valueKind, entry.getLongValue()));
+  }
+
+  private static long encode(int kind, Object value) {
+    switch (kind) {
+      case INTEGER:
+        return (Integer) value;
+      case LONG:
+        return (Long) value;
+      default:
+        // use the canonical bits so that keys compare the same way as boxed doubles
+        return Double.doubleToLongBits((Double) value);
+    }
+  }
+
+  private static Object decode(int kind, long value) {
+    switch (kind) {
+      case INTEGER:
+        return (int) value;
+      case LONG:
+        return value;
+      default:
+        return Double.longBitsToDouble(value);
+    }
+  }
+}
@@ -0,0 +1,72 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.dfw.io.reduce.keyed;
+
+import java.util.Iterator;
+import java.util.Queue;
+
+import edu.iu.dsc.tws.api.comms.ReduceFunction;
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageType;
+
+/**
+ * Keeps a single reduced value for each key. The keyed reduce receivers combine the incoming
+ * values in to this map in place.
+ */
+public abstract class ReducedValueMap {
+
+  /**
+   * Create the map best suited for the key type and the reduce function. Primitive keys reduced
+   * with a primitive {@link edu.iu.dsc.tws.comms.functions.reduction.ReduceOperationFunction}
+   * are kept without boxing.
+   *
+   * @param keyType type of the keys
+   * @param function the reduce function
+   * @return the map
+   */
+  public static ReducedValueMap create(MessageType keyType, ReduceFunction function) {
+    if (PrimitiveReducedValueMap.isSupported(keyType, function)) {
+      return new PrimitiveReducedValueMap(keyType, function);
+    }
+    return new ObjectReducedValueMap(keyType, function);
+  }
+
+  /**
+   * Reduce the value with the current value of the key, if the key is not present the
+   * value is inserted
+   *
+   * @param key the key
+   * @param value the value
+   */
+  public abstract void reduce(Object key, Object value);
+
+  /**
+   * Number of keys in the map
+   */
+  public abstract int size();
+
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  /**
+   * Move the reduced values as tuples to the queue, the moved keys are removed from the map
+   *
+   * @param queue the queue
+   * @return true if all the keys were moved
+   */
+  public abstract boolean drainTo(Queue<Object> queue);
+
+  /**
+   * Iterate the reduced values as tuples, the map should not be modified while iterating
+   */
+  public abstract Iterator<Object> iterator();
+}
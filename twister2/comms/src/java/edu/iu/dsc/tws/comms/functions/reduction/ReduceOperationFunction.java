@@ -140,20 +140,35 @@ public class ReduceOperationFunction implements ReduceFunction {
 
   @Override
   public Object reduce(Object data1, Object data2) {
+    return this.applyOp(data1, data2, getAbstractOp());
+  }
+
+  /**
+   * The implementation of the operation, this can be used to reduce primitives without boxing
+   */
+  public AbstractOp getAbstractOp() {
     if (this.operation == Op.SUM) { // Start SUM
-      return this.applyOp(data1, data2, OpSum.getInstance());
+      return OpSum.getInstance();
     } else if (this.operation == Op.PRODUCT) {
-      return this.applyOp(data1, data2, OpProduct.getInstance());
+      return OpProduct.getInstance();
     } else if (this.operation == Op.DIVISION) {
-      return this.applyOp(data1, data2, OpDivision.getInstance());
+      return OpDivision.getInstance();
     } else if (this.operation == Op.MAX) {
-      return this.applyOp(data1, data2, OpMax.getInstance());
+      return OpMax.getInstance();
     } else if (this.operation == Op.MIN) {
-      return this.applyOp(data1, data2, OpMin.getInstance());
+      return OpMin.getInstance();
     } else {
       throw new Twister2RuntimeException("This operation is not supported.");
     }
   }
+
+  public Op getOperation() {
+    return operation;
+  }
+
+  public MessageType getMessageType() {
+    return messageType;
+  }
 }
 
 
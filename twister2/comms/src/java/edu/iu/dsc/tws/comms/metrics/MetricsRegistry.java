@@ -0,0 +1,185 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.ObjectName;
+
+import edu.iu.dsc.tws.api.comms.CommunicationContext;
+import edu.iu.dsc.tws.api.config.Config;
+
+/**
+ * The communication metrics of this process. The operations and the channels register their
+ * counters, gauges and histograms here with dotted names, starting with the worker id so the
+ * workers sharing a process can be told apart. The metrics are exported through JMX and
+ * periodically written to the log or to a file.
+ */
+public final class MetricsRegistry {
+  private static final Logger LOG = Logger.getLogger(MetricsRegistry.class.getName());
+
+  private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+
+  /**
+   * Name of the JMX bean exporting the metrics
+   */
+  public static final String JMX_NAME = "edu.iu.dsc.tws.comms:type=Metrics";
+
+  private final ConcurrentMap<String, Object> metrics = new ConcurrentHashMap<>();
+
+  private volatile boolean enabled;
+
+  private ScheduledExecutorService reporter;
+
+  private MetricsRegistry() {
+  }
+
+  public static MetricsRegistry get() {
+    return INSTANCE;
+  }
+
+  /**
+   * Enable the metrics and start the reporters if the configuration asks for them, the
+   * reporters are started only once
+   *
+   * @param cfg the configuration
+   * @return true if the metrics are enabled
+   */
+  public static boolean configure(Config cfg) {
+    if (!CommunicationContext.isMetricsEnabled(cfg)) {
+      return false;
+    }
+    INSTANCE.start(cfg);
+    return true;
+  }
+
+  private synchronized void start(Config cfg) {
+    if (enabled) {
+      return;
+    }
+    enabled = true;
+
+    if (CommunicationContext.isMetricsJmx(cfg)) {
+      try {
+        ManagementFactory.getPlatformMBeanServer().registerMBean(
+            new MetricsMBean(this), new ObjectName(JMX_NAME));
+      } catch (Exception e) {
+        LOG.log(Level.WARNING, "Failed to register the metrics with JMX", e);
+      }
+    }
+
+    int interval = CommunicationContext.metricsReportInterval(cfg);
+    if (interval > 0) {
+      reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "comms-metrics-reporter");
+        t.setDaemon(true);
+        return t;
+      });
+      reporter.scheduleAtFixedRate(
+          new MetricsReporter(this, CommunicationContext.metricsReportFile(cfg)),
+          interval, interval, TimeUnit.SECONDS);
+    }
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public Counter counter(String name) {
+    return metric(name, Counter.class, new Counter());
+  }
+
+  public LatencyHistogram histogram(String name) {
+    return metric(name, LatencyHistogram.class, new LatencyHistogram());
+  }
+
+  /**
+   * Counters for the peer workers, named [prefix].peer-[worker].[suffix]
+   */
+  public PeerCounters peerCounters(String prefix, String suffix) {
+    return new PeerCounters(this, prefix, suffix);
+  }
+
+  /**
+   * Register a gauge, replacing the gauge registered earlier with the same name
+   */
+  public void gauge(String name, Gauge gauge) {
+    metrics.put(name, gauge);
+  }
+
+  /**
+   * Remove the gauge when its owner is closed, unless it is already replaced by another gauge
+   * with the same name
+   */
+  public void removeGauge(String name, Gauge gauge) {
+    metrics.remove(name, gauge);
+  }
+
+  private <T> T metric(String name, Class<T> type, T newMetric) {
+    Object existing = metrics.putIfAbsent(name, newMetric);
+    if (existing == null) {
+      return newMetric;
+    }
+    if (!type.isInstance(existing)) {
+      throw new IllegalArgumentException("Metric " + name + " is already registered as a "
+          + existing.getClass().getSimpleName());
+    }
+    return type.cast(existing);
+  }
+
+  /**
+   * Remove the metrics with names starting with the prefix, when an operation is closed
+   */
+  public void remove(String prefix) {
+    metrics.keySet().removeIf(name -> name.startsWith(prefix));
+  }
+
+  /**
+   * The registered metrics by name
+   */
+  public Map<String, Object> getMetrics() {
+    return Collections.unmodifiableMap(metrics);
+  }
+
+  /**
+   * The current values sorted by name, a histogram gives its count, mean, percentiles and
+   * maximum as separate values
+   */
+  public Map<String, Long> snapshot() {
+    Map<String, Long> values = new TreeMap<>();
+    for (Map.Entry<String, Object> e : metrics.entrySet()) {
+      Object metric = e.getValue();
+      if (metric instanceof Counter) {
+        values.put(e.getKey(), ((Counter) metric).get());
+      } else if (metric instanceof Gauge) {
+        values.put(e.getKey(), ((Gauge) metric).getValue());
+      } else if (metric instanceof LatencyHistogram) {
+        LatencyHistogram histogram = (LatencyHistogram) metric;
+        values.put(e.getKey() + ".count", histogram.getCount());
+        values.put(e.getKey() + ".mean", (long) histogram.getMean());
+        values.put(e.getKey() + ".p50", histogram.getValueAtPercentile(50));
+        values.put(e.getKey() + ".p99", histogram.getValueAtPercentile(99));
+        values.put(e.getKey() + ".max", histogram.getMax());
+      }
+    }
+    return values;
+  }
+}
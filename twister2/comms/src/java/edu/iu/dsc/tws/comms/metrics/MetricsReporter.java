@@ -0,0 +1,69 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.metrics;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes the metrics to the log, or appends them to a file with a time stamp on each line
+ */
+final class MetricsReporter implements Runnable {
+  private static final Logger LOG = Logger.getLogger(MetricsReporter.class.getName());
+
+  private final MetricsRegistry registry;
+
+  /**
+   * The file to write, null to write to the log
+   */
+  private final String file;
+
+  MetricsReporter(MetricsRegistry registry, String file) {
+    this.registry = registry;
+    this.file = file;
+  }
+
+  @Override
+  public void run() {
+    Map<String, Long> values = registry.snapshot();
+    if (values.isEmpty()) {
+      return;
+    }
+
+    if (file == null) {
+      StringBuilder builder = new StringBuilder("Communication metrics:");
+      for (Map.Entry<String, Long> e : values.entrySet()) {
+        builder.append('\n').append(e.getKey()).append(" = ").append(e.getValue());
+      }
+      LOG.info(builder.toString());
+      return;
+    }
+
+    long time = System.currentTimeMillis();
+    try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(Paths.get(file),
+        StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND))) {
+      for (Map.Entry<String, Long> e : values.entrySet()) {
+        writer.println(time + " " + e.getKey() + " " + e.getValue());
+      }
+    } catch (IOException e) {
+      // keep the reporter running, the file may become writable later
+      LOG.log(Level.WARNING, "Failed to write the metrics to " + file, e);
+    }
+  }
+}
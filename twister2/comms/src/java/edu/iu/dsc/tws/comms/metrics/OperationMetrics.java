@@ -0,0 +1,129 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.iu.dsc.tws.api.comms.CommunicationContext;
+import edu.iu.dsc.tws.api.config.Config;
+
+/**
+ * The metrics of the channel operation of an edge, named
+ * comms.worker-[worker].[operation]-[edge].[metric]
+ */
+public final class OperationMetrics {
+  private final MetricsRegistry registry;
+
+  private final String prefix;
+
+  private final Counter messagesSent;
+
+  private final Counter messagesReceived;
+
+  private final PeerCounters bytesSent;
+
+  private final PeerCounters bytesReceived;
+
+  private final LatencyHistogram serializeTime;
+
+  private final LatencyHistogram deserializeTime;
+
+  private final LatencyHistogram bufferWaitTime;
+
+  /**
+   * When the sends started to wait for free buffers, 0 if not waiting
+   */
+  private final AtomicLong bufferWaitStart = new AtomicLong();
+
+  private OperationMetrics(MetricsRegistry registry, String prefix) {
+    this.registry = registry;
+    this.prefix = prefix;
+    this.messagesSent = registry.counter(prefix + ".messages.sent");
+    this.messagesReceived = registry.counter(prefix + ".messages.received");
+    this.bytesSent = registry.peerCounters(prefix, "bytes.sent");
+    this.bytesReceived = registry.peerCounters(prefix, "bytes.received");
+    this.serializeTime = registry.histogram(prefix + ".serialize.nanos");
+    this.deserializeTime = registry.histogram(prefix + ".deserialize.nanos");
+    this.bufferWaitTime = registry.histogram(prefix + ".buffer.wait.nanos");
+  }
+
+  /**
+   * Create the metrics of an edge
+   *
+   * @param cfg configuration of the operation
+   * @param worker this worker
+   * @param edge the edge
+   * @return the metrics or null if the metrics are not enabled
+   */
+  public static OperationMetrics create(Config cfg, int worker, int edge) {
+    if (!MetricsRegistry.configure(cfg)) {
+      return null;
+    }
+    String op = cfg.getStringValue(CommunicationContext.OPERATION_NAME, "");
+    return new OperationMetrics(MetricsRegistry.get(), String.format("comms.worker-%d.%s-%d",
+        worker, op.isEmpty() ? "edge" : op, edge));
+  }
+
+  public void messageSent() {
+    messagesSent.inc();
+  }
+
+  public void messageReceived() {
+    messagesReceived.inc();
+  }
+
+  public void bytesSent(int worker, long bytes) {
+    bytesSent.add(worker, bytes);
+  }
+
+  public void bytesReceived(int worker, long bytes) {
+    bytesReceived.add(worker, bytes);
+  }
+
+  public void serialized(long nanos) {
+    serializeTime.record(nanos);
+  }
+
+  public void deserialized(long nanos) {
+    deserializeTime.record(nanos);
+  }
+
+  /**
+   * Track the time the sends wait for free buffers
+   *
+   * @param waiting true if there are messages to send but no free buffers
+   */
+  public void waitingForBuffers(boolean waiting) {
+    if (waiting) {
+      bufferWaitStart.compareAndSet(0, System.nanoTime());
+    } else {
+      long start = bufferWaitStart.getAndSet(0);
+      if (start != 0) {
+        bufferWaitTime.record(System.nanoTime() - start);
+      }
+    }
+  }
+
+  /**
+   * Register a gauge of the operation
+   */
+  public void gauge(String name, Gauge gauge) {
+    registry.gauge(prefix + "." + name, gauge);
+  }
+
+  /**
+   * Remove the metrics of the operation from the registry
+   */
+  public void close() {
+    registry.remove(prefix + ".");
+  }
+}
@@ -0,0 +1,63 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Counters for the peer workers, looked up by the worker id without boxing or locking
+ */
+public final class PeerCounters {
+  private final MetricsRegistry registry;
+
+  private final String prefix;
+
+  private final String suffix;
+
+  private volatile Counter[] counters = new Counter[0];
+
+  PeerCounters(MetricsRegistry registry, String prefix, String suffix) {
+    this.registry = registry;
+    this.prefix = prefix;
+    this.suffix = suffix;
+  }
+
+  /**
+   * Add to the counter of a worker
+   *
+   * @param worker worker id
+   * @param delta the value to add
+   */
+  public void add(int worker, long delta) {
+    Counter[] current = counters;
+    Counter counter = worker < current.length ? current[worker] : null;
+    if (counter == null) {
+      counter = create(worker);
+    }
+    counter.add(delta);
+  }
+
+  private synchronized Counter create(int worker) {
+    Counter[] current = counters;
+    if (worker >= current.length) {
+      current = Arrays.copyOf(current, Math.max(worker + 1, current.length * 2));
+    } else if (current[worker] != null) {
+      return current[worker];
+    } else {
+      current = current.clone();
+    }
+    Counter counter = registry.counter(prefix + ".peer-" + worker + "." + suffix);
+    current[worker] = counter;
+    counters = current;
+    return counter;
+  }
+}
@@ -18,6 +18,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -33,6 +34,9 @@ import edu.iu.dsc.tws.api.config.Config;
 import edu.iu.dsc.tws.api.config.MPIContext;
 import edu.iu.dsc.tws.api.resource.IWorkerController;
 import edu.iu.dsc.tws.common.util.IterativeLinkedList;
+import edu.iu.dsc.tws.comms.metrics.Gauge;
+import edu.iu.dsc.tws.comms.metrics.MetricsRegistry;
+import edu.iu.dsc.tws.comms.metrics.PeerCounters;
 import edu.iu.dsc.tws.proto.jobmaster.JobMasterAPI;
 
 import it.unimi.dsi.fastutil.ints.Int2ObjectArrayMap;
@@ -130,6 +134,20 @@ public class TWSMPIChannel implements TWSChannel {
    */
   private int workerId;
 
+  /**
+   * Bytes sent to and received from the workers, null if the metrics are not enabled
+   */
+  private PeerCounters bytesSent;
+
+  private PeerCounters bytesReceived;
+
+  /**
+   * Name of the pending sends gauge and the gauge, removed when the channel is closed
+   */
+  private String pendingSendsName;
+
+  private Gauge pendingSendsGauge;
+
   /**
    * Some debug counters
    */
@@ -140,6 +158,11 @@ public class TWSMPIChannel implements TWSChannel {
   private boolean debug = false;
   private int completedReceives = 0;
 
+  /**
+   * Sends and receives completed so far
+   */
+  private final AtomicLong completedRequests = new AtomicLong();
+
   /**
    * Create the mpi channel
    *
@@ -160,6 +183,16 @@ public class TWSMPIChannel implements TWSChannel {
     this.groupedRegisteredReceives = new Int2ObjectArrayMap<>();
     this.waitForCompletionSends = new IterativeLinkedList<>();
     this.workerId = wController.getWorkerInfo().getWorkerID();
+
+    if (MetricsRegistry.configure(config)) {
+      MetricsRegistry registry = MetricsRegistry.get();
+      String prefix = "comms.worker-" + workerId + ".channel";
+      this.bytesSent = registry.peerCounters(prefix, "bytes.sent");
+      this.bytesReceived = registry.peerCounters(prefix, "bytes.received");
+      this.pendingSendsName = prefix + ".pending.sends";
+      this.pendingSendsGauge = () -> pendingSends.size();
+      registry.gauge(pendingSendsName, pendingSendsGauge);
+    }
   }
 
   /**
@@ -218,6 +251,15 @@ public class TWSMPIChannel implements TWSChannel {
         throw new RuntimeException("Twister2Network failure", e);
       }
     }
+
+    if (pendingSendsGauge != null) {
+      MetricsRegistry.get().removeGauge(pendingSendsName, pendingSendsGauge);
+    }
+  }
+
+  @Override
+  public long getCompletedRequests() {
+    return completedRequests.get();
   }
 
   @Override
@@ -242,6 +284,9 @@ public class TWSMPIChannel implements TWSChannel {
             MPI.BYTE, requests.rank, message.getHeader().getEdge());
         // register to the loop to make communicationProgress on the send
         requests.pendingSends.add(new MPIRequest(request, buffer));
+        if (bytesSent != null) {
+          bytesSent.add(requests.rank, buffer.getSize());
+        }
       } catch (MPIException e) {
         throw new RuntimeException("Failed to send message to rank: " + requests.rank);
       }
@@ -314,6 +359,7 @@ public class TWSMPIChannel implements TWSChannel {
       // if the message if fully sent, lets call the callback
       // ideally we should be able to call for each finish of the buffer
       if (sendRequests.pendingSends.size() == 0) {
+        completedRequests.incrementAndGet();
         sendRequests.callback.onSendComplete(sendRequests.rank,
             sendRequests.edge, sendRequests.message);
         sendRequestsIterator.remove();
@@ -347,6 +393,10 @@ public class TWSMPIChannel implements TWSChannel {
               // lets call the callback about the receive complete
               r.buffer.setSize(status.getCount(MPI.BYTE));
 
+              completedRequests.incrementAndGet();
+              if (bytesReceived != null) {
+                bytesReceived.add(receiveRequests.rank, r.buffer.getSize());
+              }
               //We do not have any buffers to receive messages so we need to free a buffer
               receiveRequests.callback.onReceiveComplete(
                   receiveRequests.rank, receiveRequests.edge, r.buffer);
@@ -0,0 +1,210 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.shuffle;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import edu.iu.dsc.tws.api.comms.ByteArrayComparator;
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageType;
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageTypes;
+import edu.iu.dsc.tws.api.comms.structs.Tuple;
+
+/**
+ * Sorts the records by the binary form of the keys without calling a comparator. The first 8
+ * bytes of each key are packed to a long prefix next to the index of the record in a primitive
+ * array and the array is radix sorted. Only byte array keys longer than the prefix are compared
+ * further, and only with the records that share the same prefix.
+ * <p>
+ * The order is the natural order for integer and long keys and the unsigned lexicographic order
+ * for byte array keys, so this can replace the comparator only when it orders the keys the
+ * same way.
+ */
+final class BinaryKeySorter {
+  /**
+   * Runs of equal prefixes up to this size are sorted with an insertion sort
+   */
+  private static final int INSERTION_SORT_THRESHOLD = 16;
+
+  private BinaryKeySorter() {
+  }
+
+  /**
+   * Weather the keys can be sorted in the binary form instead of the comparator. This is true
+   * only for comparators known to give the same order, the natural order for integer and long
+   * keys and the {@link ByteArrayComparator} for byte array keys.
+   *
+   * @param keyType key type
+   * @param comparator the key comparator
+   * @return true if supported
+   */
+  static boolean supports(MessageType keyType, Comparator comparator) {
+    if (keyType == MessageTypes.INTEGER || keyType == MessageTypes.LONG) {
+      return comparator == Comparator.naturalOrder();
+    }
+    return keyType == MessageTypes.BYTE_ARRAY && comparator instanceof ByteArrayComparator;
+  }
+
+  /**
+   * Sort the records in place according to the keys
+   *
+   * @param records the records
+   * @param keyType type of the keys, it should be supported
+   */
+  static void sort(List<Tuple> records, MessageType keyType) {
+    int size = records.size();
+    if (size < 2) {
+      return;
+    }
+    // prefix and index pairs
+    long[] entries = new long[size * 2];
+    for (int i = 0; i < size; i++) {
+      entries[i * 2] = prefix(records.get(i).getKey(), keyType);
+      entries[i * 2 + 1] = i;
+    }
+    entries = radixSort(entries, size);
+
+    if (keyType == MessageTypes.BYTE_ARRAY) {
+      sortEqualPrefixes(entries, size, records);
+    }
+
+    Object[] copy = records.toArray();
+    for (int i = 0; i < size; i++) {
+      records.set(i, (Tuple) copy[(int) entries[i * 2 + 1]]);
+    }
+  }
+
+  /**
+   * The prefix of the key, comparing the prefixes as unsigned values gives the order of keys
+   */
+  static long prefix(Object key, MessageType keyType) {
+    if (keyType == MessageTypes.INTEGER) {
+      return ((Integer) key).longValue() ^ Long.MIN_VALUE;
+    } else if (keyType == MessageTypes.LONG) {
+      return (Long) key ^ Long.MIN_VALUE;
+    } else if (keyType == MessageTypes.BYTE_ARRAY) {
+      byte[] bytes = (byte[]) key;
+      long prefix = 0;
+      int length = Math.min(Long.BYTES, bytes.length);
+      for (int i = 0; i < length; i++) {
+        prefix |= (bytes[i] & 0xffL) << (56 - i * 8);
+      }
+      return prefix;
+    }
+    throw new IllegalArgumentException("Binary sort is not supported for keys of type "
+        + keyType);
+  }
+
+  /**
+   * Least significant byte first radix sort of the pairs by the unsigned prefix. The passes
+   * where all the prefixes have the same byte are skipped.
+   *
+   * @return the array holding the sorted pairs, this may be a new array
+   */
+  private static long[] radixSort(long[] entries, int size) {
+    int[][] counts = new int[Long.BYTES][256];
+    for (int i = 0; i < size; i++) {
+      long prefix = entries[i * 2];
+      for (int b = 0; b < Long.BYTES; b++) {
+        counts[b][(int) (prefix >>> (b * 8)) & 0xff]++;
+      }
+    }
+
+    long[] from = entries;
+    long[] to = null;
+    for (int b = 0; b < Long.BYTES; b++) {
+      int[] count = counts[b];
+      if (count[(int) (from[0] >>> (b * 8)) & 0xff] == size) {
+        continue;
+      }
+      if (to == null) {
+        to = new long[entries.length];
+      }
+      int offset = 0;
+      for (int i = 0; i < 256; i++) {
+        int c = count[i];
+        count[i] = offset;
+        offset += c;
+      }
+      for (int i = 0; i < size; i++) {
+        long prefix = from[i * 2];
+        int position = count[(int) (prefix >>> (b * 8)) & 0xff]++;
+        to[position * 2] = prefix;
+        to[position * 2 + 1] = from[i * 2 + 1];
+      }
+      long[] temp = from;
+      from = to;
+      to = temp;
+    }
+    return from;
+  }
+
+  /**
+   * Sort the runs of byte array keys having the same prefix by the rest of the bytes
+   */
+  private static void sortEqualPrefixes(long[] entries, int size, List<Tuple> records) {
+    int start = 0;
+    while (start < size) {
+      int end = start + 1;
+      while (end < size && entries[end * 2] == entries[start * 2]) {
+        end++;
+      }
+      if (end - start > 1) {
+        sortRun(entries, start, end, records);
+      }
+      start = end;
+    }
+  }
+
+  private static void sortRun(long[] entries, int start, int end, List<Tuple> records) {
+    if (end - start <= INSERTION_SORT_THRESHOLD) {
+      for (int i = start + 1; i < end; i++) {
+        long index = entries[i * 2 + 1];
+        byte[] key = (byte[]) records.get((int) index).getKey();
+        int j = i - 1;
+        while (j >= start
+            && compareSuffix((byte[]) records.get((int) entries[j * 2 + 1]).getKey(), key) > 0) {
+          entries[(j + 1) * 2 + 1] = entries[j * 2 + 1];
+          j--;
+        }
+        entries[(j + 1) * 2 + 1] = index;
+      }
+    } else {
+      Integer[] indexes = new Integer[end - start];
+      for (int i = start; i < end; i++) {
+        indexes[i - start] = (int) entries[i * 2 + 1];
+      }
+      Arrays.sort(indexes, (a, b) -> compareSuffix((byte[]) records.get(a).getKey(),
+          (byte[]) records.get(b).getKey()));
+      for (int i = start; i < end; i++) {
+        entries[i * 2 + 1] = indexes[i - start];
+      }
+    }
+  }
+
+  /**
+   * Unsigned lexicographic comparison of the bytes after the prefix, the shorter key comes first
+   * when one key is a prefix of the other
+   */
+  static int compareSuffix(byte[] left, byte[] right) {
+    int length = Math.min(left.length, right.length);
+    for (int i = Long.BYTES; i < length; i++) {
+      int a = left[i] & 0xff;
+      int b = right[i] & 0xff;
+      if (a != b) {
+        return a - b;
+      }
+    }
+    return left.length - right.length;
+  }
+}
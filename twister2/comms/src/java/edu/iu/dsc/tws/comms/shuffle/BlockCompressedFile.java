@@ -0,0 +1,340 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.shuffle;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+import edu.iu.dsc.tws.api.util.compress.BlockCodec;
+import edu.iu.dsc.tws.api.util.compress.BlockCodecs;
+
+/**
+ * A file written as compressed blocks with an index of the blocks at the end. The index maps
+ * the offsets of the uncompressed bytes to the blocks, so a reader can start from any offset
+ * by decompressing only the blocks it needs.
+ * <p>
+ * The writer never splits a record between two blocks, so a block always starts at a record.
+ * <p>
+ * File layout: block frames, for each block the raw offset and the file offset, the number of
+ * blocks, the raw size of the file and a magic number.
+ */
+public final class BlockCompressedFile {
+  private static final Logger LOG = Logger.getLogger(BlockCompressedFile.class.getName());
+
+  public static final int DEFAULT_BLOCK_SIZE = 65536;
+
+  private static final long MAGIC = 0x54573242434D5046L;
+
+  private static final int INDEX_ENTRY_SIZE = 2 * Long.BYTES;
+
+  private static final int TRAILER_SIZE = Integer.BYTES + 2 * Long.BYTES;
+
+  private BlockCompressedFile() {
+  }
+
+  /**
+   * Create a writer for the file
+   *
+   * @param fileName the file name
+   * @param codec codec for the blocks
+   * @return the writer
+   */
+  public static Writer create(String fileName, BlockCodec codec) throws IOException {
+    return new Writer(fileName, codec, DEFAULT_BLOCK_SIZE);
+  }
+
+  /**
+   * Open a file written by a {@link Writer}
+   *
+   * @param fileName the file name
+   * @param codec codec used to write the file
+   * @return the reader
+   */
+  public static Reader open(String fileName, BlockCodec codec) throws IOException {
+    return new Reader(fileName, codec);
+  }
+
+  /**
+   * Read a range of the uncompressed bytes of a file
+   *
+   * @param fileName the file name
+   * @param codec the codec
+   * @param rawOffset start of the range
+   * @param length maximum length of the range
+   * @return the bytes, the buffer is smaller than the length if the file ends before
+   */
+  public static ByteBuffer read(String fileName, BlockCodec codec,
+                                long rawOffset, long length) throws IOException {
+    try (Reader reader = open(fileName, codec)) {
+      return reader.read(rawOffset, length);
+    }
+  }
+
+  /**
+   * Writes the records to the blocks
+   */
+  public static final class Writer implements Closeable {
+    private final String fileName;
+    private final BlockCodec codec;
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+
+    private ByteBuffer block;
+    private byte[] frame;
+
+    private long[] rawOffsets = new long[16];
+    private long[] fileOffsets = new long[16];
+    private int blocks;
+
+    private long rawSize;
+    private long fileSize;
+
+    private Writer(String fileName, BlockCodec codec, int blockSize) throws IOException {
+      this.fileName = fileName;
+      this.codec = codec;
+      Files.createDirectories(Paths.get(fileName).getParent());
+      this.file = new RandomAccessFile(fileName, "rw");
+      this.file.setLength(0);
+      this.channel = file.getChannel();
+      this.block = ByteBuffer.allocate(blockSize);
+      this.frame = new byte[BlockCodecs.maxFrameLength(codec, blockSize)];
+    }
+
+    /**
+     * Get the buffer to write the next record
+     *
+     * @param recordSize size of the record
+     * @return a buffer with at least the record size remaining
+     */
+    public ByteBuffer reserve(int recordSize) throws IOException {
+      if (block.remaining() < recordSize) {
+        writeBlock();
+        if (block.capacity() < recordSize) {
+          // this record is larger than a block, it gets a block of its own
+          block = ByteBuffer.allocate(recordSize);
+          frame = new byte[BlockCodecs.maxFrameLength(codec, recordSize)];
+        }
+      }
+      return block;
+    }
+
+    private void writeBlock() throws IOException {
+      int length = block.position();
+      if (length == 0) {
+        return;
+      }
+      if (blocks == rawOffsets.length) {
+        rawOffsets = Arrays.copyOf(rawOffsets, blocks * 2);
+        fileOffsets = Arrays.copyOf(fileOffsets, blocks * 2);
+      }
+      rawOffsets[blocks] = rawSize;
+      fileOffsets[blocks] = fileSize;
+      blocks++;
+
+      int frameLength = BlockCodecs.encode(codec, block.array(), 0, length, frame);
+      writeFully(ByteBuffer.wrap(frame, 0, frameLength));
+      rawSize += length;
+      fileSize += frameLength;
+      block.clear();
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+    }
+
+    /**
+     * Bytes written before compression
+     */
+    public long getRawSize() {
+      return rawSize + block.position();
+    }
+
+    /**
+     * Size of the file, this is final only after closing
+     */
+    public long getFileSize() {
+      return fileSize;
+    }
+
+    @Override
+    public void close() throws IOException {
+      try {
+        writeBlock();
+        ByteBuffer index = ByteBuffer.allocate(blocks * INDEX_ENTRY_SIZE + TRAILER_SIZE);
+        for (int i = 0; i < blocks; i++) {
+          index.putLong(rawOffsets[i]);
+          index.putLong(fileOffsets[i]);
+        }
+        index.putInt(blocks);
+        index.putLong(rawSize);
+        index.putLong(MAGIC);
+        index.flip();
+        fileSize += index.remaining();
+        writeFully(index);
+        LOG.fine(() -> String.format("Compressed %s with %s, %d bytes to %d bytes", fileName,
+            codec.getName(), rawSize, fileSize));
+      } finally {
+        channel.close();
+        file.close();
+      }
+    }
+  }
+
+  /**
+   * Reads the blocks using the index
+   */
+  public static final class Reader implements Closeable {
+    private final BlockCodec codec;
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+
+    private final long[] rawOffsets;
+    private final long[] fileOffsets;
+    private final long rawSize;
+
+    private final ByteBuffer header = ByteBuffer.allocate(BlockCodecs.BLOCK_HEADER_SIZE);
+
+    private Reader(String fileName, BlockCodec codec) throws IOException {
+      this.codec = codec;
+      this.file = new RandomAccessFile(fileName, "r");
+      this.channel = file.getChannel();
+      try {
+        long size = channel.size();
+        if (size < TRAILER_SIZE) {
+          throw new IOException("Not a compressed block file: " + fileName);
+        }
+        ByteBuffer trailer = ByteBuffer.allocate(TRAILER_SIZE);
+        readFully(trailer, size - TRAILER_SIZE);
+        int blocks = trailer.getInt();
+        this.rawSize = trailer.getLong();
+        if (trailer.getLong() != MAGIC) {
+          throw new IOException("Not a compressed block file: " + fileName);
+        }
+
+        ByteBuffer index = ByteBuffer.allocate(blocks * INDEX_ENTRY_SIZE);
+        readFully(index, size - TRAILER_SIZE - index.capacity());
+        this.rawOffsets = new long[blocks];
+        this.fileOffsets = new long[blocks];
+        for (int i = 0; i < blocks; i++) {
+          rawOffsets[i] = index.getLong();
+          fileOffsets[i] = index.getLong();
+        }
+      } catch (IOException e) {
+        close();
+        throw e;
+      }
+    }
+
+    /**
+     * Uncompressed size of the file
+     */
+    public long getRawSize() {
+      return rawSize;
+    }
+
+    public int getNumberOfBlocks() {
+      return rawOffsets.length;
+    }
+
+    /**
+     * Get the block holding the raw offset
+     *
+     * @param rawOffset the offset
+     * @return the index of the block or number of blocks if the offset is at the end
+     */
+    public int blockOf(long rawOffset) {
+      if (rawOffset >= rawSize) {
+        return rawOffsets.length;
+      }
+      int i = Arrays.binarySearch(rawOffsets, rawOffset);
+      return i >= 0 ? i : -i - 2;
+    }
+
+    /**
+     * The raw offset of the first byte of the block
+     */
+    public long blockStart(int block) {
+      return block < rawOffsets.length ? rawOffsets[block] : rawSize;
+    }
+
+    /**
+     * Decompress a block
+     *
+     * @param block index of the block
+     * @return a buffer with the uncompressed bytes
+     */
+    public ByteBuffer readBlock(int block) throws IOException {
+      header.clear();
+      readFully(header, fileOffsets[block]);
+      int rawLength = header.getInt();
+      int storedLength = header.getInt();
+
+      ByteBuffer stored = ByteBuffer.allocate(storedLength);
+      readFully(stored, fileOffsets[block] + BlockCodecs.BLOCK_HEADER_SIZE);
+      byte[] raw = new byte[rawLength];
+      BlockCodecs.decode(codec, stored.array(), 0, storedLength, raw, rawLength);
+      return ByteBuffer.wrap(raw);
+    }
+
+    /**
+     * Read a range of uncompressed bytes
+     *
+     * @param rawOffset start of the range
+     * @param length maximum length of the range
+     * @return the bytes, the buffer is smaller than the length if the file ends before
+     */
+    public ByteBuffer read(long rawOffset, long length) throws IOException {
+      long end = rawSize - rawOffset <= length ? rawSize : rawOffset + length;
+      if (end - rawOffset > Integer.MAX_VALUE) {
+        throw new IOException("Cannot read " + (end - rawOffset) + " bytes to a buffer");
+      }
+      ByteBuffer range = ByteBuffer.allocate((int) Math.max(0, end - rawOffset));
+      for (int b = blockOf(rawOffset); b < rawOffsets.length && rawOffsets[b] < end; b++) {
+        ByteBuffer block = readBlock(b);
+        long blockStart = rawOffsets[b];
+        int from = (int) Math.max(0, rawOffset - blockStart);
+        int to = (int) Math.min(block.capacity(), end - blockStart);
+        range.put(block.array(), from, to - from);
+      }
+      range.flip();
+      return range;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+      long pos = position;
+      while (buffer.hasRemaining()) {
+        int read = channel.read(buffer, pos);
+        if (read < 0) {
+          throw new EOFException("Unexpected end of the compressed file");
+        }
+        pos += read;
+      }
+      buffer.flip();
+    }
+
+    @Override
+    public void close() throws IOException {
+      channel.close();
+      file.close();
+    }
+  }
+}
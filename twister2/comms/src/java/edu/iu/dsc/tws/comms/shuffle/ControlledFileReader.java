@@ -13,6 +13,7 @@ package edu.iu.dsc.tws.comms.shuffle;
 
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.util.Comparator;
@@ -24,6 +25,7 @@ import java.util.logging.Logger;
 
 import edu.iu.dsc.tws.api.comms.messaging.types.MessageType;
 import edu.iu.dsc.tws.api.comms.structs.Tuple;
+import edu.iu.dsc.tws.api.util.compress.BlockCodec;
 
 
 public class ControlledFileReader implements ControlledReader<Tuple> {
@@ -33,9 +35,16 @@ public class ControlledFileReader implements ControlledReader<Tuple> {
   private final String filePath;
   private RandomAccessFile raf;
   private ControlledFileReaderFlags meta;
-  private MappedByteBuffer buffer;
+  private ByteBuffer buffer;
   private FileChannel channel;
 
+  /**
+   * When the file is compressed, we keep one decompressed block in the buffer at a time
+   */
+  private BlockCodec codec;
+  private BlockCompressedFile.Reader blockReader;
+  private int currentBlock;
+
   private MessageType keyType;
   private MessageType dataType;
   private Comparator keyComparator;
@@ -53,7 +62,17 @@ public class ControlledFileReader implements ControlledReader<Tuple> {
                               MessageType keyType,
                               MessageType dataType,
                               Comparator keyComparator) {
+    this(meta, filePath, keyType, dataType, keyComparator, null);
+  }
+
+  public ControlledFileReader(ControlledFileReaderFlags meta,
+                              String filePath,
+                              MessageType keyType,
+                              MessageType dataType,
+                              Comparator keyComparator,
+                              BlockCodec codec) {
     this.filePath = filePath;
+    this.codec = codec;
     this.meta = meta;
     this.keyComparator = keyComparator;
     this.keyType = keyType;
@@ -67,7 +86,16 @@ public class ControlledFileReader implements ControlledReader<Tuple> {
 
   public void open() {
     try {
-      if (buffer == null) {
+      if (buffer == null && codec != null) {
+        this.blockReader = BlockCompressedFile.open(filePath, codec);
+        long position = this.mappedTill;
+        this.currentBlock = this.blockReader.blockOf(position);
+        this.mappedTill = this.blockReader.blockStart(this.currentBlock);
+        this.buffer = this.currentBlock < this.blockReader.getNumberOfBlocks()
+            ? this.blockReader.readBlock(this.currentBlock) : ByteBuffer.allocate(0);
+        this.buffer.position((int) (position - this.mappedTill));
+        this.meta.increaseMemMapLoad(this);
+      } else if (buffer == null) {
         this.raf = new RandomAccessFile(filePath, "r");
         this.channel = raf.getChannel();
         this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, this.mappedTill,
@@ -94,11 +122,20 @@ public class ControlledFileReader implements ControlledReader<Tuple> {
    * </p>
    */
   public void releaseResources() {
-    if (this.buffer != null) {
+    if (this.buffer != null && this.blockReader != null) {
+      this.mappedTill = this.mappedTill + this.buffer.position();
+      try {
+        this.buffer = null;
+        this.blockReader.close();
+        this.blockReader = null;
+      } catch (IOException e) {
+        LOG.log(Level.SEVERE, "Error in releasing resources", e);
+      }
+    } else if (this.buffer != null) {
       this.mappedTill = this.mappedTill + this.buffer.position();
       boolean unmapped = false;
       try {
-        unmapped = MemoryMapUtils.unMapBuffer(this.buffer);
+        unmapped = MemoryMapUtils.unMapBuffer((MappedByteBuffer) this.buffer);
       } catch (Exception e) {
         //do nothing
       }
@@ -120,8 +157,31 @@ public class ControlledFileReader implements ControlledReader<Tuple> {
     }
   }
 
-  private Object readNextKey() {
+  /**
+   * Check weather there are more bytes to read, for a compressed file this moves to the next
+   * block when the current one is read
+   */
+  private boolean hasRemaining() {
     if (this.buffer.hasRemaining()) {
+      return true;
+    }
+    if (this.blockReader == null
+        || this.currentBlock + 1 >= this.blockReader.getNumberOfBlocks()) {
+      return false;
+    }
+    try {
+      this.currentBlock++;
+      this.mappedTill = this.blockReader.blockStart(this.currentBlock);
+      this.buffer = this.blockReader.readBlock(this.currentBlock);
+      return true;
+    } catch (IOException e) {
+      LOG.log(Level.SEVERE, "Couldn't read a block of the file", e);
+      throw new RuntimeException(e);
+    }
+  }
+
+  private Object readNextKey() {
+    if (this.hasRemaining()) {
       int nextKeySize = this.getNextKeySize();
       Object nextKey = this.keyType.getDataPacker().unpackFromBuffer(this.buffer, nextKeySize);
       this.keysQ.add(nextKey);
@@ -134,7 +194,7 @@ public class ControlledFileReader implements ControlledReader<Tuple> {
    * This method reads the next value from file and increases the memory load
    */
   private Object readNextValue() {
-    if (this.buffer.hasRemaining()) {
+    if (this.hasRemaining()) {
       int dataSize = this.buffer.getInt();
       Object nextValue = dataType.getDataPacker().unpackFromBuffer(this.buffer, dataSize);
 
@@ -16,6 +16,7 @@ import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.logging.Logger;
 
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageType;
 import edu.iu.dsc.tws.api.comms.structs.Tuple;
 
 /**
@@ -44,12 +45,27 @@ public class ControlledMemoryReader implements ControlledReader<Tuple> {
    */
   private List<Tuple> inMemoryMessages;
 
+  /**
+   * Type of the serialized values, null if the values are already deserialized
+   */
+  private MessageType dataType;
+
   public ControlledMemoryReader(List<Tuple> messages,
                                 Comparator keyComparator) {
+    this(messages, keyComparator, null);
+  }
+
+  /**
+   * Create a reader for tuples holding serialized values, the values are deserialized when
+   * they are read and the tuples in the list are not modified
+   */
+  public ControlledMemoryReader(List<Tuple> messages,
+                                Comparator keyComparator, MessageType dataType) {
     this.keyComparator = keyComparator;
     this.readIndex = 0;
     this.inMemoryMessages = messages;
     this.restoredIndex = -1;
+    this.dataType = dataType;
   }
 
   public void open() {
@@ -77,6 +93,10 @@ public class ControlledMemoryReader implements ControlledReader<Tuple> {
     Tuple tuple = inMemoryMessages.get(readIndex);
     readIndex++;
 
+    if (dataType != null) {
+      return new Tuple(tuple.getKey(),
+          dataType.getDataPacker().unpackFromByteArray((byte[]) tuple.getValue()));
+    }
     return tuple;
   }
 
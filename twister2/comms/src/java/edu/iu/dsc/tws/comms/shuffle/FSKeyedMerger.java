@@ -26,6 +26,7 @@ import org.apache.commons.io.FileUtils;
 import edu.iu.dsc.tws.api.comms.messaging.types.MessageType;
 import edu.iu.dsc.tws.api.comms.structs.Tuple;
 import edu.iu.dsc.tws.api.util.KryoSerializer;
+import edu.iu.dsc.tws.api.util.compress.BlockCodec;
 
 /**
  * Un sorted merger
@@ -104,6 +105,11 @@ public class FSKeyedMerger implements Shuffle {
    */
   private KryoSerializer kryoSerializer;
 
+  /**
+   * Codec used to compress the files, null if the files are not compressed
+   */
+  private BlockCodec codec;
+
   private enum FSStatus {
     WRITING,
     READING
@@ -114,6 +120,12 @@ public class FSKeyedMerger implements Shuffle {
   public FSKeyedMerger(long maxBytesInMemory, long maxRecsInMemory,
                        String dir, String opName, MessageType kType,
                        MessageType dType) {
+    this(maxBytesInMemory, maxRecsInMemory, dir, opName, kType, dType, null);
+  }
+
+  public FSKeyedMerger(long maxBytesInMemory, long maxRecsInMemory,
+                       String dir, String opName, MessageType kType,
+                       MessageType dType, BlockCodec codec) {
     this.maxBytesToKeepInMemory = maxBytesInMemory;
     this.maxRecordsInMemory = maxRecsInMemory;
     this.folder = dir;
@@ -121,6 +133,7 @@ public class FSKeyedMerger implements Shuffle {
     this.keyType = kType;
     this.dataType = dType;
     this.kryoSerializer = new KryoSerializer();
+    this.codec = codec;
   }
 
   @Override
@@ -190,7 +203,7 @@ public class FSKeyedMerger implements Shuffle {
           || recordsInMemory.size() > maxRecordsInMemory) {
         // save the bytes to disk
         long totalSize = FileLoader.saveKeyValues(recordsInMemory, bytesLength,
-            numOfBytesInMemory, getSaveFileName(noOfFileWritten), keyType);
+            numOfBytesInMemory, getSaveFileName(noOfFileWritten), keyType, codec);
         filePartBytes.add(totalSize);
 
         recordsInMemory.clear();
@@ -286,7 +299,7 @@ public class FSKeyedMerger implements Shuffle {
       // lets read the bytes from the file
       currentFileIndex++;
       openValue = FileLoader.readFile(getSaveFileName(currentFileIndex), keyType,
-          dataType, kryoSerializer);
+          dataType, kryoSerializer, codec);
       currentIndex = 0;
     }
 
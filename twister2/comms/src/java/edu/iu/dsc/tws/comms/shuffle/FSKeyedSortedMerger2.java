@@ -28,6 +28,7 @@ import java.util.logging.Logger;
 import edu.iu.dsc.tws.api.comms.messaging.types.MessageType;
 import edu.iu.dsc.tws.api.comms.structs.Tuple;
 import edu.iu.dsc.tws.api.util.CommonThreadPool;
+import edu.iu.dsc.tws.api.util.compress.BlockCodec;
 
 /**
  * Sorted merger implementation
@@ -101,7 +102,19 @@ public class FSKeyedSortedMerger2 implements Shuffle {
 
   private ComparatorWrapper comparatorWrapper;
 
+  /**
+   * Sort the records by the binary form of the keys instead of the comparator and keep the
+   * values in memory serialized until they are read. This is used only when the comparator
+   * is known to give the same order
+   */
+  private boolean binarySort;
+
   private int parallelIOAllowance;
+
+  /**
+   * Codec used to compress the files, null if the files are not compressed
+   */
+  private BlockCodec codec;
   private volatile Semaphore concurrentIOs;
   private final Object exclusiveAccess = new Object();
   private volatile Semaphore fileWriteLock = new Semaphore(1);
@@ -127,6 +140,18 @@ public class FSKeyedSortedMerger2 implements Shuffle {
                               String dir, String opName, MessageType kType,
                               MessageType dType, Comparator kComparator,
                               int tar, boolean groupByKey, int parallelIOAllowance) {
+    this(maxBytesInMemory, maxBytesToAFile, dir, opName, kType, dType, kComparator, tar,
+        groupByKey, parallelIOAllowance, null);
+  }
+
+  /**
+   * Create a key based sorted merger writing the files compressed with the codec
+   */
+  public FSKeyedSortedMerger2(long maxBytesInMemory, long maxBytesToAFile,
+                              String dir, String opName, MessageType kType,
+                              MessageType dType, Comparator kComparator,
+                              int tar, boolean groupByKey, int parallelIOAllowance,
+                              BlockCodec codec) {
     this.maxBytesToKeepInMemory = maxBytesInMemory;
     this.maxBytesFile = maxBytesToAFile;
     this.groupByKey = groupByKey;
@@ -141,7 +166,9 @@ public class FSKeyedSortedMerger2 implements Shuffle {
     this.dataType = dType;
     this.keyComparator = kComparator;
     this.comparatorWrapper = new ComparatorWrapper(keyComparator);
+    this.binarySort = BinaryKeySorter.supports(keyType, keyComparator);
     this.parallelIOAllowance = parallelIOAllowance;
+    this.codec = codec;
 
     this.concurrentIOs = new Semaphore(parallelIOAllowance);
 
@@ -211,11 +238,14 @@ public class FSKeyedSortedMerger2 implements Shuffle {
       recordsToDisk = new ArrayList<>();
       numOfBytesInMemory = 0;
 
-      // lets convert the in-memory data to objects
-      deserializeObjects();
+      // lets convert the in-memory data to objects, with the binary sort the values are
+      // converted when they are read
+      if (!binarySort) {
+        deserializeObjects();
+      }
       // lets sort the in-memory objects
       long start = System.currentTimeMillis();
-      recordsInMemory.sort(this.comparatorWrapper);
+      sort(recordsInMemory);
       LOG.info("Memory sorting time: " + (System.currentTimeMillis() - start));
     } catch (InterruptedException iex) {
       LOG.log(Level.SEVERE, "Couldn't switch to reading", iex);
@@ -225,6 +255,14 @@ public class FSKeyedSortedMerger2 implements Shuffle {
     }
   }
 
+  private void sort(List<Tuple> records) {
+    if (binarySort) {
+      BinaryKeySorter.sort(records, keyType);
+    } else {
+      records.sort(this.comparatorWrapper);
+    }
+  }
+
   /**
    * Wrapper for comparing KeyValue with the user defined comparator
    */
@@ -360,10 +398,10 @@ public class FSKeyedSortedMerger2 implements Shuffle {
       LOG.info(String.format("Shuffle saving to temporary file bytes %d, file %s",
           bytesInMemory, fileName));
       // do the sort
-      referenceToRecordsInMemory.sort(comparatorWrapper);
+      sort(referenceToRecordsInMemory);
 
       long largestTupleWritten = FileLoader.saveKeyValues(
-          referenceToRecordsInMemory, bytesInMemory, fileName, keyType);
+          referenceToRecordsInMemory, bytesInMemory, fileName, keyType, codec);
       //todo get inside set?
       largestTupleSizeRecorded.set(Math.max(largestTupleSizeRecorded.get(), largestTupleWritten));
 
@@ -510,7 +548,7 @@ public class FSKeyedSortedMerger2 implements Shuffle {
       );
       if (!recordsInMemory.isEmpty()) {
         ControlledReader inMemoryReader = new ControlledMemoryReader(
-            recordsInMemory, keyComparator);
+            recordsInMemory, keyComparator, binarySort ? dataType : null);
         if (inMemoryReader.hasNext()) {
           this.controlledFileReaders.add(inMemoryReader);
         }
@@ -522,7 +560,8 @@ public class FSKeyedSortedMerger2 implements Shuffle {
             getSaveFileName(i),
             keyType,
             dataType,
-            keyComparator
+            keyComparator,
+            codec
         );
         if (fr.hasNext()) {
           controlledFileReaders.add(fr);
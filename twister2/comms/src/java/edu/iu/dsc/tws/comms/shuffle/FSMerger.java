@@ -26,6 +26,7 @@ import org.apache.commons.io.FileUtils;
 
 import edu.iu.dsc.tws.api.comms.messaging.types.MessageType;
 import edu.iu.dsc.tws.api.util.KryoSerializer;
+import edu.iu.dsc.tws.api.util.compress.BlockCodec;
 
 /**
  * Save the records to file system and retrieve them, this is just values, so no
@@ -98,6 +99,11 @@ public class FSMerger implements Shuffle {
    */
   private KryoSerializer kryoSerializer;
 
+  /**
+   * Codec used to compress the files, null if the files are not compressed
+   */
+  private BlockCodec codec;
+
   private enum FSStatus {
     WRITING,
     READING
@@ -107,12 +113,18 @@ public class FSMerger implements Shuffle {
 
   public FSMerger(long maxBytesInMemory, long maxRecsInMemory,
                   String dir, String opName, MessageType vType) {
+    this(maxBytesInMemory, maxRecsInMemory, dir, opName, vType, null);
+  }
+
+  public FSMerger(long maxBytesInMemory, long maxRecsInMemory,
+                  String dir, String opName, MessageType vType, BlockCodec codec) {
     this.maxBytesToKeepInMemory = maxBytesInMemory;
     this.maxRecordsInMemory = maxRecsInMemory;
     this.folder = dir;
     this.operationName = opName;
     this.valueType = vType;
     this.kryoSerializer = new KryoSerializer();
+    this.codec = codec;
   }
 
   /**
@@ -163,7 +175,7 @@ public class FSMerger implements Shuffle {
         LOG.log(Level.FINE, String.format("Save objects bytes %d objects %d",
             numOfBytesInMemory, bytesInMemory.size()));
         FileLoader.saveObjects(bytesInMemory, bytesLength,
-            numOfBytesInMemory, getSaveFileName(noOfFileWritten));
+            numOfBytesInMemory, getSaveFileName(noOfFileWritten), codec);
 
         bytesInMemory.clear();
         bytesLength.clear();
@@ -243,7 +255,7 @@ public class FSMerger implements Shuffle {
       // lets read the bytes from the file
       currentFileIndex++;
       openValues = FileLoader.readFile(getSaveFileName(currentFileIndex),
-          valueType, kryoSerializer);
+          valueType, kryoSerializer, codec);
       currentIndex = 0;
     }
 
@@ -30,6 +30,7 @@ import edu.iu.dsc.tws.api.comms.messaging.types.MessageType;
 import edu.iu.dsc.tws.api.comms.messaging.types.MessageTypes;
 import edu.iu.dsc.tws.api.comms.structs.Tuple;
 import edu.iu.dsc.tws.api.util.KryoSerializer;
+import edu.iu.dsc.tws.api.util.compress.BlockCodec;
 
 @SuppressWarnings({"unchecked", "rawtypes"})
 public final class FileLoader {
@@ -47,6 +48,34 @@ public final class FileLoader {
    */
   public static void saveObjects(List<byte[]> records, List<Integer> sizes,
                                  long size, String outFileName) {
+    saveObjects(records, sizes, size, outFileName, null);
+  }
+
+  /**
+   * Save the list of records to the file system, compressing the file with the codec
+   *
+   * @param records records to be written
+   * @param size total size of the records
+   * @param outFileName out file name
+   * @param codec the codec, if null the file is not compressed
+   */
+  public static void saveObjects(List<byte[]> records, List<Integer> sizes,
+                                 long size, String outFileName, BlockCodec codec) {
+    if (codec != null) {
+      try (BlockCompressedFile.Writer writer = BlockCompressedFile.create(outFileName, codec)) {
+        for (int i = 0; i < records.size(); i++) {
+          int recordSize = sizes.get(i);
+          ByteBuffer os = writer.reserve(recordSize + Integer.BYTES);
+          os.putInt(recordSize);
+          os.put(records.get(i), 0, recordSize);
+        }
+      } catch (IOException e) {
+        LOG.log(Level.SEVERE, "Failed write to disc", e);
+        throw new RuntimeException(e);
+      }
+      return;
+    }
+
     try {
       LOG.fine("Saving file: " + outFileName);
       Files.createDirectories(Paths.get(outFileName).getParent());
@@ -79,6 +108,24 @@ public final class FileLoader {
    */
   public static long saveKeyValues(List<Tuple> records, List<Integer> sizes,
                                    long size, String outFileName, MessageType keyType) {
+    return saveKeyValues(records, sizes, size, outFileName, keyType, null);
+  }
+
+  /**
+   * Save the list of records to the file system, compressing the file with the codec
+   *
+   * @param records records to be written
+   * @param size total size of the records
+   * @param outFileName out file name
+   * @param codec the codec, if null the file is not compressed
+   * @return maximum size of the tuple written to this file
+   */
+  public static long saveKeyValues(List<Tuple> records, List<Integer> sizes,
+                                   long size, String outFileName, MessageType keyType,
+                                   BlockCodec codec) {
+    if (codec != null) {
+      return saveCompressedKeyValues(records, sizes, outFileName, keyType, codec);
+    }
     try {
       long maxRecord = Long.MIN_VALUE; //max size of a tuple saved to this file
 
@@ -153,6 +200,18 @@ public final class FileLoader {
    */
   public static long saveKeyValues(List<Tuple> records,
                                    long size, String outFileName, MessageType keyType) {
+    return saveKeyValues(records, size, outFileName, keyType, null);
+  }
+
+  /**
+   * This method accepts a Array of lists instead of a list of tuples and compresses the file
+   * with the codec, if the codec is null the file is not compressed
+   */
+  public static long saveKeyValues(List<Tuple> records, long size, String outFileName,
+                                   MessageType keyType, BlockCodec codec) {
+    if (codec != null) {
+      return saveCompressedKeyValues(records, null, outFileName, keyType, codec);
+    }
     try {
       long maxRecord = Long.MIN_VALUE; //max size of a tuple saved to this file
 
@@ -224,8 +283,78 @@ public final class FileLoader {
     }
   }
 
+  /**
+   * Write the key values as compressed blocks, the records are written in the same format as
+   * the uncompressed files
+   */
+  private static long saveCompressedKeyValues(List<Tuple> records, List<Integer> sizes,
+                                              String outFileName, MessageType keyType,
+                                              BlockCodec codec) {
+    boolean primitiveKey = keyType.isPrimitive() && !keyType.isArray();
+    boolean keyHeader = keyType.getDataPacker().isHeaderRequired();
+    long maxRecord = Long.MIN_VALUE;
+    try (BlockCompressedFile.Writer writer = BlockCompressedFile.create(outFileName, codec)) {
+      for (int i = 0; i < records.size(); i++) {
+        Tuple keyValue = records.get(i);
+        byte[] value = (byte[]) keyValue.getValue();
+        int valueSize = sizes != null ? sizes.get(i) : value.length;
+
+        byte[] key = null;
+        int recordSize = Integer.BYTES + valueSize;
+        if (primitiveKey) {
+          recordSize += keyType.getUnitSizeInBytes();
+        } else {
+          key = keyType.getDataPacker().packToByteArray(keyValue.getKey());
+          recordSize += key.length + (keyHeader ? Integer.BYTES : 0);
+        }
+
+        ByteBuffer os = writer.reserve(recordSize);
+        if (primitiveKey) {
+          keyType.getDataPacker().packToByteBuffer(os, keyValue.getKey());
+        } else {
+          if (keyHeader) {
+            os.putInt(key.length);
+          }
+          os.put(key);
+        }
+        os.putInt(valueSize);
+        os.put(value, 0, valueSize);
+        maxRecord = Math.max(maxRecord, recordSize);
+      }
+    } catch (IOException e) {
+      LOG.log(Level.SEVERE, "Failed write to disc", e);
+      throw new RuntimeException(e);
+    }
+    return maxRecord;
+  }
+
   public static List<Tuple> readFile(String fileName, MessageType keyType,
                                      MessageType dataType, KryoSerializer deserializer) {
+    return readFile(fileName, keyType, dataType, deserializer, null);
+  }
+
+  /**
+   * Read the key values of a file written with the given codec
+   */
+  public static List<Tuple> readFile(String fileName, MessageType keyType,
+                                     MessageType dataType, KryoSerializer deserializer,
+                                     BlockCodec codec) {
+    if (codec != null) {
+      try {
+        ByteBuffer os = BlockCompressedFile.read(fileName, codec, 0, Long.MAX_VALUE);
+        List<Tuple> keyValues = new ArrayList<>();
+        while (os.hasRemaining()) {
+          int keySize = getKeySize(keyType, os);
+          Object key = keyType.getDataPacker().unpackFromBuffer(os, keySize - Integer.BYTES);
+          int dataSize = os.getInt();
+          Object value = dataType.getDataPacker().unpackFromBuffer(os, dataSize);
+          keyValues.add(new Tuple(key, value));
+        }
+        return keyValues;
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+    }
     String outFileName = Paths.get(fileName).toString();
     FileChannel rwChannel;
     try {
@@ -265,6 +394,27 @@ public final class FileLoader {
 
   public static List<Object> readFile(String fileName, MessageType dataType,
                                       KryoSerializer deserializer) {
+    return readFile(fileName, dataType, deserializer, null);
+  }
+
+  /**
+   * Read the objects of a file written with the given codec
+   */
+  public static List<Object> readFile(String fileName, MessageType dataType,
+                                      KryoSerializer deserializer, BlockCodec codec) {
+    if (codec != null) {
+      try {
+        ByteBuffer os = BlockCompressedFile.read(fileName, codec, 0, Long.MAX_VALUE);
+        List<Object> values = new ArrayList<>();
+        while (os.hasRemaining()) {
+          int dataSize = os.getInt();
+          values.add(dataType.getDataPacker().unpackFromBuffer(os, dataSize));
+        }
+        return values;
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+    }
     String outFileName = Paths.get(fileName).toString();
     FileChannel rwChannel;
     try {
@@ -294,14 +444,23 @@ public final class FileLoader {
                                                              int maxSize, MessageType keyType,
                                                              MessageType dataType,
                                                              KryoSerializer deserializer) {
+    return openFilePart(fileName, startOffSet, maxSize, keyType, dataType, deserializer, null);
+  }
+
+  /**
+   * Reads a file part upto max size from start offset of a file written with the given codec,
+   * the offsets are the offsets of the uncompressed bytes
+   */
+  public static Triple<List<Tuple>, Long, Long> openFilePart(String fileName, long startOffSet,
+                                                             int maxSize, MessageType keyType,
+                                                             MessageType dataType,
+                                                             KryoSerializer deserializer,
+                                                             BlockCodec codec) {
     List<Tuple> keyValues = new ArrayList<>();
-    String outFileName = Paths.get(fileName).toString();
-    FileChannel rwChannel;
     try {
-      rwChannel = new RandomAccessFile(outFileName, "rw").getChannel();
-      long size = maxSize < rwChannel.size() - startOffSet
-          ? maxSize : rwChannel.size() - startOffSet;
-      ByteBuffer os = rwChannel.map(FileChannel.MapMode.READ_ONLY, startOffSet, size);
+      MappedPart part = mapPart(fileName, startOffSet, maxSize, codec);
+      ByteBuffer os = part.buffer;
+      long size = os.remaining();
 
       long totalRead = 0;
       while (totalRead < size) {
@@ -327,8 +486,7 @@ public final class FileLoader {
         keyValues.add(new Tuple(key, value));
         totalRead += 8 + keySize + dataSize;
       }
-      rwChannel.close();
-      return new ImmutableTriple<>(keyValues, totalRead + startOffSet, rwChannel.size());
+      return new ImmutableTriple<>(keyValues, totalRead + startOffSet, part.fileSize);
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
@@ -349,14 +507,32 @@ public final class FileLoader {
                                       long maxSize, MessageType keyType,
                                       MessageType dataType,
                                       KryoSerializer deserializer) {
+    return openPart(fileName, startOffSet, maxSize, keyType, dataType, deserializer, null);
+  }
+
+  /**
+   * Reads a file part upto max size from start offset of a file written with the given codec.
+   * The offsets are the offsets of the uncompressed bytes, only the blocks holding the part
+   * are decompressed.
+   *
+   * @param fileName name
+   * @param startOffSet start offset in bytes
+   * @param maxSize max size to read
+   * @param keyType key type
+   * @param dataType data type
+   * @param deserializer the deserializer
+   * @param codec the codec used to write the file, null if the file is not compressed
+   * @return OpenFilePart with read information and null if fails
+   */
+  public static OpenFilePart openPart(String fileName, long startOffSet,
+                                      long maxSize, MessageType keyType,
+                                      MessageType dataType,
+                                      KryoSerializer deserializer, BlockCodec codec) {
     List<Tuple> keyValues = new ArrayList<>();
-    String outFileName = Paths.get(fileName).toString();
-    FileChannel rwChannel;
     try {
-      rwChannel = new RandomAccessFile(outFileName, "rw").getChannel();
-      long size = maxSize <= rwChannel.size() - startOffSet
-          ? maxSize : rwChannel.size() - startOffSet;
-      ByteBuffer os = rwChannel.map(FileChannel.MapMode.READ_ONLY, startOffSet, size);
+      MappedPart part = mapPart(fileName, startOffSet, maxSize, codec);
+      ByteBuffer os = part.buffer;
+      long size = os.remaining();
 
       long totalRead = 0;
       while (totalRead < size) {
@@ -391,16 +567,47 @@ public final class FileLoader {
         keyValues.add(new Tuple(key, value));
         totalRead += Integer.BYTES + keySize + dataSize;
       }
-      long size1 = rwChannel.size();
-      rwChannel.close();
       return new OpenFilePart(keyValues, totalRead + startOffSet,
-          size1, fileName);
+          part.fileSize, fileName);
     } catch (IOException e) {
       LOG.log(Level.SEVERE, "Error in reading file part", e);
       throw new RuntimeException(e);
     }
   }
 
+  /**
+   * Bytes of a file part and the size of the file
+   */
+  private static final class MappedPart {
+    private final ByteBuffer buffer;
+    private final long fileSize;
+
+    private MappedPart(ByteBuffer buffer, long fileSize) {
+      this.buffer = buffer;
+      this.fileSize = fileSize;
+    }
+  }
+
+  /**
+   * Memory map a part of an uncompressed file or decompress the blocks of a part of a
+   * compressed file
+   */
+  private static MappedPart mapPart(String fileName, long startOffSet, long maxSize,
+                                    BlockCodec codec) throws IOException {
+    if (codec != null) {
+      try (BlockCompressedFile.Reader reader = BlockCompressedFile.open(fileName, codec)) {
+        return new MappedPart(reader.read(startOffSet, maxSize), reader.getRawSize());
+      }
+    }
+    String outFileName = Paths.get(fileName).toString();
+    try (FileChannel rwChannel = new RandomAccessFile(outFileName, "rw").getChannel()) {
+      long fileSize = rwChannel.size();
+      long size = maxSize <= fileSize - startOffSet ? maxSize : fileSize - startOffSet;
+      return new MappedPart(rwChannel.map(FileChannel.MapMode.READ_ONLY, startOffSet, size),
+          fileSize);
+    }
+  }
+
   private static int getKeySize(MessageType dataType, ByteBuffer os) {
     int size;
     if (dataType == MessageTypes.OBJECT) {
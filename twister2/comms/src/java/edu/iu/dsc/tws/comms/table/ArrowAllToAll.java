@@ -42,6 +42,7 @@ import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.types.pojo.Schema;
 
 import edu.iu.dsc.tws.api.comms.LogicalPlan;
+import edu.iu.dsc.tws.api.comms.channel.TWSChannel;
 import edu.iu.dsc.tws.api.config.Config;
 import edu.iu.dsc.tws.api.resource.IWorkerController;
 import edu.iu.dsc.tws.common.table.ArrowColumn;
@@ -138,6 +139,13 @@ public class ArrowAllToAll implements ReceiveCallback {
                        Set<Integer> sources, Set<Integer> targets,
                        LogicalPlan plan, int edgeId,
                        ArrowCallback callback, Schema schema, RootAllocator allocator) {
+    this(cfg, controller, null, sources, targets, plan, edgeId, callback, schema, allocator);
+  }
+
+  public ArrowAllToAll(Config cfg, IWorkerController controller, TWSChannel channel,
+                       Set<Integer> sources, Set<Integer> targets,
+                       LogicalPlan plan, int edgeId,
+                       ArrowCallback callback, Schema schema, RootAllocator allocator) {
     this.targets = new ArrayList<>(targets);
     this.srcs = new ArrayList<>(sources);
     this.workerId = controller.getWorkerInfo().getWorkerID();
@@ -169,8 +177,8 @@ public class ArrowAllToAll implements ReceiveCallback {
     this.sourcesOfThisWorker = TaskPlanUtils.getTasksOfThisWorker(plan, sources);
     this.schema = schema;
     this.allocator = allocator;
-    this.all = new SimpleAllToAll(cfg, controller, sourceWorkerList, targetWorkerList, edgeId, this,
-        new ArrowAllocator(allocator));
+    this.all = new SimpleAllToAll(cfg, controller, channel, sourceWorkerList, targetWorkerList,
+        edgeId, this, new ArrowAllocator(allocator));
   }
 
   public boolean insert(Table table, int target) {
@@ -225,7 +233,7 @@ public class ArrowAllToAll implements ReceiveCallback {
             hdr[4] = length;
             hdr[5] = pst.currentTarget; // target
 
-            boolean accept = all.insert(buf.nioBuffer(), length, hdr,
+            boolean accept = all.insert(buf.nioBuffer(0, length), length, hdr,
                 HEADER_SIZE, t.getKey());
             if (!accept) {
               canContinue = false;
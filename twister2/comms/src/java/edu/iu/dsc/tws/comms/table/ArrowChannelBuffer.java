@@ -24,6 +24,7 @@ public class ArrowChannelBuffer implements ChannelBuffer {
 
   public ArrowChannelBuffer(ArrowBuf arrowBuf, int length) {
     this.arrowBuf = arrowBuf;
+    this.length = length;
   }
 
   @Override
@@ -33,7 +34,7 @@ public class ArrowChannelBuffer implements ChannelBuffer {
 
   @Override
   public ByteBuffer getByteBuffer() {
-    return arrowBuf.nioBuffer();
+    return arrowBuf.nioBuffer(0, length);
   }
 
   public ArrowBuf getArrowBuf() {
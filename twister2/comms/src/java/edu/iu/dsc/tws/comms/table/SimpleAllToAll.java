@@ -22,6 +22,8 @@ import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import edu.iu.dsc.tws.api.comms.CommunicationContext;
+import edu.iu.dsc.tws.api.comms.channel.TWSChannel;
 import edu.iu.dsc.tws.api.config.Config;
 import edu.iu.dsc.tws.api.exceptions.Twister2RuntimeException;
 import edu.iu.dsc.tws.api.resource.IWorkerController;
@@ -30,7 +32,10 @@ import edu.iu.dsc.tws.comms.table.channel.ChannelBuffer;
 import edu.iu.dsc.tws.comms.table.channel.ChannelReceiveCallback;
 import edu.iu.dsc.tws.comms.table.channel.ChannelSendCallback;
 import edu.iu.dsc.tws.comms.table.channel.MPIChannel;
+import edu.iu.dsc.tws.comms.table.channel.TCPTableChannel;
 import edu.iu.dsc.tws.comms.table.channel.TRequest;
+import edu.iu.dsc.tws.comms.table.channel.TableChannel;
+import edu.iu.dsc.tws.comms.tcp.TWSTCPChannel;
 
 public class SimpleAllToAll implements ChannelReceiveCallback, ChannelSendCallback {
   private static final Logger LOG = Logger.getLogger(SimpleAllToAll.class.getName());
@@ -57,17 +62,23 @@ public class SimpleAllToAll implements ChannelReceiveCallback, ChannelSendCallba
   private Map<Integer, AllToAllSends> sends = new HashMap<>();
   private Set<Integer> finishedSources = new HashSet<>();
   private Set<Integer> finishedTargets = new HashSet<>();
-  private MPIChannel channel;
+  private TableChannel channel;
   private boolean finishFlag = false;
   private ReceiveCallback callback;
 
   public SimpleAllToAll(Config cfg, IWorkerController workerController,
                         List<Integer> sources, List<Integer> targets,
                         int edgeId, ReceiveCallback callback, Allocator allocator) {
+    this(cfg, workerController, null, sources, targets, edgeId, callback, allocator);
+  }
+
+  public SimpleAllToAll(Config cfg, IWorkerController workerController, TWSChannel twsChannel,
+                        List<Integer> sources, List<Integer> targets,
+                        int edgeId, ReceiveCallback callback, Allocator allocator) {
     this.sources = sources;
     this.targets = targets;
-    this.channel = new MPIChannel(cfg, workerController, edgeId, sources,
-        targets, this, this, allocator);
+    this.channel = createChannel(cfg, workerController, twsChannel, sources, targets,
+        edgeId, allocator);
     this.callback = callback;
 
     for (int t : targets) {
@@ -75,6 +86,31 @@ public class SimpleAllToAll implements ChannelReceiveCallback, ChannelSendCallba
     }
   }
 
+  /**
+   * Create the channel configured for the table operations, by default the channel uses the
+   * same transport as the worker channel
+   */
+  private TableChannel createChannel(Config cfg, IWorkerController workerController,
+                                     TWSChannel twsChannel, List<Integer> srcs,
+                                     List<Integer> tgts, int edgeId, Allocator allocator) {
+    String type = CommunicationContext.tableChannel(cfg);
+    if (type == null) {
+      type = twsChannel instanceof TWSTCPChannel ? CommunicationContext.TABLE_CHANNEL_TCP
+          : CommunicationContext.TABLE_CHANNEL_MPI;
+    }
+
+    if (CommunicationContext.TABLE_CHANNEL_TCP.equals(type)) {
+      if (!(twsChannel instanceof TWSTCPChannel)) {
+        throw new Twister2RuntimeException("The TCP table channel requires the TCP worker channel");
+      }
+      return new TCPTableChannel(cfg, workerController,
+          ((TWSTCPChannel) twsChannel).getTCPChannel(), edgeId, srcs, tgts, this, this, allocator);
+    } else if (CommunicationContext.TABLE_CHANNEL_MPI.equals(type)) {
+      return new MPIChannel(cfg, workerController, edgeId, srcs, tgts, this, this, allocator);
+    }
+    throw new Twister2RuntimeException("Unknown table channel: " + type);
+  }
+
   public boolean insert(ByteBuffer buf, int length, int target) {
     return false;
   }
@@ -85,9 +121,9 @@ public class SimpleAllToAll implements ChannelReceiveCallback, ChannelSendCallba
       throw new Twister2RuntimeException("Cannot insert after finishing");
     }
 
-    if (headerLength > MPIChannel.TWISTERX_CHANNEL_USER_HEADER) {
+    if (headerLength > TableChannel.MAX_USER_HEADER) {
       throw new Twister2RuntimeException("Cannot have a header length greater than "
-          + MPIChannel.TWISTERX_CHANNEL_USER_HEADER);
+          + TableChannel.MAX_USER_HEADER);
     }
 
     AllToAllSends s = sends.get(target);
@@ -139,7 +175,7 @@ public class SimpleAllToAll implements ChannelReceiveCallback, ChannelSendCallba
 
   public void close() {
     sends.clear();
-
+    channel.close();
   }
 
   @Override
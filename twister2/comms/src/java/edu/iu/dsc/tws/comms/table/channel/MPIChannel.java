@@ -31,12 +31,10 @@ import mpi.MPIException;
 import mpi.Request;
 import mpi.Status;
 
-public class MPIChannel {
+public class MPIChannel implements TableChannel {
   private static final Logger LOG = Logger.getLogger(MPIChannel.class.getName());
 
-  public static final int TWISTERX_CHANNEL_USER_HEADER = 6;
-  private static final int TWISTERX_CHANNEL_HEADER_SIZE = 8;
-  private static final int TWISTERX_MSG_FIN = 1;
+  public static final int TWISTERX_CHANNEL_USER_HEADER = MAX_USER_HEADER;
 
   private Intracomm comm;
 
@@ -58,7 +56,7 @@ public class MPIChannel {
   };
 
   private class PendingSend {
-    private IntBuffer headerBuf = MPI.newIntBuffer(8);
+    private IntBuffer headerBuf = MPI.newIntBuffer(TableChannelHeader.SIZE);
     private Queue<TRequest> pendingData = new LinkedList<>();
     private SendStatus status = SendStatus.SEND_INIT;
     // the current send, if it is a actual send
@@ -68,7 +66,7 @@ public class MPIChannel {
 
   private class PendingReceive {
     // we allow upto 8 integer header
-    private IntBuffer headerBuf = MPI.newIntBuffer(8);
+    private IntBuffer headerBuf = MPI.newIntBuffer(TableChannelHeader.SIZE);
     private int receiveId;
     private ChannelBuffer data;
     private int length;
@@ -120,7 +118,8 @@ public class MPIChannel {
       pendingReceives.put(source, pendingReceive);
 
       try {
-        pendingReceive.request = comm.iRecv(pendingReceive.headerBuf, 8, MPI.INT, source, edge);
+        pendingReceive.request = comm.iRecv(pendingReceive.headerBuf,
+            TableChannelHeader.SIZE, MPI.INT, source, edge);
       } catch (MPIException e) {
         LOG.log(Level.SEVERE, "Failed to request", e);
         throw new RuntimeException(e);
@@ -146,6 +145,7 @@ public class MPIChannel {
    * @param request the request containing buffer, destination etc
    * @return if the request is accepted to be sent
    */
+  @Override
   public int send(TRequest request) {
     PendingSend send = sends.get(request.target);
     if (send.pendingData.offer(request)) {
@@ -159,6 +159,7 @@ public class MPIChannel {
    * @param request the request
    * @return -1 if not accepted, 1 if accepted
    */
+  @Override
   public int sendFin(TRequest request) {
     if (finishRequests.containsKey(request.target)) {
       LOG.log(Level.WARNING, "Sending finish to target twice " + request.target);
@@ -171,6 +172,7 @@ public class MPIChannel {
   /**
    * This method needs to be called to progress the send
    */
+  @Override
   public void progressSends() {
     try {
       // lets send values
@@ -248,6 +250,7 @@ public class MPIChannel {
   /**
    * This method needs to be called to progress the receives
    */
+  @Override
   public void progressReceives() {
     try {
       for (Map.Entry<Integer, PendingReceive> x : pendingReceives.entrySet()) {
@@ -259,12 +262,12 @@ public class MPIChannel {
             pendingReceive.request = null;
             int count = status.getCount(MPI.INT);
             // read the length from the header
-            int length = pendingReceive.headerBuf.get(0);
-            int finFlag = pendingReceive.headerBuf.get(1);
+            int length = TableChannelHeader.length(pendingReceive.headerBuf);
+            int finFlag = TableChannelHeader.finishFlag(pendingReceive.headerBuf);
             // LOG(INFO) << rank << " ** received " << length << " flag " << finFlag;
             // check weather we are at the end
-            if (finFlag != TWISTERX_MSG_FIN) {
-              if (count > 8) {
+            if (finFlag != TableChannelHeader.MSG_FIN) {
+              if (count > TableChannelHeader.SIZE) {
                 LOG.log(Level.SEVERE,
                     "Un-expected number of bytes expected: 8 or less received: " + count);
               }
@@ -276,14 +279,11 @@ public class MPIChannel {
               // LOG(INFO) << rank << " ** POST RECEIVE " << length << " addr: " << x.second->data;
               pendingReceive.status = ReceiveStatus.RECEIVE_POSTED;
               // copy the count - 2 to the buffer
-              if (count > 2) {
-                for (int i = 2; i < count; i++) {
-                  pendingReceive.userHeader[i - 2] = pendingReceive.headerBuf.get(i);
-                }
-              }
+              int userHeaderLength = TableChannelHeader.userHeader(pendingReceive.headerBuf,
+                  count, pendingReceive.userHeader);
               // notify the receiver
               receiveCallback.receivedHeader(x.getKey(), finFlag,
-                  pendingReceive.userHeader, count - 2);
+                  pendingReceive.userHeader, userHeaderLength);
             } else {
               if (count != 2) {
                 LOG.log(Level.SEVERE,
@@ -303,7 +303,7 @@ public class MPIChannel {
             pendingReceive.headerBuf.clear();
 
             pendingReceive.request = comm.iRecv(pendingReceive.headerBuf,
-                TWISTERX_CHANNEL_HEADER_SIZE, MPI.INT, pendingReceive.receiveId, edge);
+                TableChannelHeader.SIZE, MPI.INT, pendingReceive.receiveId, edge);
             // LOG(INFO) << rank << " ** POST HEADER " << 8 << " addr: " << x.second->headerBuf;
             pendingReceive.status = ReceiveStatus.RECEIVE_LENGTH_POSTED;
             // call the back end
@@ -322,34 +322,23 @@ public class MPIChannel {
   private void sendHeader(PendingSend send) throws MPIException {
     TRequest r = send.pendingData.peek();
     assert send.pendingData.size() > 0;
-    // put the length to the buffer
-    send.headerBuf.put(0, r.length);
-    send.headerBuf.put(1, 0);
-
-    // copy the memory of the header
-    if (r.headerLength > 0) {
-      for (int i = 0; i < r.headerLength; i++) {
-        send.headerBuf.put(i + 2, r.header[i]);
-      }
-    }
-    // LOG(INFO) << rank << " Sent length to " << r->target << " addr: "
-    // << x.second->headerBuf << " len: " << r->headerLength + 2;
-    // we have to add 2 to the header length
-    send.request = comm.iSend(send.headerBuf, 2 + r.headerLength, MPI.INT, r.target, edge);
+    // put the length and the user header to the buffer
+    int count = TableChannelHeader.putRequest(send.headerBuf, r);
+    send.request = comm.iSend(send.headerBuf, count, MPI.INT, r.target, edge);
     send.status = SendStatus.SEND_LENGTH_POSTED;
   }
 
   private void sendFinishHeader(PendingSend send) throws MPIException {
     // for the last header we always send only the first 2 integers
-    send.headerBuf.put(0, 0);
-    send.headerBuf.put(1, TWISTERX_MSG_FIN);
-    send.request = comm.iSend(send.headerBuf, 2, MPI.INT, send.currentSend.target, edge);
+    int count = TableChannelHeader.putFinish(send.headerBuf);
+    send.request = comm.iSend(send.headerBuf, count, MPI.INT, send.currentSend.target, edge);
     send.status = SendStatus.SEND_FINISH;
   }
 
   /**
    * Close the channel and clear any allocated memory by the channel
    */
+  @Override
   public void close() {
 
   }
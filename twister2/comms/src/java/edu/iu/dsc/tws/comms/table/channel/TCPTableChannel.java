@@ -0,0 +1,382 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.table.channel;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import edu.iu.dsc.tws.api.comms.CommunicationContext;
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.api.exceptions.Twister2RuntimeException;
+import edu.iu.dsc.tws.api.resource.IWorkerController;
+import edu.iu.dsc.tws.common.net.tcp.TCPChannel;
+import edu.iu.dsc.tws.common.net.tcp.TCPMessage;
+
+/**
+ * Table channel using the TCP connections of the worker. It follows the same protocol as the
+ * {@link MPIChannel}, a header of up to 8 integers with the length, the finish flag and the
+ * user header is sent before the data of a request.
+ * <p>
+ * The connections are shared with the other edges of the worker, and a connection stops reading
+ * while the message at its head has no receive posted. So like the edges of the worker channel,
+ * a fixed number of receive buffers is kept posted for each source and the data of a request is
+ * sent in pieces that fit in to these buffers. The received pieces are copied to the buffer
+ * given by the allocator. The requests to this worker are handed over to the receive callback
+ * without going through the network.
+ */
+public class TCPTableChannel implements TableChannel {
+  private static final Logger LOG = Logger.getLogger(TCPTableChannel.class.getName());
+
+  private static final int HEADER_BYTES = TableChannelHeader.SIZE * Integer.BYTES;
+
+  private enum SendStatus {
+    SEND_INIT,
+    SEND_POSTED,
+    SEND_FINISH,
+    SEND_DONE
+  }
+
+  private enum ReceiveStatus {
+    RECEIVE_LENGTH_POSTED,
+    RECEIVE_POSTED,
+    RECEIVED_FIN
+  }
+
+  private class PendingSend {
+    private ByteBuffer headerBuf = ByteBuffer.allocate(HEADER_BYTES);
+    private IntBuffer header = headerBuf.asIntBuffer();
+    private Queue<TRequest> pendingData = new LinkedList<>();
+    private SendStatus status = SendStatus.SEND_INIT;
+    // the current send, if it is a actual send
+    private TRequest currentSend;
+    // bytes of the current send given to the connection
+    private int posted;
+    // messages given to the connection and not yet written
+    private Queue<TCPMessage> inFlight = new ArrayDeque<>();
+  }
+
+  private class PendingReceive {
+    private int receiveId;
+    // the receives posted to the connection, they complete in order
+    private Queue<TCPMessage> posted = new ArrayDeque<>();
+    private ChannelBuffer data;
+    private int length;
+    // bytes of the data received so far
+    private int received;
+    private ReceiveStatus status = ReceiveStatus.RECEIVE_LENGTH_POSTED;
+    // the user header
+    private int[] userHeader = new int[TableChannelHeader.SIZE];
+  }
+
+  private TCPChannel channel;
+  private int edge;
+  // keep track of the sends to each target
+  private Map<Integer, PendingSend> sends = new HashMap<>();
+  // keep track of the posted receives
+  private Map<Integer, PendingReceive> pendingReceives = new HashMap<>();
+  // we got finish requests
+  private Map<Integer, TRequest> finishRequests = new HashMap<>();
+  // receive callback function
+  private ChannelReceiveCallback receiveCallback;
+  // send complete callback function
+  private ChannelSendCallback sendCallback;
+  // id of this worker
+  private int workerId;
+  // memory allocator for receive
+  private Allocator allocator;
+  // size of the receive buffers and the largest piece sent
+  private int bufferSize;
+  // number of pieces a target can have in the connection at a time
+  private int sendWindow;
+
+  public TCPTableChannel(Config config, IWorkerController wController, TCPChannel tcpChannel,
+                         int ed, List<Integer> srcs, List<Integer> tgts,
+                         ChannelReceiveCallback recvCallback, ChannelSendCallback sCallback,
+                         Allocator allocator) {
+    this(config, wController.getWorkerInfo().getWorkerID(), tcpChannel, ed, srcs, tgts,
+        recvCallback, sCallback, allocator);
+  }
+
+  public TCPTableChannel(Config config, int worker, TCPChannel tcpChannel,
+                         int ed, List<Integer> srcs, List<Integer> tgts,
+                         ChannelReceiveCallback recvCallback, ChannelSendCallback sCallback,
+                         Allocator allocator) {
+    this.channel = tcpChannel;
+    this.edge = ed;
+    this.receiveCallback = recvCallback;
+    this.sendCallback = sCallback;
+    this.allocator = allocator;
+    this.workerId = worker;
+    this.bufferSize = Math.max(HEADER_BYTES, CommunicationContext.bufferSize(config));
+    this.sendWindow = Math.max(1, CommunicationContext.sendBuffersCount(config));
+
+    int receiveBuffers = Math.max(1, CommunicationContext.receiveBufferCount(config));
+    for (int source : srcs) {
+      if (source == workerId) {
+        continue;
+      }
+      PendingReceive pendingReceive = new PendingReceive();
+      pendingReceive.receiveId = source;
+      pendingReceives.put(source, pendingReceive);
+      for (int i = 0; i < receiveBuffers; i++) {
+        postReceive(pendingReceive, ByteBuffer.allocateDirect(bufferSize));
+      }
+    }
+
+    for (int target : tgts) {
+      sends.put(target, new PendingSend());
+    }
+  }
+
+  @Override
+  public int send(TRequest request) {
+    PendingSend send = sends.get(request.target);
+    if (send.pendingData.offer(request)) {
+      return 1;
+    }
+    return -1;
+  }
+
+  @Override
+  public int sendFin(TRequest request) {
+    if (finishRequests.containsKey(request.target)) {
+      LOG.log(Level.WARNING, "Sending finish to target twice " + request.target);
+      return -1;
+    }
+    finishRequests.put(request.target, request);
+    return 1;
+  }
+
+  @Override
+  public void progressSends() {
+    channel.progress();
+
+    for (Map.Entry<Integer, PendingSend> x : sends.entrySet()) {
+      int target = x.getKey();
+      PendingSend pendSend = x.getValue();
+      if (target == workerId) {
+        progressLocalSend(target, pendSend);
+        continue;
+      }
+
+      while (!pendSend.inFlight.isEmpty() && isDone(pendSend.inFlight.peek())) {
+        pendSend.inFlight.poll();
+      }
+
+      if (pendSend.status == SendStatus.SEND_POSTED) {
+        postData(pendSend);
+        if (pendSend.posted == pendSend.currentSend.length && pendSend.inFlight.isEmpty()) {
+          pendSend.status = SendStatus.SEND_INIT;
+          // we need to notify about the send completion
+          TRequest completed = pendSend.currentSend;
+          pendSend.currentSend = null;
+          sendCallback.sendComplete(completed);
+        }
+      } else if (pendSend.status == SendStatus.SEND_FINISH) {
+        if (pendSend.inFlight.isEmpty()) {
+          pendSend.status = SendStatus.SEND_DONE;
+          sendCallback.sendFinishComplete(finishRequests.get(target));
+        }
+      }
+
+      if (pendSend.status == SendStatus.SEND_INIT) {
+        if (!pendSend.pendingData.isEmpty()) {
+          sendRequest(pendSend);
+        } else if (finishRequests.containsKey(target)) {
+          sendFinishHeader(pendSend, target);
+        }
+      }
+    }
+  }
+
+  @Override
+  public void progressReceives() {
+    channel.progress();
+
+    for (Map.Entry<Integer, PendingReceive> x : pendingReceives.entrySet()) {
+      PendingReceive pendingReceive = x.getValue();
+      while (!pendingReceive.posted.isEmpty() && isDone(pendingReceive.posted.peek())) {
+        ByteBuffer received = pendingReceive.posted.poll().getByteBuffer();
+        // the channel flips the buffer after reading
+        if (pendingReceive.status == ReceiveStatus.RECEIVE_LENGTH_POSTED) {
+          receivedHeader(x.getKey(), pendingReceive, received);
+        } else if (pendingReceive.status == ReceiveStatus.RECEIVE_POSTED) {
+          receivedData(x.getKey(), pendingReceive, received);
+        } else {
+          LOG.log(Level.SEVERE, "Received a message after finish from " + x.getKey());
+        }
+        postReceive(pendingReceive, received);
+      }
+    }
+  }
+
+  private void receivedHeader(int source, PendingReceive pendingReceive, ByteBuffer received) {
+    IntBuffer header = received.asIntBuffer();
+    int count = received.limit() / Integer.BYTES;
+    int length = TableChannelHeader.length(header);
+    int finFlag = TableChannelHeader.finishFlag(header);
+    if (finFlag != TableChannelHeader.MSG_FIN) {
+      int userHeaderLength = TableChannelHeader.userHeader(header, count,
+          pendingReceive.userHeader);
+      pendingReceive.data = allocator.allocate(length);
+      pendingReceive.length = length;
+      pendingReceive.received = 0;
+      // notify the receiver
+      receiveCallback.receivedHeader(source, finFlag, pendingReceive.userHeader,
+          userHeaderLength);
+      if (length == 0) {
+        receiveCallback.receivedData(source, pendingReceive.data, 0);
+      } else {
+        pendingReceive.status = ReceiveStatus.RECEIVE_POSTED;
+      }
+    } else {
+      if (count != 2) {
+        LOG.log(Level.SEVERE, "Un-expected number of integers expected: 2 received: " + count);
+      }
+      // we are not expecting to receive any more
+      pendingReceive.status = ReceiveStatus.RECEIVED_FIN;
+      receiveCallback.receivedHeader(source, finFlag, null, 0);
+    }
+  }
+
+  private void receivedData(int source, PendingReceive pendingReceive, ByteBuffer received) {
+    int size = received.remaining();
+    if (pendingReceive.received + size > pendingReceive.length) {
+      throw new Twister2RuntimeException("Received more data than expected from worker "
+          + source + " on table edge " + edge);
+    }
+    ByteBuffer dest = pendingReceive.data.getByteBuffer().duplicate();
+    dest.clear();
+    dest.position(pendingReceive.received);
+    dest.put(received);
+    pendingReceive.received += size;
+    if (pendingReceive.received == pendingReceive.length) {
+      pendingReceive.status = ReceiveStatus.RECEIVE_LENGTH_POSTED;
+      receiveCallback.receivedData(source, pendingReceive.data, pendingReceive.length);
+    }
+  }
+
+  /**
+   * Hand over the requests to this worker to the receive callback
+   */
+  private void progressLocalSend(int target, PendingSend pendSend) {
+    if (pendSend.status != SendStatus.SEND_INIT) {
+      return;
+    }
+
+    while (!pendSend.pendingData.isEmpty()) {
+      TRequest r = pendSend.pendingData.poll();
+      ChannelBuffer data = allocator.allocate(r.length);
+      if (r.length > 0) {
+        ByteBuffer src = r.buffer.duplicate();
+        src.limit(r.length);
+        src.position(0);
+        ByteBuffer dest = data.getByteBuffer();
+        dest.clear();
+        dest.put(src);
+      }
+      int[] header = new int[TableChannelHeader.SIZE];
+      if (r.headerLength > 0) {
+        System.arraycopy(r.header, 0, header, 0, r.headerLength);
+      }
+      receiveCallback.receivedHeader(target, 0, header, r.headerLength);
+      receiveCallback.receivedData(target, data, r.length);
+      sendCallback.sendComplete(r);
+    }
+
+    if (finishRequests.containsKey(target)) {
+      pendSend.status = SendStatus.SEND_DONE;
+      receiveCallback.receivedHeader(target, TableChannelHeader.MSG_FIN, null, 0);
+      sendCallback.sendFinishComplete(finishRequests.get(target));
+    }
+  }
+
+  private void sendRequest(PendingSend send) {
+    TRequest r = send.pendingData.poll();
+    int count = TableChannelHeader.putRequest(send.header, r);
+    send.inFlight.add(iSend(send.headerBuf, count * Integer.BYTES, r.target));
+    send.currentSend = r;
+    send.posted = 0;
+    send.status = SendStatus.SEND_POSTED;
+    postData(send);
+  }
+
+  /**
+   * Give the next pieces of the current request to the connection, the pieces are views of the
+   * request buffer
+   */
+  private void postData(PendingSend send) {
+    TRequest r = send.currentSend;
+    while (send.posted < r.length && send.inFlight.size() < sendWindow) {
+      int size = Math.min(bufferSize, r.length - send.posted);
+      ByteBuffer piece = r.buffer.duplicate();
+      piece.limit(send.posted + size);
+      piece.position(send.posted);
+      send.inFlight.add(iSend(piece.slice(), size, r.target));
+      send.posted += size;
+    }
+  }
+
+  private void sendFinishHeader(PendingSend send, int target) {
+    // for the last header we always send only the first 2 integers
+    int count = TableChannelHeader.putFinish(send.header);
+    send.inFlight.add(iSend(send.headerBuf, count * Integer.BYTES, target));
+    send.status = SendStatus.SEND_FINISH;
+  }
+
+  private TCPMessage iSend(ByteBuffer buffer, int size, int target) {
+    TCPMessage message = channel.iSend(buffer, size, target, edge);
+    if (message == null) {
+      throw new Twister2RuntimeException("Failed to send to worker " + target
+          + " on table edge " + edge);
+    }
+    return message;
+  }
+
+  private void postReceive(PendingReceive pendingReceive, ByteBuffer buffer) {
+    buffer.clear();
+    TCPMessage request = channel.iRecv(buffer, bufferSize, pendingReceive.receiveId, edge);
+    if (request == null) {
+      throw new Twister2RuntimeException("Failed to receive from worker "
+          + pendingReceive.receiveId + " on table edge " + edge);
+    }
+    pendingReceive.posted.add(request);
+  }
+
+  /**
+   * Check weather a message is complete, a null message is considered complete
+   */
+  private boolean isDone(TCPMessage message) {
+    if (message == null) {
+      return true;
+    }
+    if (message.isError()) {
+      throw new Twister2RuntimeException("Error in the TCP table channel on edge " + edge);
+    }
+    return message.isComplete();
+  }
+
+  @Override
+  public void close() {
+    sends.clear();
+    pendingReceives.clear();
+    finishRequests.clear();
+  }
+}
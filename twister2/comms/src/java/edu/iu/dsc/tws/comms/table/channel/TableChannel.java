@@ -0,0 +1,52 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.table.channel;
+
+/**
+ * A channel used by the table all-to-all to send buffers along with a small integer header
+ * to the other workers. The channels are progressed by a single thread.
+ */
+public interface TableChannel {
+  /**
+   * Maximum number of integers in the user header
+   */
+  int MAX_USER_HEADER = 6;
+
+  /**
+   * Send the request
+   * @param request the request containing buffer, destination etc
+   * @return 1 if the request is accepted to be sent, -1 otherwise
+   */
+  int send(TRequest request);
+
+  /**
+   * Inform the finish to the target
+   * @param request the request
+   * @return 1 if the request is accepted to be sent, -1 otherwise
+   */
+  int sendFin(TRequest request);
+
+  /**
+   * This method needs to be called to progress the sends
+   */
+  void progressSends();
+
+  /**
+   * This method needs to be called to progress the receives
+   */
+  void progressReceives();
+
+  /**
+   * Close the channel and clear any allocated memory by the channel
+   */
+  void close();
+}
@@ -0,0 +1,81 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.table.channel;
+
+import java.nio.IntBuffer;
+
+/**
+ * The header sent before the data of a table channel request. It holds the length of the data,
+ * the finish flag and the user header of the request, a finish header has only the first two.
+ */
+final class TableChannelHeader {
+  /**
+   * Maximum number of integers in a header
+   */
+  static final int SIZE = 8;
+
+  static final int MSG_FIN = 1;
+
+  private TableChannelHeader() {
+  }
+
+  /**
+   * Write the header of a data request
+   *
+   * @param header the header buffer
+   * @param r the request
+   * @return number of integers to send
+   */
+  static int putRequest(IntBuffer header, TRequest r) {
+    header.put(0, r.length);
+    header.put(1, 0);
+    for (int i = 0; i < r.headerLength; i++) {
+      header.put(i + 2, r.header[i]);
+    }
+    return 2 + r.headerLength;
+  }
+
+  /**
+   * Write the finish header
+   *
+   * @param header the header buffer
+   * @return number of integers to send
+   */
+  static int putFinish(IntBuffer header) {
+    header.put(0, 0);
+    header.put(1, MSG_FIN);
+    return 2;
+  }
+
+  static int length(IntBuffer header) {
+    return header.get(0);
+  }
+
+  static int finishFlag(IntBuffer header) {
+    return header.get(1);
+  }
+
+  /**
+   * Copy the user header of a received data header
+   *
+   * @param header the header buffer
+   * @param count number of integers received
+   * @param userHeader the array to copy to
+   * @return number of integers in the user header
+   */
+  static int userHeader(IntBuffer header, int count, int[] userHeader) {
+    for (int i = 2; i < count; i++) {
+      userHeader[i - 2] = header.get(i);
+    }
+    return Math.max(0, count - 2);
+  }
+}
@@ -95,8 +95,8 @@ public class STPartition extends BaseOperation {
       this.inputs.put(s, new LinkedList<>());
     }
     this.thisWorkerSources = TaskPlanUtils.getTasksOfThisWorker(plan, sources);
-    this.allToAll = new ArrowAllToAll(comm.getConfig(), controller, sources, targets,
-        plan, comm.nextEdge(), receiver, schema, allocator);
+    this.allToAll = new ArrowAllToAll(comm.getConfig(), controller, comm.getChannel(),
+        sources, targets, plan, comm.nextEdge(), receiver, schema, allocator);
   }
 
   public boolean insert(int source, Table t) {
@@ -0,0 +1,228 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.tcp;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import edu.iu.dsc.tws.api.exceptions.Twister2RuntimeException;
+
+/**
+ * A size classed pool of direct byte buffers shared by all the operations of a worker.
+ * <p>
+ * Buffers are handed out as slices of a power of two sized direct buffer, so the returned
+ * buffer has exactly the requested capacity. Every buffer carries a reference count, the owner
+ * gets one reference with {@link #acquire(int)} and others (i.e. the network channel while a
+ * send or receive is posted) can take more with {@link #retain(ByteBuffer)}. The buffer goes
+ * back to the pool only after the last {@link #release(ByteBuffer)}.
+ */
+public class DirectBufferPool {
+  private static final Logger LOG = Logger.getLogger(DirectBufferPool.class.getName());
+
+  /**
+   * The smallest buffer we will allocate
+   */
+  private static final int MIN_SIZE_CLASS = 12;
+
+  /**
+   * The largest buffer we will allocate
+   */
+  private static final int MAX_SIZE_CLASS = 30;
+
+  /**
+   * Number of size classes, 2^12 to 2^30
+   */
+  private static final int SIZE_CLASSES = MAX_SIZE_CLASS - MIN_SIZE_CLASS + 1;
+
+  @SuppressWarnings("VisibilityModifier")
+  private static final class Lease {
+    ByteBuffer pooled;
+    int sizeClass;
+    int refCount;
+
+    Lease(ByteBuffer pooled, int sizeClass) {
+      this.pooled = pooled;
+      this.sizeClass = sizeClass;
+      this.refCount = 1;
+    }
+  }
+
+  /**
+   * Free buffers for each size class
+   */
+  private final ArrayDeque<ByteBuffer>[] freeBuffers;
+
+  /**
+   * The buffers handed out, keyed by the slice returned to the user
+   */
+  private final Map<ByteBuffer, Lease> leased = new IdentityHashMap<>();
+
+  /**
+   * Maximum number of bytes we keep idle in the pool
+   */
+  private final long maxPooledBytes;
+
+  /**
+   * Bytes idle in the pool
+   */
+  private long pooledBytes = 0;
+
+  /**
+   * Bytes handed out
+   */
+  private long inUseBytes = 0;
+
+  /**
+   * Total direct bytes allocated by this pool and not yet dropped
+   */
+  private long allocatedBytes = 0;
+
+  /**
+   * Create a pool
+   *
+   * @param maxPooledBytes maximum number of idle bytes kept in the pool
+   */
+  @SuppressWarnings("unchecked")
+  public DirectBufferPool(long maxPooledBytes) {
+    this.maxPooledBytes = maxPooledBytes;
+    this.freeBuffers = new ArrayDeque[SIZE_CLASSES];
+    for (int i = 0; i < SIZE_CLASSES; i++) {
+      freeBuffers[i] = new ArrayDeque<>();
+    }
+  }
+
+  /**
+   * Get a buffer with the given capacity, the caller owns one reference
+   *
+   * @param capacity capacity of the buffer
+   * @return a direct buffer with the exact capacity
+   */
+  public synchronized ByteBuffer acquire(int capacity) {
+    int sizeClass = sizeClass(capacity);
+    int classBytes = 1 << (sizeClass + MIN_SIZE_CLASS);
+
+    ByteBuffer pooled = freeBuffers[sizeClass].poll();
+    if (pooled != null) {
+      pooledBytes -= classBytes;
+    } else {
+      pooled = ByteBuffer.allocateDirect(classBytes);
+      allocatedBytes += classBytes;
+    }
+    inUseBytes += classBytes;
+
+    pooled.clear();
+    pooled.limit(capacity);
+    ByteBuffer slice = pooled.slice();
+    leased.put(slice, new Lease(pooled, sizeClass));
+    return slice;
+  }
+
+  /**
+   * Increment the reference count of a buffer handed out by this pool
+   *
+   * @param buffer the buffer
+   */
+  public synchronized void retain(ByteBuffer buffer) {
+    Lease lease = leased.get(buffer);
+    if (lease == null) {
+      throw new Twister2RuntimeException("Buffer is not leased from this pool");
+    }
+    lease.refCount++;
+  }
+
+  /**
+   * Decrement the reference count of a buffer, when it reaches zero the buffer is
+   * returned to the pool
+   *
+   * @param buffer the buffer
+   */
+  public synchronized void release(ByteBuffer buffer) {
+    Lease lease = leased.get(buffer);
+    if (lease == null) {
+      throw new Twister2RuntimeException("Buffer is not leased from this pool");
+    }
+    lease.refCount--;
+    if (lease.refCount > 0) {
+      return;
+    }
+
+    leased.remove(buffer);
+    int classBytes = lease.pooled.capacity();
+    inUseBytes -= classBytes;
+    if (pooledBytes + classBytes <= maxPooledBytes) {
+      lease.pooled.clear();
+      freeBuffers[lease.sizeClass].offer(lease.pooled);
+      pooledBytes += classBytes;
+    } else {
+      // we keep the pool bounded, this buffer will be freed by the garbage collector
+      allocatedBytes -= classBytes;
+    }
+  }
+
+  /**
+   * Check weather the buffer is handed out by this pool
+   *
+   * @param buffer buffer
+   * @return true if the buffer is owned by this pool
+   */
+  public synchronized boolean isLeased(ByteBuffer buffer) {
+    return leased.containsKey(buffer);
+  }
+
+  public synchronized long getPooledBytes() {
+    return pooledBytes;
+  }
+
+  public synchronized long getInUseBytes() {
+    return inUseBytes;
+  }
+
+  public synchronized long getAllocatedBytes() {
+    return allocatedBytes;
+  }
+
+  /**
+   * Log the current usage of the pool, the buffers still leased are reported as leaks
+   *
+   * @param worker the worker id
+   */
+  public synchronized void report(int worker) {
+    if (!leased.isEmpty()) {
+      LOG.warning(String.format("%d Direct buffer pool has %d buffers not released - "
+          + "pooled: %d in-use: %d allocated: %d", worker, leased.size(), pooledBytes,
+          inUseBytes, allocatedBytes));
+    } else {
+      LOG.fine(String.format("%d Direct buffer pool - pooled: %d in-use: %d allocated: %d",
+          worker, pooledBytes, inUseBytes, allocatedBytes));
+    }
+  }
+
+  /**
+   * Number of buffers handed out and not yet released
+   *
+   * @return number of leased buffers
+   */
+  public synchronized int getLeasedCount() {
+    return leased.size();
+  }
+
+  private static int sizeClass(int capacity) {
+    if (capacity <= 0 || capacity > 1 << MAX_SIZE_CLASS) {
+      throw new Twister2RuntimeException("Unsupported buffer capacity: " + capacity);
+    }
+    int bits = 32 - Integer.numberOfLeadingZeros(capacity - 1);
+    return Math.max(bits, MIN_SIZE_CLASS) - MIN_SIZE_CLASS;
+  }
+}
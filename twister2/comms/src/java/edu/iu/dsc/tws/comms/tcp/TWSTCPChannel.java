@@ -17,6 +17,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -37,6 +38,9 @@ import edu.iu.dsc.tws.common.net.tcp.TCPChannel;
 import edu.iu.dsc.tws.common.net.tcp.TCPContext;
 import edu.iu.dsc.tws.common.net.tcp.TCPMessage;
 import edu.iu.dsc.tws.common.util.IterativeLinkedList;
+import edu.iu.dsc.tws.comms.metrics.Gauge;
+import edu.iu.dsc.tws.comms.metrics.MetricsRegistry;
+import edu.iu.dsc.tws.comms.metrics.PeerCounters;
 import edu.iu.dsc.tws.proto.jobmaster.JobMasterAPI;
 
 import it.unimi.dsi.fastutil.ints.Int2ObjectArrayMap;
@@ -54,6 +58,25 @@ public class TWSTCPChannel implements TWSChannel {
   private IWorkerController workerController;
   private long maxConnEstTime;
 
+  /**
+   * Pool of direct buffers, null if we are using heap buffers
+   */
+  private DirectBufferPool bufferPool;
+
+  /**
+   * Bytes sent to and received from the workers, null if the metrics are not enabled
+   */
+  private PeerCounters bytesSent;
+
+  private PeerCounters bytesReceived;
+
+  /**
+   * Name of the pending sends gauge and the gauge, removed when the channel is closed
+   */
+  private String pendingSendsName;
+
+  private Gauge pendingSendsGauge;
+
   @SuppressWarnings("VisibilityModifier")
   private class Request {
     TCPMessage request;
@@ -103,6 +126,11 @@ public class TWSTCPChannel implements TWSChannel {
 
   private int completedReceives = 0;
 
+  /**
+   * Sends and receives completed so far
+   */
+  private final AtomicLong completedRequests = new AtomicLong();
+
   /**
    * Pending sends waiting to be posted
    */
@@ -178,6 +206,20 @@ public class TWSTCPChannel implements TWSChannel {
     this.groupedRegisteredReceives = new Int2ObjectArrayMap<>();
     this.waitForCompletionSends = new IterativeLinkedList<>();
     this.executor = wController.getWorkerInfo().getWorkerID();
+
+    if (TCPContext.useDirectBuffers(config)) {
+      this.bufferPool = new DirectBufferPool(TCPContext.getDirectBufferPoolSize(config));
+    }
+
+    if (MetricsRegistry.configure(config)) {
+      MetricsRegistry registry = MetricsRegistry.get();
+      String prefix = "comms.worker-" + executor + ".channel";
+      this.bytesSent = registry.peerCounters(prefix, "bytes.sent");
+      this.bytesReceived = registry.peerCounters(prefix, "bytes.received");
+      this.pendingSendsName = prefix + ".pending.sends";
+      this.pendingSendsGauge = () -> pendingSends.size();
+      registry.gauge(pendingSendsName, pendingSendsGauge);
+    }
   }
 
   @Override
@@ -267,6 +309,19 @@ public class TWSTCPChannel implements TWSChannel {
       this.progress();
     }
     channel.stop();
+
+    if (bufferPool != null) {
+      bufferPool.report(executor);
+    }
+
+    if (pendingSendsGauge != null) {
+      MetricsRegistry.get().removeGauge(pendingSendsName, pendingSendsGauge);
+    }
+  }
+
+  @Override
+  public long getCompletedRequests() {
+    return completedRequests.get();
   }
 
   @Override
@@ -289,16 +344,21 @@ public class TWSTCPChannel implements TWSChannel {
     for (int i = 0; i < message.getNormalBuffers().size(); i++) {
       sendCount++;
       DataBuffer buffer = message.getNormalBuffers().get(i);
+      retainBuffer(buffer);
       TCPMessage request = channel.iSend(buffer.getByteBuffer(), buffer.getSize(),
           requests.rank, message.getHeader().getEdge());
       // register to the loop to make communicationProgress on the send
       requests.pendingSends.add(new Request(request, buffer));
+      if (bytesSent != null) {
+        bytesSent.add(requests.rank, buffer.getSize());
+      }
     }
   }
 
   private void postReceive(TCPReceiveRequests requests) {
     DataBuffer byteBuffer = requests.availableBuffers.poll();
     if (byteBuffer != null) {
+      retainBuffer(byteBuffer);
       // post the receive
       TCPMessage request = postReceive(requests.rank, requests.edge, byteBuffer);
       requests.pendingRequests.add(new Request(request, byteBuffer));
@@ -336,7 +396,13 @@ public class TWSTCPChannel implements TWSChannel {
         if (r.request.isComplete()) {
           // lets call the callback about the receive complete
           r.buffer.setSize(r.buffer.getByteBuffer().limit());
+          // the channel no longer uses the buffer
+          releaseBuffer(r.buffer);
 
+          completedRequests.incrementAndGet();
+          if (bytesReceived != null) {
+            bytesReceived.add(receiveRequests.rank, r.buffer.getSize());
+          }
           //We do not have any buffers to receive messages so we need to free a buffer
           receiveRequests.callback.onReceiveComplete(
               receiveRequests.rank, receiveRequests.edge, r.buffer);
@@ -378,6 +444,7 @@ public class TWSTCPChannel implements TWSChannel {
         Request r = (Request) requestIterator.next();
         // this request has finished
         if (r.request.isComplete()) {
+          releaseBuffer(r.buffer);
           requestIterator.remove();
         } else if (r.request.isError()) {
           throw new Twister2RuntimeException("Error when sending a message to worker: "
@@ -388,6 +455,7 @@ public class TWSTCPChannel implements TWSChannel {
       // if the message if fully sent, lets call the callback
       // ideally we should be able to call for each finish of the buffer
       if (sendRequests.pendingSends.size() == 0) {
+        completedRequests.incrementAndGet();
         sendRequests.callback.onSendComplete(sendRequests.rank,
             sendRequests.edge, sendRequests.message);
         sendRequestsIterator.remove();
@@ -418,6 +486,7 @@ public class TWSTCPChannel implements TWSChannel {
           while (pendItr.hasNext()) {
             Request r = (Request) pendItr.next();
             r.request.isComplete();
+            releaseBuffer(r.buffer);
             pendItr.remove();
           }
           itr.remove();
@@ -429,9 +498,54 @@ public class TWSTCPChannel implements TWSChannel {
 
   @Override
   public ByteBuffer createBuffer(int capacity) {
+    if (bufferPool != null) {
+      return bufferPool.acquire(capacity);
+    }
     return ByteBuffer.allocate(capacity);
   }
 
+  @Override
+  public void releaseBuffer(ByteBuffer buffer) {
+    if (bufferPool != null && bufferPool.isLeased(buffer)) {
+      bufferPool.release(buffer);
+    }
+  }
+
+  /**
+   * Hold a reference to a pooled buffer while a send or receive is posted on it
+   *
+   * @param buffer the buffer
+   */
+  private void retainBuffer(DataBuffer buffer) {
+    if (bufferPool != null) {
+      bufferPool.retain(buffer.getByteBuffer());
+    }
+  }
+
+  private void releaseBuffer(DataBuffer buffer) {
+    if (bufferPool != null) {
+      bufferPool.release(buffer.getByteBuffer());
+    }
+  }
+
+  /**
+   * The direct buffer pool of this worker
+   *
+   * @return the pool or null if the channel uses heap buffers
+   */
+  public DirectBufferPool getBufferPool() {
+    return bufferPool;
+  }
+
+  /**
+   * The TCP channel with the connections to the other workers
+   *
+   * @return the TCP channel
+   */
+  public TCPChannel getTCPChannel() {
+    return channel;
+  }
+
   /**
    * Close a worker id with edge
    *
@@ -77,6 +77,11 @@ public class TWSUCXChannel implements TWSChannel {
 
   private AtomicLong pendingSendRequests = new AtomicLong();
 
+  /**
+   * Sends and receives completed so far
+   */
+  private final AtomicLong completedRequests = new AtomicLong();
+
   private int workerId;
 
   private int tagWIdOffset = 100000;
@@ -246,6 +251,7 @@ public class TWSUCXChannel implements TWSChannel {
             public void onSuccess(UcpRequest request) {
               pendingSendRequests.decrementAndGet();
               if (buffersLeft.decrementAndGet() == 0) {
+                completedRequests.incrementAndGet();
                 callback.onSendComplete(id, message.getHeader().getEdge(), message);
               }
             }
@@ -326,6 +332,7 @@ public class TWSUCXChannel implements TWSChannel {
                         recvBuffer.getByteBuffer().getInt(0)));
                 recvBuffer.setSize((int) request.getRecvSize());
                 requestsMap.remove(requestId);
+                completedRequests.incrementAndGet();
                 callback.onReceiveComplete(id, edge, recvBuffer);
               }
 
@@ -377,6 +384,11 @@ public class TWSUCXChannel implements TWSChannel {
     this.progress();
   }
 
+  @Override
+  public long getCompletedRequests() {
+    return completedRequests.get();
+  }
+
   @Override
   public boolean isComplete() {
     return pendingSendRequests.get() == 0;
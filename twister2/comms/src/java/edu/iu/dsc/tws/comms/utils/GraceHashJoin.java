@@ -0,0 +1,550 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.utils;
+
+import java.io.Closeable;
+import java.io.File;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import edu.iu.dsc.tws.api.comms.CommunicationContext;
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageType;
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageTypes;
+import edu.iu.dsc.tws.api.comms.structs.JoinedTuple;
+import edu.iu.dsc.tws.api.comms.structs.Tuple;
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.comms.shuffle.FileLoader;
+import edu.iu.dsc.tws.comms.shuffle.OpenFilePart;
+
+/**
+ * A hash join that spills to disk when the hashing relation doesn't fit in to the memory.
+ * <p>
+ * As long as the hashing relation stays within the memory budget, this behaves like a simple
+ * in memory hash join and the probing relation is streamed through the hash table. When the
+ * budget is exceeded, both relations are partitioned by the hash of the key in to a set of
+ * spill buckets on disk (in the {@link FileLoader} format) and the bucket pairs are joined one
+ * at a time. A bucket which still doesn't fit in to the memory is partitioned again with a
+ * different hash. The joined tuples are produced lazily by the iterator.
+ * <p>
+ * The spill files are deleted when the iterator is exhausted, a join which is abandoned
+ * before that must be closed to remove them.
+ */
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class GraceHashJoin implements Iterator<JoinedTuple>, Closeable {
+  private static final Logger LOG = Logger.getLogger(GraceHashJoin.class.getName());
+
+  /**
+   * Maximum number of records of the hashing relation kept in memory
+   */
+  public static final String CONFIG_HASH_JOIN_MEMORY_RECORDS =
+      "twister2.join.hash.memory.records.max";
+
+  public static final long HASH_JOIN_MEMORY_RECORDS_DEFAULT = 1000000;
+
+  /**
+   * Number of spill buckets used when the hashing relation doesn't fit in to the memory
+   */
+  public static final String CONFIG_HASH_JOIN_SPILL_BUCKETS = "twister2.join.hash.spill.buckets";
+
+  public static final int HASH_JOIN_SPILL_BUCKETS_DEFAULT = 16;
+
+  /**
+   * After this many partitioning rounds we load the bucket to memory regardless of the budget,
+   * a bucket of this depth usually consists of a single heavy key
+   */
+  private static final int MAX_PARTITION_LEVEL = 3;
+
+  /**
+   * Values are written to the spill files using the object serializer
+   */
+  private static final MessageType SPILL_DATA_TYPE = MessageTypes.OBJECT;
+
+  private final Iterator<Tuple> leftIt;
+  private final Iterator<Tuple> rightIt;
+  private final CommunicationContext.JoinType joinType;
+  private final MessageType keyType;
+  private final long maxRecordsInMemory;
+  private final int noOfBuckets;
+  private final String spillDirectory;
+  private final int level;
+
+  /**
+   * We hash the right relation for left joins and the left relation otherwise
+   */
+  private final boolean hashRight;
+
+  /**
+   * Used for calculating the hash of the keys when partitioning
+   */
+  private final THashMap<Object, Object> hasher;
+
+  /**
+   * The in memory hash of the hashing relation
+   */
+  private THashMap<Object, HashEntry> keyHash;
+
+  /**
+   * Number of records in the in memory hash
+   */
+  private long recordsInMemory;
+
+  /**
+   * Spill buckets of the hashing relation, null if we are within the budget
+   */
+  private SpillBucket[] hashingBuckets;
+
+  /**
+   * Spill buckets of the probing relation
+   */
+  private SpillBucket[] probingBuckets;
+
+  /**
+   * The bucket we are currently joining, when spilled
+   */
+  private int currentBucket = -1;
+
+  /**
+   * Join of the current bucket pair
+   */
+  private GraceHashJoin bucketJoin;
+
+  /**
+   * The probing tuple we are currently combining with the hashed values
+   */
+  private Tuple currentProbingTuple;
+  private List currentHashedValues;
+  private int hashedValueIndex;
+
+  /**
+   * Iterates the un-matched hashed values once probing finishes, for outer joins
+   */
+  private Iterator<Map.Entry<Object, HashEntry>> unmatchedIterator;
+  private boolean probingDone;
+
+  // always keep the next tuple in memory, hasNext() will use this field
+  private JoinedTuple nextJoinTuple;
+
+  public GraceHashJoin(Iterator<Tuple> leftIt, Iterator<Tuple> rightIt,
+                       CommunicationContext.JoinType joinType, MessageType keyType,
+                       long maxRecordsInMemory, int noOfBuckets, String spillDirectory) {
+    this(leftIt, rightIt, joinType, keyType, maxRecordsInMemory, noOfBuckets,
+        spillDirectory, 0);
+  }
+
+  private GraceHashJoin(Iterator<Tuple> leftIt, Iterator<Tuple> rightIt,
+                        CommunicationContext.JoinType joinType, MessageType keyType,
+                        long maxRecordsInMemory, int noOfBuckets, String spillDirectory,
+                        int level) {
+    this.leftIt = leftIt;
+    this.rightIt = rightIt;
+    this.joinType = joinType;
+    this.keyType = keyType;
+    this.maxRecordsInMemory = Math.max(1, maxRecordsInMemory);
+    this.noOfBuckets = Math.max(2, noOfBuckets);
+    this.spillDirectory = spillDirectory;
+    this.level = level;
+    this.hashRight = joinType.equals(CommunicationContext.JoinType.LEFT);
+    this.keyHash = new THashMap<>(keyType);
+    this.hasher = new THashMap<>(keyType);
+
+    boolean created = false;
+    try {
+      doHashing();
+      if (hashingBuckets != null) {
+        partitionProbing();
+      }
+      advance();
+      created = true;
+    } finally {
+      if (!created) {
+        close();
+      }
+    }
+  }
+
+  /**
+   * Create a join using the limits specified in the configuration
+   *
+   * @param leftIt left relation
+   * @param rightIt right relation
+   * @param joinType join type
+   * @param keyType key type
+   * @param cfg configuration
+   * @param spillDirectory the directory to keep the spill files
+   * @return an iterator of joined tuples
+   */
+  public static GraceHashJoin create(Iterator<Tuple> leftIt, Iterator<Tuple> rightIt,
+                                     CommunicationContext.JoinType joinType,
+                                     MessageType keyType, Config cfg, String spillDirectory) {
+    return new GraceHashJoin(leftIt, rightIt, joinType, keyType,
+        cfg.getLongValue(CONFIG_HASH_JOIN_MEMORY_RECORDS, HASH_JOIN_MEMORY_RECORDS_DEFAULT),
+        cfg.getIntegerValue(CONFIG_HASH_JOIN_SPILL_BUCKETS, HASH_JOIN_SPILL_BUCKETS_DEFAULT),
+        spillDirectory);
+  }
+
+  /**
+   * Weather the hashing relation went to disk
+   *
+   * @return true if spilled
+   */
+  public boolean isSpilled() {
+    return hashingBuckets != null;
+  }
+
+  @Override
+  public boolean hasNext() {
+    return nextJoinTuple != null;
+  }
+
+  @Override
+  public JoinedTuple next() {
+    if (nextJoinTuple == null) {
+      throw new NoSuchElementException("No more joined tuples");
+    }
+    JoinedTuple current = nextJoinTuple;
+    nextJoinTuple = null;
+    advance();
+    return current;
+  }
+
+  /**
+   * Delete the spill files which are not read yet, the iterator doesn't return any more
+   * tuples after this
+   */
+  @Override
+  public void close() {
+    nextJoinTuple = null;
+    if (bucketJoin != null) {
+      bucketJoin.close();
+      bucketJoin = null;
+    }
+    deleteBuckets(hashingBuckets);
+    deleteBuckets(probingBuckets);
+    if (hashingBuckets != null) {
+      currentBucket = noOfBuckets;
+    }
+    keyHash = null;
+    currentProbingTuple = null;
+    currentHashedValues = null;
+    unmatchedIterator = null;
+    probingDone = true;
+  }
+
+  private void deleteBuckets(SpillBucket[] buckets) {
+    if (buckets == null) {
+      return;
+    }
+    for (SpillBucket b : buckets) {
+      if (b != null) {
+        b.delete();
+      }
+    }
+  }
+
+  private void doHashing() {
+    Iterator<Tuple> hashingRelation = hashRight ? rightIt : leftIt;
+    while (hashingRelation.hasNext()) {
+      Tuple tuple = hashingRelation.next();
+      if (hashingBuckets == null) {
+        keyHash.computeIfAbsent(tuple.getKey(), k -> new HashEntry()).values
+            .add(tuple.getValue());
+        recordsInMemory++;
+        if (recordsInMemory > maxRecordsInMemory && level < MAX_PARTITION_LEVEL) {
+          spillHash();
+        }
+      } else {
+        hashingBuckets[bucket(tuple.getKey())].add(tuple);
+      }
+    }
+
+    if (hashingBuckets != null) {
+      for (SpillBucket b : hashingBuckets) {
+        b.flush();
+      }
+    }
+  }
+
+  /**
+   * Move the in memory hash to the spill buckets
+   */
+  private void spillHash() {
+    LOG.fine(() -> String.format("Hash join exceeded the memory budget of %d records at "
+        + "level %d, spilling to %d buckets", maxRecordsInMemory, level, noOfBuckets));
+    hashingBuckets = createBuckets("h");
+    for (Map.Entry<Object, HashEntry> e : keyHash.entrySet()) {
+      SpillBucket b = hashingBuckets[bucket(e.getKey())];
+      for (Object value : e.getValue().values) {
+        b.add(new Tuple(e.getKey(), value));
+      }
+    }
+    keyHash = null;
+    recordsInMemory = 0;
+  }
+
+  private void partitionProbing() {
+    Iterator<Tuple> probingRelation = hashRight ? leftIt : rightIt;
+    probingBuckets = createBuckets("p");
+    while (probingRelation.hasNext()) {
+      Tuple tuple = probingRelation.next();
+      probingBuckets[bucket(tuple.getKey())].add(tuple);
+    }
+    for (SpillBucket b : probingBuckets) {
+      b.flush();
+    }
+  }
+
+  private SpillBucket[] createBuckets(String prefix) {
+    String name = UUID.randomUUID().toString();
+    SpillBucket[] buckets = new SpillBucket[noOfBuckets];
+    long recordsPerFile = Math.max(1, maxRecordsInMemory / noOfBuckets);
+    for (int i = 0; i < noOfBuckets; i++) {
+      buckets[i] = new SpillBucket(Paths.get(spillDirectory,
+          String.format("join-%s-%s-%d-%d", name, prefix, level, i)).toString(), recordsPerFile);
+    }
+    return buckets;
+  }
+
+  private int bucket(Object key) {
+    // use a different hash for each level, otherwise a bucket will not split further
+    int h = key == null ? 0 : hasher.hash(key);
+    h ^= 0x9E3779B9 * (level + 1);
+    h ^= h >>> 16;
+    h *= 0x85EBCA6B;
+    h ^= h >>> 13;
+    h *= 0xC2B2AE35;
+    h ^= h >>> 16;
+    return Math.floorMod(h, noOfBuckets);
+  }
+
+  /**
+   * Find the next joined tuple
+   */
+  private void advance() {
+    if (hashingBuckets == null) {
+      probe();
+    } else {
+      nextBucketTuple();
+    }
+  }
+
+  private void nextBucketTuple() {
+    while (nextJoinTuple == null) {
+      if (bucketJoin != null && bucketJoin.hasNext()) {
+        nextJoinTuple = bucketJoin.next();
+        return;
+      }
+
+      if (currentBucket >= 0) {
+        hashingBuckets[currentBucket].delete();
+        probingBuckets[currentBucket].delete();
+      }
+      bucketJoin = null;
+      currentBucket++;
+      if (currentBucket >= noOfBuckets) {
+        return;
+      }
+
+      SpillBucket hashing = hashingBuckets[currentBucket];
+      SpillBucket probing = probingBuckets[currentBucket];
+      if (hashing.isEmpty() && (probing.isEmpty() || !isProbingOuter())) {
+        continue;
+      }
+      if (probing.isEmpty() && !isHashingOuter()) {
+        continue;
+      }
+      bucketJoin = new GraceHashJoin(
+          hashRight ? probing.iterator() : hashing.iterator(),
+          hashRight ? hashing.iterator() : probing.iterator(),
+          joinType, keyType, maxRecordsInMemory, noOfBuckets, spillDirectory, level + 1);
+    }
+  }
+
+  private void probe() {
+    Iterator<Tuple> probingRelation = hashRight ? leftIt : rightIt;
+    while (nextJoinTuple == null) {
+      if (currentProbingTuple != null) {
+        nextJoinTuple = joined(currentProbingTuple.getKey(),
+            currentHashedValues.get(hashedValueIndex), currentProbingTuple.getValue());
+        hashedValueIndex++;
+        if (hashedValueIndex == currentHashedValues.size()) {
+          currentProbingTuple = null;
+          currentHashedValues = null;
+          hashedValueIndex = 0;
+        }
+      } else if (!probingDone && probingRelation.hasNext()) {
+        Tuple tuple = probingRelation.next();
+        HashEntry entry = keyHash.get(tuple.getKey());
+        if (entry != null) {
+          entry.matched = true;
+          currentProbingTuple = tuple;
+          currentHashedValues = entry.values;
+        } else if (isProbingOuter()) {
+          nextJoinTuple = joined(tuple.getKey(), null, tuple.getValue());
+        }
+      } else {
+        probingDone = true;
+        if (!isHashingOuter()) {
+          return;
+        }
+        if (unmatchedIterator == null) {
+          unmatchedIterator = keyHash.entrySet().iterator();
+        }
+        if (!nextUnmatched()) {
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * For full outer joins emit the hashed tuples that didn't match with any probing tuple
+   */
+  private boolean nextUnmatched() {
+    if (currentHashedValues != null) {
+      nextJoinTuple = joined(currentProbingTuple.getKey(),
+          currentHashedValues.get(hashedValueIndex), null);
+      hashedValueIndex++;
+      if (hashedValueIndex == currentHashedValues.size()) {
+        currentProbingTuple = null;
+        currentHashedValues = null;
+        hashedValueIndex = 0;
+      }
+      return true;
+    }
+
+    while (unmatchedIterator.hasNext()) {
+      Map.Entry<Object, HashEntry> e = unmatchedIterator.next();
+      if (!e.getValue().matched) {
+        currentProbingTuple = new Tuple(e.getKey(), null);
+        currentHashedValues = e.getValue().values;
+        hashedValueIndex = 0;
+        return nextUnmatched();
+      }
+    }
+    return false;
+  }
+
+  private JoinedTuple joined(Object key, Object hashedValue, Object probingValue) {
+    return hashRight ? JoinedTuple.of(key, probingValue, hashedValue)
+        : JoinedTuple.of(key, hashedValue, probingValue);
+  }
+
+  private boolean isProbingOuter() {
+    return joinType.equals(CommunicationContext.JoinType.LEFT)
+        || joinType.equals(CommunicationContext.JoinType.RIGHT)
+        || joinType.equals(CommunicationContext.JoinType.FULL_OUTER);
+  }
+
+  private boolean isHashingOuter() {
+    return joinType.equals(CommunicationContext.JoinType.FULL_OUTER);
+  }
+
+  @SuppressWarnings("VisibilityModifier")
+  private static final class HashEntry {
+    List values = new ArrayList<>();
+    boolean matched;
+  }
+
+  /**
+   * A partition of a relation on disk, records are kept in memory until enough records are
+   * collected to write a file
+   */
+  private final class SpillBucket {
+    private final String prefix;
+    private final long recordsPerFile;
+    private final List<String> files = new ArrayList<>();
+    private final List<Tuple> nullKeyed = new ArrayList<>();
+    private List<Tuple> pending = new ArrayList<>();
+    private long pendingBytes;
+
+    SpillBucket(String prefix, long recordsPerFile) {
+      this.prefix = prefix;
+      this.recordsPerFile = recordsPerFile;
+    }
+
+    void add(Tuple tuple) {
+      if (tuple.getKey() == null) {
+        // null keys cannot be written with the key serializers
+        nullKeyed.add(tuple);
+        return;
+      }
+      byte[] value = SPILL_DATA_TYPE.getDataPacker().packToByteArray(tuple.getValue());
+      pending.add(new Tuple(tuple.getKey(), value));
+      pendingBytes += value.length;
+      if (pending.size() >= recordsPerFile) {
+        flush();
+      }
+    }
+
+    void flush() {
+      if (pending.isEmpty()) {
+        return;
+      }
+      String fileName = prefix + "-" + files.size();
+      FileLoader.saveKeyValues(pending, pendingBytes, fileName, keyType);
+      files.add(fileName);
+      pending = new ArrayList<>();
+      pendingBytes = 0;
+    }
+
+    boolean isEmpty() {
+      return files.isEmpty() && nullKeyed.isEmpty();
+    }
+
+    /**
+     * Read the bucket back, a single file at a time
+     */
+    Iterator<Tuple> iterator() {
+      return new Iterator<Tuple>() {
+        private int fileIndex = 0;
+        private OpenFilePart part;
+        private Iterator<Tuple> nullKeyedIt = nullKeyed.iterator();
+
+        @Override
+        public boolean hasNext() {
+          while (part == null || !part.hasNext()) {
+            if (fileIndex >= files.size()) {
+              return nullKeyedIt.hasNext();
+            }
+            part = FileLoader.openPart(files.get(fileIndex++), 0, Long.MAX_VALUE,
+                keyType, SPILL_DATA_TYPE, null);
+          }
+          return true;
+        }
+
+        @Override
+        public Tuple next() {
+          if (!hasNext()) {
+            throw new NoSuchElementException("No more tuples in the bucket");
+          }
+          return part != null && part.hasNext() ? part.next() : nullKeyedIt.next();
+        }
+      };
+    }
+
+    void delete() {
+      for (String file : files) {
+        if (!new File(file).delete()) {
+          LOG.warning("Failed to delete the spill file " + file);
+        }
+      }
+      files.clear();
+      nullKeyed.clear();
+    }
+  }
+}
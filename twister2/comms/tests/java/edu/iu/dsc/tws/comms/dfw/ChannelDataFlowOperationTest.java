@@ -0,0 +1,181 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.dfw;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import edu.iu.dsc.tws.api.comms.CommunicationContext;
+import edu.iu.dsc.tws.api.comms.LogicalPlan;
+import edu.iu.dsc.tws.api.comms.channel.ChannelReceiver;
+import edu.iu.dsc.tws.api.comms.messaging.MessageFlags;
+import edu.iu.dsc.tws.api.comms.messaging.MessageHeader;
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageTypes;
+import edu.iu.dsc.tws.api.comms.packing.MessageDeSerializer;
+import edu.iu.dsc.tws.api.comms.packing.MessageSerializer;
+import edu.iu.dsc.tws.api.config.Config;
+
+public class ChannelDataFlowOperationTest {
+
+  private static final int SOURCE = 0;
+
+  private static final int TARGET = 1;
+
+  /**
+   * Records the messages handed to the targets, it rejects them while it is blocked
+   */
+  private static class RecordingReceiver implements ChannelReceiver {
+    private final List<Object> messages = new ArrayList<>();
+
+    private final List<Integer> flags = new ArrayList<>();
+
+    private boolean blocked;
+
+    @Override
+    public boolean receiveMessage(MessageHeader header, Object object) {
+      throw new IllegalStateException("Nothing should come from the network");
+    }
+
+    @Override
+    public boolean receiveSendInternally(int source, int target, int path, int flag,
+                                         Object message) {
+      if (blocked) {
+        return false;
+      }
+      Assert.assertEquals(SOURCE, source);
+      messages.add(message);
+      flags.add(flag);
+      return true;
+    }
+  }
+
+  private static ChannelDataFlowOperation create(Config cfg, ChannelReceiver receiver) {
+    Map<Integer, Set<Integer>> workerToTasks = new HashMap<>();
+    workerToTasks.put(0, new HashSet<>(Arrays.asList(SOURCE, TARGET)));
+    LogicalPlan plan = new LogicalPlan(workerToTasks, new HashMap<>(), new HashMap<>(), 0);
+
+    Map<Integer, ArrayBlockingQueue<OutMessage>> pendingSends = new HashMap<>();
+    pendingSends.put(SOURCE, new ArrayBlockingQueue<>(16));
+    Map<Integer, Queue<InMessage>> pendingReceives = new HashMap<>();
+    Map<Integer, Queue<InMessage>> pendingDeserialize = new HashMap<>();
+    Map<Integer, MessageSerializer> serializers = new HashMap<>();
+    Map<Integer, MessageDeSerializer> deSerializers = new HashMap<>();
+
+    ChannelDataFlowOperation op = new ChannelDataFlowOperation(InMemoryChannel.create(1).get(0));
+    op.init(cfg, MessageTypes.OBJECT, plan, 0, Collections.emptySet(), receiver,
+        pendingSends, pendingReceives, pendingDeserialize, serializers, deSerializers, false);
+    return op;
+  }
+
+  private static boolean send(ChannelDataFlowOperation op, Object message, int flags) {
+    RoutingParameters routing = new RoutingParameters();
+    routing.addInteranlRoute(TARGET);
+    return op.sendMessage(SOURCE, message, TARGET, flags, routing);
+  }
+
+  @Test
+  public void testDeliveredFromSend() {
+    RecordingReceiver receiver = new RecordingReceiver();
+    ChannelDataFlowOperation op = create(Config.newBuilder().build(), receiver);
+
+    int[] data = {1, 2, 3};
+    Assert.assertTrue(send(op, data, 0));
+    // the message reaches the target without progressing the operation
+    Assert.assertEquals(1, receiver.messages.size());
+    Assert.assertSame(data, receiver.messages.get(0));
+    Assert.assertTrue(op.isComplete());
+  }
+
+  @Test
+  public void testOrderWithQueuedMessages() {
+    RecordingReceiver receiver = new RecordingReceiver();
+    ChannelDataFlowOperation op = create(Config.newBuilder().build(), receiver);
+
+    Assert.assertTrue(send(op, 0, 0));
+    // the target is busy, so the next message is queued
+    receiver.blocked = true;
+    Assert.assertTrue(send(op, 1, 0));
+    Assert.assertFalse(op.isComplete());
+    // the target accepts again, but the later messages should not pass the queued one
+    receiver.blocked = false;
+    Assert.assertTrue(send(op, 2, 0));
+    Assert.assertTrue(send(op, 3, MessageFlags.SYNC_EMPTY));
+    Assert.assertEquals(Collections.singletonList(0), receiver.messages);
+
+    while (!op.isComplete()) {
+      op.progress();
+    }
+    Assert.assertEquals(Arrays.asList(0, 1, 2, 3), receiver.messages);
+    Assert.assertEquals(Arrays.asList(0, 0, 0, MessageFlags.SYNC_EMPTY), receiver.flags);
+
+    // nothing is pending now, the messages go straight to the target again
+    Assert.assertTrue(send(op, 4, MessageFlags.SYNC_BARRIER));
+    Assert.assertEquals(Arrays.asList(0, 1, 2, 3, 4), receiver.messages);
+  }
+
+  @Test
+  public void testShortCircuitDisabled() {
+    RecordingReceiver receiver = new RecordingReceiver();
+    ChannelDataFlowOperation op = create(Config.newBuilder()
+        .put(CommunicationContext.LOCAL_SHORT_CIRCUIT, false).build(), receiver);
+
+    for (int i = 0; i < 5; i++) {
+      Assert.assertTrue(send(op, i, i == 4 ? MessageFlags.SYNC_EMPTY : 0));
+    }
+    Assert.assertTrue(receiver.messages.isEmpty());
+    while (!op.isComplete()) {
+      op.progress();
+    }
+    Assert.assertEquals(Arrays.asList(0, 1, 2, 3, 4), receiver.messages);
+  }
+
+  @Test
+  public void testLocalCopy() {
+    RecordingReceiver receiver = new RecordingReceiver();
+    ChannelDataFlowOperation op = create(Config.newBuilder()
+        .put(CommunicationContext.LOCAL_COPY, true).build(), receiver);
+
+    int[] data = {1, 2, 3};
+    Assert.assertTrue(send(op, data, 0));
+    // the target gets an equal copy, changing the sent array afterwards doesn't affect it
+    Assert.assertNotSame(data, receiver.messages.get(0));
+    data[0] = 10;
+    Assert.assertArrayEquals(new int[]{1, 2, 3}, (int[]) receiver.messages.get(0));
+
+    // the queued messages are copied when they are delivered in the progress
+    receiver.blocked = true;
+    List<String> queued = new ArrayList<>(Arrays.asList("a", "b"));
+    Assert.assertTrue(send(op, queued, 0));
+    receiver.blocked = false;
+    while (!op.isComplete()) {
+      op.progress();
+    }
+    Assert.assertNotSame(queued, receiver.messages.get(1));
+    Assert.assertEquals(queued, receiver.messages.get(1));
+
+    // the sync messages are given as they are
+    byte[] sync = new byte[1];
+    Assert.assertTrue(send(op, sync, MessageFlags.SYNC_BARRIER));
+    Assert.assertSame(sync, receiver.messages.get(2));
+  }
+}
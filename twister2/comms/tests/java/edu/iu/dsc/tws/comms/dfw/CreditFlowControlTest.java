@@ -0,0 +1,193 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.dfw;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import edu.iu.dsc.tws.api.comms.packing.DataBuffer;
+
+public class CreditFlowControlTest {
+  private static final int EDGE = 7;
+
+  private static final int CREDITS = 4;
+
+  private final Set<Integer> workers = new HashSet<>(Arrays.asList(0, 1));
+
+  /**
+   * Worker 0 sends data to worker 1 and only gets the credits back from it
+   */
+  private final List<InMemoryChannel> channels = InMemoryChannel.create(2);
+
+  private final CreditFlowControl sender = new CreditFlowControl(channels.get(0), EDGE, 0,
+      workers, Collections.emptySet(), CREDITS);
+
+  private final CreditFlowControl receiver = new CreditFlowControl(channels.get(1), EDGE, 1,
+      workers, Collections.singleton(0), CREDITS);
+
+  /**
+   * Return the released credits and deliver them to the sender
+   */
+  private void progress() {
+    receiver.progress();
+    channels.get(1).progress();
+    channels.get(0).progress();
+  }
+
+  @Test
+  public void testGrantAndAcquire() {
+    long stalls = CreditFlowControl.getStalls();
+    for (int i = 0; i < CREDITS; i++) {
+      Assert.assertTrue(sender.acquire(1, 1));
+    }
+    Assert.assertFalse(sender.acquire(1, 1));
+    Assert.assertFalse(sender.acquire(1, 1));
+    // a stall is counted once until the sends go through again
+    Assert.assertEquals(stalls + 1, CreditFlowControl.getStalls());
+
+    // the workers without flow control and this worker are not limited
+    Assert.assertTrue(sender.acquire(5, 100));
+    Assert.assertTrue(sender.acquire(0, 100));
+  }
+
+  @Test
+  public void testCancel() {
+    Assert.assertTrue(sender.acquire(1, 3));
+    Assert.assertFalse(sender.acquire(1, 2));
+    // the channel didn't take the message
+    sender.cancel(1, 3);
+    Assert.assertTrue(sender.acquire(1, 2));
+    Assert.assertTrue(sender.acquire(1, 2));
+    Assert.assertFalse(sender.acquire(1, 1));
+  }
+
+  @Test
+  public void testOversizedMessage() {
+    // a message larger than the credits goes through only at full credit
+    Assert.assertTrue(sender.acquire(1, 1));
+    Assert.assertFalse(sender.acquire(1, CREDITS + 2));
+    sender.cancel(1, 1);
+    Assert.assertTrue(sender.acquire(1, CREDITS + 2));
+    Assert.assertFalse(sender.acquire(1, 1));
+
+    // the credits come back as the receiver releases the buffers
+    for (int i = 0; i < CREDITS + 2; i++) {
+      receiver.received(0);
+    }
+    receiver.released(0, CREDITS + 2);
+    progress();
+    for (int i = 0; i < CREDITS; i++) {
+      Assert.assertTrue(sender.acquire(1, 1));
+    }
+    Assert.assertFalse(sender.acquire(1, 1));
+  }
+
+  @Test
+  public void testReturnInBatches() throws InterruptedException {
+    long blocked = CreditFlowControl.getBlockedNanos();
+    long creditMessages = CreditFlowControl.getCreditMessages();
+    for (int i = 0; i < CREDITS; i++) {
+      Assert.assertTrue(sender.acquire(1, 1));
+      receiver.received(0);
+    }
+    Assert.assertFalse(sender.acquire(1, 1));
+    Thread.sleep(2);
+
+    // a single released buffer is kept while the receiver holds others
+    receiver.released(0, 1);
+    progress();
+    Assert.assertFalse(sender.acquire(1, 1));
+    Assert.assertEquals(creditMessages, CreditFlowControl.getCreditMessages());
+
+    // half of the credits make a batch
+    receiver.released(0, 1);
+    progress();
+    Assert.assertEquals(creditMessages + 1, CreditFlowControl.getCreditMessages());
+    Assert.assertTrue(sender.acquire(1, 1));
+    Assert.assertTrue(sender.acquire(1, 1));
+    Assert.assertFalse(sender.acquire(1, 1));
+    Assert.assertTrue(CreditFlowControl.getBlockedNanos() - blocked >= 2_000_000);
+
+    // the last buffers go back at once when nothing else is held
+    receiver.released(0, 2);
+    progress();
+    Assert.assertEquals(creditMessages + 2, CreditFlowControl.getCreditMessages());
+    Assert.assertTrue(sender.acquire(1, 2));
+  }
+
+  @Test
+  public void testCreditOnlyReceive() {
+    // the sender registered a credit receive for the worker that doesn't send it data
+    Assert.assertTrue(sender.acquire(1, CREDITS));
+    for (int round = 0; round < 10; round++) {
+      for (int i = 0; i < CREDITS; i++) {
+        receiver.received(0);
+      }
+      receiver.released(0, CREDITS);
+      progress();
+      Assert.assertFalse(channels.get(0).hasArrivals());
+      // the credit receive buffers are posted again after every credit message
+      Assert.assertTrue(sender.acquire(1, CREDITS));
+      Assert.assertFalse(sender.acquire(1, 1));
+    }
+  }
+
+  @Test
+  public void testIsCredit() {
+    DataBuffer buffer = new DataBuffer(channels.get(0).createBuffer(16));
+    buffer.getByteBuffer().putInt(CreditFlowControl.CREDIT_MARKER).putInt(3);
+    buffer.setSize(8);
+    Assert.assertTrue(CreditFlowControl.isCredit(buffer));
+    buffer.getByteBuffer().putInt(0, 1);
+    Assert.assertFalse(CreditFlowControl.isCredit(buffer));
+    buffer.getByteBuffer().putInt(0, CreditFlowControl.CREDIT_MARKER);
+    buffer.setSize(12);
+    Assert.assertFalse(CreditFlowControl.isCredit(buffer));
+  }
+
+  @Test
+  public void testConcurrentAcquire() throws InterruptedException {
+    int threads = 4;
+    AtomicInteger acquired = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    Thread[] senders = new Thread[threads];
+    for (int t = 0; t < threads; t++) {
+      senders[t] = new Thread(() -> {
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          return;
+        }
+        for (int i = 0; i < 1000; i++) {
+          if (sender.acquire(1, 1)) {
+            acquired.incrementAndGet();
+          }
+        }
+      });
+      senders[t].start();
+    }
+    start.countDown();
+    for (Thread t : senders) {
+      t.join();
+    }
+    // the threads never take more than the granted credits
+    Assert.assertEquals(CREDITS, acquired.get());
+  }
+}
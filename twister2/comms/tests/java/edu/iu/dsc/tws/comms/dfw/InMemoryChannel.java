@@ -0,0 +1,246 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.dfw;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+import edu.iu.dsc.tws.api.comms.channel.ChannelListener;
+import edu.iu.dsc.tws.api.comms.channel.TWSChannel;
+import edu.iu.dsc.tws.api.comms.messaging.ChannelMessage;
+import edu.iu.dsc.tws.api.comms.packing.DataBuffer;
+import edu.iu.dsc.tws.proto.jobmaster.JobMasterAPI;
+
+/**
+ * A channel connecting the workers of a test in the same process. The buffers of a message are
+ * copied to the receiving worker when the sends progress and handed to the posted receive
+ * buffers when its receives progress, the same way the network channels deliver them. The
+ * channels are not thread safe, the tests progress all the workers from one thread.
+ */
+public class InMemoryChannel implements TWSChannel {
+  private final int workerId;
+
+  /**
+   * The channels of all the workers, indexed by the worker id
+   */
+  private final List<InMemoryChannel> network;
+
+  private final Queue<PendingSend> pendingSends = new ArrayDeque<>();
+
+  /**
+   * Buffers sent to this worker, sender -> edge -> buffers
+   */
+  private final Map<Integer, Map<Integer, Queue<byte[]>>> inbox = new HashMap<>();
+
+  /**
+   * Receives registered by the operations, group -> receives
+   */
+  private final Map<Integer, List<Receive>> receives = new HashMap<>();
+
+  /**
+   * Messages sent by this worker, the tests can look at them
+   */
+  private final List<ChannelMessage> sentMessages = new ArrayList<>();
+
+  /**
+   * Weather new sends are accepted
+   */
+  private boolean acceptSends = true;
+
+  private long completedRequests;
+
+  private InMemoryChannel(int workerId, List<InMemoryChannel> network) {
+    this.workerId = workerId;
+    this.network = network;
+  }
+
+  /**
+   * Create the connected channels of the given number of workers
+   *
+   * @param workers number of workers
+   * @return the channels indexed by the worker id
+   */
+  public static List<InMemoryChannel> create(int workers) {
+    List<InMemoryChannel> network = new ArrayList<>();
+    for (int i = 0; i < workers; i++) {
+      network.add(new InMemoryChannel(i, network));
+    }
+    return network;
+  }
+
+  @Override
+  public boolean sendMessage(int id, ChannelMessage message, ChannelListener callback) {
+    if (!acceptSends) {
+      return false;
+    }
+    sentMessages.add(message);
+    return pendingSends.offer(new PendingSend(id, message, callback));
+  }
+
+  @Override
+  public boolean receiveMessage(int group, int id, int edge, ChannelListener callback,
+                                Queue<DataBuffer> receiveBuffers) {
+    receives.computeIfAbsent(group, g -> new ArrayList<>())
+        .add(new Receive(id, edge, callback, receiveBuffers));
+    return true;
+  }
+
+  @Override
+  public void progress() {
+    progressSends();
+    for (Integer group : receives.keySet()) {
+      progressReceives(group);
+    }
+  }
+
+  @Override
+  public void progressSends() {
+    PendingSend send;
+    while ((send = pendingSends.poll()) != null) {
+      int edge = send.message.getHeader().getEdge();
+      InMemoryChannel target = network.get(send.worker);
+      for (DataBuffer buffer : send.message.getNormalBuffers()) {
+        byte[] bytes = new byte[buffer.getSize()];
+        ByteBuffer byteBuffer = buffer.getByteBuffer().duplicate();
+        byteBuffer.clear();
+        byteBuffer.get(bytes);
+        target.inbox(workerId, edge).offer(bytes);
+      }
+      completedRequests++;
+      send.callback.onSendComplete(send.worker, edge, send.message);
+    }
+  }
+
+  @Override
+  public void progressReceives(int group) {
+    List<Receive> list = receives.get(group);
+    if (list == null) {
+      return;
+    }
+    for (int i = 0; i < list.size(); i++) {
+      Receive receive = list.get(i);
+      Queue<byte[]> arrived = inbox(receive.worker, receive.edge);
+      while (!arrived.isEmpty() && !receive.buffers.isEmpty()) {
+        byte[] bytes = arrived.poll();
+        DataBuffer buffer = receive.buffers.poll();
+        ByteBuffer byteBuffer = buffer.getByteBuffer();
+        byteBuffer.clear();
+        byteBuffer.put(bytes);
+        buffer.setSize(bytes.length);
+        completedRequests++;
+        receive.callback.onReceiveComplete(receive.worker, receive.edge, buffer);
+      }
+    }
+  }
+
+  private Queue<byte[]> inbox(int sender, int edge) {
+    return inbox.computeIfAbsent(sender, s -> new HashMap<>())
+        .computeIfAbsent(edge, e -> new ArrayDeque<>());
+  }
+
+  /**
+   * Weather any buffer sent to this worker is not yet received
+   */
+  public boolean hasArrivals() {
+    for (Map<Integer, Queue<byte[]>> edges : inbox.values()) {
+      for (Queue<byte[]> q : edges.values()) {
+        if (!q.isEmpty()) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Accept or reject the new sends, to simulate a busy network
+   */
+  public void setAcceptSends(boolean accept) {
+    this.acceptSends = accept;
+  }
+
+  public List<ChannelMessage> getSentMessages() {
+    return sentMessages;
+  }
+
+  public int getWorkerId() {
+    return workerId;
+  }
+
+  @Override
+  public boolean isComplete() {
+    return pendingSends.isEmpty();
+  }
+
+  @Override
+  public long getCompletedRequests() {
+    return completedRequests;
+  }
+
+  @Override
+  public ByteBuffer createBuffer(int capacity) {
+    return ByteBuffer.allocateDirect(capacity);
+  }
+
+  @Override
+  public void close() {
+  }
+
+  @Override
+  public void releaseBuffers(int wId, int e) {
+    for (List<Receive> list : receives.values()) {
+      Iterator<Receive> it = list.iterator();
+      while (it.hasNext()) {
+        Receive r = it.next();
+        if (r.worker == wId && r.edge == e) {
+          it.remove();
+        }
+      }
+    }
+  }
+
+  @Override
+  public void reInit(List<JobMasterAPI.WorkerInfo> restartedWorkers) {
+  }
+
+  private static final class PendingSend {
+    private final int worker;
+    private final ChannelMessage message;
+    private final ChannelListener callback;
+
+    PendingSend(int worker, ChannelMessage message, ChannelListener callback) {
+      this.worker = worker;
+      this.message = message;
+      this.callback = callback;
+    }
+  }
+
+  private static final class Receive {
+    private final int worker;
+    private final int edge;
+    private final ChannelListener callback;
+    private final Queue<DataBuffer> buffers;
+
+    Receive(int worker, int edge, ChannelListener callback, Queue<DataBuffer> buffers) {
+      this.worker = worker;
+      this.edge = edge;
+      this.callback = callback;
+      this.buffers = buffers;
+    }
+  }
+}
@@ -0,0 +1,304 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.dfw;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import edu.iu.dsc.tws.api.comms.CommunicationContext;
+import edu.iu.dsc.tws.api.comms.Communicator;
+import edu.iu.dsc.tws.api.comms.DestinationSelector;
+import edu.iu.dsc.tws.api.comms.LogicalPlan;
+import edu.iu.dsc.tws.api.comms.SingularReceiver;
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageTypes;
+import edu.iu.dsc.tws.api.comms.packing.MessageSchema;
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.comms.dfw.io.AggregatedObjects;
+import edu.iu.dsc.tws.comms.dfw.io.TargetPartialReceiver;
+import edu.iu.dsc.tws.comms.dfw.io.partition.PartitionStreamingFinalReceiver;
+import edu.iu.dsc.tws.comms.stream.SPartition;
+
+public class MessageCoalescerTest {
+  private static final long NO_LATENCY_LIMIT = Long.MAX_VALUE / 2;
+
+  /**
+   * Records the batches and rejects them while it is blocked
+   */
+  private static class RecordingSender implements MessageCoalescer.BatchSender {
+    private final List<Integer> targets = new ArrayList<>();
+
+    private final List<List<Object>> batches = new ArrayList<>();
+
+    private boolean blocked;
+
+    @Override
+    public boolean send(int source, Object batch, int target) {
+      if (blocked) {
+        return false;
+      }
+      Assert.assertTrue(batch instanceof AggregatedObjects || source == 9);
+      targets.add(target);
+      batches.add(batch instanceof List ? new ArrayList<>((List<?>) batch)
+          : Collections.singletonList(batch));
+      return true;
+    }
+  }
+
+  private static MessageCoalescer coalescer(RecordingSender sender, int records, long bytes,
+                                            long latencyNanos) {
+    return new MessageCoalescer(new HashSet<>(Arrays.asList(0, 1)), records, bytes,
+        latencyNanos, MessageTypes.INTEGER, null, sender);
+  }
+
+  @Test
+  public void testRecordLimit() {
+    RecordingSender sender = new RecordingSender();
+    MessageCoalescer coalescer = coalescer(sender, 3, Long.MAX_VALUE, NO_LATENCY_LIMIT);
+    for (int i = 0; i < 7; i++) {
+      Assert.assertTrue(coalescer.add(0, i, 5));
+    }
+    Assert.assertEquals(Arrays.asList(Arrays.asList(0, 1, 2), Arrays.asList(3, 4, 5)),
+        sender.batches);
+    Assert.assertFalse(coalescer.isEmpty());
+
+    Assert.assertTrue(coalescer.flush(0));
+    Assert.assertEquals(Arrays.asList(6), sender.batches.get(2));
+    Assert.assertTrue(coalescer.isEmpty());
+    // nothing left to send
+    Assert.assertTrue(coalescer.flush(0));
+    Assert.assertEquals(3, sender.batches.size());
+  }
+
+  @Test
+  public void testBatchPerTarget() {
+    RecordingSender sender = new RecordingSender();
+    MessageCoalescer coalescer = coalescer(sender, 2, Long.MAX_VALUE, NO_LATENCY_LIMIT);
+    coalescer.add(0, 1, 5);
+    coalescer.add(0, 2, 6);
+    coalescer.add(1, 3, 5);
+    Assert.assertTrue(sender.batches.isEmpty());
+    coalescer.add(0, 4, 5);
+    Assert.assertEquals(Collections.singletonList(Arrays.asList(1, 4)), sender.batches);
+    Assert.assertEquals(Collections.singletonList(5), sender.targets);
+
+    // the flush sends only the batches of the source
+    Assert.assertTrue(coalescer.flush(1));
+    Assert.assertEquals(Arrays.asList(3), sender.batches.get(1));
+    Assert.assertFalse(coalescer.isEmpty());
+    Assert.assertTrue(coalescer.flush(0));
+    Assert.assertEquals(Arrays.asList(2), sender.batches.get(2));
+    Assert.assertEquals(Arrays.asList(5, 5, 6), sender.targets);
+    Assert.assertTrue(coalescer.isEmpty());
+  }
+
+  @Test
+  public void testByteLimit() {
+    RecordingSender sender = new RecordingSender();
+    // an integer record takes its length and 4 bytes, so the third record fills the batch
+    MessageCoalescer coalescer = coalescer(sender, 100, 20, NO_LATENCY_LIMIT);
+    coalescer.add(0, 1, 5);
+    coalescer.add(0, 2, 5);
+    Assert.assertTrue(sender.batches.isEmpty());
+    coalescer.add(0, 3, 5);
+    Assert.assertEquals(Collections.singletonList(Arrays.asList(1, 2, 3)), sender.batches);
+    Assert.assertTrue(coalescer.isEmpty());
+  }
+
+  @Test
+  public void testLatencyLimit() throws InterruptedException {
+    RecordingSender sender = new RecordingSender();
+    MessageCoalescer coalescer = coalescer(sender, 100, Long.MAX_VALUE, 20_000_000L);
+    coalescer.add(0, 1, 5);
+    // the batch is waiting
+    Assert.assertTrue(coalescer.progress());
+    Assert.assertTrue(sender.batches.isEmpty());
+
+    Thread.sleep(30);
+    coalescer.add(1, 2, 5);
+    Assert.assertTrue(coalescer.progress());
+    // only the batch that waited long enough is sent
+    Assert.assertEquals(Collections.singletonList(Arrays.asList(1)), sender.batches);
+
+    Thread.sleep(30);
+    Assert.assertFalse(coalescer.progress());
+    Assert.assertEquals(Arrays.asList(2), sender.batches.get(1));
+    Assert.assertTrue(coalescer.isEmpty());
+  }
+
+  @Test
+  public void testFullBatchRejected() {
+    RecordingSender sender = new RecordingSender();
+    MessageCoalescer coalescer = coalescer(sender, 2, Long.MAX_VALUE, 0);
+    sender.blocked = true;
+    Assert.assertTrue(coalescer.add(0, 1, 5));
+    // the batch is full but the operation doesn't take it, the record is still accepted
+    Assert.assertTrue(coalescer.add(0, 2, 5));
+    // the next record can't go in to the full batch
+    Assert.assertFalse(coalescer.add(0, 3, 5));
+    Assert.assertTrue(coalescer.progress());
+    Assert.assertFalse(coalescer.flush(0));
+    Assert.assertFalse(coalescer.isEmpty());
+
+    sender.blocked = false;
+    Assert.assertTrue(coalescer.add(0, 3, 5));
+    Assert.assertEquals(Collections.singletonList(Arrays.asList(1, 2)), sender.batches);
+    Assert.assertFalse(coalescer.progress());
+    Assert.assertEquals(Arrays.asList(3), sender.batches.get(1));
+    Assert.assertTrue(coalescer.isEmpty());
+  }
+
+  @Test
+  public void testOtherSourcesNotBatched() {
+    RecordingSender sender = new RecordingSender();
+    MessageCoalescer coalescer = coalescer(sender, 10, Long.MAX_VALUE, NO_LATENCY_LIMIT);
+    Assert.assertTrue(coalescer.add(9, 1, 5));
+    Assert.assertEquals(Collections.singletonList(Arrays.asList(1)), sender.batches);
+    Assert.assertTrue(coalescer.flush(9));
+    Assert.assertTrue(coalescer.isEmpty());
+  }
+
+  /**
+   * Records the values and the syncs given to the targets
+   */
+  private static class Events implements SingularReceiver {
+    private final Map<Integer, List<Object>> events = new HashMap<>();
+
+    @Override
+    public void init(Config cfg, Set<Integer> targets) {
+      for (int t : targets) {
+        events.put(t, new ArrayList<>());
+      }
+    }
+
+    @Override
+    public boolean receive(int target, Object object) {
+      events.get(target).add(object);
+      return true;
+    }
+
+    @Override
+    public boolean sync(int target, byte[] message) {
+      events.get(target).add("sync");
+      return true;
+    }
+  }
+
+  private static LogicalPlan plan(int worker) {
+    // sources 0 and 1 and targets 2 and 3, one of each in a worker
+    Map<Integer, Set<Integer>> workerToIds = new HashMap<>();
+    workerToIds.put(0, new HashSet<>(Arrays.asList(0, 2)));
+    workerToIds.put(1, new HashSet<>(Arrays.asList(1, 3)));
+    return new LogicalPlan(workerToIds, new HashMap<>(), new HashMap<>(), worker);
+  }
+
+  private static Config config() {
+    return Config.newBuilder()
+        .put(CommunicationContext.COALESCE_RECORDS, 4)
+        .put(CommunicationContext.COALESCE_LATENCY, Integer.MAX_VALUE)
+        .build();
+  }
+
+  @Test
+  public void testPartitionFlushBeforeSync() {
+    List<InMemoryChannel> channels = InMemoryChannel.create(2);
+    List<SPartition> ops = new ArrayList<>();
+    List<Events> events = new ArrayList<>();
+    DestinationSelector selector = (source, data) -> 2 + (Integer) data % 2;
+    for (int w = 0; w < 2; w++) {
+      Events e = new Events();
+      ops.add(new SPartition(new Communicator(config(), channels.get(w)), plan(w),
+          new HashSet<>(Arrays.asList(0, 1)), new HashSet<>(Arrays.asList(2, 3)),
+          MessageTypes.INTEGER, e, selector));
+      events.add(e);
+    }
+
+    // 5 records of each source to each target, so a record of each stays in a batch
+    for (int i = 0; i < 10; i++) {
+      Assert.assertTrue(ops.get(0).partition(0, i, 0));
+      Assert.assertTrue(ops.get(1).partition(1, 100 + i, 0));
+    }
+    for (int i = 0; i < 20; i++) {
+      for (int w = 0; w < 2; w++) {
+        ops.get(w).progress();
+        channels.get(w).progress();
+      }
+    }
+    for (int w = 0; w < 2; w++) {
+      // the operation waits for the batches
+      Assert.assertFalse(ops.get(w).isComplete());
+      Assert.assertEquals(8, events.get(w).events.get(2 + w).size());
+    }
+
+    ops.get(0).finish(0);
+    ops.get(1).finish(1);
+    for (int i = 0; i < 100; i++) {
+      boolean done = true;
+      for (int w = 0; w < 2; w++) {
+        ops.get(w).progress();
+        channels.get(w).progress();
+        done &= ops.get(w).isComplete() && !channels.get(w).hasArrivals();
+      }
+      if (done) {
+        break;
+      }
+    }
+
+    for (int w = 0; w < 2; w++) {
+      List<Object> received = events.get(w).events.get(2 + w);
+      // the last records reach the target before the sync
+      Assert.assertEquals(11, received.size());
+      Assert.assertEquals("sync", received.get(10));
+      List<Object> fromFirst = new ArrayList<>();
+      List<Object> fromSecond = new ArrayList<>();
+      for (Object o : received.subList(0, 10)) {
+        ((Integer) o < 100 ? fromFirst : fromSecond).add(o);
+      }
+      Assert.assertEquals(Arrays.asList(w, w + 2, w + 4, w + 6, w + 8), fromFirst);
+      Assert.assertEquals(Arrays.asList(100 + w, 102 + w, 104 + w, 106 + w, 108 + w),
+          fromSecond);
+      Assert.assertTrue(ops.get(w).isComplete());
+    }
+  }
+
+  @Test
+  public void testOnlyPartitionsBatch() {
+    // the other operations on the simple all to all send the records one by one
+    Config cfg = Config.newBuilder().putAll(config())
+        .put(CommunicationContext.OPERATION_NAME, CommunicationContext.KEYED_REDUCE).build();
+    Events events = new Events();
+    Map<Integer, Set<Integer>> workerToIds = new HashMap<>();
+    workerToIds.put(0, new HashSet<>(Arrays.asList(0, 1)));
+    LogicalPlan plan = new LogicalPlan(workerToIds, new HashMap<>(), new HashMap<>(), 0);
+    InMemoryChannel channel = InMemoryChannel.create(1).get(0);
+    MToNSimple op = new MToNSimple(channel, Collections.singleton(0),
+        Collections.singleton(1), new PartitionStreamingFinalReceiver(events),
+        new TargetPartialReceiver(), MessageTypes.INTEGER, MessageSchema.noSchema());
+    op.init(cfg, MessageTypes.INTEGER, plan, 0);
+
+    // the record would wait in a batch for the latency limit
+    Assert.assertTrue(op.send(0, 42, 0, 1));
+    for (int i = 0; i < 10 && events.events.get(1).isEmpty(); i++) {
+      op.progress();
+      channel.progress();
+    }
+    Assert.assertEquals(Collections.singletonList(42), events.events.get(1));
+  }
+}
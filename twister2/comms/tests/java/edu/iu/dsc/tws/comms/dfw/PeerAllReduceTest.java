@@ -0,0 +1,358 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.dfw;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import edu.iu.dsc.tws.api.comms.BaseOperation;
+import edu.iu.dsc.tws.api.comms.CommunicationContext;
+import edu.iu.dsc.tws.api.comms.Communicator;
+import edu.iu.dsc.tws.api.comms.LogicalPlan;
+import edu.iu.dsc.tws.api.comms.Op;
+import edu.iu.dsc.tws.api.comms.SingularReceiver;
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageTypes;
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.comms.batch.BAllReduce;
+import edu.iu.dsc.tws.comms.functions.reduction.ReduceOperationFunction;
+import edu.iu.dsc.tws.comms.stream.SAllReduce;
+
+/**
+ * Runs the peer all reduce of several workers in one thread over in memory channels
+ */
+public class PeerAllReduceTest {
+  private static final int TARGET_BASE = 1000;
+
+  private static final int MAX_ITERATIONS = 100000;
+
+  /**
+   * Records the results of the targets of a worker
+   */
+  private static class Results implements SingularReceiver {
+    private final Map<Integer, List<int[]>> values = new HashMap<>();
+
+    private final Map<Integer, Integer> syncs = new HashMap<>();
+
+    @Override
+    public void init(Config cfg, Set<Integer> targets) {
+      for (int t : targets) {
+        values.put(t, new ArrayList<>());
+        syncs.put(t, 0);
+      }
+    }
+
+    @Override
+    public boolean receive(int target, Object object) {
+      values.get(target).add((int[]) object);
+      return true;
+    }
+
+    @Override
+    public boolean sync(int target, byte[] message) {
+      syncs.put(target, syncs.get(target) + 1);
+      return true;
+    }
+  }
+
+  /**
+   * The all reduce of every worker
+   */
+  private static final class Job {
+    private final List<InMemoryChannel> channels;
+    private final List<BaseOperation> ops = new ArrayList<>();
+    private final List<Results> results = new ArrayList<>();
+    private final Map<Integer, Set<Integer>> sources = new HashMap<>();
+    private final Set<Integer> allSources = new HashSet<>();
+    private final Set<Integer> allTargets = new HashSet<>();
+
+    /**
+     * @param sourcesPerWorker number of sources of each worker
+     * @param targetsPerWorker number of targets of each worker
+     */
+    Job(Config config, int[] sourcesPerWorker, int[] targetsPerWorker, boolean stream) {
+      int workers = sourcesPerWorker.length;
+      channels = InMemoryChannel.create(workers);
+
+      Map<Integer, Set<Integer>> workerToIds = new HashMap<>();
+      int nextSource = 0;
+      int nextTarget = TARGET_BASE;
+      for (int w = 0; w < workers; w++) {
+        Set<Integer> ids = new HashSet<>();
+        Set<Integer> workerSources = new HashSet<>();
+        for (int i = 0; i < sourcesPerWorker[w]; i++) {
+          workerSources.add(nextSource);
+          ids.add(nextSource++);
+        }
+        for (int i = 0; i < targetsPerWorker[w]; i++) {
+          allTargets.add(nextTarget);
+          ids.add(nextTarget++);
+        }
+        allSources.addAll(workerSources);
+        sources.put(w, workerSources);
+        workerToIds.put(w, ids);
+      }
+
+      for (int w = 0; w < workers; w++) {
+        // every worker has its own plan as the operation adds ids to it
+        Map<Integer, Set<Integer>> ids = new HashMap<>();
+        for (Map.Entry<Integer, Set<Integer>> e : workerToIds.entrySet()) {
+          ids.put(e.getKey(), new HashSet<>(e.getValue()));
+        }
+        LogicalPlan plan = new LogicalPlan(ids, new HashMap<>(), new HashMap<>(), w);
+        Communicator comm = new Communicator(config, channels.get(w));
+        Results r = new Results();
+        ReduceOperationFunction sum = new ReduceOperationFunction(Op.SUM,
+            MessageTypes.INTEGER_ARRAY);
+        if (stream) {
+          ops.add(new SAllReduce(comm, plan, allSources, allTargets,
+              MessageTypes.INTEGER_ARRAY, sum, r));
+        } else {
+          ops.add(new BAllReduce(comm, plan, allSources, allTargets, sum, r,
+              MessageTypes.INTEGER_ARRAY));
+        }
+        results.add(r);
+      }
+    }
+
+    boolean reduce(int worker, int source, int[] value) {
+      BaseOperation op = ops.get(worker);
+      if (op instanceof BAllReduce) {
+        return ((BAllReduce) op).reduce(source, value, 0);
+      }
+      return ((SAllReduce) op).reduce(source, value, 0);
+    }
+
+    void finish() {
+      for (int w = 0; w < ops.size(); w++) {
+        for (int s : sources.get(w)) {
+          ops.get(w).finish(s);
+        }
+      }
+    }
+
+    /**
+     * Progress until every target has the given number of results and the operations are done
+     */
+    void progress(int expectedResults) {
+      for (int i = 0; i < MAX_ITERATIONS; i++) {
+        boolean done = true;
+        for (int w = 0; w < ops.size(); w++) {
+          ops.get(w).progress();
+          channels.get(w).progress();
+          done &= ops.get(w).isComplete() && !channels.get(w).hasArrivals();
+          for (List<int[]> v : results.get(w).values.values()) {
+            done &= v.size() >= expectedResults;
+          }
+        }
+        if (done) {
+          return;
+        }
+      }
+      Assert.fail("The all reduce did not complete");
+    }
+
+    void reset() {
+      for (BaseOperation op : ops) {
+        op.reset();
+      }
+    }
+
+    void assertResults(List<int[]> expected, int syncs) {
+      int targets = 0;
+      for (Results r : results) {
+        for (Map.Entry<Integer, List<int[]>> e : r.values.entrySet()) {
+          targets++;
+          Assert.assertEquals("Results of " + e.getKey(), expected.size(), e.getValue().size());
+          for (int i = 0; i < expected.size(); i++) {
+            Assert.assertArrayEquals("Result " + i + " of " + e.getKey(),
+                expected.get(i), e.getValue().get(i));
+          }
+          if (syncs >= 0) {
+            Assert.assertEquals((Integer) syncs, r.syncs.get(e.getKey()));
+          }
+        }
+      }
+      Assert.assertEquals(allTargets.size(), targets);
+    }
+  }
+
+  private static Config config(String algorithm) {
+    return Config.newBuilder()
+        .put(CommunicationContext.ALLREDUCE_ALGO_KEY, algorithm)
+        .put(CommunicationContext.ALLREDUCE_RING_MIN_BYTES, 32)
+        .build();
+  }
+
+  private static int[] value(int source, int round, int length) {
+    int[] v = new int[length];
+    for (int i = 0; i < length; i++) {
+      v[i] = source * 100 + round * 10 + i;
+    }
+    return v;
+  }
+
+  private static int[] expected(Set<Integer> sources, int round, int length) {
+    int[] sum = new int[length];
+    for (int s : sources) {
+      int[] v = value(s, round, length);
+      for (int i = 0; i < length; i++) {
+        sum[i] += v[i];
+      }
+    }
+    return sum;
+  }
+
+  private static int[] uniform(int workers, int count) {
+    int[] counts = new int[workers];
+    Arrays.fill(counts, count);
+    return counts;
+  }
+
+  private static void runBatch(String algorithm, int[] sourcesPerWorker,
+                               int[] targetsPerWorker, int length) {
+    Job job = new Job(config(algorithm), sourcesPerWorker, targetsPerWorker, false);
+    List<int[]> expected = new ArrayList<>();
+    for (int round = 0; round < 2; round++) {
+      for (Map.Entry<Integer, Set<Integer>> e : job.sources.entrySet()) {
+        for (int s : e.getValue()) {
+          Assert.assertTrue(job.reduce(e.getKey(), s, value(s, round, length)));
+        }
+      }
+      job.finish();
+      job.progress(round + 1);
+      expected.add(expected(job.allSources, round, length));
+      job.assertResults(expected, round + 1);
+      // the next batch starts after a reset
+      job.reset();
+    }
+  }
+
+  private static void runStream(String algorithm, int[] sourcesPerWorker,
+                                int[] targetsPerWorker, int length, int rounds) {
+    Job job = new Job(config(algorithm), sourcesPerWorker, targetsPerWorker, true);
+    List<int[]> expected = new ArrayList<>();
+    for (int round = 0; round < rounds; round++) {
+      for (Map.Entry<Integer, Set<Integer>> e : job.sources.entrySet()) {
+        for (int s : e.getValue()) {
+          Assert.assertTrue(job.reduce(e.getKey(), s, value(s, round, length)));
+        }
+      }
+      expected.add(expected(job.allSources, round, length));
+      // let some rounds queue up before progressing
+      if (round % 2 == 1 || round == rounds - 1) {
+        job.progress(round + 1);
+      }
+    }
+    job.assertResults(expected, -1);
+  }
+
+  @Test
+  public void testRing() {
+    for (int workers : new int[]{3, 5, 6}) {
+      runBatch(CommunicationContext.ALLREDUCE_ALGO_RING, uniform(workers, 2),
+          uniform(workers, 1), 10);
+    }
+  }
+
+  @Test
+  public void testRingShorterThanWorkers() {
+    // some of the chunks are empty
+    runBatch(CommunicationContext.ALLREDUCE_ALGO_RING, uniform(6, 1), uniform(6, 1), 4);
+  }
+
+  @Test
+  public void testRecursiveDoubling() {
+    for (int workers : new int[]{3, 5, 6}) {
+      runBatch(CommunicationContext.ALLREDUCE_ALGO_RECURSIVE_DOUBLING, uniform(workers, 2),
+          uniform(workers, 1), 10);
+    }
+  }
+
+  @Test
+  public void testAuto() {
+    for (int workers : new int[]{3, 5, 6}) {
+      runBatch(CommunicationContext.ALLREDUCE_ALGO_AUTO, uniform(workers, 1),
+          uniform(workers, 2), 10);
+    }
+  }
+
+  @Test
+  public void testTargetsWithoutSources() {
+    for (String algorithm : new String[]{CommunicationContext.ALLREDUCE_ALGO_RING,
+        CommunicationContext.ALLREDUCE_ALGO_RECURSIVE_DOUBLING,
+        CommunicationContext.ALLREDUCE_ALGO_AUTO}) {
+      // workers 3, 4 and 5 only have targets and worker 1 only has sources
+      runBatch(algorithm, new int[]{2, 1, 1, 0, 0, 0}, new int[]{1, 0, 2, 1, 1, 2}, 10);
+      runStream(algorithm, new int[]{2, 1, 1, 0, 0, 0}, new int[]{1, 0, 2, 1, 1, 2}, 10, 4);
+    }
+  }
+
+  @Test
+  public void testWorkerWithoutValues() {
+    for (String algorithm : new String[]{CommunicationContext.ALLREDUCE_ALGO_RING,
+        CommunicationContext.ALLREDUCE_ALGO_RECURSIVE_DOUBLING}) {
+      Job job = new Job(config(algorithm), uniform(5, 1), uniform(5, 1), false);
+      Set<Integer> reduced = new HashSet<>();
+      for (Map.Entry<Integer, Set<Integer>> e : job.sources.entrySet()) {
+        // the sources of worker 2 finish without a value
+        if (e.getKey() != 2) {
+          for (int s : e.getValue()) {
+            Assert.assertTrue(job.reduce(e.getKey(), s, value(s, 0, 10)));
+            reduced.add(s);
+          }
+        }
+      }
+      job.finish();
+      job.progress(1);
+      job.assertResults(Collections.singletonList(expected(reduced, 0, 10)), 1);
+    }
+  }
+
+  @Test
+  public void testStreamRounds() {
+    for (String algorithm : new String[]{CommunicationContext.ALLREDUCE_ALGO_RING,
+        CommunicationContext.ALLREDUCE_ALGO_RECURSIVE_DOUBLING,
+        CommunicationContext.ALLREDUCE_ALGO_AUTO}) {
+      for (int workers : new int[]{3, 5, 6}) {
+        runStream(algorithm, uniform(workers, 2), uniform(workers, 1), 10, 5);
+      }
+    }
+  }
+
+  @Test
+  public void testAutoSwitchesOnResultSize() {
+    // the small results stay below the ring size and the larger ones go over it
+    Job job = new Job(config(CommunicationContext.ALLREDUCE_ALGO_AUTO), uniform(5, 1),
+        uniform(5, 1), true);
+    List<int[]> expected = new ArrayList<>();
+    int[] lengths = {2, 2, 16, 16, 2, 16};
+    for (int round = 0; round < lengths.length; round++) {
+      for (Map.Entry<Integer, Set<Integer>> e : job.sources.entrySet()) {
+        for (int s : e.getValue()) {
+          Assert.assertTrue(job.reduce(e.getKey(), s, value(s, round, lengths[round])));
+        }
+      }
+      expected.add(expected(job.allSources, round, lengths[round]));
+      job.progress(round + 1);
+    }
+    job.assertResults(expected, -1);
+  }
+}
@@ -0,0 +1,176 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.dfw.io;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.esotericsoftware.kryo.KryoException;
+
+import edu.iu.dsc.tws.api.comms.packing.DataPacker;
+import edu.iu.dsc.tws.api.comms.packing.types.ObjectPacker;
+import edu.iu.dsc.tws.api.util.KryoSerializer;
+
+public class KryoBufferSerializerTest {
+
+  @Test
+  public void testDirectBufferRoundTrip() {
+    KryoSerializer serializer = new KryoSerializer();
+    ByteBuffer buffer = ByteBuffer.allocateDirect(1024);
+    buffer.putInt(7);
+
+    List<Object> objects = new ArrayList<>();
+    objects.add("first");
+    objects.add(new int[]{1, 2, 3});
+    objects.add(new Record("second", 42));
+
+    int[] offsets = new int[objects.size()];
+    int[] lengths = new int[objects.size()];
+    for (int i = 0; i < objects.size(); i++) {
+      offsets[i] = buffer.position();
+      lengths[i] = serializer.serialize(objects.get(i), buffer);
+      Assert.assertTrue(lengths[i] > 0);
+      Assert.assertEquals(offsets[i] + lengths[i], buffer.position());
+    }
+
+    int position = buffer.position();
+    for (int i = 0; i < objects.size(); i++) {
+      Object read = serializer.deserialize(buffer, offsets[i], lengths[i]);
+      if (read instanceof int[]) {
+        Assert.assertArrayEquals((int[]) objects.get(i), (int[]) read);
+      } else {
+        Assert.assertEquals(objects.get(i), read);
+      }
+    }
+    // reading doesn't move the buffer
+    Assert.assertEquals(position, buffer.position());
+    Assert.assertEquals(7, buffer.getInt(0));
+  }
+
+  @Test
+  public void testReadOnlyBuffer() {
+    KryoSerializer serializer = new KryoSerializer();
+    ByteBuffer buffer = ByteBuffer.allocateDirect(256);
+    int length = serializer.serialize("read only", buffer);
+
+    Object read = serializer.deserialize(buffer.asReadOnlyBuffer(), 0, length);
+    Assert.assertEquals("read only", read);
+  }
+
+  @Test
+  public void testOverflow() {
+    KryoSerializer serializer = new KryoSerializer();
+    ByteBuffer buffer = ByteBuffer.allocateDirect(64);
+    buffer.position(10);
+
+    char[] chars = new char[200];
+    Arrays.fill(chars, 'x');
+    String large = new String(chars);
+    Assert.assertEquals(-1, serializer.serialize(large, buffer));
+    // the position is not changed when the object doesn't fit
+    Assert.assertEquals(10, buffer.position());
+
+    // overflow inside a field of an object
+    Assert.assertEquals(-1, serializer.serialize(new Record(large, 1), buffer));
+    Assert.assertEquals(10, buffer.position());
+
+    // the same serializer can write after an overflow
+    ByteBuffer larger = ByteBuffer.allocateDirect(1024);
+    int length = serializer.serialize(large, larger);
+    Assert.assertEquals(large, serializer.deserialize(larger, 0, length));
+
+    buffer.position(buffer.limit());
+    Assert.assertEquals(-1, serializer.serialize("x", buffer));
+  }
+
+  @Test(expected = KryoException.class)
+  public void testNotSerializable() {
+    KryoSerializer serializer = new KryoSerializer();
+    ByteBuffer buffer = ByteBuffer.allocateDirect(1024);
+    // the error should not be reported as an overflow
+    serializer.serialize(new BrokenHolder(), buffer);
+  }
+
+  @Test
+  public void testObjectPacker() {
+    DataPacker<Object, byte[]> packer = ObjectPacker.getInstance();
+    ByteBuffer buffer = ByteBuffer.allocateDirect(128);
+    Record record = new Record("packed", 3);
+    SerializeState state = new SerializeState();
+    int length = packer.writeDataDirectly(record, state, buffer);
+    Assert.assertTrue(length > 0);
+    Assert.assertEquals(record, packer.unpackFromBuffer(buffer, 0, length));
+    Assert.assertNull(state.retrieve());
+
+    ByteBuffer small = ByteBuffer.allocateDirect(4);
+    Assert.assertEquals(-1, packer.writeDataDirectly(record, state, small));
+    Assert.assertEquals(0, small.position());
+    // the serialized bytes are kept for the next step
+    byte[] stored = state.retrieve();
+    Assert.assertEquals(length, stored.length);
+    Assert.assertEquals(length, packer.determineLength(record, state));
+    Assert.assertSame(stored, state.retrieve());
+  }
+
+  public static class Record {
+    private String name;
+    private int value;
+
+    public Record() {
+    }
+
+    public Record(String name, int value) {
+      this.name = name;
+      this.value = value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Record)) {
+        return false;
+      }
+      Record other = (Record) o;
+      return value == other.value && name.equals(other.name);
+    }
+
+    @Override
+    public int hashCode() {
+      return name.hashCode() * 31 + value;
+    }
+  }
+
+  /**
+   * A list that fails when it is written
+   */
+  public static class BrokenList extends ArrayList<Object> {
+    private static final long serialVersionUID = 1L;
+
+    public BrokenList() {
+      add("value");
+    }
+
+    @Override
+    public Iterator<Object> iterator() {
+      throw new IllegalStateException("Can not iterate");
+    }
+  }
+
+  public static class BrokenHolder {
+    private List<Object> values = new BrokenList();
+  }
+}
@@ -0,0 +1,85 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.dfw.io.reduce.keyed;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import edu.iu.dsc.tws.api.comms.Op;
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageTypes;
+import edu.iu.dsc.tws.api.comms.structs.Tuple;
+import edu.iu.dsc.tws.comms.functions.reduction.ReduceOperationFunction;
+
+public class ReducedValueMapTest {
+
+  @Test
+  public void primitiveSum() {
+    ReducedValueMap map = ReducedValueMap.create(MessageTypes.INTEGER,
+        new ReduceOperationFunction(Op.SUM, MessageTypes.LONG));
+    Assert.assertTrue(map instanceof PrimitiveReducedValueMap);
+
+    for (int i = 0; i < 100; i++) {
+      map.reduce(i % 10, (long) i);
+    }
+    Assert.assertEquals(10, map.size());
+
+    Map<Object, Object> results = toMap(map.iterator());
+    for (int k = 0; k < 10; k++) {
+      // k + (k + 10) + ... + (k + 90)
+      Assert.assertEquals(10L * k + 450L, results.get(k));
+    }
+  }
+
+  @Test
+  public void primitiveDoubleMax() {
+    ReducedValueMap map = ReducedValueMap.create(MessageTypes.DOUBLE,
+        new ReduceOperationFunction(Op.MAX, MessageTypes.DOUBLE));
+    map.reduce(1.5, -3.0);
+    map.reduce(1.5, -1.0);
+    map.reduce(-0.5, 2.0);
+
+    Queue<Object> queue = new ArrayDeque<>();
+    Assert.assertTrue(map.drainTo(queue));
+    Assert.assertTrue(map.isEmpty());
+
+    Map<Object, Object> results = toMap(queue.iterator());
+    Assert.assertEquals(-1.0, results.get(1.5));
+    Assert.assertEquals(2.0, results.get(-0.5));
+  }
+
+  @Test
+  public void objectFallback() {
+    ReducedValueMap map = ReducedValueMap.create(MessageTypes.INTEGER,
+        new ReduceOperationFunction(Op.SUM, MessageTypes.INTEGER_ARRAY));
+    Assert.assertTrue(map instanceof ObjectReducedValueMap);
+
+    map.reduce(1, new int[]{1, 2});
+    map.reduce(1, new int[]{3, 4});
+    Map<Object, Object> results = toMap(map.iterator());
+    Assert.assertArrayEquals(new int[]{4, 6}, (int[]) results.get(1));
+  }
+
+  private Map<Object, Object> toMap(Iterator<Object> it) {
+    Map<Object, Object> map = new HashMap<>();
+    while (it.hasNext()) {
+      Tuple t = (Tuple) it.next();
+      map.put(t.getKey(), t.getValue());
+    }
+    return map;
+  }
+}
@@ -0,0 +1,62 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.metrics;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+  @Test
+  public void bucketsCoverTheValues() {
+    for (long v : new long[]{0, 1, 31, 32, 63, 64, 1000, 123456789L, Long.MAX_VALUE}) {
+      int bucket = LatencyHistogram.bucketOf(v);
+      long highest = LatencyHistogram.highestValueOf(bucket);
+      Assert.assertTrue(v + " above its bucket", v <= highest);
+      if (bucket > 0) {
+        Assert.assertTrue(v + " below its bucket",
+            v > LatencyHistogram.highestValueOf(bucket - 1));
+      }
+    }
+  }
+
+  @Test
+  public void percentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 1; i <= 1000; i++) {
+      histogram.record(i * 1000L);
+    }
+
+    Assert.assertEquals(1000, histogram.getCount());
+    Assert.assertEquals(1000000, histogram.getMax());
+    Assert.assertEquals(500500, histogram.getMean(), 0.1);
+    // the values are within the precision of the buckets
+    Assert.assertEquals(500000, histogram.getValueAtPercentile(50), 500000 * 0.04);
+    Assert.assertEquals(990000, histogram.getValueAtPercentile(99), 990000 * 0.04);
+    Assert.assertEquals(1000000, histogram.getValueAtPercentile(100));
+  }
+
+  @Test
+  public void registryReusesMetrics() {
+    MetricsRegistry registry = MetricsRegistry.get();
+    Counter counter = registry.counter("test.registry.counter");
+    counter.add(5);
+    Assert.assertSame(counter, registry.counter("test.registry.counter"));
+
+    registry.peerCounters("test.registry", "bytes").add(3, 10);
+    Assert.assertEquals(Long.valueOf(10),
+        registry.snapshot().get("test.registry.peer-3.bytes"));
+
+    registry.remove("test.registry.");
+    Assert.assertFalse(registry.getMetrics().containsKey("test.registry.counter"));
+  }
+}
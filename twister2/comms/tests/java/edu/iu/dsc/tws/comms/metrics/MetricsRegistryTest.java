@@ -0,0 +1,47 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.metrics;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MetricsRegistryTest {
+
+  @Test
+  public void removeGauge() {
+    MetricsRegistry registry = MetricsRegistry.get();
+    String name = "comms.worker-0.channel.pending.sends.test";
+    Gauge first = () -> 1;
+    registry.gauge(name, first);
+    Assert.assertEquals(1L, (long) registry.snapshot().get(name));
+
+    registry.removeGauge(name, first);
+    Assert.assertFalse(registry.getMetrics().containsKey(name));
+  }
+
+  @Test
+  public void removeReplacedGauge() {
+    MetricsRegistry registry = MetricsRegistry.get();
+    String name = "comms.worker-1.channel.pending.sends.test";
+    Gauge first = () -> 1;
+    Gauge second = () -> 2;
+    registry.gauge(name, first);
+    // a new channel registers its gauge before the old one is closed
+    registry.gauge(name, second);
+
+    registry.removeGauge(name, first);
+    Assert.assertSame(second, registry.getMetrics().get(name));
+
+    registry.removeGauge(name, second);
+    Assert.assertFalse(registry.getMetrics().containsKey(name));
+  }
+}
@@ -0,0 +1,112 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.shuffle;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import edu.iu.dsc.tws.api.comms.ByteArrayComparator;
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageTypes;
+import edu.iu.dsc.tws.api.comms.structs.Tuple;
+
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class BinaryKeySorterTest {
+
+  @Test
+  public void testIntegerKeys() {
+    Random random = new Random(7);
+    List<Tuple> records = new ArrayList<>();
+    for (int i = 0; i < 10000; i++) {
+      records.add(new Tuple(random.nextInt(), i));
+    }
+    records.add(new Tuple(Integer.MIN_VALUE, -1));
+    records.add(new Tuple(Integer.MAX_VALUE, -2));
+    records.add(new Tuple(0, -3));
+
+    List<Tuple> expected = new ArrayList<>(records);
+    expected.sort(Comparator.comparing(t -> (Integer) t.getKey()));
+    BinaryKeySorter.sort(records, MessageTypes.INTEGER);
+    Assert.assertEquals(expected, records);
+  }
+
+  @Test
+  public void testLongKeys() {
+    Random random = new Random(11);
+    List<Tuple> records = new ArrayList<>();
+    for (int i = 0; i < 10000; i++) {
+      records.add(new Tuple(random.nextLong() >> random.nextInt(64), i));
+    }
+    records.add(new Tuple(Long.MIN_VALUE, -1));
+    records.add(new Tuple(Long.MAX_VALUE, -2));
+
+    List<Tuple> expected = new ArrayList<>(records);
+    expected.sort(Comparator.comparing(t -> (Long) t.getKey()));
+    BinaryKeySorter.sort(records, MessageTypes.LONG);
+    Assert.assertEquals(expected, records);
+  }
+
+  @Test
+  public void testByteArrayKeys() {
+    Random random = new Random(13);
+    List<Tuple> records = new ArrayList<>();
+    for (int i = 0; i < 10000; i++) {
+      // short and shared prefixes to exercise the comparison after the prefix
+      byte[] key = new byte[random.nextInt(12)];
+      random.nextBytes(key);
+      if (key.length > 9) {
+        for (int j = 0; j < 8; j++) {
+          key[j] = (byte) (j * 40);
+        }
+      }
+      records.add(new Tuple(key, i));
+    }
+
+    List<Tuple> expected = new ArrayList<>(records);
+    expected.sort((t1, t2) -> compareUnsigned((byte[]) t1.getKey(), (byte[]) t2.getKey()));
+    BinaryKeySorter.sort(records, MessageTypes.BYTE_ARRAY);
+    Assert.assertEquals(expected, records);
+  }
+
+  @Test
+  public void testSupports() {
+    Assert.assertTrue(BinaryKeySorter.supports(MessageTypes.INTEGER, Comparator.naturalOrder()));
+    Assert.assertTrue(BinaryKeySorter.supports(MessageTypes.LONG, Comparator.naturalOrder()));
+    Assert.assertTrue(BinaryKeySorter.supports(MessageTypes.BYTE_ARRAY,
+        ByteArrayComparator.getInstance()));
+
+    // user comparators are not replaced, even when they give the same order
+    Assert.assertFalse(BinaryKeySorter.supports(MessageTypes.INTEGER,
+        Comparator.comparingInt(i -> (Integer) i)));
+    Assert.assertFalse(BinaryKeySorter.supports(MessageTypes.LONG, Comparator.reverseOrder()));
+    Assert.assertFalse(BinaryKeySorter.supports(MessageTypes.BYTE_ARRAY,
+        (Comparator<byte[]>) BinaryKeySorterTest::compareUnsigned));
+    Assert.assertFalse(BinaryKeySorter.supports(MessageTypes.BYTE_ARRAY,
+        Comparator.naturalOrder()));
+    Assert.assertFalse(BinaryKeySorter.supports(MessageTypes.OBJECT, Comparator.naturalOrder()));
+  }
+
+  private static int compareUnsigned(byte[] left, byte[] right) {
+    for (int i = 0; i < Math.min(left.length, right.length); i++) {
+      int a = left[i] & 0xff;
+      int b = right[i] & 0xff;
+      if (a != b) {
+        return a - b;
+      }
+    }
+    return left.length - right.length;
+  }
+}
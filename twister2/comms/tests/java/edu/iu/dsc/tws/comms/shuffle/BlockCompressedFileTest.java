@@ -0,0 +1,112 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.shuffle;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageTypes;
+import edu.iu.dsc.tws.api.comms.packing.types.primitive.IntegerArrayPacker;
+import edu.iu.dsc.tws.api.comms.structs.Tuple;
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.api.util.CommonThreadPool;
+import edu.iu.dsc.tws.api.util.compress.BlockCodec;
+import edu.iu.dsc.tws.api.util.compress.BlockCodecs;
+
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class BlockCompressedFileTest {
+
+  private final BlockCodec codec = BlockCodecs.get(BlockCodecs.DEFLATE);
+
+  @Test
+  public void testOpenPartFromOffsets() throws Exception {
+    List<Tuple> records = new ArrayList<>();
+    long size = 0;
+    for (int i = 0; i < 5000; i++) {
+      int[] value = new int[i % 50 + 1];
+      Arrays.fill(value, i);
+      byte[] bytes = IntegerArrayPacker.getInstance().packToByteArray(value);
+      records.add(new Tuple(i, bytes));
+      size += bytes.length;
+    }
+    String fileName = "/tmp/blockcompressedfile/part-" + System.nanoTime();
+    try {
+      FileLoader.saveKeyValues(records, size, fileName, MessageTypes.INTEGER, codec);
+      Assert.assertTrue(new File(fileName).length() < size);
+
+      // read in small parts so that the parts start in the middle of the blocks
+      long offset = 0;
+      int expected = 0;
+      OpenFilePart part;
+      do {
+        part = FileLoader.openPart(fileName, offset, 10000, MessageTypes.INTEGER,
+            MessageTypes.INTEGER_ARRAY, null, codec);
+        while (part.hasNext()) {
+          Tuple t = part.next();
+          Assert.assertEquals(expected, t.getKey());
+          int[] value = (int[]) t.getValue();
+          Assert.assertEquals(expected % 50 + 1, value.length);
+          Assert.assertEquals(expected, value[0]);
+          expected++;
+        }
+        offset = part.getReadOffSet();
+      } while (offset < part.getFileSize());
+      Assert.assertEquals(records.size(), expected);
+    } finally {
+      new File(fileName).delete();
+    }
+  }
+
+  @Test
+  public void testSortedMerger() throws Exception {
+    CommonThreadPool.init(Config.newBuilder().build());
+    FSKeyedSortedMerger2 merger = new FSKeyedSortedMerger2(100000, 10000, "/tmp",
+        "blockcompressedmerger", MessageTypes.INTEGER, MessageTypes.INTEGER_ARRAY,
+        Comparator.comparingInt(i -> (Integer) i), 0, true, 2, codec);
+    try {
+      int[] data = new int[256];
+      Arrays.fill(data, 1);
+      byte[] bytes = IntegerArrayPacker.getInstance().packToByteArray(data);
+      for (int i = 0; i < 500; i++) {
+        for (int j = 0; j < 5; j++) {
+          merger.add(i, bytes, bytes.length);
+        }
+        merger.run();
+      }
+      merger.switchToReading();
+
+      Iterator<Object> it = merger.readIterator();
+      int key = 0;
+      while (it.hasNext()) {
+        Tuple val = (Tuple) it.next();
+        Assert.assertEquals(key++, val.getKey());
+        Iterator values = (Iterator) val.getValue();
+        int count = 0;
+        while (values.hasNext()) {
+          Assert.assertArrayEquals(data, (int[]) values.next());
+          count++;
+        }
+        Assert.assertEquals(5, count);
+      }
+      Assert.assertEquals(500, key);
+    } finally {
+      merger.clean();
+    }
+  }
+}
@@ -0,0 +1,251 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.table.channel;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.iu.dsc.tws.api.comms.CommunicationContext;
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.common.net.NetworkInfo;
+import edu.iu.dsc.tws.common.net.tcp.TCPChannel;
+import edu.iu.dsc.tws.common.net.tcp.TCPContext;
+import edu.iu.dsc.tws.common.net.tcp.TCPMessage;
+
+public class TCPTableChannelTest {
+  private static final int NO_OF_WORKERS = 2;
+
+  private static final int TABLE_EDGE = 1;
+
+  private static final int OTHER_EDGE = 2;
+
+  private static final int BUFFER_SIZE = 1024;
+
+  /**
+   * Each test listens on new ports, so it doesn't wait for the ports of the previous one
+   */
+  private static int nextPort = 10035;
+
+  private List<TCPChannel> channels = new ArrayList<>();
+
+  private Config cfg;
+
+  /**
+   * Records what a worker receives and the completed sends
+   */
+  private static class Receiver implements ChannelReceiveCallback, ChannelSendCallback {
+    private Map<Integer, List<int[]>> headers = new HashMap<>();
+
+    private Map<Integer, List<byte[]>> data = new HashMap<>();
+
+    private Map<Integer, Boolean> finished = new HashMap<>();
+
+    private int sendsCompleted;
+
+    private int finishCompleted;
+
+    @Override
+    public void receivedData(int receiveId, ChannelBuffer buffer, int length) {
+      byte[] bytes = new byte[length];
+      ByteBuffer byteBuffer = buffer.getByteBuffer().duplicate();
+      byteBuffer.clear();
+      byteBuffer.get(bytes);
+      data.computeIfAbsent(receiveId, k -> new ArrayList<>()).add(bytes);
+    }
+
+    @Override
+    public void receivedHeader(int receiveId, int finished, int[] header, int headerLength) {
+      if (finished == 1) {
+        this.finished.put(receiveId, true);
+      } else {
+        headers.computeIfAbsent(receiveId, k -> new ArrayList<>())
+            .add(Arrays.copyOf(header, headerLength));
+      }
+    }
+
+    @Override
+    public void sendComplete(TRequest request) {
+      sendsCompleted++;
+    }
+
+    @Override
+    public void sendFinishComplete(TRequest request) {
+      finishCompleted++;
+    }
+  }
+
+  private static ChannelBuffer allocate(int count) {
+    ByteBuffer buffer = ByteBuffer.allocate(count);
+    return new ChannelBuffer() {
+      @Override
+      public int length() {
+        return count;
+      }
+
+      @Override
+      public ByteBuffer getByteBuffer() {
+        return buffer;
+      }
+    };
+  }
+
+  private static ByteBuffer data(int length, int seed) {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(Math.max(length, 1));
+    for (int i = 0; i < length; i++) {
+      buffer.put(i, (byte) (i * 31 + seed));
+    }
+    return buffer;
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    cfg = Config.newBuilder()
+        .put(CommunicationContext.BUFFER_SIZE, BUFFER_SIZE)
+        .put(CommunicationContext.RECEIVE_BUFFERS_COUNT, 4)
+        .put(CommunicationContext.SEND_BUFFERS_COUNT, 2)
+        .build();
+
+    List<NetworkInfo> networkInfos = new ArrayList<>();
+    for (int i = 0; i < NO_OF_WORKERS; i++) {
+      NetworkInfo info = new NetworkInfo(i);
+      info.addProperty(TCPContext.NETWORK_PORT, nextPort++);
+      info.addProperty(TCPContext.NETWORK_HOSTNAME, "localhost");
+      TCPChannel channel = new TCPChannel(cfg, info);
+      channel.startListening();
+      channels.add(channel);
+      networkInfos.add(info);
+    }
+
+    List<Thread> threads = new ArrayList<>();
+    for (TCPChannel channel : channels) {
+      Thread t = new Thread(() -> {
+        channel.startConnections(networkInfos);
+        channel.waitForConnections(10000);
+      });
+      t.start();
+      threads.add(t);
+    }
+    for (Thread t : threads) {
+      t.join();
+    }
+  }
+
+  @After
+  public void tearDown() {
+    for (TCPChannel channel : channels) {
+      channel.stop();
+    }
+  }
+
+  private TCPTableChannel create(int worker, Receiver receiver) {
+    List<Integer> workers = Arrays.asList(0, 1);
+    return new TCPTableChannel(cfg, worker, channels.get(worker), TABLE_EDGE, workers, workers,
+        receiver, receiver, TCPTableChannelTest::allocate);
+  }
+
+  @Test(timeout = 60000)
+  public void testSendReceive() {
+    // the lengths cover empty requests, exact multiples of the buffer and many buffers
+    int[] lengths = {0, 10, BUFFER_SIZE, BUFFER_SIZE + 1, 10 * BUFFER_SIZE + 7};
+    List<Receiver> receivers = new ArrayList<>();
+    List<TCPTableChannel> tables = new ArrayList<>();
+    for (int w = 0; w < NO_OF_WORKERS; w++) {
+      Receiver receiver = new Receiver();
+      receivers.add(receiver);
+      tables.add(create(w, receiver));
+    }
+
+    for (int w = 0; w < NO_OF_WORKERS; w++) {
+      for (int target = 0; target < NO_OF_WORKERS; target++) {
+        for (int i = 0; i < lengths.length; i++) {
+          int[] header = {w, target, i};
+          Assert.assertEquals(1, tables.get(w).send(new TRequest(target,
+              data(lengths[i], w + i), lengths[i], header, header.length)));
+        }
+        Assert.assertEquals(1, tables.get(w).sendFin(new TRequest(target)));
+      }
+    }
+
+    boolean done = false;
+    while (!done) {
+      done = true;
+      for (int w = 0; w < NO_OF_WORKERS; w++) {
+        tables.get(w).progressSends();
+        tables.get(w).progressReceives();
+        Receiver r = receivers.get(w);
+        done &= r.finished.size() == NO_OF_WORKERS && r.finishCompleted == NO_OF_WORKERS;
+      }
+    }
+
+    for (int w = 0; w < NO_OF_WORKERS; w++) {
+      Receiver r = receivers.get(w);
+      Assert.assertEquals(NO_OF_WORKERS * lengths.length, r.sendsCompleted);
+      for (int source = 0; source < NO_OF_WORKERS; source++) {
+        List<int[]> headers = r.headers.get(source);
+        List<byte[]> received = r.data.get(source);
+        Assert.assertEquals(lengths.length, headers.size());
+        Assert.assertEquals(lengths.length, received.size());
+        for (int i = 0; i < lengths.length; i++) {
+          Assert.assertArrayEquals(new int[]{source, w, i}, headers.get(i));
+          byte[] expected = new byte[lengths[i]];
+          data(lengths[i], source + i).get(expected);
+          Assert.assertArrayEquals(expected, received.get(i));
+        }
+      }
+    }
+  }
+
+  @Test(timeout = 60000)
+  public void testNoHeadOfLineBlocking() {
+    Receiver receiver0 = new Receiver();
+    Receiver receiver1 = new Receiver();
+    TCPTableChannel table0 = create(0, receiver0);
+    TCPTableChannel table1 = create(1, receiver1);
+
+    // a request taking three buffers followed by a message of another edge
+    int length = 3 * BUFFER_SIZE;
+    Assert.assertEquals(1, table1.send(new TRequest(0, data(length, 5), length,
+        new int[]{7}, 1)));
+    while (receiver1.sendsCompleted == 0) {
+      table1.progressSends();
+    }
+    ByteBuffer other = ByteBuffer.allocate(16);
+    other.putInt(0, 42);
+    TCPMessage send = channels.get(1).iSend(other, 16, 0, OTHER_EDGE);
+    TCPMessage receive = channels.get(0).iRecv(ByteBuffer.allocate(16), 16, 1, OTHER_EDGE);
+
+    // the table receives are not progressed, the other edge should still get its message
+    while (!receive.isComplete() || !send.isComplete()) {
+      channels.get(0).progress();
+      channels.get(1).progress();
+    }
+    Assert.assertEquals(42, receive.getByteBuffer().getInt(0));
+    Assert.assertTrue(receiver0.headers.isEmpty());
+
+    while (receiver0.data.isEmpty()) {
+      table0.progressReceives();
+    }
+    Assert.assertArrayEquals(new int[]{7}, receiver0.headers.get(1).get(0));
+    byte[] expected = new byte[length];
+    data(length, 5).get(expected);
+    Assert.assertArrayEquals(expected, receiver0.data.get(1).get(0));
+  }
+}
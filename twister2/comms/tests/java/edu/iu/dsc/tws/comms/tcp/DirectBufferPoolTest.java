@@ -0,0 +1,88 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.tcp;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DirectBufferPoolTest {
+
+  @Test
+  public void acquireAndRelease() {
+    DirectBufferPool pool = new DirectBufferPool(1 << 20);
+    ByteBuffer buffer = pool.acquire(5000);
+
+    Assert.assertTrue(buffer.isDirect());
+    Assert.assertEquals(5000, buffer.capacity());
+    Assert.assertEquals(8192, pool.getInUseBytes());
+    Assert.assertEquals(8192, pool.getAllocatedBytes());
+
+    pool.release(buffer);
+    Assert.assertEquals(0, pool.getInUseBytes());
+    Assert.assertEquals(8192, pool.getPooledBytes());
+
+    // the same size class should be served from the pool
+    ByteBuffer reused = pool.acquire(6000);
+    Assert.assertEquals(6000, reused.capacity());
+    Assert.assertEquals(0, pool.getPooledBytes());
+    Assert.assertEquals(8192, pool.getAllocatedBytes());
+  }
+
+  @Test
+  public void referenceCounting() {
+    DirectBufferPool pool = new DirectBufferPool(1 << 20);
+    ByteBuffer buffer = pool.acquire(4096);
+    pool.retain(buffer);
+
+    pool.release(buffer);
+    Assert.assertTrue(pool.isLeased(buffer));
+    Assert.assertEquals(4096, pool.getInUseBytes());
+
+    pool.release(buffer);
+    Assert.assertFalse(pool.isLeased(buffer));
+    Assert.assertEquals(4096, pool.getPooledBytes());
+  }
+
+  @Test
+  public void boundedPool() {
+    DirectBufferPool pool = new DirectBufferPool(4096);
+    ByteBuffer first = pool.acquire(4096);
+    ByteBuffer second = pool.acquire(4096);
+    Assert.assertEquals(8192, pool.getAllocatedBytes());
+
+    pool.release(first);
+    pool.release(second);
+    // only one buffer fits in to the pool, the other one is dropped
+    Assert.assertEquals(4096, pool.getPooledBytes());
+    Assert.assertEquals(4096, pool.getAllocatedBytes());
+  }
+
+  @Test
+  public void leasedBuffers() {
+    DirectBufferPool pool = new DirectBufferPool(1 << 20);
+    ByteBuffer first = pool.acquire(4096);
+    ByteBuffer second = pool.acquire(100);
+    pool.retain(second);
+    Assert.assertEquals(2, pool.getLeasedCount());
+
+    pool.release(first);
+    pool.release(second);
+    // the second buffer still has a reference and is reported as not released
+    Assert.assertEquals(1, pool.getLeasedCount());
+    pool.report(0);
+
+    pool.release(second);
+    Assert.assertEquals(0, pool.getLeasedCount());
+  }
+}
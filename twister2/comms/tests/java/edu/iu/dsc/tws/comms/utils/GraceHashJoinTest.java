@@ -0,0 +1,169 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.comms.utils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import edu.iu.dsc.tws.api.comms.CommunicationContext;
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageTypes;
+import edu.iu.dsc.tws.api.comms.structs.JoinedTuple;
+import edu.iu.dsc.tws.api.comms.structs.Tuple;
+
+public class GraceHashJoinTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private String spillDir;
+
+  @Before
+  public void setUp() {
+    spillDir = folder.getRoot().getAbsolutePath();
+  }
+
+  @Test
+  public void inMemoryJoinTest() {
+    for (CommunicationContext.JoinType joinType : CommunicationContext.JoinType.values()) {
+      GraceHashJoin join = new GraceHashJoin(JoinTestUtils.getEmployees().iterator(),
+          JoinTestUtils.getDepartments().iterator(), joinType, MessageTypes.INTEGER,
+          1000, 4, spillDir);
+      Assert.assertFalse(join.isSpilled());
+      assertJoined(expected(joinType), join);
+    }
+  }
+
+  @Test
+  public void spilledJoinTest() {
+    for (CommunicationContext.JoinType joinType : CommunicationContext.JoinType.values()) {
+      GraceHashJoin join = new GraceHashJoin(JoinTestUtils.getEmployees().iterator(),
+          JoinTestUtils.getDepartments().iterator(), joinType, MessageTypes.INTEGER,
+          1, 2, spillDir);
+      Assert.assertTrue(join.isSpilled());
+      assertJoined(expected(joinType), join);
+    }
+  }
+
+  @Test
+  public void spilledRandomJoinTest() {
+    Random random = new Random(1000);
+    List<Tuple> left = new ArrayList<>();
+    List<Tuple> right = new ArrayList<>();
+    for (int i = 0; i < 5000; i++) {
+      left.add(Tuple.of(random.nextInt(2000), "l" + i));
+      right.add(Tuple.of(random.nextInt(2000), "r" + i));
+    }
+
+    for (CommunicationContext.JoinType joinType : CommunicationContext.JoinType.values()) {
+      List<Object> inMemory = toList(new GraceHashJoin(left.iterator(), right.iterator(),
+          joinType, MessageTypes.INTEGER, Long.MAX_VALUE, 4, spillDir));
+      GraceHashJoin spilled = new GraceHashJoin(left.iterator(), right.iterator(),
+          joinType, MessageTypes.INTEGER, 100, 4, spillDir);
+      Assert.assertTrue(spilled.isSpilled());
+      assertJoined(inMemory, spilled);
+      Assert.assertEquals(0, spillFiles());
+    }
+  }
+
+  @Test
+  public void closeBeforeExhaustedTest() {
+    Random random = new Random(1000);
+    List<Tuple> left = new ArrayList<>();
+    List<Tuple> right = new ArrayList<>();
+    for (int i = 0; i < 2000; i++) {
+      left.add(Tuple.of(random.nextInt(100), "l" + i));
+      right.add(Tuple.of(random.nextInt(100), "r" + i));
+    }
+
+    GraceHashJoin join = new GraceHashJoin(left.iterator(), right.iterator(),
+        CommunicationContext.JoinType.INNER, MessageTypes.INTEGER, 10, 4, spillDir);
+    Assert.assertTrue(join.isSpilled());
+    for (int i = 0; i < 10 && join.hasNext(); i++) {
+      join.next();
+    }
+    Assert.assertTrue(spillFiles() > 0);
+
+    join.close();
+    Assert.assertEquals(0, spillFiles());
+    Assert.assertFalse(join.hasNext());
+    // closing again is harmless
+    join.close();
+  }
+
+  @Test
+  public void closeOnFailureTest() {
+    List<Tuple> left = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      left.add(Tuple.of(i, "l" + i));
+    }
+    List<Tuple> right = new ArrayList<>();
+    right.add(Tuple.of(1, "r1"));
+    // the probing relation fails while partitioning
+    right.add(null);
+
+    try {
+      new GraceHashJoin(left.iterator(), right.iterator(),
+          CommunicationContext.JoinType.INNER, MessageTypes.INTEGER, 10, 4, spillDir);
+      Assert.fail("The join should fail");
+    } catch (NullPointerException e) {
+      Assert.assertEquals(0, spillFiles());
+    }
+  }
+
+  private int spillFiles() {
+    File[] files = new File(spillDir).listFiles();
+    return files == null ? 0 : files.length;
+  }
+
+  private List<Object> expected(CommunicationContext.JoinType joinType) {
+    switch (joinType) {
+      case LEFT:
+        return JoinTestUtils.getLeftOuterJoined();
+      case RIGHT:
+        return JoinTestUtils.getRightOuterJoined();
+      case FULL_OUTER:
+        return JoinTestUtils.getFullOuterJoined();
+      default:
+        return JoinTestUtils.getInnerJoined();
+    }
+  }
+
+  private List<Object> toList(GraceHashJoin join) {
+    List<Object> joined = new ArrayList<>();
+    while (join.hasNext()) {
+      JoinedTuple tuple = join.next();
+      joined.add(tuple);
+    }
+    return joined;
+  }
+
+  private void assertJoined(List<Object> expected, GraceHashJoin join) {
+    List<Object> joined = toList(join);
+    Assert.assertEquals(expected.size(), joined.size());
+
+    // tuples with the same key can come in any order
+    expected.sort(Comparator.comparing(Object::toString));
+    joined.sort(Comparator.comparing(Object::toString));
+    for (int i = 0; i < expected.size(); i++) {
+      Assert.assertEquals(expected.get(i), joined.get(i));
+    }
+  }
+}
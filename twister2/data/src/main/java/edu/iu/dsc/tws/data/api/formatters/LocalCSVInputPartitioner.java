@@ -18,7 +18,9 @@ import edu.iu.dsc.tws.api.data.Path;
 import edu.iu.dsc.tws.data.api.assigner.OrderedInputSplitAssigner;
 import edu.iu.dsc.tws.data.api.splits.CSVInputSplit;
 import edu.iu.dsc.tws.data.api.splits.FileInputSplit;
+import edu.iu.dsc.tws.data.api.splits.MappedTextInputSplit;
 import edu.iu.dsc.tws.data.fs.io.InputSplitAssigner;
+import edu.iu.dsc.tws.data.utils.FileSystemUtils;
 
 public class LocalCSVInputPartitioner extends CSVInputPartitioner<String> {
 
@@ -40,8 +42,15 @@ public class LocalCSVInputPartitioner extends CSVInputPartitioner<String> {
     this.numberOfTasks = numTasks;
   }
 
-  protected CSVInputSplit createSplit(int num, Path file, long start,
-                                      long length, String[] hosts) {
+  /**
+   * Local files are read through memory mapped splits, other file systems through the
+   * buffered csv splits
+   */
+  protected FileInputSplit createSplit(int num, Path file, long start,
+                                       long length, String[] hosts) {
+    if (FileSystemUtils.isLocal(file)) {
+      return new MappedTextInputSplit(num, file, start, length, hosts);
+    }
     return new CSVInputSplit(num, file, start, length, hosts);
   }
 
@@ -17,7 +17,9 @@ import edu.iu.dsc.tws.api.config.Config;
 import edu.iu.dsc.tws.api.data.Path;
 import edu.iu.dsc.tws.data.api.assigner.OrderedInputSplitAssigner;
 import edu.iu.dsc.tws.data.api.splits.FileInputSplit;
+import edu.iu.dsc.tws.data.api.splits.MappedTextInputSplit;
 import edu.iu.dsc.tws.data.api.splits.TextInputSplit;
+import edu.iu.dsc.tws.data.utils.FileSystemUtils;
 
 public class LocalTextInputPartitioner extends FileInputPartitioner<String> {
   private static final long serialVersionUID = 1L;
@@ -38,9 +40,16 @@ public class LocalTextInputPartitioner extends FileInputPartitioner<String> {
     this.nTasks = numTasks;
   }
 
+  /**
+   * Local files are read through memory mapped splits, other file systems through the
+   * buffered text splits
+   */
   @Override
-  protected TextInputSplit createSplit(int num, Path file, long start,
-                                       long length, String[] hosts) {
+  protected FileInputSplit<String> createSplit(int num, Path file, long start,
+                                               long length, String[] hosts) {
+    if (FileSystemUtils.isLocal(file)) {
+      return new MappedTextInputSplit(num, file, start, length, hosts);
+    }
     return new TextInputSplit(num, file, start, length, hosts);
   }
 
@@ -0,0 +1,189 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.data.api.formatters;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Logger;
+
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.api.data.BlockLocation;
+import edu.iu.dsc.tws.api.data.FileStatus;
+import edu.iu.dsc.tws.api.data.FileSystem;
+import edu.iu.dsc.tws.api.data.Path;
+import edu.iu.dsc.tws.common.table.Row;
+import edu.iu.dsc.tws.data.api.assigner.LocatableInputSplitAssigner;
+import edu.iu.dsc.tws.data.api.assigner.OrderedInputSplitAssigner;
+import edu.iu.dsc.tws.data.api.splits.FileInputSplit;
+import edu.iu.dsc.tws.data.api.splits.ParquetInputSplit;
+import edu.iu.dsc.tws.data.fs.io.InputSplitAssigner;
+import edu.iu.dsc.tws.data.parquet.Twister2ParquetInputFile;
+import edu.iu.dsc.tws.data.utils.FileSystemUtils;
+
+/**
+ * Creates the splits of the Parquet files from their row groups. A split covers whole row groups,
+ * consecutive row groups of a file are put in the same split until it reaches the size of an
+ * even share of the data, and the split gets the hosts of the block holding most of it.
+ * <p>
+ * The splits are given to the tasks with the {@link LocatableInputSplitAssigner}, which prefers
+ * the splits in the host of the task. When each task creates its own splits, like the file
+ * sources, the number of tasks should be given so every task takes its own share of the splits
+ * in order.
+ */
+public class ParquetInputPartitioner extends FileInputPartitioner<Row> {
+
+  private static final Logger LOG = Logger.getLogger(ParquetInputPartitioner.class.getName());
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Columns to read, null to read all the columns
+   */
+  private final String[] columns;
+
+  /**
+   * Filter of the records, null to read all the records
+   */
+  private final FilterPredicate filter;
+
+  /**
+   * Number of tasks taking their splits in order, 0 to assign the splits by their locations
+   */
+  private final int numberOfTasks;
+
+  private transient InputSplitAssigner<Row> assigner;
+
+  public ParquetInputPartitioner(Path filePath, Config cfg) {
+    this(filePath, cfg, null, null, 0);
+  }
+
+  public ParquetInputPartitioner(Path filePath, Config cfg, String[] columns,
+                                 FilterPredicate filter) {
+    this(filePath, cfg, columns, filter, 0);
+  }
+
+  public ParquetInputPartitioner(Path filePath, Config cfg, String[] columns,
+                                 FilterPredicate filter, int numTasks) {
+    super(filePath, cfg);
+    this.columns = columns;
+    this.filter = filter;
+    this.numberOfTasks = numTasks;
+  }
+
+  @Override
+  public FileInputSplit<Row>[] createInputSplits(int minNumSplits) throws IOException {
+    if (minNumSplits < 1) {
+      throw new IllegalArgumentException("Number of input splits has to be at least 1.");
+    }
+    int curminNumSplits = Math.max(minNumSplits, this.numSplits);
+
+    final FileSystem fs = FileSystemUtils.get(filePath, config);
+    final FileStatus pathFile = fs.getFileStatus(filePath);
+    List<FileStatus> files = new ArrayList<>();
+    if (pathFile.isDir()) {
+      sumFilesInDir(filePath, files, true);
+    } else {
+      files.add(pathFile);
+    }
+
+    // the row groups of the files
+    List<List<BlockMetaData>> rowGroups = new ArrayList<>();
+    long totalBytes = 0;
+    for (FileStatus file : files) {
+      try (ParquetFileReader reader = ParquetFileReader.open(
+          new Twister2ParquetInputFile(fs, file.getPath(), file.getLen()))) {
+        List<BlockMetaData> blocks = reader.getFooter().getBlocks();
+        for (BlockMetaData block : blocks) {
+          totalBytes += block.getCompressedSize();
+        }
+        rowGroups.add(blocks);
+      }
+    }
+    long splitBytes = Math.max(1, totalBytes / curminNumSplits);
+
+    List<FileInputSplit> inputSplits = new ArrayList<>(curminNumSplits);
+    for (int f = 0; f < files.size(); f++) {
+      FileStatus file = files.get(f);
+      List<BlockMetaData> blocks = rowGroups.get(f);
+      BlockLocation[] locations = fs.getFileBlockLocations(file, 0, file.getLen());
+      Arrays.sort(locations);
+
+      int first = 0;
+      while (first < blocks.size()) {
+        long start = blocks.get(first).getStartingPos();
+        long end = start + blocks.get(first).getCompressedSize();
+        int next = first + 1;
+        while (next < blocks.size() && end - start < splitBytes) {
+          end = blocks.get(next).getStartingPos() + blocks.get(next).getCompressedSize();
+          next++;
+        }
+        inputSplits.add(createSplit(inputSplits.size(), file.getPath(), start, end - start,
+            hostsOf(locations, start, end)));
+        first = next;
+      }
+    }
+
+    if (inputSplits.isEmpty()) {
+      // the files don't have any row groups
+      for (FileStatus file : files) {
+        inputSplits.add(createSplit(inputSplits.size(), file.getPath(), 0, 0, new String[0]));
+      }
+    }
+    LOG.fine("Parquet input splits: " + inputSplits.size() + "\t" + inputSplits);
+    return inputSplits.toArray(new FileInputSplit[inputSplits.size()]);
+  }
+
+  /**
+   * The hosts of the block holding the largest part of the range
+   */
+  private static String[] hostsOf(BlockLocation[] locations, long start, long end)
+      throws IOException {
+    String[] hosts = new String[0];
+    long best = 0;
+    for (BlockLocation location : locations) {
+      long overlap = Math.min(end, location.getOffset() + location.getLength())
+          - Math.max(start, location.getOffset());
+      if (overlap > best) {
+        best = overlap;
+        hosts = location.getHosts();
+      }
+    }
+    return hosts;
+  }
+
+  @Override
+  protected FileInputSplit createSplit(int num, Path file, long start, long length,
+                                       String[] hosts) {
+    ParquetInputSplit split = new ParquetInputSplit(num, file, start, length, hosts,
+        columns, filter);
+    split.configure(config);
+    return split;
+  }
+
+  @Override
+  public InputSplitAssigner<Row> getInputSplitAssigner(FileInputSplit<Row>[] inputSplits) {
+    if (assigner == null) {
+      if (numberOfTasks > 0) {
+        assigner = new OrderedInputSplitAssigner<>(inputSplits, numberOfTasks);
+      } else {
+        assigner = new LocatableInputSplitAssigner<>(inputSplits);
+      }
+    }
+    return assigner;
+  }
+}
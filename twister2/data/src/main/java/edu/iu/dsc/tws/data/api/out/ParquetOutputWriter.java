@@ -0,0 +1,157 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.data.api.out;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.api.data.FSDataOutputStream;
+import edu.iu.dsc.tws.api.data.FileSystem;
+import edu.iu.dsc.tws.api.data.Path;
+import edu.iu.dsc.tws.api.exceptions.Twister2RuntimeException;
+import edu.iu.dsc.tws.common.table.Row;
+import edu.iu.dsc.tws.data.parquet.ParquetRows;
+import edu.iu.dsc.tws.data.parquet.Twister2ParquetOutputFile;
+
+/**
+ * Writes the rows of each partition to a Parquet file. The schema is given in the Parquet
+ * message format, for example
+ * <pre>
+ * message record { required int64 id; optional binary name (UTF8); }
+ * </pre>
+ * and the columns of the rows should be in the order of the schema fields.
+ */
+public class ParquetOutputWriter extends FileOutputWriter<Row> {
+
+  private static final Logger LOG = Logger.getLogger(ParquetOutputWriter.class.getName());
+
+  /**
+   * The schema in the Parquet message format, the parsed schema is not serializable
+   */
+  private final String schemaString;
+
+  private CompressionCodecName compression = CompressionCodecName.SNAPPY;
+
+  private int rowGroupSize = ParquetWriter.DEFAULT_BLOCK_SIZE;
+
+  private transient MessageType schema;
+
+  private transient Map<Integer, ParquetWriter<Group>> writers;
+
+  public ParquetOutputWriter(FileSystem.WriteMode writeMode, Path outPath, String schema) {
+    super(writeMode, outPath);
+    this.schemaString = schema;
+  }
+
+  public ParquetOutputWriter(FileSystem.WriteMode writeMode, Path outPath, String schema,
+                             Config cfg) {
+    super(writeMode, outPath, cfg);
+    this.schemaString = schema;
+  }
+
+  /**
+   * Set the compression of the pages, one of the Parquet codec names like SNAPPY, GZIP or
+   * UNCOMPRESSED
+   *
+   * @param codec name of the codec
+   */
+  public void setCompression(String codec) {
+    this.compression = CompressionCodecName.valueOf(codec.toUpperCase());
+  }
+
+  /**
+   * Set the size of a row group in bytes, the readers can skip or split the files by row groups
+   *
+   * @param size the size
+   */
+  public void setRowGroupSize(int size) {
+    this.rowGroupSize = size;
+  }
+
+  private MessageType getSchema() {
+    if (schema == null) {
+      schema = MessageTypeParser.parseMessageType(schemaString);
+      ParquetRows.checkFlat(schema);
+    }
+    return schema;
+  }
+
+  @Override
+  protected void createOutput(int partition, FSDataOutputStream out) {
+    if (writers == null) {
+      writers = new HashMap<>();
+    }
+    try {
+      writers.put(partition, ExampleParquetWriter.builder(
+          new Twister2ParquetOutputFile(out, rowGroupSize))
+          .withType(getSchema())
+          .withCompressionCodec(compression)
+          .withRowGroupSize(rowGroupSize)
+          .build());
+    } catch (IOException e) {
+      throw new Twister2RuntimeException("Failed to create the parquet writer for partition "
+          + partition, e);
+    }
+  }
+
+  @Override
+  protected void writeRecord(int partition, Row data) {
+    try {
+      writers.get(partition).write(ParquetRows.toGroup(data, getSchema()));
+    } catch (IOException e) {
+      throw new Twister2RuntimeException("Failed to write the row to partition " + partition, e);
+    }
+  }
+
+  /**
+   * Parquet files are written per partition, this doesn't touch the output path
+   */
+  @Override
+  public void write(Row out) {
+    writeRecord(out);
+  }
+
+  @Override
+  protected void writeRecord(Row data) {
+    throw new Twister2RuntimeException("Parquet files are written per partition, "
+        + "use write(partition, row)");
+  }
+
+  @Override
+  public void close() {
+    if (writers != null) {
+      // the writers close the streams after writing the footers
+      for (Map.Entry<Integer, ParquetWriter<Group>> e : writers.entrySet()) {
+        try {
+          e.getValue().close();
+        } catch (IOException ex) {
+          LOG.log(Level.SEVERE, "Failed to close the parquet writer of partition "
+              + e.getKey(), ex);
+        }
+      }
+      writers.clear();
+      openStreams.clear();
+    }
+    super.close();
+  }
+}
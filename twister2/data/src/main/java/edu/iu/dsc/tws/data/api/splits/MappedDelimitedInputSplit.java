@@ -0,0 +1,427 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.data.api.splits;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.api.data.Path;
+import edu.iu.dsc.tws.data.api.formatters.FileInputPartitioner;
+import edu.iu.dsc.tws.data.fs.local.LocalDataInputStream;
+
+/**
+ * A delimited split of a local file that maps the file into memory instead of copying it
+ * through read buffers. The records are located by scanning the mapped region eight bytes at a
+ * time for the delimiter and handed to {@link #readRecord(Object, MappedRecord)} as a view of
+ * the mapped bytes.
+ * <p>
+ * The split owns the records starting within its byte range. A split that doesn't start at the
+ * beginning of the file skips the partial record in front of it and the last record of a split
+ * is read until its delimiter, even if it crosses the end of the split.
+ * <p>
+ * The file is mapped in windows, so splits larger than 2GB can be read. A record has to fit in
+ * a window.
+ */
+public abstract class MappedDelimitedInputSplit<OT> extends FileInputSplit<OT> {
+
+  private static final Logger LOG = Logger.getLogger(MappedDelimitedInputSplit.class.getName());
+
+  /**
+   * The configuration key to set the record delimiter.
+   */
+  protected static final String RECORD_DELIMITER = "delimited-format.delimiter";
+
+  /**
+   * The configuration key to set the size of the mapped window.
+   */
+  public static final String MAPPED_WINDOW_SIZE = "twister2.data.mapped.window.size";
+
+  /**
+   * The default window size = 256MB.
+   */
+  private static final int DEFAULT_WINDOW_SIZE = 256 * 1024 * 1024;
+
+  private static final long ONES = 0x0101010101010101L;
+
+  private static final long HIGH_BITS = 0x8080808080808080L;
+
+  private static final byte CARRIAGE_RETURN = (byte) '\r';
+
+  private static final byte NEW_LINE = (byte) '\n';
+
+  // The charset used to convert strings to bytes
+  private String charsetName = "UTF-8";
+
+  // Charset is not serializable
+  private transient Charset charset;
+
+  private byte[] delimiter = new byte[]{'\n'};
+
+  private String delimiterString = null;
+
+  private int windowSize = -1;
+
+  private transient FileChannel channel;
+
+  private transient long fileLength;
+
+  /**
+   * The records starting before this position belong to the split
+   */
+  private transient long splitEnd;
+
+  private transient MappedByteBuffer window;
+
+  private transient long windowStart;
+
+  private transient long windowEnd;
+
+  /**
+   * Start of the record after the current one
+   */
+  private transient long position;
+
+  private transient boolean hasNext;
+
+  private transient MappedByteBuffer nextWindow;
+
+  private transient int nextOffset;
+
+  private transient int nextLength;
+
+  private transient MappedRecord record;
+
+  /**
+   * Constructs a split with host information.
+   *
+   * @param num the number of this input split
+   * @param file the file name
+   * @param start the position of the first byte in the file to process
+   * @param length the number of bytes in the file to process (-1 is flag for "read whole file")
+   * @param hosts the list of hosts containing the block, possibly <code>null</code>
+   */
+  public MappedDelimitedInputSplit(int num, Path file, long start, long length, String[] hosts) {
+    super(num, file, start, length, hosts);
+  }
+
+  public byte[] getDelimiter() {
+    return delimiter;
+  }
+
+  public void setDelimiter(byte[] delimiter) {
+    if (delimiter == null || delimiter.length == 0) {
+      throw new IllegalArgumentException("Delimiter must not be null or empty");
+    }
+    this.delimiter = delimiter;
+  }
+
+  public String getDelimiterString() {
+    return delimiterString;
+  }
+
+  public void setDelimiterString(String delimiterString) {
+    if (delimiterString == null || delimiterString.isEmpty()) {
+      throw new IllegalArgumentException("Delimiter must not be null or empty");
+    }
+    this.delimiter = delimiterString.getBytes(getCharset());
+    this.delimiterString = delimiterString;
+  }
+
+  public int getWindowSize() {
+    return windowSize;
+  }
+
+  public void setWindowSize(int windowSize) {
+    if (windowSize < 2) {
+      throw new IllegalArgumentException("Window size must be at least 2.");
+    }
+    this.windowSize = windowSize;
+  }
+
+  public String getCharsetName() {
+    return charsetName;
+  }
+
+  public void setCharsetName(String charsetName) {
+    if (charsetName == null) {
+      throw new IllegalArgumentException("Charset must not be null.");
+    }
+    this.charsetName = charsetName;
+    this.charset = null;
+  }
+
+  /**
+   * Get the character set used for the row delimiter and the record strings.
+   *
+   * @return the charset
+   */
+  public Charset getCharset() {
+    if (this.charset == null) {
+      this.charset = Charset.forName(charsetName);
+    }
+    return this.charset;
+  }
+
+  @Override
+  public void configure(Config parameters) {
+    super.configure(parameters);
+
+    // don't overwrite the values set by the setters
+    if (Arrays.equals(delimiter, new byte[]{'\n'})) {
+      String delimString = parameters.getStringValue(RECORD_DELIMITER, null);
+      if (delimString != null) {
+        setDelimiterString(delimString);
+      }
+    }
+    if (windowSize <= 0) {
+      setWindowSize(parameters.getIntegerValue(MAPPED_WINDOW_SIZE, DEFAULT_WINDOW_SIZE));
+    }
+  }
+
+  /**
+   * This function creates the record from the view of its bytes. The view is only valid until
+   * the next record is read.
+   *
+   * @param reuse An optionally reusable object.
+   * @param view the bytes of the record without the delimiter
+   * @return Returns the read record
+   * @throws IOException if the record could not be read.
+   */
+  public abstract OT readRecord(OT reuse, MappedRecord view) throws IOException;
+
+  /**
+   * Create the view used for the records of this split
+   *
+   * @return the view
+   */
+  protected MappedRecord createRecord() {
+    return new MappedRecord(getCharset());
+  }
+
+  @Override
+  public void open() throws IOException {
+    super.open();
+    initWindow();
+  }
+
+  @Override
+  public void open(Config cfg) throws IOException {
+    super.open(cfg);
+    initWindow();
+  }
+
+  private void initWindow() throws IOException {
+    if (!(this.stream instanceof LocalDataInputStream)) {
+      throw new IOException("Only local files can be mapped: " + getPath());
+    }
+    if (this.windowSize <= 0) {
+      this.windowSize = DEFAULT_WINDOW_SIZE;
+    }
+    if (this.windowSize <= this.delimiter.length) {
+      throw new IllegalArgumentException("Window size must be greater than length of delimiter.");
+    }
+    if (this.record == null) {
+      this.record = createRecord();
+    }
+
+    this.channel = ((LocalDataInputStream) this.stream).getChannel();
+    this.fileLength = channel.size();
+    this.splitEnd = this.splitLength == FileInputPartitioner.READ_WHOLE_SPLIT_FLAG
+        ? fileLength : Math.min(fileLength, splitStart + splitLength);
+    this.window = null;
+    this.windowStart = 0;
+    this.windowEnd = 0;
+
+    this.position = this.splitStart;
+    if (this.splitStart > 0 && this.splitStart < fileLength) {
+      // skip the partial record, it belongs to the previous split
+      long from = Math.max(0, this.splitStart - delimiter.length);
+      long found = find(from, from);
+      this.position = found < 0 ? fileLength : found + delimiter.length;
+    }
+    advance();
+  }
+
+  @Override
+  public OT nextRecord(OT reuse) throws IOException {
+    if (!hasNext) {
+      return null;
+    }
+    record.set(nextWindow, nextOffset, nextLength);
+    advance();
+    return readRecord(reuse, record);
+  }
+
+  /**
+   * Read the next record as a view of the mapped bytes without creating the record object. The
+   * view is reused and only valid until the next record is read.
+   *
+   * @return the view or null if the split has no more records
+   * @throws IOException if the file can not be mapped
+   */
+  public MappedRecord nextRecordView() throws IOException {
+    if (!hasNext) {
+      return null;
+    }
+    record.set(nextWindow, nextOffset, nextLength);
+    advance();
+    return record;
+  }
+
+  /**
+   * Locate the record starting at the current position
+   */
+  private void advance() throws IOException {
+    if (position >= splitEnd) {
+      hasNext = false;
+      return;
+    }
+    long found = find(position, position);
+    long recordEnd = found < 0 ? fileLength : found;
+    int length = (int) (recordEnd - position);
+    // remove the \r of the windows line endings
+    if (found >= 0 && delimiter.length == 1 && delimiter[0] == NEW_LINE && length > 0
+        && window.get((int) (recordEnd - 1 - windowStart)) == CARRIAGE_RETURN) {
+      length--;
+    }
+
+    nextWindow = window;
+    nextOffset = (int) (position - windowStart);
+    nextLength = length;
+    hasNext = true;
+    position = found < 0 ? fileLength : found + delimiter.length;
+  }
+
+  /**
+   * Find the next delimiter, the window is moved so that it contains the record and the
+   * delimiter.
+   *
+   * @param recordStart start of the record that has to be in the window
+   * @param from position to start looking for the delimiter
+   * @return position of the delimiter or -1 if the file ends before the next delimiter
+   */
+  private long find(long recordStart, long from) throws IOException {
+    if (window == null || recordStart < windowStart || recordStart >= windowEnd) {
+      map(recordStart);
+    }
+
+    long scan = from;
+    while (true) {
+      long found = scanWindow(scan);
+      if (found >= 0) {
+        return found;
+      }
+      if (windowEnd >= fileLength) {
+        return -1;
+      }
+      if (recordStart == windowStart) {
+        throw new IOException("The record at " + recordStart + " in " + getPath()
+            + " is larger than the mapped window of " + windowSize + " bytes");
+      }
+      // a delimiter may start in the last bytes of the window
+      scan = Math.max(recordStart, windowEnd - delimiter.length + 1);
+      map(recordStart);
+    }
+  }
+
+  private long scanWindow(long from) {
+    int limit = (int) (windowEnd - windowStart);
+    int i = indexOf(window, delimiter[0], (int) (from - windowStart), limit);
+    while (i >= 0) {
+      if (i + delimiter.length > limit) {
+        return -1;
+      }
+      int matched = 1;
+      while (matched < delimiter.length && window.get(i + matched) == delimiter[matched]) {
+        matched++;
+      }
+      if (matched == delimiter.length) {
+        return windowStart + i;
+      }
+      i = indexOf(window, delimiter[0], i + 1, limit);
+    }
+    return -1;
+  }
+
+  private void map(long start) throws IOException {
+    long size = Math.min(windowSize, fileLength - start);
+    window = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+    window.order(ByteOrder.LITTLE_ENDIAN);
+    windowStart = start;
+    windowEnd = start + size;
+    LOG.finest(() -> "Mapped " + getPath() + " [" + windowStart + "," + windowEnd + ")");
+  }
+
+  /**
+   * Find a byte in the buffer, the buffer is read a long at a time and the bytes of the long
+   * are compared at once.
+   *
+   * @param buffer the buffer in little endian order
+   * @param value the byte to find
+   * @param from the first index to check
+   * @param to the index after the last index to check
+   * @return index of the byte or -1 if it is not found
+   */
+  static int indexOf(ByteBuffer buffer, byte value, int from, int to) {
+    long pattern = (value & 0xFFL) * ONES;
+    int i = from;
+    for (; i + Long.BYTES <= to; i += Long.BYTES) {
+      long word = buffer.getLong(i) ^ pattern;
+      // the lowest set bit marks the first zero byte, the higher ones can be false positives
+      long zeros = (word - ONES) & ~word & HIGH_BITS;
+      if (zeros != 0) {
+        return i + (Long.numberOfTrailingZeros(zeros) >>> 3);
+      }
+    }
+    for (; i < to; i++) {
+      if (buffer.get(i) == value) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Closes the file and releases the mapped windows.
+   *
+   * @throws IOException Thrown, if the closing of the file stream causes an I/O error.
+   */
+  @Override
+  public void close() throws IOException {
+    this.window = null;
+    this.nextWindow = null;
+    this.hasNext = false;
+    this.channel = null;
+    if (this.stream != null) {
+      this.stream.close();
+      this.stream = null;
+    }
+    super.close();
+  }
+
+  /**
+   * Checks whether the current split is at its end.
+   *
+   * @return True, if the split is at its end, false otherwise.
+   */
+  @Override
+  public boolean reachedEnd() {
+    return !this.hasNext;
+  }
+}
@@ -0,0 +1,279 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.data.api.splits;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * A view of a record in a mapped file. The fields are located only when they are accessed and
+ * are kept as offsets in to the mapped bytes, so the numbers can be parsed without creating
+ * strings. Quotes are not interpreted, the fields are separated by every field delimiter.
+ * <p>
+ * The view is reused by the split and is only valid until the next record is read.
+ */
+public final class MappedRecord {
+  /**
+   * 10^0 to 10^22 are exact doubles
+   */
+  private static final double[] POWERS_OF_TEN = {
+      1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+      1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+  };
+
+  /**
+   * Digits that always fit in the 53 bits of a double mantissa
+   */
+  private static final int MAX_EXACT_DIGITS = 15;
+
+  private final Charset charset;
+
+  private byte fieldDelimiter = ',';
+
+  private ByteBuffer buffer;
+
+  /**
+   * A duplicate of the buffer used for bulk reads, so the buffer position is not changed
+   */
+  private ByteBuffer reader;
+
+  private int offset;
+
+  private int length;
+
+  /**
+   * End of every field relative to the record, -1 until the fields are located
+   */
+  private int[] fieldEnds = new int[16];
+
+  private int fieldCount = -1;
+
+  private byte[] scratch = new byte[256];
+
+  public MappedRecord(Charset charset) {
+    this.charset = charset;
+  }
+
+  public MappedRecord(Charset charset, byte fieldDelimiter) {
+    this.charset = charset;
+    this.fieldDelimiter = fieldDelimiter;
+  }
+
+  void set(ByteBuffer recordBuffer, int recordOffset, int recordLength) {
+    if (this.buffer != recordBuffer) {
+      this.buffer = recordBuffer;
+      this.reader = recordBuffer.duplicate();
+    }
+    this.offset = recordOffset;
+    this.length = recordLength;
+    this.fieldCount = -1;
+  }
+
+  public byte getFieldDelimiter() {
+    return fieldDelimiter;
+  }
+
+  /**
+   * Number of bytes in the record
+   *
+   * @return the length
+   */
+  public int length() {
+    return length;
+  }
+
+  /**
+   * The byte at the index of the record
+   *
+   * @param index index in the record
+   * @return the byte
+   */
+  public byte byteAt(int index) {
+    if (index < 0 || index >= length) {
+      throw new IndexOutOfBoundsException("Index " + index + " of a record with " + length);
+    }
+    return buffer.get(offset + index);
+  }
+
+  /**
+   * Copy the bytes of the record
+   *
+   * @param dest destination
+   * @param destOffset offset in the destination
+   */
+  public void copyTo(byte[] dest, int destOffset) {
+    read(0, dest, destOffset, length);
+  }
+
+  public int getFieldCount() {
+    locateFields();
+    return fieldCount;
+  }
+
+  /**
+   * Offset of the field from the start of the record
+   *
+   * @param field the field index
+   * @return offset of the field
+   */
+  public int getFieldOffset(int field) {
+    checkField(field);
+    return field == 0 ? 0 : fieldEnds[field - 1] + 1;
+  }
+
+  public int getFieldLength(int field) {
+    // the offset locates the fields of the record first
+    int fieldOffset = getFieldOffset(field);
+    return fieldEnds[field] - fieldOffset;
+  }
+
+  public boolean isEmpty(int field) {
+    return getFieldLength(field) == 0;
+  }
+
+  /**
+   * Decode the record as a string
+   *
+   * @return the string
+   */
+  @Override
+  public String toString() {
+    return decode(0, length);
+  }
+
+  public String getString(int field) {
+    return decode(getFieldOffset(field), getFieldLength(field));
+  }
+
+  public int getInt(int field) {
+    long value = getLong(field);
+    if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+      throw new NumberFormatException("Value out of int range: " + getString(field));
+    }
+    return (int) value;
+  }
+
+  /**
+   * Parse the field as a long without creating a string, fields with other characters than
+   * an optional sign and digits are parsed from the string
+   *
+   * @param field the field index
+   * @return the value
+   */
+  public long getLong(int field) {
+    int start = offset + getFieldOffset(field);
+    int end = start + getFieldLength(field);
+    int i = start;
+    boolean negative = false;
+    if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+      negative = buffer.get(i) == '-';
+      i++;
+    }
+    // 18 digits can not overflow
+    if (i == end || end - i > 18) {
+      return Long.parseLong(getString(field).trim());
+    }
+    long value = 0;
+    for (; i < end; i++) {
+      int digit = buffer.get(i) - '0';
+      if (digit < 0 || digit > 9) {
+        return Long.parseLong(getString(field).trim());
+      }
+      value = value * 10 + digit;
+    }
+    return negative ? -value : value;
+  }
+
+  /**
+   * Parse the field as a double. Decimals with up to 15 digits and without an exponent are
+   * parsed from the bytes, the result is exact because both the digits and the power of ten
+   * are exact doubles. Other values are parsed from the string.
+   *
+   * @param field the field index
+   * @return the value
+   */
+  public double getDouble(int field) {
+    int start = offset + getFieldOffset(field);
+    int end = start + getFieldLength(field);
+    int i = start;
+    boolean negative = false;
+    if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+      negative = buffer.get(i) == '-';
+      i++;
+    }
+    long digits = 0;
+    int count = 0;
+    int fraction = -1;
+    for (; i < end; i++) {
+      byte b = buffer.get(i);
+      if (b >= '0' && b <= '9') {
+        digits = digits * 10 + (b - '0');
+        count++;
+      } else if (b == '.' && fraction < 0) {
+        fraction = count;
+      } else {
+        break;
+      }
+    }
+    if (i != end || count == 0 || count > MAX_EXACT_DIGITS) {
+      return Double.parseDouble(getString(field));
+    }
+    double value = fraction < 0 ? digits : digits / POWERS_OF_TEN[count - fraction];
+    return negative ? -value : value;
+  }
+
+  private void checkField(int field) {
+    locateFields();
+    if (field < 0 || field >= fieldCount) {
+      throw new IndexOutOfBoundsException("Field " + field + " of a record with "
+          + fieldCount + " fields");
+    }
+  }
+
+  private void locateFields() {
+    if (fieldCount >= 0) {
+      return;
+    }
+    int count = 0;
+    int end = offset + length;
+    int from = offset;
+    while (true) {
+      int found = MappedDelimitedInputSplit.indexOf(buffer, fieldDelimiter, from, end);
+      if (count == fieldEnds.length) {
+        int[] tmp = new int[fieldEnds.length * 2];
+        System.arraycopy(fieldEnds, 0, tmp, 0, count);
+        fieldEnds = tmp;
+      }
+      if (found < 0) {
+        fieldEnds[count++] = length;
+        break;
+      }
+      fieldEnds[count++] = found - offset;
+      from = found + 1;
+    }
+    fieldCount = count;
+  }
+
+  private String decode(int from, int len) {
+    if (scratch.length < len) {
+      scratch = new byte[Math.max(scratch.length * 2, len)];
+    }
+    read(from, scratch, 0, len);
+    return new String(scratch, 0, len, charset);
+  }
+
+  private void read(int from, byte[] dest, int destOffset, int len) {
+    reader.limit(offset + from + len);
+    reader.position(offset + from);
+    reader.get(dest, destOffset, len);
+  }
+}
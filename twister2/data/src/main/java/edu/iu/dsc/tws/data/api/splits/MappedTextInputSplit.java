@@ -0,0 +1,71 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.data.api.splits;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.api.data.Path;
+
+/**
+ * Reads the lines of a local text or CSV file from a memory mapped split. The records are
+ * returned as strings, the readers that want to avoid creating the strings can use
+ * {@link #nextRecordView()} and read the fields from the view.
+ */
+public class MappedTextInputSplit extends MappedDelimitedInputSplit<String> {
+
+  private byte fieldDelimiter = (byte) CSVInputSplit.DEFAULT_FIELD_DELIMITER.charAt(0);
+
+  /**
+   * Constructs a split with host information.
+   *
+   * @param num the number of this input split
+   * @param file the file name
+   * @param start the position of the first byte in the file to process
+   * @param length the number of bytes in the file to process (-1 is flag for "read whole file")
+   * @param hosts the list of hosts containing the block, possibly <code>null</code>
+   */
+  public MappedTextInputSplit(int num, Path file, long start, long length, String[] hosts) {
+    super(num, file, start, length, hosts);
+  }
+
+  public byte getFieldDelimiter() {
+    return fieldDelimiter;
+  }
+
+  public void setFieldDelimiter(char fieldDelimiter) {
+    if (fieldDelimiter > 127) {
+      throw new IllegalArgumentException("Field delimiter must be a single byte character");
+    }
+    this.fieldDelimiter = (byte) fieldDelimiter;
+  }
+
+  @Override
+  public void configure(Config parameters) {
+    super.configure(parameters);
+
+    if (!Charset.isSupported(getCharsetName())) {
+      throw new RuntimeException("Unsupported charset: " + getCharsetName());
+    }
+  }
+
+  @Override
+  protected MappedRecord createRecord() {
+    return new MappedRecord(getCharset(), fieldDelimiter);
+  }
+
+  @Override
+  public String readRecord(String reuse, MappedRecord view) throws IOException {
+    return view.toString();
+  }
+}
@@ -0,0 +1,193 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.data.api.splits;
+
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.parquet.ParquetReadOptions;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.convert.GroupRecordConverter;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.io.ColumnIOFactory;
+import org.apache.parquet.io.MessageColumnIO;
+import org.apache.parquet.io.RecordReader;
+import org.apache.parquet.schema.MessageType;
+
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.api.data.FileSystem;
+import edu.iu.dsc.tws.api.data.Path;
+import edu.iu.dsc.tws.common.table.Row;
+import edu.iu.dsc.tws.data.parquet.ParquetRows;
+import edu.iu.dsc.tws.data.parquet.Twister2ParquetInputFile;
+import edu.iu.dsc.tws.data.utils.FileSystemUtils;
+
+/**
+ * Reads the row groups of a Parquet file with their middle point inside this split, so the
+ * splits of a file read every row group exactly once. Only the requested columns are read and
+ * the row groups whose statistics or dictionaries don't match the filter are skipped before
+ * reading them.
+ */
+public class ParquetInputSplit extends FileInputSplit<Row> {
+
+  private static final Logger LOG = Logger.getLogger(ParquetInputSplit.class.getName());
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Columns to read, null to read all the columns
+   */
+  private final String[] columns;
+
+  /**
+   * Filter of the records, null to read all the records
+   */
+  private final FilterPredicate filter;
+
+  private transient Config config;
+
+  private transient ParquetFileReader reader;
+
+  private transient MessageType fileSchema;
+
+  /**
+   * Schema of the rows, the requested columns
+   */
+  private transient MessageType requestedSchema;
+
+  /**
+   * Schema of the records read, the requested columns followed by the other filter columns
+   */
+  private transient MessageType readSchema;
+
+  private transient RecordReader<Group> recordReader;
+
+  /**
+   * Records left in the current row group
+   */
+  private transient long recordsLeft;
+
+  /**
+   * The next record to return
+   */
+  private transient Row nextRow;
+
+  public ParquetInputSplit(int num, Path file, long start, long length, String[] hosts,
+                           String[] columns, FilterPredicate filter) {
+    super(num, file, start, length, hosts);
+    this.columns = columns;
+    this.filter = filter;
+  }
+
+  @Override
+  public void configure(Config parameters) {
+    super.configure(parameters);
+    this.config = parameters;
+  }
+
+  @Override
+  public void open() throws IOException {
+    open(config);
+  }
+
+  @Override
+  public void open(Config cfg) throws IOException {
+    this.config = cfg;
+    this.splitStart = getStart();
+    this.splitLength = getLength();
+
+    LOG.log(Level.FINE, "Opening parquet split " + getPath() + " ["
+        + splitStart + "," + splitLength + "]");
+
+    FileSystem fs = FileSystemUtils.get(getPath(), config);
+    ParquetReadOptions.Builder options = ParquetReadOptions.builder()
+        .withRange(splitStart, splitStart + splitLength);
+    if (filter != null) {
+      options.withRecordFilter(FilterCompat.get(filter));
+    }
+    reader = ParquetFileReader.open(new Twister2ParquetInputFile(fs, getPath()),
+        options.build());
+    fileSchema = reader.getFooter().getFileMetaData().getSchema();
+    requestedSchema = ParquetRows.project(fileSchema, columns);
+    readSchema = ParquetRows.readSchema(fileSchema, columns, filter);
+    reader.setRequestedSchema(readSchema);
+    recordsLeft = 0;
+    nextRow = null;
+    advance();
+  }
+
+  @Override
+  public boolean reachedEnd() throws IOException {
+    return nextRow == null;
+  }
+
+  @Override
+  public Row nextRecord(Row reuse) throws IOException {
+    Row row = nextRow;
+    advance();
+    return row;
+  }
+
+  /**
+   * Read the next record passing the filter, moving to the next row groups as needed
+   */
+  private void advance() throws IOException {
+    nextRow = null;
+    while (nextRow == null) {
+      if (recordsLeft == 0 && !nextRowGroup()) {
+        return;
+      }
+      recordsLeft--;
+      Group group = recordReader.read();
+      if (group != null && !recordReader.shouldSkipCurrentRecord()) {
+        nextRow = ParquetRows.toRow(group, requestedSchema);
+      }
+    }
+  }
+
+  private boolean nextRowGroup() throws IOException {
+    if (reader == null) {
+      return false;
+    }
+    PageReadStore pages = reader.readNextRowGroup();
+    if (pages == null) {
+      close();
+      return false;
+    }
+    MessageColumnIO columnIO = new ColumnIOFactory().getColumnIO(readSchema, fileSchema);
+    recordReader = columnIO.getRecordReader(pages, new GroupRecordConverter(readSchema),
+        filter != null ? FilterCompat.get(filter) : FilterCompat.NOOP);
+    recordsLeft = pages.getRowCount();
+    return true;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (reader != null) {
+      reader.close();
+      reader = null;
+    }
+    recordReader = null;
+  }
+
+  public String[] getColumns() {
+    return columns;
+  }
+
+  public FilterPredicate getFilter() {
+    return filter;
+  }
+}
@@ -0,0 +1,274 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.data.parquet;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroup;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.filter2.predicate.Operators;
+import org.apache.parquet.filter2.predicate.UserDefinedPredicate;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+
+import edu.iu.dsc.tws.api.exceptions.Twister2RuntimeException;
+import edu.iu.dsc.tws.common.table.NRow;
+import edu.iu.dsc.tws.common.table.Row;
+
+/**
+ * Converts between the Parquet records and the rows. Only the flat schemas with primitive
+ * columns are supported, a column of a row holds an Integer, Long, Float, Double, Boolean,
+ * String (for the string columns) or byte[] value, or null for a missing optional value.
+ */
+public final class ParquetRows {
+
+  private ParquetRows() {
+  }
+
+  /**
+   * Create the schema with only the given columns of the file schema, in the given order
+   *
+   * @param fileSchema schema of the file
+   * @param columns names of the columns, null or empty for all the columns
+   * @return the requested schema
+   */
+  public static MessageType project(MessageType fileSchema, String[] columns) {
+    checkFlat(fileSchema);
+    if (columns == null || columns.length == 0) {
+      return fileSchema;
+    }
+
+    List<Type> fields = new ArrayList<>(columns.length);
+    for (String column : columns) {
+      if (!fileSchema.containsField(column)) {
+        throw new Twister2RuntimeException("Column " + column + " is not in the schema "
+            + fileSchema);
+      }
+      fields.add(fileSchema.getType(column));
+    }
+    return new MessageType(fileSchema.getName(), fields);
+  }
+
+  /**
+   * Create the schema to read, the given columns followed by the other columns the filter
+   * uses. The record filter treats the columns missing from the read schema as null, so the
+   * filter columns are read as well and dropped when creating the rows.
+   *
+   * @param fileSchema schema of the file
+   * @param columns names of the columns, null or empty for all the columns
+   * @param filter the filter, can be null
+   * @return the schema to read
+   */
+  public static MessageType readSchema(MessageType fileSchema, String[] columns,
+                                       FilterPredicate filter) {
+    if (columns == null || columns.length == 0 || filter == null) {
+      return project(fileSchema, columns);
+    }
+
+    Set<String> names = new LinkedHashSet<>();
+    for (String column : columns) {
+      names.add(column);
+    }
+    filter.accept(new FilterColumns(names));
+    return project(fileSchema, names.toArray(new String[0]));
+  }
+
+  /**
+   * Check weather the rows can represent the records of the schema
+   *
+   * @param schema the schema
+   */
+  public static void checkFlat(MessageType schema) {
+    for (Type type : schema.getFields()) {
+      if (!type.isPrimitive() || type.isRepetition(Type.Repetition.REPEATED)) {
+        throw new Twister2RuntimeException("Only the flat schemas are supported, the column "
+            + type.getName() + " is " + type);
+      }
+    }
+  }
+
+  /**
+   * Convert a record to a row, the record can have more columns after the ones in the schema
+   *
+   * @param group the record
+   * @param schema schema of the row
+   * @return the row
+   */
+  public static Row toRow(Group group, MessageType schema) {
+    Object[] values = new Object[schema.getFieldCount()];
+    for (int i = 0; i < values.length; i++) {
+      if (group.getFieldRepetitionCount(i) == 0) {
+        continue;
+      }
+      PrimitiveType type = schema.getType(i).asPrimitiveType();
+      switch (type.getPrimitiveTypeName()) {
+        case INT32:
+          values[i] = group.getInteger(i, 0);
+          break;
+        case INT64:
+          values[i] = group.getLong(i, 0);
+          break;
+        case FLOAT:
+          values[i] = group.getFloat(i, 0);
+          break;
+        case DOUBLE:
+          values[i] = group.getDouble(i, 0);
+          break;
+        case BOOLEAN:
+          values[i] = group.getBoolean(i, 0);
+          break;
+        default:
+          Binary binary = group.getBinary(i, 0);
+          values[i] = isString(type) ? binary.toStringUsingUTF8() : binary.getBytes();
+      }
+    }
+    return new NRow(values);
+  }
+
+  /**
+   * Convert a row to a record
+   *
+   * @param row the row
+   * @param schema schema of the record
+   * @return the record
+   */
+  public static Group toGroup(Row row, MessageType schema) {
+    if (row.numberOfColumns() != schema.getFieldCount()) {
+      throw new Twister2RuntimeException("The row has " + row.numberOfColumns()
+          + " columns, but the schema has " + schema.getFieldCount());
+    }
+
+    Group group = new SimpleGroup(schema);
+    for (int i = 0; i < schema.getFieldCount(); i++) {
+      Object value = row.get(i);
+      if (value == null) {
+        if (schema.getType(i).isRepetition(Type.Repetition.REQUIRED)) {
+          throw new Twister2RuntimeException("Null value for the required column "
+              + schema.getType(i).getName());
+        }
+        continue;
+      }
+      PrimitiveType type = schema.getType(i).asPrimitiveType();
+      switch (type.getPrimitiveTypeName()) {
+        case INT32:
+          group.add(i, ((Number) value).intValue());
+          break;
+        case INT64:
+          group.add(i, ((Number) value).longValue());
+          break;
+        case FLOAT:
+          group.add(i, ((Number) value).floatValue());
+          break;
+        case DOUBLE:
+          group.add(i, ((Number) value).doubleValue());
+          break;
+        case BOOLEAN:
+          group.add(i, (Boolean) value);
+          break;
+        default:
+          if (value instanceof byte[]) {
+            group.add(i, Binary.fromConstantByteArray((byte[]) value));
+          } else {
+            group.add(i, Binary.fromString(value.toString()));
+          }
+      }
+    }
+    return group;
+  }
+
+  private static boolean isString(PrimitiveType type) {
+    return type.getLogicalTypeAnnotation()
+        instanceof LogicalTypeAnnotation.StringLogicalTypeAnnotation;
+  }
+
+  /**
+   * Adds the names of the columns used by a filter
+   */
+  private static final class FilterColumns implements FilterPredicate.Visitor<Void> {
+    private final Set<String> names;
+
+    FilterColumns(Set<String> names) {
+      this.names = names;
+    }
+
+    private Void add(Operators.Column<?> column) {
+      names.add(column.getColumnPath().toDotString());
+      return null;
+    }
+
+    @Override
+    public <T extends Comparable<T>> Void visit(Operators.Eq<T> eq) {
+      return add(eq.getColumn());
+    }
+
+    @Override
+    public <T extends Comparable<T>> Void visit(Operators.NotEq<T> notEq) {
+      return add(notEq.getColumn());
+    }
+
+    @Override
+    public <T extends Comparable<T>> Void visit(Operators.Lt<T> lt) {
+      return add(lt.getColumn());
+    }
+
+    @Override
+    public <T extends Comparable<T>> Void visit(Operators.LtEq<T> ltEq) {
+      return add(ltEq.getColumn());
+    }
+
+    @Override
+    public <T extends Comparable<T>> Void visit(Operators.Gt<T> gt) {
+      return add(gt.getColumn());
+    }
+
+    @Override
+    public <T extends Comparable<T>> Void visit(Operators.GtEq<T> gtEq) {
+      return add(gtEq.getColumn());
+    }
+
+    @Override
+    public Void visit(Operators.And and) {
+      and.getLeft().accept(this);
+      return and.getRight().accept(this);
+    }
+
+    @Override
+    public Void visit(Operators.Or or) {
+      or.getLeft().accept(this);
+      return or.getRight().accept(this);
+    }
+
+    @Override
+    public Void visit(Operators.Not not) {
+      return not.getPredicate().accept(this);
+    }
+
+    @Override
+    public <T extends Comparable<T>, U extends UserDefinedPredicate<T>> Void visit(
+        Operators.UserDefined<T, U> udp) {
+      return add(udp.getColumn());
+    }
+
+    @Override
+    public <T extends Comparable<T>, U extends UserDefinedPredicate<T>> Void visit(
+        Operators.LogicalNotUserDefined<T, U> udp) {
+      return add(udp.getUserDefined().getColumn());
+    }
+  }
+}
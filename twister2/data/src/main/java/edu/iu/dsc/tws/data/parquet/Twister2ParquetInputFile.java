@@ -0,0 +1,73 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.data.parquet;
+
+import java.io.IOException;
+
+import org.apache.parquet.io.DelegatingSeekableInputStream;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.SeekableInputStream;
+
+import edu.iu.dsc.tws.api.data.FSDataInputStream;
+import edu.iu.dsc.tws.api.data.FileSystem;
+import edu.iu.dsc.tws.api.data.Path;
+
+/**
+ * Gives the Parquet readers access to a file of the twister2 file systems, so the same reader
+ * works for the local and the distributed file systems.
+ */
+public class Twister2ParquetInputFile implements InputFile {
+  private final FileSystem fileSystem;
+
+  private final Path path;
+
+  private long length = -1;
+
+  public Twister2ParquetInputFile(FileSystem fileSystem, Path path) {
+    this.fileSystem = fileSystem;
+    this.path = path;
+  }
+
+  public Twister2ParquetInputFile(FileSystem fileSystem, Path path, long length) {
+    this(fileSystem, path);
+    this.length = length;
+  }
+
+  @Override
+  public long getLength() throws IOException {
+    if (length < 0) {
+      length = fileSystem.getFileStatus(path).getLen();
+    }
+    return length;
+  }
+
+  @Override
+  public SeekableInputStream newStream() throws IOException {
+    final FSDataInputStream in = fileSystem.open(path);
+    return new DelegatingSeekableInputStream(in) {
+      @Override
+      public long getPos() throws IOException {
+        return in.getPos();
+      }
+
+      @Override
+      public void seek(long newPos) throws IOException {
+        in.seek(newPos);
+      }
+    };
+  }
+
+  @Override
+  public String toString() {
+    return path.toString();
+  }
+}
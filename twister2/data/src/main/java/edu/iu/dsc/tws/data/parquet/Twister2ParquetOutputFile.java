@@ -0,0 +1,85 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.data.parquet;
+
+import java.io.IOException;
+
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.io.PositionOutputStream;
+
+import edu.iu.dsc.tws.api.data.FSDataOutputStream;
+import edu.iu.dsc.tws.api.exceptions.Twister2RuntimeException;
+
+/**
+ * Lets a Parquet writer write to a stream already created in a twister2 file system. The stream
+ * can be given to only one writer.
+ */
+public class Twister2ParquetOutputFile implements OutputFile {
+  private FSDataOutputStream out;
+
+  private final long blockSize;
+
+  public Twister2ParquetOutputFile(FSDataOutputStream out, long blockSize) {
+    this.out = out;
+    this.blockSize = blockSize;
+  }
+
+  @Override
+  public PositionOutputStream create(long blockSizeHint) {
+    return createOrOverwrite(blockSizeHint);
+  }
+
+  @Override
+  public PositionOutputStream createOrOverwrite(long blockSizeHint) {
+    if (out == null) {
+      throw new Twister2RuntimeException("The output stream is already given to a writer");
+    }
+    final FSDataOutputStream stream = out;
+    out = null;
+    return new PositionOutputStream() {
+      @Override
+      public long getPos() throws IOException {
+        return stream.getPos();
+      }
+
+      @Override
+      public void write(int b) throws IOException {
+        stream.write(b);
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) throws IOException {
+        stream.write(b, off, len);
+      }
+
+      @Override
+      public void flush() throws IOException {
+        stream.flush();
+      }
+
+      @Override
+      public void close() throws IOException {
+        stream.close();
+      }
+    };
+  }
+
+  @Override
+  public boolean supportsBlockSize() {
+    return blockSize > 0;
+  }
+
+  @Override
+  public long defaultBlockSize() {
+    return blockSize;
+  }
+}
@@ -245,6 +245,24 @@ public final class FileSystemUtils {
     return getFileSystem(uri, config);
   }
 
+  /**
+   * Check weather the path is on the local file system, a path without a scheme is resolved
+   * with the default scheme
+   *
+   * @param path the path
+   * @return true if the path is a local file
+   */
+  public static boolean isLocal(Path path) {
+    String scheme = path.toUri().getScheme();
+    if (scheme == null) {
+      synchronized (SYNCHRONIZATION_OBJECT) {
+        scheme = defaultScheme != null ? defaultScheme.getScheme()
+            : URI.create(DataConstants.DEFAULT_FILESYSTEM_SCHEME).getScheme();
+      }
+    }
+    return "file".equals(scheme);
+  }
+
   private static Class<? extends FileSystem> getFileSystemByName(String className)
       throws ClassNotFoundException {
     return Class.forName(className, true,
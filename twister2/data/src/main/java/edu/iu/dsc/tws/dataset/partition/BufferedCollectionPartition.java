@@ -11,18 +11,19 @@
 //  limitations under the License.
 package edu.iu.dsc.tws.dataset.partition;
 
+import java.io.BufferedInputStream;
 import java.io.Closeable;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Queue;
 import java.util.UUID;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -30,11 +31,16 @@ import java.util.stream.Collectors;
 import edu.iu.dsc.tws.api.comms.messaging.types.MessageType;
 import edu.iu.dsc.tws.api.comms.messaging.types.MessageTypes;
 import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.api.config.FileSystemContext;
 import edu.iu.dsc.tws.api.data.FileStatus;
 import edu.iu.dsc.tws.api.data.FileSystem;
 import edu.iu.dsc.tws.api.data.Path;
 import edu.iu.dsc.tws.api.dataset.DataPartitionConsumer;
 import edu.iu.dsc.tws.api.exceptions.Twister2RuntimeException;
+import edu.iu.dsc.tws.api.util.compress.BlockCodec;
+import edu.iu.dsc.tws.api.util.compress.BlockCodecs;
+import edu.iu.dsc.tws.api.util.compress.BlockCompressedInputStream;
+import edu.iu.dsc.tws.api.util.compress.BlockCompressedOutputStream;
 
 public abstract class BufferedCollectionPartition<T> extends CollectionPartition<T>
     implements Closeable {
@@ -46,6 +52,15 @@ public abstract class BufferedCollectionPartition<T> extends CollectionPartition
 
   private static final String EXTENSION = ".pbck";
 
+  /**
+   * Compressed files start with this instead of the number of frames, followed by the codec name
+   */
+  private static final long COMPRESSED_FILE = -1L;
+
+  private static final int COMPRESSION_BLOCK_SIZE = 65536;
+
+  private static final int STREAM_BUFFER_SIZE = 65536;
+
   private long maxFramesInMemory;
   private MessageType dataType;
 
@@ -54,6 +69,11 @@ public abstract class BufferedCollectionPartition<T> extends CollectionPartition
 
   private List<byte[]> buffers = new ArrayList<>();
   private long bufferedBytes = 0;
+
+  /**
+   * Background readers of the consumers, stopped before the files are deleted
+   */
+  private List<WeakReference<PrefetchingFrameReader>> fileReaders = new ArrayList<>();
   private long maxBufferedBytes;
 
   private FileSystem fileSystem;
@@ -61,6 +81,16 @@ public abstract class BufferedCollectionPartition<T> extends CollectionPartition
 
   private String reference;
 
+  /**
+   * Amount of data read ahead from the files by the consumers
+   */
+  private long readAheadBytes;
+
+  /**
+   * Codec used to compress the files, null if they are not compressed
+   */
+  private BlockCodec codec;
+
   /**
    * Creates an instance of {@link BufferedCollectionPartition}
    *
@@ -75,6 +105,8 @@ public abstract class BufferedCollectionPartition<T> extends CollectionPartition
     this.maxFramesInMemory = maxFramesInMemory;
     this.maxBufferedBytes = bufferedBytes;
     this.dataType = dataType;
+    this.readAheadBytes = FileSystemContext.tsetStorageReadAhead(config);
+    this.codec = BlockCodecs.get(FileSystemContext.tsetStorageCompressionCodec(config));
     try {
       this.fileSystem = getFileSystem(config);
       this.rootPath = getRootPath(config);
@@ -191,48 +223,32 @@ public abstract class BufferedCollectionPartition<T> extends CollectionPartition
   public DataPartitionConsumer<T> getConsumer() {
 
     final Iterator<T> inMemoryIterator = this.dataList.iterator();
-    final Iterator<Path> fileIterator = this.filesList.iterator();
     final Iterator<byte[]> buffersIterator = this.buffers.iterator();
+    // start reading the files in the background while the in memory frames are consumed
+    final Iterator<byte[]> fileFrames;
+    if (this.filesList.isEmpty()) {
+      fileFrames = Collections.emptyIterator();
+    } else {
+      PrefetchingFrameReader reader = new PrefetchingFrameReader(fileSystem, filesList,
+          readAheadBytes);
+      this.fileReaders.removeIf(r -> r.get() == null);
+      this.fileReaders.add(new WeakReference<>(reader));
+      fileFrames = reader;
+    }
 
     return new DataPartitionConsumer<T>() {
 
-      private Queue<byte[]> bufferFromDisk = new LinkedList<>();
-
       @Override
       public boolean hasNext() {
-        return inMemoryIterator.hasNext()
-            || fileIterator.hasNext() || buffersIterator.hasNext() || !bufferFromDisk.isEmpty();
+        return inMemoryIterator.hasNext() || fileFrames.hasNext() || buffersIterator.hasNext();
       }
 
       @Override
       public T next() {
-        if (!this.bufferFromDisk.isEmpty()) {
-          return (T) dataType.getDataPacker().unpackFromByteArray(this.bufferFromDisk.poll());
-        } else if (inMemoryIterator.hasNext()) {
+        if (inMemoryIterator.hasNext()) {
           return inMemoryIterator.next();
-        } else if (fileIterator.hasNext()) {
-          Path nextFile = fileIterator.next();
-          try {
-            DataInputStream reader = new DataInputStream(fileSystem.open(nextFile));
-            long noOfFrames = reader.readLong();
-            for (long i = 0; i < noOfFrames; i++) {
-              int size = reader.readInt();
-              byte[] data = new byte[size];
-              int readSoFar = 0;
-              while (readSoFar < size) {
-                int readSize = reader.read(data, readSoFar, data.length - readSoFar);
-                if (readSize == -1) {
-                  throw new Twister2RuntimeException("Reached the EOF unexpectedly");
-                }
-                readSoFar += readSize;
-              }
-              this.bufferFromDisk.add(data);
-            }
-            return next();
-          } catch (IOException e) {
-            throw new Twister2RuntimeException(
-                "Failed to read value from the temp file : " + nextFile.toString(), e);
-          }
+        } else if (fileFrames.hasNext()) {
+          return (T) dataType.getDataPacker().unpackFromByteArray(fileFrames.next());
         } else if (buffersIterator.hasNext()) {
           return (T) dataType.getDataPacker().unpackFromByteArray(buffersIterator.next());
         }
@@ -252,6 +268,14 @@ public abstract class BufferedCollectionPartition<T> extends CollectionPartition
 
   @Override
   public void clear() {
+    for (WeakReference<PrefetchingFrameReader> ref : this.fileReaders) {
+      PrefetchingFrameReader reader = ref.get();
+      if (reader != null) {
+        reader.close();
+      }
+    }
+    this.fileReaders.clear();
+
     // cleanup files
     for (Path path : this.filesList) {
       try {
@@ -274,7 +298,7 @@ public abstract class BufferedCollectionPartition<T> extends CollectionPartition
       return;
     }
     Path filePath = new Path(this.rootPath, (this.fileCounter++) + EXTENSION);
-    try (DataOutputStream outputStream = new DataOutputStream(this.fileSystem.create(filePath))) {
+    try (DataOutputStream outputStream = createFile(filePath)) {
       outputStream.writeLong(this.buffers.size());
       Iterator<byte[]> bufferIt = this.buffers.iterator();
       while (bufferIt.hasNext()) {
@@ -290,6 +314,37 @@ public abstract class BufferedCollectionPartition<T> extends CollectionPartition
     this.bufferedBytes = 0;
   }
 
+  private DataOutputStream createFile(Path filePath) throws IOException {
+    DataOutputStream fileStream = new DataOutputStream(this.fileSystem.create(filePath));
+    if (codec == null) {
+      return fileStream;
+    }
+    fileStream.writeLong(COMPRESSED_FILE);
+    fileStream.writeUTF(codec.getName());
+    return new DataOutputStream(new BlockCompressedOutputStream(fileStream,
+        codec, COMPRESSION_BLOCK_SIZE));
+  }
+
+  /**
+   * Open a partition file, the files written with a codec are decompressed with the same codec
+   *
+   * @param fileSystem the file system
+   * @param file the file
+   * @return a stream positioned at the number of frames
+   */
+  static DataInputStream openFile(FileSystem fileSystem, Path file) throws IOException {
+    BufferedInputStream fileStream = new BufferedInputStream(fileSystem.open(file),
+        STREAM_BUFFER_SIZE);
+    DataInputStream reader = new DataInputStream(fileStream);
+    fileStream.mark(Long.BYTES);
+    if (reader.readLong() != COMPRESSED_FILE) {
+      fileStream.reset();
+      return reader;
+    }
+    BlockCodec fileCodec = BlockCodecs.get(reader.readUTF());
+    return new DataInputStream(new BlockCompressedInputStream(fileStream, fileCodec));
+  }
+
   public boolean hasIndexInMemory(int index) {
     return index < this.dataList.size();
   }
@@ -306,8 +361,7 @@ public abstract class BufferedCollectionPartition<T> extends CollectionPartition
       long currentSize = this.dataList.size();
       for (int fileIndex = 0; fileIndex < this.filesList.size(); fileIndex++) {
         Path nextFile = this.filesList.get(fileIndex);
-        try {
-          DataInputStream reader = new DataInputStream(fileSystem.open(nextFile));
+        try (DataInputStream reader = openFile(fileSystem, nextFile)) {
           long noOfFrames = reader.readLong();
           if (index < currentSize + noOfFrames) {
             if (cachedFileIndex != fileIndex) {
@@ -317,7 +371,7 @@ public abstract class BufferedCollectionPartition<T> extends CollectionPartition
               for (long i = 0; i < noOfFrames; i++) {
                 int size = reader.readInt();
                 byte[] data = new byte[size];
-                reader.read(data);
+                reader.readFully(data);
                 this.currentFileCache.add(data);
               }
             }
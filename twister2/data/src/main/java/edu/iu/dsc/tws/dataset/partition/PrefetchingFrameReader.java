@@ -0,0 +1,228 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.dataset.partition;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import edu.iu.dsc.tws.api.data.FileSystem;
+import edu.iu.dsc.tws.api.data.Path;
+import edu.iu.dsc.tws.api.exceptions.Twister2RuntimeException;
+
+/**
+ * Reads the frames of the partition files in a background thread. The frames are handed over in
+ * batches through a queue of two, so the next batch (possibly from the next file) is read while
+ * the current one is consumed and at most about twice the read ahead size is kept in memory.
+ * <p>
+ * A failure of the reader is handed to the consumer and thrown from {@link #hasNext()}. A
+ * consumer which stops half way can close the reader to stop the background read.
+ */
+final class PrefetchingFrameReader implements Iterator<byte[]>, Closeable {
+  private static final Logger LOG = Logger.getLogger(PrefetchingFrameReader.class.getName());
+
+  /**
+   * Batches in flight between the reader and the consumer
+   */
+  private static final int QUEUED_BATCHES = 2;
+
+  /**
+   * How long the reader waits for the consumer before checking weather it is still alive
+   */
+  private static final long OFFER_WAIT_MILLIS = 100;
+
+  private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+  /**
+   * Threads shared by all the readers of this worker
+   */
+  private static final ExecutorService IO_THREADS = Executors.newCachedThreadPool(r -> {
+    Thread t = new Thread(r, "partition-prefetch-" + THREAD_COUNT.incrementAndGet());
+    t.setDaemon(true);
+    return t;
+  });
+
+  /**
+   * Marks the end of the files
+   */
+  private static final List<byte[]> END = Collections.emptyList();
+
+  private final BlockingQueue<Object> batches = new ArrayBlockingQueue<>(QUEUED_BATCHES);
+
+  /**
+   * Set when the consumer closes the reader
+   */
+  private final AtomicBoolean closed = new AtomicBoolean();
+
+  private Iterator<byte[]> current = Collections.emptyIterator();
+
+  private boolean done;
+
+  /**
+   * The failure of the reader, thrown again if the consumer keeps reading
+   */
+  private Throwable failure;
+
+  PrefetchingFrameReader(FileSystem fileSystem, List<Path> files, long readAheadBytes) {
+    long batchBytes = Math.max(1, readAheadBytes / QUEUED_BATCHES);
+    IO_THREADS.execute(new Reader(fileSystem, new ArrayList<>(files), batchBytes,
+        batches, closed, new WeakReference<>(this)));
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public boolean hasNext() {
+    while (!current.hasNext()) {
+      if (failure != null) {
+        throw failed(failure);
+      }
+      if (done) {
+        return false;
+      }
+      Object batch;
+      try {
+        batch = batches.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new Twister2RuntimeException("Interrupted while reading the partition", e);
+      }
+
+      if (batch == END) {
+        done = true;
+      } else if (batch instanceof Throwable) {
+        done = true;
+        failure = (Throwable) batch;
+      } else {
+        current = ((List<byte[]>) batch).iterator();
+      }
+    }
+    return true;
+  }
+
+  private static RuntimeException failed(Throwable t) {
+    if (t instanceof Error) {
+      throw (Error) t;
+    }
+    return new Twister2RuntimeException("Failed to read the partition files", t);
+  }
+
+  /**
+   * Stop reading the files, the frames which are not read yet are dropped
+   */
+  @Override
+  public void close() {
+    if (closed.compareAndSet(false, true)) {
+      done = true;
+      current = Collections.emptyIterator();
+      // unblock the reader if it is waiting for space
+      batches.clear();
+    }
+  }
+
+  @Override
+  public byte[] next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException("No more frames in the partition files");
+    }
+    return current.next();
+  }
+
+  /**
+   * Reads the files, this doesn't keep a strong reference to the consumer so it can stop when
+   * the consumer is abandoned half way
+   */
+  private static final class Reader implements Runnable {
+    private final FileSystem fileSystem;
+    private final List<Path> files;
+    private final long batchBytes;
+    private final BlockingQueue<Object> batches;
+    private final AtomicBoolean closed;
+    private final WeakReference<PrefetchingFrameReader> owner;
+
+    Reader(FileSystem fileSystem, List<Path> files, long batchBytes,
+           BlockingQueue<Object> batches, AtomicBoolean closed,
+           WeakReference<PrefetchingFrameReader> owner) {
+      this.fileSystem = fileSystem;
+      this.files = files;
+      this.batchBytes = batchBytes;
+      this.batches = batches;
+      this.closed = closed;
+      this.owner = owner;
+    }
+
+    @Override
+    public void run() {
+      List<byte[]> batch = new ArrayList<>();
+      long bytesInBatch = 0;
+      try {
+        for (Path file : files) {
+          try (DataInputStream reader = BufferedCollectionPartition.openFile(fileSystem, file)) {
+            long noOfFrames = reader.readLong();
+            for (long i = 0; i < noOfFrames; i++) {
+              byte[] data = new byte[reader.readInt()];
+              reader.readFully(data);
+              batch.add(data);
+              bytesInBatch += data.length;
+
+              if (bytesInBatch >= batchBytes) {
+                if (!hand(batch)) {
+                  return;
+                }
+                batch = new ArrayList<>();
+                bytesInBatch = 0;
+              }
+            }
+          }
+        }
+        if (!batch.isEmpty() && !hand(batch)) {
+          return;
+        }
+        hand(END);
+      } catch (Throwable t) {
+        // the consumer would wait for ever if we don't tell it
+        LOG.warning("Failed to read the partition files: " + t);
+        if (batch.isEmpty() || hand(batch)) {
+          hand(t);
+        }
+      }
+    }
+
+    private boolean hand(Object item) {
+      try {
+        while (!closed.get()
+            && !batches.offer(item, OFFER_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+          if (owner.get() == null) {
+            // nobody is going to read the rest
+            return false;
+          }
+        }
+        return !closed.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+    }
+  }
+}
@@ -0,0 +1,313 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.data.api.splits;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.api.data.Path;
+import edu.iu.dsc.tws.data.api.formatters.FileInputPartitioner;
+import edu.iu.dsc.tws.data.api.formatters.LocalCSVInputPartitioner;
+import edu.iu.dsc.tws.data.api.formatters.LocalTextInputPartitioner;
+
+public class MappedDelimitedInputSplitTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private int files;
+
+  private static int naiveIndexOf(ByteBuffer buffer, byte value, int from, int to) {
+    for (int i = from; i < to; i++) {
+      if (buffer.get(i) == value) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  @Test
+  public void testIndexOf() {
+    ByteBuffer buffer = ByteBuffer.allocate(37).order(ByteOrder.LITTLE_ENDIAN);
+    // the value at every position, including the tail bytes after the last full long
+    for (int pos = 0; pos < buffer.capacity(); pos++) {
+      Arrays.fill(buffer.array(), (byte) 'a');
+      buffer.put(pos, (byte) '\n');
+      for (int from = 0; from <= pos; from++) {
+        Assert.assertEquals(pos, MappedDelimitedInputSplit.indexOf(buffer, (byte) '\n', from,
+            buffer.capacity()));
+      }
+      Assert.assertEquals(-1, MappedDelimitedInputSplit.indexOf(buffer, (byte) '\n', pos + 1,
+          buffer.capacity()));
+      // the end is exclusive
+      Assert.assertEquals(-1, MappedDelimitedInputSplit.indexOf(buffer, (byte) '\n', 0, pos));
+    }
+  }
+
+  @Test
+  public void testIndexOfHighBytes() {
+    ByteBuffer buffer = ByteBuffer.allocate(32).order(ByteOrder.LITTLE_ENDIAN);
+    // bytes that differ from the value only in the high bit or by one must not match
+    byte[] values = {'\n', 0, (byte) 0x80, (byte) 0xFF, (byte) 0x7F, 1};
+    for (byte value : values) {
+      byte[] near = {(byte) (value ^ 0x80), (byte) (value ^ 0x01), (byte) (value + 1),
+          (byte) (value - 1), (byte) 0x80, (byte) 0xFF};
+      for (int i = 0; i < buffer.capacity(); i++) {
+        buffer.put(i, near[i % near.length]);
+      }
+      Assert.assertEquals(naiveIndexOf(buffer, value, 0, 32),
+          MappedDelimitedInputSplit.indexOf(buffer, value, 0, 32));
+      // a match followed by bytes that look like a borrow
+      buffer.put(9, value);
+      Assert.assertEquals(naiveIndexOf(buffer, value, 0, 32),
+          MappedDelimitedInputSplit.indexOf(buffer, value, 0, 32));
+    }
+
+    Random random = new Random(11);
+    for (int n = 0; n < 2000; n++) {
+      random.nextBytes(buffer.array());
+      byte value = (byte) random.nextInt(256);
+      int from = random.nextInt(32);
+      int to = from + random.nextInt(33 - from);
+      Assert.assertEquals(naiveIndexOf(buffer, value, from, to),
+          MappedDelimitedInputSplit.indexOf(buffer, value, from, to));
+    }
+  }
+
+  private Path write(String content) throws IOException {
+    File file = folder.newFile("file-" + files++);
+    Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    return new Path(file.getAbsolutePath());
+  }
+
+  private static Config config(int windowSize) {
+    return Config.newBuilder()
+        .put(MappedDelimitedInputSplit.MAPPED_WINDOW_SIZE, windowSize).build();
+  }
+
+  /**
+   * Read the records of the splits starting at the given offsets, in order
+   */
+  private static List<String> read(Path path, String delimiter, Config cfg, long... starts)
+      throws IOException {
+    long fileLength = new File(path.getPath()).length();
+    List<String> records = new ArrayList<>();
+    for (int i = 0; i < starts.length; i++) {
+      long end = i + 1 < starts.length ? starts[i + 1] : fileLength;
+      MappedTextInputSplit split = new MappedTextInputSplit(i, path, starts[i],
+          end - starts[i], null);
+      if (delimiter != null) {
+        split.setDelimiterString(delimiter);
+      }
+      split.configure(cfg);
+      split.open(cfg);
+      while (!split.reachedEnd()) {
+        records.add(split.nextRecord(null));
+      }
+      Assert.assertNull(split.nextRecord(null));
+      split.close();
+    }
+    return records;
+  }
+
+  /**
+   * Read the file with two splits, split at every position
+   */
+  private void checkEverySplitPoint(String content, String delimiter, int windowSize,
+                                    List<String> expected) throws IOException {
+    Path path = write(content);
+    int length = content.getBytes(StandardCharsets.UTF_8).length;
+    Config cfg = config(windowSize);
+    for (int at = 0; at <= length; at++) {
+      Assert.assertEquals("Split at " + at, expected, read(path, delimiter, cfg, 0, at));
+    }
+  }
+
+  @Test
+  public void testPartialFirstRecord() throws IOException {
+    Path path = write("aaa\nbbbbbb\ncc\n");
+    Config cfg = config(1024);
+    // the second record starts in the first split and is read past its end
+    Assert.assertEquals(Arrays.asList("aaa", "bbbbbb", "cc"), read(path, null, cfg, 0, 5));
+    // a record starting at the split start belongs to the split
+    Assert.assertEquals(Arrays.asList("aaa", "bbbbbb", "cc"), read(path, null, cfg, 0, 4));
+    Assert.assertEquals(Arrays.asList("aaa", "bbbbbb", "cc"), read(path, null, cfg, 0, 3));
+    Assert.assertEquals(Arrays.asList("aaa", "bbbbbb", "cc"), read(path, null, cfg, 0, 4, 11));
+    // a split without a record start reads nothing
+    Assert.assertEquals(Arrays.asList("aaa", "bbbbbb", "cc"), read(path, null, cfg, 0, 5, 8));
+  }
+
+  @Test
+  public void testEverySplitPoint() throws IOException {
+    List<String> lines = Arrays.asList("first", "", "x", "a longer line", "", "last");
+    checkEverySplitPoint(String.join("\n", lines) + "\n", null, 1024, lines);
+    // without the trailing delimiter
+    checkEverySplitPoint(String.join("\n", lines), null, 1024, lines);
+  }
+
+  @Test
+  public void testWindowCrossingRecords() throws IOException {
+    List<String> lines = new ArrayList<>();
+    StringBuilder content = new StringBuilder();
+    Random random = new Random(3);
+    for (int i = 0; i < 60; i++) {
+      char[] line = new char[random.nextInt(14)];
+      Arrays.fill(line, (char) ('a' + i % 26));
+      lines.add(new String(line));
+      content.append(line).append('\n');
+    }
+    // a record and its delimiter fit in the window, but most of them cross the window ends
+    checkEverySplitPoint(content.toString(), null, 16, lines);
+    checkEverySplitPoint(content.toString(), "\n", 15, lines);
+  }
+
+  @Test
+  public void testRecordLargerThanWindow() throws IOException {
+    Path path = write("short\nthis record is longer than the window\n");
+    try {
+      read(path, null, config(16), 0);
+      Assert.fail("The record should not fit in the window");
+    } catch (IOException e) {
+      Assert.assertTrue(e.getMessage().contains("larger than the mapped window"));
+    }
+  }
+
+  @Test
+  public void testMultiByteDelimiter() throws IOException {
+    List<String> records = Arrays.asList("one", "t|wo", "", "th<r>ee", "|", "four");
+    String content = String.join("<|>", records);
+    checkEverySplitPoint(content, "<|>", 1024, records);
+    checkEverySplitPoint(content + "<|>", "<|>", 1024, records);
+    // a delimiter crossing the window ends
+    checkEverySplitPoint(content + "<|>", "<|>", 12, records);
+    // a delimiter with a repeated prefix
+    checkEverySplitPoint("aabaababaab", "aab", 1024, Arrays.asList("", "", "ab"));
+  }
+
+  @Test
+  public void testCarriageReturn() throws IOException {
+    List<String> lines = Arrays.asList("first", "", "second", "third");
+    checkEverySplitPoint(String.join("\r\n", lines) + "\r\n", null, 1024, lines);
+    checkEverySplitPoint(String.join("\r\n", lines), null, 9, lines);
+    // only the \r in front of the delimiter is removed
+    checkEverySplitPoint("a\rb\r\nc\r", null, 1024, Arrays.asList("a\rb", "c\r"));
+    // with another delimiter the \r is kept
+    checkEverySplitPoint("a\r\nb\r\n", "\r\n", 1024, Arrays.asList("a", "b"));
+  }
+
+  @Test
+  public void testEmptyFile() throws IOException {
+    Path path = write("");
+    Assert.assertTrue(read(path, null, config(1024), 0).isEmpty());
+    Assert.assertTrue(read(path, null, config(1024), 0, 0).isEmpty());
+
+    Path newLine = write("\n");
+    Assert.assertEquals(Arrays.asList(""), read(newLine, null, config(1024), 0, 1));
+  }
+
+  @Test
+  public void testMultiByteCharacters() throws IOException {
+    List<String> lines = Arrays.asList("\u00e4\u20ac", "\u65e5\u672c\u8a9e", "ascii", "\u00df");
+    String content = String.join("\n", lines) + "\n";
+    checkEverySplitPoint(content, null, 1024, lines);
+    checkEverySplitPoint(content, null, 26, lines);
+  }
+
+  @Test
+  public void testWholeSplitFlag() throws IOException {
+    Path path = write("a\nb\n");
+    MappedTextInputSplit split = new MappedTextInputSplit(0, path, 0,
+        FileInputPartitioner.READ_WHOLE_SPLIT_FLAG, null);
+    split.configure(config(1024));
+    split.open(config(1024));
+    Assert.assertEquals("a", split.nextRecord(null));
+    MappedRecord view = split.nextRecordView();
+    Assert.assertEquals("b", view.toString());
+    Assert.assertNull(split.nextRecordView());
+    Assert.assertTrue(split.reachedEnd());
+    split.close();
+  }
+
+  /**
+   * Read the splits of the partitioner in order
+   */
+  private static List<String> readSplits(FileInputSplit<String>[] splits, Config cfg)
+      throws IOException {
+    List<String> records = new ArrayList<>();
+    for (FileInputSplit<String> split : splits) {
+      split.configure(cfg);
+      split.open(cfg);
+      while (!split.reachedEnd()) {
+        String record = split.nextRecord(null);
+        if (record != null) {
+          records.add(record);
+        }
+      }
+      split.close();
+    }
+    return records;
+  }
+
+  @Test
+  public void testSameRecordsAsTextSplits() throws IOException {
+    StringBuilder content = new StringBuilder();
+    Random random = new Random(5);
+    for (int i = 0; i < 500; i++) {
+      content.append(i).append(',').append(random.nextInt(100000)).append(',');
+      for (int j = random.nextInt(40); j > 0; j--) {
+        content.append((char) ('a' + random.nextInt(26)));
+      }
+      content.append(i % 3 == 0 ? "\r\n" : "\n");
+    }
+    Path path = write(content.toString());
+    Config cfg = config(64);
+
+    // the buffered split reading the whole file
+    TextInputSplit whole = new TextInputSplit(0, path, 0,
+        new File(path.getPath()).length(), null);
+    List<String> expected = readSplits(new TextInputSplit[]{whole}, cfg);
+    Assert.assertEquals(500, expected.size());
+
+    for (int splits : new int[]{1, 2, 3, 5, 7, 16, 50}) {
+      LocalTextInputPartitioner partitioner = new LocalTextInputPartitioner(path, splits, cfg);
+      partitioner.configure(cfg);
+      FileInputSplit<String>[] inputSplits = partitioner.createInputSplits(splits);
+      for (FileInputSplit<String> split : inputSplits) {
+        Assert.assertTrue(split instanceof MappedTextInputSplit);
+      }
+      Assert.assertEquals("Splits " + splits, expected, readSplits(inputSplits, cfg));
+
+      // the csv partitioner ends the splits at the line ends, it gives the same number of lines
+      // to every split
+      if (500 % splits == 0) {
+        LocalCSVInputPartitioner csvPartitioner = new LocalCSVInputPartitioner(path, splits,
+            500, cfg);
+        Assert.assertEquals("CSV splits " + splits, expected,
+            readSplits(csvPartitioner.createInputSplits(splits), cfg));
+      }
+    }
+  }
+}
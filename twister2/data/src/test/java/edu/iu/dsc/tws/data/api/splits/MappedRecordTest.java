@@ -0,0 +1,122 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.data.api.splits;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MappedRecordTest {
+
+  /**
+   * A view of the record in the middle of a larger buffer
+   */
+  private static MappedRecord record(String text) {
+    byte[] bytes = ("garbage\n" + text + "\ntrailing,1,2").getBytes(StandardCharsets.UTF_8);
+    ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    MappedRecord record = new MappedRecord(StandardCharsets.UTF_8, (byte) ',');
+    record.set(buffer, 8, text.getBytes(StandardCharsets.UTF_8).length);
+    return record;
+  }
+
+  @Test
+  public void testFields() {
+    MappedRecord record = record("a,,bc,");
+    Assert.assertEquals("a,,bc,", record.toString());
+    Assert.assertEquals(6, record.length());
+    Assert.assertEquals(4, record.getFieldCount());
+    Assert.assertEquals("a", record.getString(0));
+    Assert.assertTrue(record.isEmpty(1));
+    Assert.assertEquals("bc", record.getString(2));
+    Assert.assertEquals(3, record.getFieldOffset(2));
+    Assert.assertEquals(2, record.getFieldLength(2));
+    Assert.assertTrue(record.isEmpty(3));
+    Assert.assertEquals((byte) 'b', record.byteAt(3));
+
+    byte[] copy = new byte[8];
+    record.copyTo(copy, 1);
+    Assert.assertEquals("a,,bc,", new String(copy, 1, 6, StandardCharsets.UTF_8));
+
+    Assert.assertEquals(1, record("").getFieldCount());
+    Assert.assertEquals(40, record(new String(new char[39]).replace('\0', ',')).getFieldCount());
+  }
+
+  @Test
+  public void testFieldsOfTheCurrentRecord() {
+    // the fields are located again for each record
+    ByteBuffer buffer = ByteBuffer.wrap("1,22\n333,4,\n".getBytes(StandardCharsets.UTF_8));
+    MappedRecord record = new MappedRecord(StandardCharsets.UTF_8, (byte) ',');
+    record.set(buffer, 0, 4);
+    Assert.assertEquals(2, record.getFieldLength(1));
+    record.set(buffer, 5, 6);
+    Assert.assertEquals(1, record.getFieldLength(1));
+    Assert.assertTrue(record.isEmpty(2));
+    Assert.assertEquals(333, record.getInt(0));
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testMissingField() {
+    record("1,2").getString(2);
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testByteOutOfRecord() {
+    record("abc").byteAt(3);
+  }
+
+  @Test
+  public void testLong() {
+    String[] values = {"0", "7", "-7", "+7", "123456789012345678", "-123456789012345678",
+        "9223372036854775807", "-9223372036854775808", "0000000000000000000012", " 42 "};
+    for (String value : values) {
+      Assert.assertEquals(value, Long.parseLong(value.trim()),
+          record("x," + value + ",y").getLong(1));
+    }
+    Assert.assertEquals(-5, record("-5").getInt(0));
+  }
+
+  @Test
+  public void testInvalidLongs() {
+    String[] values = {"", "-", "1.5", "12a", "9223372036854775808", "2147483648"};
+    for (int i = 0; i < values.length; i++) {
+      try {
+        if (i == values.length - 1) {
+          record(values[i]).getInt(0);
+        } else {
+          record(values[i]).getLong(0);
+        }
+        Assert.fail("Parsed " + values[i]);
+      } catch (NumberFormatException e) {
+        // expected
+      }
+    }
+  }
+
+  @Test
+  public void testDouble() {
+    String[] values = {"0", "1", "-1", "+2.5", "0.1", "3.14159", "-0.000123", "123456789.12345",
+        "12.", ".5", "1e10", "-2.5E-3", "1234567890.1234567", "NaN", "-Infinity", "-0.0",
+        "0.30000000000000004"};
+    for (String value : values) {
+      Assert.assertEquals(value, Double.doubleToLongBits(Double.parseDouble(value)),
+          Double.doubleToLongBits(record(value + ",z").getDouble(0)));
+    }
+  }
+
+  @Test(expected = NumberFormatException.class)
+  public void testInvalidDouble() {
+    record("1.2.3").getDouble(0);
+  }
+}
@@ -0,0 +1,195 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.data.parquet;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.api.data.FileSystem;
+import edu.iu.dsc.tws.api.data.Path;
+import edu.iu.dsc.tws.common.table.NRow;
+import edu.iu.dsc.tws.common.table.Row;
+import edu.iu.dsc.tws.data.api.formatters.ParquetInputPartitioner;
+import edu.iu.dsc.tws.data.api.out.ParquetOutputWriter;
+import edu.iu.dsc.tws.data.api.splits.FileInputSplit;
+import edu.iu.dsc.tws.data.fs.local.LocalFileSystem;
+
+/**
+ * Write the rows with the output writer and read them back through the splits
+ */
+public class ParquetRoundTripTest {
+  private static final String SCHEMA = "message record { required int64 id; "
+      + "optional binary name (UTF8); optional double score; }";
+
+  private static final int ROWS = 3000;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private Config config = Config.newBuilder().build();
+
+  private static String name(long id) {
+    return id % 7 == 0 ? null : "name-" + id;
+  }
+
+  private static Double score(long id) {
+    return id % 5 == 0 ? null : id * 0.5;
+  }
+
+  /**
+   * Write the rows to two partitions, with small row groups so each file has many of them
+   */
+  private Path write() {
+    Path dir = new Path(new File(folder.getRoot(), "out").getAbsolutePath());
+    ParquetOutputWriter writer = new ParquetOutputWriter(FileSystem.WriteMode.OVERWRITE, dir,
+        SCHEMA, config);
+    writer.setCompression("UNCOMPRESSED");
+    writer.setRowGroupSize(1024);
+    for (long id = 0; id < ROWS; id++) {
+      writer.write((int) (id % 2), new NRow(new Object[]{id, name(id), score(id)}));
+    }
+    writer.close();
+    return dir;
+  }
+
+  /**
+   * Write a file without any rows
+   */
+  private void writeEmpty(Path dir, String file) throws IOException {
+    ParquetWriter<Group> writer = ExampleParquetWriter.builder(new Twister2ParquetOutputFile(
+        new LocalFileSystem().create(new Path(dir, file)), 1024))
+        .withType(MessageTypeParser.parseMessageType(SCHEMA))
+        .build();
+    writer.close();
+  }
+
+  private List<Row> read(Path dir, int splits, String[] columns, FilterPredicate filter)
+      throws IOException {
+    ParquetInputPartitioner partitioner = new ParquetInputPartitioner(dir, config, columns,
+        filter);
+    FileInputSplit<Row>[] inputSplits = partitioner.createInputSplits(splits);
+    List<Row> rows = new ArrayList<>();
+    for (FileInputSplit<Row> split : inputSplits) {
+      split.open(config);
+      while (!split.reachedEnd()) {
+        rows.add(split.nextRecord(null));
+      }
+      split.close();
+    }
+    return rows;
+  }
+
+  /**
+   * Check every row is read exactly once with its values
+   */
+  private static void checkRows(List<Row> rows, long from, long to) {
+    boolean[] seen = new boolean[ROWS];
+    for (Row row : rows) {
+      long id = (Long) row.get(0);
+      Assert.assertTrue("Unexpected row " + id, id >= from && id < to);
+      Assert.assertFalse("Row read twice " + id, seen[(int) id]);
+      seen[(int) id] = true;
+      Assert.assertEquals(name(id), row.get(1));
+      Assert.assertEquals(score(id), row.get(2));
+    }
+    Assert.assertEquals(to - from, rows.size());
+  }
+
+  @Test
+  public void testReadAllSplits() throws IOException {
+    Path dir = write();
+    // the files have many row groups
+    Assert.assertTrue(new ParquetInputPartitioner(dir, config).createInputSplits(8).length > 2);
+    for (int splits : new int[]{1, 3, 8, 50}) {
+      checkRows(read(dir, splits, null, null), 0, ROWS);
+    }
+  }
+
+  @Test
+  public void testProjection() throws IOException {
+    Path dir = write();
+    List<Row> rows = read(dir, 4, new String[]{"score", "id"}, null);
+    Assert.assertEquals(ROWS, rows.size());
+    for (Row row : rows) {
+      Assert.assertEquals(2, row.numberOfColumns());
+      long id = (Long) row.get(1);
+      Assert.assertEquals(score(id), row.get(0));
+    }
+  }
+
+  @Test
+  public void testFilter() throws IOException {
+    Path dir = write();
+    FilterPredicate filter = FilterApi.and(
+        FilterApi.gtEq(FilterApi.longColumn("id"), 1000L),
+        FilterApi.lt(FilterApi.longColumn("id"), 1200L));
+    checkRows(read(dir, 5, null, filter), 1000, 1200);
+
+    // a filter on a column that is not projected
+    List<Row> rows = read(dir, 5, new String[]{"id"},
+        FilterApi.eq(FilterApi.binaryColumn("name"), Binary.fromString("name-1234")));
+    Assert.assertEquals(1, rows.size());
+    Assert.assertEquals(1, rows.get(0).numberOfColumns());
+    Assert.assertEquals(1234L, rows.get(0).get(0));
+
+    // the rows only have the projected columns when the filter uses several other columns
+    rows = read(dir, 5, new String[]{"score"}, FilterApi.or(
+        FilterApi.eq(FilterApi.longColumn("id"), 12L),
+        FilterApi.and(FilterApi.eq(FilterApi.binaryColumn("name"), Binary.fromString("name-22")),
+            FilterApi.not(FilterApi.eq(FilterApi.longColumn("id"), 0L)))));
+    Assert.assertEquals(2, rows.size());
+    for (Row row : rows) {
+      Assert.assertEquals(1, row.numberOfColumns());
+    }
+    Assert.assertEquals(6.0, rows.get(0).get(0));
+    Assert.assertEquals(11.0, rows.get(1).get(0));
+  }
+
+  @Test
+  public void testNulls() throws IOException {
+    Path dir = write();
+    List<Row> rows = read(dir, 3, new String[]{"id", "name"},
+        FilterApi.eq(FilterApi.binaryColumn("name"), null));
+    Assert.assertEquals((ROWS + 6) / 7, rows.size());
+    for (Row row : rows) {
+      Assert.assertEquals(0, (Long) row.get(0) % 7);
+      Assert.assertNull(row.get(1));
+    }
+  }
+
+  @Test
+  public void testEmptyFiles() throws IOException {
+    Path empty = new Path(new File(folder.getRoot(), "empty").getAbsolutePath());
+    writeEmpty(empty, "part-0");
+    Assert.assertTrue(read(empty, 4, null, null).isEmpty());
+
+    // the empty file is skipped next to the others
+    Path dir = write();
+    writeEmpty(dir, "part-2");
+    checkRows(read(dir, 6, null, null), 0, ROWS);
+  }
+}
@@ -0,0 +1,181 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.dataset.partition;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import edu.iu.dsc.tws.api.data.Path;
+import edu.iu.dsc.tws.api.exceptions.Twister2RuntimeException;
+import edu.iu.dsc.tws.data.fs.local.LocalFileSystem;
+
+public class PrefetchingFrameReaderTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private LocalFileSystem fileSystem = new LocalFileSystem();
+
+  @Test
+  public void testRead() throws Exception {
+    List<Path> files = new ArrayList<>();
+    int frame = 0;
+    for (int i = 0; i < 4; i++) {
+      files.add(write("read-" + i, frame, 100));
+      frame += 100;
+    }
+
+    PrefetchingFrameReader reader = new PrefetchingFrameReader(fileSystem, files, 64);
+    for (int i = 0; i < frame; i++) {
+      Assert.assertTrue(reader.hasNext());
+      Assert.assertArrayEquals(frame(i), reader.next());
+    }
+    Assert.assertFalse(reader.hasNext());
+    Assert.assertFalse(reader.hasNext());
+  }
+
+  @Test
+  public void testMissingFile() throws Exception {
+    List<Path> files = new ArrayList<>();
+    files.add(write("first", 0, 10));
+    files.add(new Path(new File(folder.getRoot(), "missing").getAbsolutePath()));
+
+    PrefetchingFrameReader reader = new PrefetchingFrameReader(fileSystem, files, 1024);
+    assertFails(reader, 10);
+  }
+
+  @Test
+  public void testCorruptFile() throws Exception {
+    // a negative frame length fails with a runtime exception in the reader
+    File file = new File(folder.getRoot(), "corrupt");
+    try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+      out.writeLong(2);
+      out.writeInt(3);
+      out.write(new byte[]{1, 2, 3});
+      out.writeInt(-1);
+    }
+
+    PrefetchingFrameReader reader = new PrefetchingFrameReader(fileSystem,
+        Collections.singletonList(new Path(file.getAbsolutePath())), 1);
+    assertFails(reader, 1);
+  }
+
+  @Test
+  public void testTruncatedFile() throws Exception {
+    File file = new File(folder.getRoot(), "truncated");
+    try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+      out.writeLong(5);
+      out.writeInt(3);
+      out.write(new byte[]{1, 2, 3});
+    }
+
+    PrefetchingFrameReader reader = new PrefetchingFrameReader(fileSystem,
+        Collections.singletonList(new Path(file.getAbsolutePath())), 1);
+    assertFails(reader, 1);
+  }
+
+  @Test
+  public void testEarlyClose() throws Exception {
+    List<Path> files = new ArrayList<>();
+    int frame = 0;
+    for (int i = 0; i < 10; i++) {
+      files.add(write("close-" + i, frame, 1000));
+      frame += 1000;
+    }
+
+    PrefetchingFrameReader reader = new PrefetchingFrameReader(fileSystem, files, 16);
+    for (int i = 0; i < 10; i++) {
+      Assert.assertArrayEquals(frame(i), reader.next());
+    }
+    reader.close();
+    Assert.assertFalse(reader.hasNext());
+
+    // the background reader stops, so the files can be deleted
+    for (Path file : files) {
+      Assert.assertTrue(fileSystem.delete(file, false));
+    }
+    reader.close();
+  }
+
+  @Test
+  public void testCloseWhileWaiting() throws Exception {
+    List<Path> files = new ArrayList<>();
+    files.add(write("waiting", 0, 1000));
+
+    PrefetchingFrameReader reader = new PrefetchingFrameReader(fileSystem, files, 16);
+    // give the reader time to fill the queue and block
+    Thread.sleep(200);
+    reader.close();
+    Assert.assertFalse(reader.hasNext());
+  }
+
+  private void assertFails(PrefetchingFrameReader reader, int goodFrames) throws Exception {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<Integer> read = executor.submit(() -> {
+        int count = 0;
+        try {
+          while (reader.hasNext()) {
+            reader.next();
+            count++;
+          }
+        } catch (Twister2RuntimeException e) {
+          return count;
+        }
+        return -1;
+      });
+      // the consumer must not block for ever
+      Assert.assertEquals(goodFrames, (int) read.get(10, TimeUnit.SECONDS));
+    } finally {
+      executor.shutdownNow();
+    }
+
+    // the failure is reported again
+    try {
+      reader.hasNext();
+      Assert.fail("The failure should be thrown again");
+    } catch (Twister2RuntimeException e) {
+      Assert.assertNotNull(e.getCause());
+    }
+  }
+
+  private Path write(String name, int firstFrame, int frames) throws IOException {
+    File file = new File(folder.getRoot(), name);
+    try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+      out.writeLong(frames);
+      for (int i = firstFrame; i < firstFrame + frames; i++) {
+        byte[] data = frame(i);
+        out.writeInt(data.length);
+        out.write(data);
+      }
+    }
+    return new Path(file.getAbsolutePath());
+  }
+
+  private static byte[] frame(int i) {
+    return new byte[]{(byte) i, (byte) (i >> 8), (byte) (i >> 16)};
+  }
+}
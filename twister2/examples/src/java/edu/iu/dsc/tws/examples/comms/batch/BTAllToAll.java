@@ -76,7 +76,7 @@ public class BTAllToAll implements IWorker {
 
 
     allToAll = new ArrowAllToAll(wEnv.getConfig(), wEnv.getWorkerController(),
-        logicalPlanBuilder.getSources(), logicalPlanBuilder.getTargets(),
+        wEnv.getChannel(), logicalPlanBuilder.getSources(), logicalPlanBuilder.getTargets(),
         logicalPlanBuilder.build(), wEnv.getCommunicator().nextEdge(), new ArrowReceiver(),
         schema, rootAllocator);
     for (int i : logicalPlanBuilder.getTargets()) {
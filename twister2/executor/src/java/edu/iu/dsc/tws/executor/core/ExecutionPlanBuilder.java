@@ -19,6 +19,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -30,6 +31,7 @@ import com.google.common.collect.Table;
 import edu.iu.dsc.tws.api.checkpointing.CheckpointingClient;
 import edu.iu.dsc.tws.api.comms.Communicator;
 import edu.iu.dsc.tws.api.comms.LogicalPlan;
+import edu.iu.dsc.tws.api.compute.IMessage;
 import edu.iu.dsc.tws.api.compute.executor.ExecutionPlan;
 import edu.iu.dsc.tws.api.compute.executor.ExecutorContext;
 import edu.iu.dsc.tws.api.compute.executor.IExecutionPlanBuilder;
@@ -411,6 +413,29 @@ public class ExecutionPlanBuilder implements IExecutionPlanBuilder {
     return cTasks;
   }
 
+  /**
+   * Create the input queue of a task instance. It stays a blocking queue with locks, because
+   * more than one thread can deliver to it: the progress threads of the receiving operations and
+   * the sending threads of the same worker.
+   *
+   * @param cfg the configuration
+   */
+  private BlockingQueue<IMessage> createInQueue(Config cfg) {
+    return new ArrayBlockingQueue<>(ExecutorContext.instanceQueueLowWaterMark(cfg));
+  }
+
+  /**
+   * Create the output queue of a task instance, only the instance writes to and reads from it
+   *
+   * @param cfg the configuration
+   */
+  private BlockingQueue<IMessage> createOutQueue(Config cfg) {
+    if (ExecutorContext.instanceQueueSpsc(cfg)) {
+      return SpscRingQueue.unbounded(ExecutorContext.instanceQueueLowWaterMark(cfg));
+    }
+    return new LinkedBlockingQueue<>();
+  }
+
   /**
    * Create an instance of a task,
    *
@@ -433,8 +458,7 @@ public class ExecutionPlanBuilder implements IExecutionPlanBuilder {
     if (operationMode.equals(OperationMode.BATCH)) {
       if (newInstance instanceof ICompute) {
         TaskBatchInstance v = new TaskBatchInstance((ICompute) newInstance,
-            new ArrayBlockingQueue<>(ExecutorContext.instanceQueueLowWaterMark(cfg)),
-            new LinkedBlockingQueue<>(), cfg,
+            createInQueue(cfg), createOutQueue(cfg), cfg,
             vertex.getName(), ip.getTaskId(), taskId, ip.getTaskIndex(),
             vertex.getParallelism(), workerId, vertex.getConfig().toMap(),
             inEdges, outEdges, taskSchedule, this.checkpointingClient,
@@ -443,7 +467,7 @@ public class ExecutionPlanBuilder implements IExecutionPlanBuilder {
         return v;
       } else if (newInstance instanceof ISource) {
         SourceBatchInstance v = new SourceBatchInstance((ISource) newInstance,
-            new LinkedBlockingQueue<>(), cfg,
+            createOutQueue(cfg), cfg,
             vertex.getName(), ip.getTaskId(), taskId, ip.getTaskIndex(),
             vertex.getParallelism(), workerId, vertex.getConfig().toMap(), outEdges,
             taskSchedule, this.checkpointingClient, taskGraphName, tasksVersion);
@@ -455,8 +479,7 @@ public class ExecutionPlanBuilder implements IExecutionPlanBuilder {
     } else if (operationMode.equals(OperationMode.STREAMING)) {
       if (newInstance instanceof ICompute) {
         TaskStreamingInstance v = new TaskStreamingInstance((ICompute) newInstance,
-            new ArrayBlockingQueue<>(ExecutorContext.instanceQueueLowWaterMark(cfg)),
-            new LinkedBlockingQueue<>(), cfg,
+            createInQueue(cfg), createOutQueue(cfg), cfg,
             vertex.getName(), ip.getTaskId(), taskId, ip.getTaskIndex(),
             vertex.getParallelism(), workerId, vertex.getConfig().toMap(), inEdges,
             outEdges, taskSchedule, this.checkpointingClient, taskGraphName, tasksVersion);
@@ -464,7 +487,7 @@ public class ExecutionPlanBuilder implements IExecutionPlanBuilder {
         return v;
       } else if (newInstance instanceof ISource) {
         SourceStreamingInstance v = new SourceStreamingInstance((ISource) newInstance,
-            new LinkedBlockingQueue<>(), cfg,
+            createOutQueue(cfg), cfg,
             vertex.getName(), ip.getTaskId(), taskId, ip.getTaskIndex(),
             vertex.getParallelism(), workerId, vertex.getConfig().toMap(), outEdges,
             taskSchedule, this.checkpointingClient, taskGraphName, tasksVersion);
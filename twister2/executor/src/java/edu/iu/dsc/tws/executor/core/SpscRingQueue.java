@@ -0,0 +1,441 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.executor.core;
+
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * A queue for a single producer and a single consumer backed by pre-sized ring buffers. The
+ * offer and poll don't take locks or allocate, the producer and the consumer only publish the
+ * slots they write and the indexes are kept in separate cache lines.
+ * <p>
+ * A bounded queue rejects the offers when the ring is full. An unbounded queue links a larger
+ * ring when the current one is full and the consumer moves to it after draining the old one.
+ * <p>
+ * Only one thread at a time may offer and only one thread at a time may poll. The threads can
+ * change over time as long as the hand over is ordered, for example by a lock or by handing the
+ * task over through a queue.
+ * <p>
+ * The iterator is weakly consistent, it can be used from any thread and returns the elements
+ * that are still in the queue in order, up to the last element offered before it was created. It
+ * doesn't support removing elements.
+ */
+public final class SpscRingQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+  /**
+   * Largest ring linked by an unbounded queue
+   */
+  private static final int MAX_RING_SIZE = 1 << 20;
+
+  /**
+   * How long the blocking calls park between the attempts
+   */
+  private static final long PARK_NANOS = 1000;
+
+  /**
+   * Ring written by the producer
+   */
+  private Ring producerRing;
+
+  /**
+   * Ring read by the consumer, the iterators start from it
+   */
+  private volatile Ring consumerRing;
+
+  private final PaddedIndex producerIndex = new PaddedIndex();
+
+  private final PaddedIndex consumerIndex = new PaddedIndex();
+
+  /**
+   * Capacity, or -1 for an unbounded queue
+   */
+  private final int capacity;
+
+  private SpscRingQueue(int ringSize, int capacity) {
+    this.producerRing = new Ring(ringSize, 0);
+    this.consumerRing = producerRing;
+    this.capacity = capacity;
+  }
+
+  /**
+   * Create a queue that holds at most the given number of elements, the capacity is rounded up
+   * to a power of two
+   *
+   * @param capacity capacity
+   * @return the queue
+   */
+  public static <E> SpscRingQueue<E> bounded(int capacity) {
+    int size = ringSize(capacity);
+    return new SpscRingQueue<>(size, size);
+  }
+
+  /**
+   * Create a queue that grows when it is full
+   *
+   * @param initialCapacity size of the first ring
+   * @return the queue
+   */
+  public static <E> SpscRingQueue<E> unbounded(int initialCapacity) {
+    return new SpscRingQueue<>(ringSize(initialCapacity), -1);
+  }
+
+  private static int ringSize(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("The capacity should be positive: " + capacity);
+    }
+    return capacity >= MAX_RING_SIZE ? MAX_RING_SIZE
+        : Integer.highestOneBit(Math.max(2, capacity) * 2 - 1);
+  }
+
+  @Override
+  public boolean offer(E e) {
+    if (e == null) {
+      throw new NullPointerException();
+    }
+    Ring ring = producerRing;
+    long index = producerIndex.get();
+    int slot = ring.slot(index);
+    if (ring.slots.get(slot) != null) {
+      if (capacity > 0) {
+        return false;
+      }
+      // the consumer moves to the next ring once this one is drained
+      Ring next = new Ring(Math.min(ring.slots.length() * 2, MAX_RING_SIZE), index);
+      next.slots.lazySet(next.slot(index), e);
+      ring.next = next;
+      producerRing = next;
+    } else {
+      ring.slots.lazySet(slot, e);
+    }
+    producerIndex.lazySet(index + 1);
+    return true;
+  }
+
+  @Override
+  public E poll() {
+    Ring ring = consumerRing();
+    if (ring == null) {
+      return null;
+    }
+    long index = consumerIndex.get();
+    int slot = ring.slot(index);
+    @SuppressWarnings("unchecked")
+    E e = (E) ring.slots.get(slot);
+    // publish the index before freeing the slot, so an iterator that sees a newer element in the
+    // slot also sees that this one is taken
+    consumerIndex.lazySet(index + 1);
+    ring.slots.lazySet(slot, null);
+    return e;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public E peek() {
+    Ring ring = consumerRing();
+    return ring == null ? null : (E) ring.slots.get(ring.slot(consumerIndex.get()));
+  }
+
+  /**
+   * Hand the available elements to the consumer and publish the new consumer index once for
+   * each ring the elements are taken from
+   *
+   * @param consumer consumer of the elements
+   * @param limit maximum number of elements
+   * @return number of elements drained
+   */
+  @SuppressWarnings("unchecked")
+  public int drain(Consumer<? super E> consumer, int limit) {
+    int count = 0;
+    while (count < limit) {
+      long start = consumerIndex.get();
+      Ring ring = consumerRing(start);
+      if (ring == null) {
+        break;
+      }
+      // the slots are freed after the batch, so a batch stays in one ring and doesn't wrap
+      long end = start + Math.min(limit - count, ring.slots.length());
+      long index = start;
+      try {
+        while (index < end && consumerRing(index) == ring) {
+          E e = (E) ring.slots.get(ring.slot(index));
+          index++;
+          count++;
+          consumer.accept(e);
+        }
+      } finally {
+        consumerIndex.lazySet(index);
+        for (long i = start; i < index; i++) {
+          ring.slots.lazySet(ring.slot(i), null);
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * The ring holding the element at the consumer index
+   *
+   * @return the ring or null if the queue is empty
+   */
+  private Ring consumerRing() {
+    return consumerRing(consumerIndex.get());
+  }
+
+  private Ring consumerRing(long index) {
+    Ring ring = consumerRing;
+    int slot = ring.slot(index);
+    if (ring.slots.get(slot) != null) {
+      return ring;
+    }
+    Ring next = ring.next;
+    // the producer doesn't write to a ring after linking the next one, so check it once more
+    if (next == null || ring.slots.get(slot) != null) {
+      return next == null ? null : ring;
+    }
+    consumerRing = next;
+    return next.slots.get(next.slot(index)) != null ? next : null;
+  }
+
+  @Override
+  public int size() {
+    long consumer = consumerIndex.get();
+    while (true) {
+      long producer = producerIndex.get();
+      long current = consumerIndex.get();
+      if (current == consumer) {
+        // the consumer can see an element before the producer publishes its index
+        return (int) Math.max(0, Math.min(producer - consumer, Integer.MAX_VALUE));
+      }
+      consumer = current;
+    }
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return consumerRing() == null;
+  }
+
+  @Override
+  public void put(E e) throws InterruptedException {
+    while (!offer(e)) {
+      park();
+    }
+  }
+
+  @Override
+  public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    while (!offer(e)) {
+      if (System.nanoTime() - deadline >= 0) {
+        return false;
+      }
+      park();
+    }
+    return true;
+  }
+
+  @Override
+  public E take() throws InterruptedException {
+    E e;
+    while ((e = poll()) == null) {
+      park();
+    }
+    return e;
+  }
+
+  @Override
+  public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    E e;
+    while ((e = poll()) == null) {
+      if (System.nanoTime() - deadline >= 0) {
+        return null;
+      }
+      park();
+    }
+    return e;
+  }
+
+  private static void park() throws InterruptedException {
+    LockSupport.parkNanos(PARK_NANOS);
+    if (Thread.interrupted()) {
+      throw new InterruptedException();
+    }
+  }
+
+  @Override
+  public int remainingCapacity() {
+    return capacity > 0 ? capacity - size() : Integer.MAX_VALUE;
+  }
+
+  @Override
+  public int drainTo(Collection<? super E> c) {
+    return drainTo(c, Integer.MAX_VALUE);
+  }
+
+  @Override
+  public int drainTo(Collection<? super E> c, int maxElements) {
+    if (c == this) {
+      throw new IllegalArgumentException("Can not drain to the same queue");
+    }
+    return drain(c::add, maxElements);
+  }
+
+  @Override
+  public Iterator<E> iterator() {
+    return new Itr();
+  }
+
+  @Override
+  public String toString() {
+    return "SpscRingQueue{size=" + size() + ", capacity=" + capacity + "}";
+  }
+
+  /**
+   * A weakly consistent iterator. It walks from the consumer index to the producer index seen
+   * when it was created and skips the elements the consumer takes in the mean time.
+   */
+  private final class Itr implements Iterator<E> {
+    /**
+     * Elements offered at or after this index are not returned
+     */
+    private final long end;
+
+    private Ring ring;
+
+    private long index;
+
+    private E nextElement;
+
+    Itr() {
+      this.end = producerIndex.get();
+      this.ring = consumerRing;
+      this.index = consumerIndex.get();
+      advance();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void advance() {
+      nextElement = null;
+      while (nextElement == null) {
+        index = Math.max(Math.max(index, consumerIndex.get()), ring.start);
+        if (index >= end) {
+          return;
+        }
+        // the producer links a ring before publishing the indexes in it
+        Ring next;
+        while ((next = ring.next) != null && index >= next.start) {
+          ring = next;
+        }
+        Object e = ring.slots.get(ring.slot(index));
+        // the slot may already hold a newer element if the consumer took this one
+        if (e != null && consumerIndex.get() <= index) {
+          nextElement = (E) e;
+        }
+        index++;
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return nextElement != null;
+    }
+
+    @Override
+    public E next() {
+      E e = nextElement;
+      if (e == null) {
+        throw new NoSuchElementException();
+      }
+      advance();
+      return e;
+    }
+  }
+
+  private static final class Ring {
+    private final AtomicReferenceArray<Object> slots;
+
+    private final int mask;
+
+    /**
+     * Index of the first element written to this ring
+     */
+    private final long start;
+
+    /**
+     * The ring linked by the producer when this one is full
+     */
+    private volatile Ring next;
+
+    Ring(int size, long start) {
+      this.slots = new AtomicReferenceArray<>(size);
+      this.mask = size - 1;
+      this.start = start;
+    }
+
+    int slot(long index) {
+      return (int) index & mask;
+    }
+  }
+
+  /**
+   * Padding before the index value
+   */
+  @SuppressWarnings("unused")
+  private static class LhsPadding {
+    protected long p1;
+    protected long p2;
+    protected long p3;
+    protected long p4;
+    protected long p5;
+    protected long p6;
+    protected long p7;
+  }
+
+  private static class IndexValue extends LhsPadding {
+    protected volatile long value;
+  }
+
+  /**
+   * An index in its own cache line, so the producer and the consumer don't invalidate each
+   * others lines when publishing the indexes
+   */
+  @SuppressWarnings("unused")
+  private static final class PaddedIndex extends IndexValue {
+    private static final AtomicLongFieldUpdater<IndexValue> VALUE =
+        AtomicLongFieldUpdater.newUpdater(IndexValue.class, "value");
+
+    protected long p9;
+    protected long p10;
+    protected long p11;
+    protected long p12;
+    protected long p13;
+    protected long p14;
+    protected long p15;
+
+    long get() {
+      return value;
+    }
+
+    void lazySet(long v) {
+      VALUE.lazySet(this, v);
+    }
+  }
+}
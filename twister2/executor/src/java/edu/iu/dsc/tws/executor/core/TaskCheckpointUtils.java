@@ -12,11 +12,14 @@
 package edu.iu.dsc.tws.executor.core;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import edu.iu.dsc.tws.api.checkpointing.CheckpointingClient;
+import edu.iu.dsc.tws.api.checkpointing.Snapshot;
 import edu.iu.dsc.tws.api.checkpointing.StateStore;
+import edu.iu.dsc.tws.api.config.Config;
 import edu.iu.dsc.tws.checkpointing.api.SnapshotImpl;
 import edu.iu.dsc.tws.checkpointing.task.CheckpointableTask;
 import edu.iu.dsc.tws.checkpointing.util.CheckpointUtils;
@@ -46,25 +49,25 @@ public final class TaskCheckpointUtils {
     }
   }
 
-  public static void checkpoint(long checkpointID,
-                                CheckpointableTask checkpointableTask,
-                                SnapshotImpl snapshot,
-                                StateStore stateStore,
-                                String family,
-                                int globalTaskId,
-                                CheckpointingClient checkpointingClient) {
-    try {
-      //take the task snapshot
-      checkpointableTask.takeSnapshot(snapshot);
+  /**
+   * Take the snapshot of the task and persist the changes since the last checkpoint
+   *
+   * @return completes with a copy of the checkpoint when it is persisted
+   */
+  public static CompletableFuture<Snapshot> checkpoint(long checkpointID,
+                                                   CheckpointableTask checkpointableTask,
+                                                   SnapshotImpl snapshot,
+                                                   StateStore stateStore,
+                                                   String family,
+                                                   int globalTaskId,
+                                                   CheckpointingClient checkpointingClient,
+                                                   Config config) {
+    //take the task snapshot
+    checkpointableTask.takeSnapshot(snapshot);
 
-      //update the new version
-      snapshot.setVersion(checkpointID);
+    //update the new version
+    snapshot.setVersion(checkpointID);
 
-      CheckpointUtils.saveState(stateStore, snapshot);
-
-      checkpointableTask.onSnapshotPersisted(snapshot);
-    } catch (IOException e) {
-      throw new RuntimeException("Failed to write checkpoint of " + globalTaskId, e);
-    }
+    return CheckpointUtils.saveStateAsync(stateStore, snapshot, config);
   }
 }
@@ -115,6 +115,11 @@ public class SourceBatchInstance implements INodeInstance, ISync {
    */
   private int lowWaterMark;
 
+  /**
+   * Weather the last execution made any progress
+   */
+  private boolean progressed = true;
+
   /**
    * The high water mark for messages
    */
@@ -184,12 +189,15 @@ public class SourceBatchInstance implements INodeInstance, ISync {
    * Execution Method calls the SourceTasks run method to get context
    **/
   public boolean execute() {
+    progressed = false;
     // we started the execution
     if (state.isEqual(InstanceState.INIT)) {
       state.addState(InstanceState.EXECUTING);
     }
 
     if (state.isSet(InstanceState.EXECUTING) && state.isNotSet(InstanceState.EXECUTION_DONE)) {
+      // a running source is always making progress
+      progressed = true;
       // we loop until low watermark is reached or all edges are done
       while (outBatchQueue.size() < lowWaterMark) {
         // if we are in executing state we can run
@@ -211,6 +219,7 @@ public class SourceBatchInstance implements INodeInstance, ISync {
         IParallelOperation op = outBatchParOps.get(edge);
         if (op.send(globalTaskId, message, 0)) {
           outBatchQueue.poll();
+          progressed = true;
         } else {
           // no point in progressing further
           break;
@@ -225,6 +234,7 @@ public class SourceBatchInstance implements INodeInstance, ISync {
         op.finish(globalTaskId);
       }
       state.addState(InstanceState.OUT_COMPLETE);
+      progressed = true;
     }
 
     // lets progress the communication
@@ -232,12 +242,18 @@ public class SourceBatchInstance implements INodeInstance, ISync {
     // after we have put everything to communication and no progress is required, lets finish
     if (state.isSet(InstanceState.OUT_COMPLETE) && complete) {
       state.addState(InstanceState.SENDING_DONE);
+      progressed = true;
     }
 
     boolean equal = state.isEqual(InstanceState.FINISH);
     return !equal;
   }
 
+  @Override
+  public boolean isProgressed() {
+    return progressed;
+  }
+
   public boolean sync(String edge, byte[] value) {
     state.addState(InstanceState.SYNCED);
     return true;
@@ -170,6 +170,11 @@ public class TaskBatchInstance implements INodeInstance, ISync {
    */
   private String[] outEdgeArray;
 
+  /**
+   * Weather the last execution made any progress
+   */
+  private boolean progressed = true;
+
   public TaskBatchInstance(ICompute task, BlockingQueue<IMessage> inQueue,
                            BlockingQueue<IMessage> outQueue, Config config, String tName,
                            int taskId, int globalTaskId, int tIndex, int parallel,
@@ -239,12 +244,14 @@ public class TaskBatchInstance implements INodeInstance, ISync {
 
   @Override
   public boolean execute() {
+    progressed = false;
     // we started the executio
     if (state.isSet(InstanceState.INIT) && state.isNotSet(InstanceState.EXECUTION_DONE)) {
       while (!inQueue.isEmpty() && outQueue.size() < lowWaterMark) {
         IMessage m = inQueue.poll();
         task.execute(m);
         state.addState(InstanceState.EXECUTING);
+        progressed = true;
       }
 
       // for compute we don't have to have the context done as when the inputs finish and execution
@@ -255,6 +262,7 @@ public class TaskBatchInstance implements INodeInstance, ISync {
       if (inQueue.isEmpty() && state.isSet(InstanceState.SYNCED) && complete) {
         task.endExecute();
         state.addState(InstanceState.EXECUTION_DONE);
+        progressed = true;
       }
     }
 
@@ -269,6 +277,7 @@ public class TaskBatchInstance implements INodeInstance, ISync {
         int flags = 0;
         if (op.send(globalTaskId, message, flags)) {
           outQueue.poll();
+          progressed = true;
         } else {
           // no point progressing further
           break;
@@ -283,6 +292,7 @@ public class TaskBatchInstance implements INodeInstance, ISync {
         op.finish(globalTaskId);
       }
       state.addState(InstanceState.OUT_COMPLETE);
+      progressed = true;
     }
 
     // lets progress the communication
@@ -290,10 +300,18 @@ public class TaskBatchInstance implements INodeInstance, ISync {
     // after we have put everything to communication and no progress is required, lets finish
     if (state.isSet(InstanceState.OUT_COMPLETE) && complete) {
       state.addState(InstanceState.SENDING_DONE);
+      progressed = true;
     }
+    // the communication may have delivered messages while progressing
+    progressed |= !inQueue.isEmpty();
     return !state.isSet(InstanceState.SENDING_DONE);
   }
 
+  @Override
+  public boolean isProgressed() {
+    return progressed;
+  }
+
   public boolean sync(String edge, byte[] value) {
     syncReceived.add(edge);
     if (syncReceived.equals(inParOps.keySet())) {
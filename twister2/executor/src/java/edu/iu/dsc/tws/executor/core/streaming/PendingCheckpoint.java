@@ -11,13 +11,19 @@
 //  limitations under the License.
 package edu.iu.dsc.tws.executor.core.streaming;
 
+import java.util.ArrayDeque;
 import java.util.HashSet;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.logging.Logger;
 
 import edu.iu.dsc.tws.api.checkpointing.CheckpointingClient;
+import edu.iu.dsc.tws.api.checkpointing.Snapshot;
 import edu.iu.dsc.tws.api.checkpointing.StateStore;
 import edu.iu.dsc.tws.api.compute.executor.IParallelOperation;
+import edu.iu.dsc.tws.api.config.Config;
 import edu.iu.dsc.tws.checkpointing.api.SnapshotImpl;
 import edu.iu.dsc.tws.checkpointing.task.CheckpointableTask;
 import edu.iu.dsc.tws.executor.core.TaskCheckpointUtils;
@@ -38,6 +44,12 @@ public class PendingCheckpoint {
 
   private long currentBarrierId;
   private Set<String> edgesOnCurrentBarrier;
+  private Config config;
+
+  /**
+   * Checkpoints that are being persisted in the background, in the order they were taken
+   */
+  private Queue<InFlight> inFlight = new ArrayDeque<>();
 
 
   public PendingCheckpoint(String taskGraphName,
@@ -47,7 +59,8 @@ public class PendingCheckpoint {
                            int noOfedges,
                            CheckpointingClient checkpointingClient,
                            StateStore stateStore,
-                           SnapshotImpl snapshot) {
+                           SnapshotImpl snapshot,
+                           Config config) {
     this.checkpointableTask = checkpointableTask;
     this.globalTaskId = globalTaskId;
     this.streamingInParOps = streamingInParOps;
@@ -57,6 +70,7 @@ public class PendingCheckpoint {
     this.stateStore = stateStore;
     this.snapshot = snapshot;
     this.edgesOnCurrentBarrier = new HashSet<>();
+    this.config = config;
   }
 
   public void schedule(String edge, long barrierId) {
@@ -85,6 +99,12 @@ public class PendingCheckpoint {
     this.currentBarrierId = -1;
   }
 
+  /**
+   * Take the checkpoint once the barriers are received from all the edges. The checkpoint is
+   * persisted in the background and {@link #pollPersisted()} returns it after it is written.
+   *
+   * @return the barrier id of the checkpoint or -1 if no checkpoint was taken
+   */
   public long execute() {
     if (!this.pending) {
       return -1;
@@ -93,16 +113,18 @@ public class PendingCheckpoint {
     if (this.edgesOnCurrentBarrier.size() == this.noOfedges) {
       LOG.fine(() -> "Barrier executing in " + this.globalTaskId + " with id "
           + this.currentBarrierId);
-      TaskCheckpointUtils.checkpoint(
+      CompletableFuture<Snapshot> persisted = TaskCheckpointUtils.checkpoint(
           this.currentBarrierId,
           this.checkpointableTask,
           this.snapshot,
           this.stateStore,
           this.taskGraphName,
           this.globalTaskId,
-          this.checkpointingClient
+          this.checkpointingClient,
+          this.config
       );
       long barrierId = this.currentBarrierId;
+      this.inFlight.add(new InFlight(barrierId, persisted));
       this.reset();
       return barrierId;
     } else {
@@ -111,4 +133,47 @@ public class PendingCheckpoint {
     }
     return -1;
   }
+
+  /**
+   * Weather there are checkpoints being persisted
+   */
+  public boolean hasInFlight() {
+    return !inFlight.isEmpty();
+  }
+
+  /**
+   * Get the oldest checkpoint that finished persisting. The checkpoints are reported in the
+   * order they were taken and only a persisted checkpoint should be reported to the master.
+   *
+   * @return the barrier id of the persisted checkpoint or -1 if none is persisted yet
+   */
+  public long pollPersisted() {
+    InFlight oldest = inFlight.peek();
+    if (oldest == null || !oldest.persisted.isDone()) {
+      return -1;
+    }
+    inFlight.poll();
+    Snapshot persistedSnapshot;
+    try {
+      persistedSnapshot = oldest.persisted.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while writing checkpoint of " + globalTaskId, e);
+    } catch (ExecutionException e) {
+      throw new RuntimeException("Failed to write checkpoint of " + globalTaskId, e.getCause());
+    }
+    // the live snapshot may already have the changes of the next checkpoint
+    this.checkpointableTask.onSnapshotPersisted(persistedSnapshot);
+    return oldest.barrierId;
+  }
+
+  private static final class InFlight {
+    private final long barrierId;
+    private final CompletableFuture<Snapshot> persisted;
+
+    InFlight(long barrierId, CompletableFuture<Snapshot> persisted) {
+      this.barrierId = barrierId;
+      this.persisted = persisted;
+    }
+  }
 }
@@ -118,6 +118,12 @@ public class SourceStreamingInstance implements INodeInstance {
    */
   private int highWaterMark;
 
+  /**
+   * The source is paused after the queue reaches the high water mark, until it drains below the
+   * low water mark
+   */
+  private boolean sourcePaused;
+
   /**
    * The output edges
    */
@@ -176,7 +182,8 @@ public class SourceStreamingInstance implements INodeInstance {
     this.nodeConfigs = cfgs;
     this.workerId = wId;
     this.lowWaterMark = ExecutorContext.instanceQueueLowWaterMark(config);
-    this.highWaterMark = ExecutorContext.instanceQueueHighWaterMark(config);
+    this.highWaterMark = Math.max(lowWaterMark,
+        ExecutorContext.instanceQueueHighWaterMark(config));
     this.outEdges = outEdges;
     this.taskSchedule = taskSchedule;
     this.checkpointingClient = checkpointingClient;
@@ -224,7 +231,7 @@ public class SourceStreamingInstance implements INodeInstance {
 
       this.pendingCheckpoint = new PendingCheckpoint(taskGraphName,
           (CheckpointableTask) this.streamingTask, globalTaskId, outOpArray, outEdges.size(),
-          checkpointingClient, stateStore, snapshot);
+          checkpointingClient, stateStore, snapshot, config);
     }
   }
 
@@ -237,7 +244,15 @@ public class SourceStreamingInstance implements INodeInstance {
    * Execution Method calls the SourceTasks run method to get context
    **/
   public boolean execute() {
-    if (outStreamingQueue.size() < lowWaterMark
+    int queued = outStreamingQueue.size();
+    if (sourcePaused && queued < lowWaterMark) {
+      sourcePaused = false;
+    } else if (!sourcePaused && queued >= highWaterMark) {
+      // the operations are not taking the messages, let them drain before producing more
+      sourcePaused = true;
+    }
+
+    if (!sourcePaused
         && !(this.checkpointable && this.pendingCheckpoint.isPending())) {
       // lets execute the task
       streamingTask.execute();
@@ -280,13 +295,21 @@ public class SourceStreamingInstance implements INodeInstance {
     if (this.checkpointable && outStreamingQueue.isEmpty() && this.pendingCheckpoint.isPending()) {
       long barrier = this.pendingCheckpoint.execute();
       if (barrier != -1) {
-        ((CheckpointableTask) this.streamingTask)
-            .onCheckpointPropagated(this.snapshot);
         this.scheduleBarriers(barrier);
-        taskContext.write(CheckpointingSGatherSink.FT_GATHER_EDGE, barrier);
         nothingToProcess = false;
       }
     }
+
+    // only report the checkpoints after they are persisted
+    if (this.checkpointable && this.pendingCheckpoint.hasInFlight()) {
+      long persisted = this.pendingCheckpoint.pollPersisted();
+      if (persisted != -1) {
+        ((CheckpointableTask) this.streamingTask)
+            .onCheckpointPropagated(this.snapshot);
+        taskContext.write(CheckpointingSGatherSink.FT_GATHER_EDGE, persisted);
+      }
+      nothingToProcess = false;
+    }
     return !nothingToProcess;
   }
 
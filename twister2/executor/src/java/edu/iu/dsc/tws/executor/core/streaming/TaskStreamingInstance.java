@@ -260,7 +260,8 @@ public class TaskStreamingInstance implements INodeInstance, ISync {
           this.inEdgeArray.length,
           this.checkpointingClient,
           this.stateStore,
-          this.snapshot
+          this.snapshot,
+          this.config
       );
 
       TaskCheckpointUtils.restore(
@@ -340,13 +341,21 @@ public class TaskStreamingInstance implements INodeInstance, ISync {
     if (this.checkpointable && this.inQueue.isEmpty() && this.outQueue.isEmpty()) {
       long checkpointedBarrierId = this.pendingCheckpoint.execute();
       if (checkpointedBarrierId != -1) {
-        ((CheckpointableTask) this.task).onCheckpointPropagated(this.snapshot);
-        taskContext.write(CheckpointingSGatherSink.FT_GATHER_EDGE, checkpointedBarrierId);
         this.scheduleBarriers(checkpointedBarrierId);
         nothingToProcess = false;
       }
     }
 
+    // only report the checkpoints after they are persisted
+    if (this.checkpointable && this.pendingCheckpoint.hasInFlight()) {
+      long persistedBarrierId = this.pendingCheckpoint.pollPersisted();
+      if (persistedBarrierId != -1) {
+        ((CheckpointableTask) this.task).onCheckpointPropagated(this.snapshot);
+        taskContext.write(CheckpointingSGatherSink.FT_GATHER_EDGE, persistedBarrierId);
+      }
+      nothingToProcess = false;
+    }
+
     return !nothingToProcess;
   }
 
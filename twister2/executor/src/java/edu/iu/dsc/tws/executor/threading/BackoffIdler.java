@@ -0,0 +1,110 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.executor.threading;
+
+import java.util.concurrent.locks.LockSupport;
+
+import edu.iu.dsc.tws.api.compute.executor.ExecutorContext;
+import edu.iu.dsc.tws.api.config.Config;
+
+/**
+ * Backs off a thread that couldn't find any work. The thread first spins, then yields and
+ * finally parks for an exponentially growing time up to a maximum. The parks are bounded, so a
+ * missed {@link #wakeUp()} only delays the thread until the park times out.
+ * <p>
+ * An idler belongs to a single thread, only {@link #wakeUp()} can be called from other threads.
+ */
+public class BackoffIdler {
+  private final int maxSpins;
+
+  private final int maxYields;
+
+  private final long minParkNanos;
+
+  private final long maxParkNanos;
+
+  private int spins;
+
+  private int yields;
+
+  private long parkNanos;
+
+  /**
+   * The thread while it is parked
+   */
+  private volatile Thread parkedThread;
+
+  public BackoffIdler(Config cfg) {
+    this.maxSpins = ExecutorContext.idleSpins(cfg);
+    this.maxYields = ExecutorContext.idleYields(cfg);
+    this.minParkNanos = Math.max(1, ExecutorContext.idleParkMinNanos(cfg));
+    this.maxParkNanos = Math.max(minParkNanos, ExecutorContext.idleParkMaxNanos(cfg));
+    this.parkNanos = minParkNanos;
+  }
+
+  /**
+   * Called after the thread went through its work without making any progress
+   */
+  public void idle() {
+    if (spins < maxSpins) {
+      spins++;
+    } else if (yields < maxYields) {
+      yields++;
+      Thread.yield();
+    } else {
+      parkedThread = Thread.currentThread();
+      LockSupport.parkNanos(this, parkNanos);
+      parkedThread = null;
+      parkNanos = Math.min(parkNanos << 1, maxParkNanos);
+    }
+  }
+
+  /**
+   * Called after the thread made progress
+   */
+  public void reset() {
+    spins = 0;
+    yields = 0;
+    parkNanos = minParkNanos;
+  }
+
+  /**
+   * Weather the thread is parked at the moment
+   *
+   * @return true if parked
+   */
+  public boolean isParked() {
+    return parkedThread != null;
+  }
+
+  /**
+   * Unpark the thread if it is parked, so it can look for the new work
+   *
+   * @return true if the thread was parked
+   */
+  public boolean wakeUp() {
+    Thread t = parkedThread;
+    if (t != null) {
+      LockSupport.unpark(t);
+      return true;
+    }
+    return false;
+  }
+
+  long getMinParkNanos() {
+    return minParkNanos;
+  }
+
+  long getParkNanos() {
+    return parkNanos;
+  }
+}
@@ -0,0 +1,89 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.executor.threading;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.iu.dsc.tws.api.config.Config;
+
+/**
+ * The idlers of the threads of an executor. A thread that made progress wakes up at most one
+ * parked thread and at most once in the minimum park time. The woken thread wakes up the next
+ * one if it finds work, so the parked threads come back one by one while there is work instead
+ * of all of them waking up on every progress.
+ */
+public class BackoffIdlers {
+  private final BackoffIdler[] idlers;
+
+  /**
+   * Minimum time between two wake ups
+   */
+  private final long wakeUpIntervalNanos;
+
+  private final AtomicLong lastWakeUp;
+
+  /**
+   * The idler to look at first in the next wake up, so the same thread is not always picked
+   */
+  private final AtomicInteger nextIdler = new AtomicInteger();
+
+  public BackoffIdlers(Config cfg, int count) {
+    this.idlers = new BackoffIdler[count];
+    for (int i = 0; i < count; i++) {
+      idlers[i] = new BackoffIdler(cfg);
+    }
+    this.wakeUpIntervalNanos = count > 0 ? idlers[0].getMinParkNanos() : 0;
+    this.lastWakeUp = new AtomicLong(System.nanoTime() - wakeUpIntervalNanos);
+  }
+
+  public BackoffIdler get(int index) {
+    return idlers[index];
+  }
+
+  public int size() {
+    return idlers.length;
+  }
+
+  /**
+   * Wake up one parked thread other than the caller
+   *
+   * @param caller the idler of the calling thread
+   * @return true if a thread was woken up
+   */
+  public boolean wakeUpOne(BackoffIdler caller) {
+    long last = lastWakeUp.get();
+    long now = System.nanoTime();
+    if (now - last < wakeUpIntervalNanos || !isAnyParked(caller)
+        || !lastWakeUp.compareAndSet(last, now)) {
+      return false;
+    }
+
+    int start = Math.floorMod(nextIdler.getAndIncrement(), idlers.length);
+    for (int i = 0; i < idlers.length; i++) {
+      BackoffIdler idler = idlers[(start + i) % idlers.length];
+      if (idler != caller && idler.wakeUp()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean isAnyParked(BackoffIdler caller) {
+    for (BackoffIdler idler : idlers) {
+      if (idler != caller && idler.isParked()) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
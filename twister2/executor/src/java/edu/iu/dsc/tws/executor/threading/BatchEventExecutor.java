@@ -0,0 +1,34 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.executor.threading;
+
+import edu.iu.dsc.tws.api.comms.channel.TWSChannel;
+import edu.iu.dsc.tws.api.compute.executor.ExecutionPlan;
+import edu.iu.dsc.tws.api.compute.executor.IExecutionHook;
+import edu.iu.dsc.tws.api.config.Config;
+
+/**
+ * Batch executor that runs the instances only while they or the channel make progress. A thread
+ * that goes through the instances without any progress spins, yields and then parks until the
+ * park times out or a progressing thread wakes it up, see {@link BackoffIdlers}.
+ */
+public class BatchEventExecutor extends BatchSharingExecutor2 {
+  public BatchEventExecutor(Config cfg, int workerId, TWSChannel channel, ExecutionPlan plan,
+                            IExecutionHook hook) {
+    super(cfg, workerId, channel, plan, hook);
+  }
+
+  @Override
+  protected boolean isParkWhenIdle() {
+    return true;
+  }
+}
@@ -88,6 +88,11 @@ public class BatchSharingExecutor2 implements IExecutor {
    */
   protected IExecutionHook executionHook;
 
+  /**
+   * Idlers of the batch workers when the threads park while idle
+   */
+  private BackoffIdlers idlers;
+
   public BatchSharingExecutor2(Config cfg, int workerId, TWSChannel channel, ExecutionPlan plan,
                                IExecutionHook hook) {
     this.workerId = workerId;
@@ -157,6 +162,14 @@ public class BatchSharingExecutor2 implements IExecutor {
     return notStopped;
   }
 
+  /**
+   * Weather the threads should back off and park when none of the instances make progress,
+   * instead of busy spinning over them
+   */
+  protected boolean isParkWhenIdle() {
+    return false;
+  }
+
   @Override
   public ExecutionPlan getExecutionPlan() {
     return plan;
@@ -203,9 +216,15 @@ public class BatchSharingExecutor2 implements IExecutor {
       taskStatus[i] = new AtomicBoolean(false);
     }
     doneSignal = new CountDownLatch(numThreads - 1);
-    batchWorkers[0] = new BatchWorker(tasks, taskStatus);
+    if (isParkWhenIdle()) {
+      idlers = new BackoffIdlers(config, numThreads);
+    }
+    // the main thread progress the channel, so it watches for the channel completions
+    batchWorkers[0] = new BatchWorker(tasks, taskStatus,
+        idlers != null ? idlers.get(0) : null, true);
     for (int i = 1; i < numThreads; i++) {
-      BatchWorker task = new BatchWorker(tasks, taskStatus);
+      BatchWorker task = new BatchWorker(tasks, taskStatus,
+          idlers != null ? idlers.get(i) : null, false);
       threads.submit(task);
       batchWorkers[i] = task;
     }
@@ -368,9 +387,25 @@ public class BatchSharingExecutor2 implements IExecutor {
     private AtomicBoolean[] ignoreIndex;
     private int lastIndex;
 
+    // backs off the thread when idle, null if the thread doesn't park
+    private BackoffIdler idler;
+    // weather to count the channel completions as progress
+    private boolean watchChannel;
+    // number of runs without progress
+    private int idleRuns;
+    // channel completions seen so far
+    private long channelCompletions;
+
     public BatchWorker(List<INodeInstance> tasks, AtomicBoolean[] ignoreIndex) {
+      this(tasks, ignoreIndex, null, false);
+    }
+
+    public BatchWorker(List<INodeInstance> tasks, AtomicBoolean[] ignoreIndex,
+                       BackoffIdler idler, boolean watchChannel) {
       this.tasks = tasks;
       this.ignoreIndex = ignoreIndex;
+      this.idler = idler;
+      this.watchChannel = watchChannel;
     }
 
     private int getNext() {
@@ -396,21 +431,63 @@ public class BatchSharingExecutor2 implements IExecutor {
     private void runExecution() {
 //      try {
       int nodeInstanceIndex = this.getNext();
+      boolean progressed = false;
       if (nodeInstanceIndex != -1) {
         INodeInstance nodeInstance = this.tasks.get(nodeInstanceIndex);
         boolean needsFurther = nodeInstance.execute();
         if (!needsFurther) {
           finishedInstances.incrementAndGet(); //(nodeInstance.getId(), true);
+          progressed = true;
         } else {
+          progressed = nodeInstance.isProgressed();
           //need further execution
           this.ignoreIndex[nodeInstanceIndex].set(false);
         }
       }
+      if (idler != null) {
+        backOff(progressed);
+      }
 //      } catch (Throwable t) {
 //        LOG.log(Level.SEVERE, String.format("%d Error in executor", workerId), t);
 //        throw new RuntimeException("Error occurred in execution of task", t);
 //      }
     }
+
+    private void backOff(boolean progressed) {
+      if (watchChannel) {
+        long completions = channel.getCompletedRequests();
+        if (completions != channelCompletions) {
+          channelCompletions = completions;
+          progressed = true;
+        }
+      }
+
+      if (progressed) {
+        idleRuns = 0;
+        idler.reset();
+        // the progress may have produced work for an instance no thread is running
+        if (hasFreeInstance()) {
+          idlers.wakeUpOne(idler);
+        }
+      } else if (++idleRuns >= tasks.size()) {
+        // we went through all the instances without any progress
+        idleRuns = 0;
+        idler.idle();
+      }
+    }
+
+    /**
+     * Weather an instance is waiting for a thread, otherwise there is nothing a parked thread
+     * can pick up
+     */
+    private boolean hasFreeInstance() {
+      for (AtomicBoolean running : ignoreIndex) {
+        if (!running.get()) {
+          return true;
+        }
+      }
+      return false;
+    }
   }
 
   private class BatchExecution implements IExecution {
@@ -25,6 +25,7 @@ import edu.iu.dsc.tws.executor.threading.ft.AllSharingBatchExecutor;
 import edu.iu.dsc.tws.executor.threading.ft.AllSharingStremingExecutor;
 import edu.iu.dsc.tws.executor.threading.ft.DedicatedComStreamingExecutor;
 import edu.iu.dsc.tws.executor.threading.ft.DedidatedBatchExecutor;
+import edu.iu.dsc.tws.executor.threading.ft.EventDrivenBatchExecutor;
 
 public class ExecutorFactory {
   /**
@@ -76,6 +77,8 @@ public class ExecutorFactory {
           executor = new BatchSharingExecutor(planConfig, workerId, channel, plan, hook);
         } else if (ExecutorContext.BATCH_EXECUTOR_SHARING.equals(batchExecutor)) {
           executor = new BatchSharingExecutor2(planConfig, workerId, channel, plan, hook);
+        } else if (ExecutorContext.BATCH_EXECUTOR_EVENT.equals(batchExecutor)) {
+          executor = new BatchEventExecutor(planConfig, workerId, channel, plan, hook);
         } else {
           throw new Twister2RuntimeException("Un-known batch executor specified - "
               + batchExecutor);
@@ -99,6 +102,8 @@ public class ExecutorFactory {
           executor = new DedidatedBatchExecutor(planConfig, workerId, channel, plan, hook);
         } else if (ExecutorContext.BATCH_EXECUTOR_SHARING.equals(batchExecutor)) {
           executor = new AllSharingBatchExecutor(planConfig, workerId, channel, plan, hook);
+        } else if (ExecutorContext.BATCH_EXECUTOR_EVENT.equals(batchExecutor)) {
+          executor = new EventDrivenBatchExecutor(planConfig, workerId, channel, plan, hook);
         } else {
           throw new Twister2RuntimeException("Un-known batch executor specified - "
               + batchExecutor);
@@ -0,0 +1,203 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.executor.core;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SpscRingQueueTest {
+
+  private static final int COUNT = 1_000_000;
+
+  @Test
+  public void testBounded() {
+    SpscRingQueue<Integer> queue = SpscRingQueue.bounded(3);
+    Assert.assertEquals(4, queue.remainingCapacity());
+    for (int i = 0; i < 4; i++) {
+      Assert.assertTrue(queue.offer(i));
+    }
+    Assert.assertFalse(queue.offer(4));
+    Assert.assertEquals(4, queue.size());
+    Assert.assertEquals(0, (int) queue.peek());
+    Assert.assertEquals(0, (int) queue.poll());
+    Assert.assertTrue(queue.offer(4));
+    for (int i = 1; i < 5; i++) {
+      Assert.assertEquals(i, (int) queue.poll());
+    }
+    Assert.assertNull(queue.poll());
+    Assert.assertTrue(queue.isEmpty());
+  }
+
+  @Test
+  public void testUnboundedGrows() {
+    SpscRingQueue<Integer> queue = SpscRingQueue.unbounded(2);
+    for (int i = 0; i < 100; i++) {
+      Assert.assertTrue(queue.offer(i));
+    }
+    Assert.assertEquals(100, queue.size());
+    List<Integer> drained = new ArrayList<>();
+    Assert.assertEquals(60, queue.drain(drained::add, 60));
+    Assert.assertEquals(40, queue.drainTo(drained));
+    for (int i = 0; i < 100; i++) {
+      Assert.assertEquals(i, (int) drained.get(i));
+    }
+    Assert.assertTrue(queue.isEmpty());
+  }
+
+  @Test
+  public void testIterator() {
+    SpscRingQueue<Integer> queue = SpscRingQueue.unbounded(4);
+    for (int i = 0; i < 3; i++) {
+      queue.offer(i);
+    }
+    queue.poll();
+    // the queue moves to a larger ring after this
+    for (int i = 3; i < 10; i++) {
+      queue.offer(i);
+    }
+    Iterator<Integer> it = queue.iterator();
+    // the iterator holds on to its next element, the elements after it are skipped once taken
+    // and elements offered after creating the iterator are not returned
+    queue.poll();
+    queue.poll();
+    queue.offer(10);
+    List<Integer> seen = new ArrayList<>();
+    it.forEachRemaining(seen::add);
+    List<Integer> expected = new ArrayList<>();
+    expected.add(1);
+    for (int i = 3; i < 10; i++) {
+      expected.add(i);
+    }
+    Assert.assertEquals(expected, seen);
+    Assert.assertTrue(queue.contains(10));
+    Assert.assertFalse(queue.contains(2));
+
+    try {
+      it.next();
+      Assert.fail("The iterator should be exhausted");
+    } catch (NoSuchElementException e) {
+      // expected
+    }
+    Assert.assertFalse(SpscRingQueue.bounded(4).iterator().hasNext());
+  }
+
+  @Test(timeout = 60000)
+  public void testBoundedStress() throws InterruptedException {
+    stress(SpscRingQueue.bounded(64), false);
+  }
+
+  @Test(timeout = 60000)
+  public void testUnboundedStress() throws InterruptedException {
+    stress(SpscRingQueue.unbounded(2), false);
+  }
+
+  @Test(timeout = 60000)
+  public void testDrainStress() throws InterruptedException {
+    stress(SpscRingQueue.bounded(128), true);
+  }
+
+  /**
+   * A producer and a consumer thread move the numbers through the queue while a third thread
+   * iterates it, every number should arrive once and in order and the iterator should always
+   * see increasing numbers
+   */
+  private void stress(SpscRingQueue<Integer> queue, boolean drain) throws InterruptedException {
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    AtomicBoolean done = new AtomicBoolean(false);
+    CountDownLatch start = new CountDownLatch(1);
+
+    Thread producer = new Thread(() -> {
+      try {
+        start.await();
+        for (int i = 0; i < COUNT; i++) {
+          queue.put(i);
+        }
+      } catch (Throwable t) {
+        failure.compareAndSet(null, t);
+      }
+    });
+
+    long[] received = new long[1];
+    Thread consumer = new Thread(() -> {
+      try {
+        start.await();
+        int expected = 0;
+        while (expected < COUNT) {
+          if (drain) {
+            int[] next = {expected};
+            queue.drain(e -> {
+              if (e != next[0]++) {
+                throw new IllegalStateException("Expected " + (next[0] - 1) + " got " + e);
+              }
+            }, 17);
+            expected = next[0];
+          } else {
+            Integer e = queue.poll(10, TimeUnit.MILLISECONDS);
+            if (e == null) {
+              continue;
+            }
+            if (e != expected) {
+              throw new IllegalStateException("Expected " + expected + " got " + e);
+            }
+            expected++;
+          }
+        }
+        received[0] = expected;
+      } catch (Throwable t) {
+        failure.compareAndSet(null, t);
+      }
+    });
+
+    Thread observer = new Thread(() -> {
+      try {
+        start.await();
+        while (!done.get()) {
+          int last = -1;
+          for (Integer e : queue) {
+            if (e <= last) {
+              throw new IllegalStateException("Iterator returned " + e + " after " + last);
+            }
+            last = e;
+          }
+          queue.size();
+        }
+      } catch (Throwable t) {
+        failure.compareAndSet(null, t);
+      }
+    });
+
+    producer.start();
+    consumer.start();
+    observer.start();
+    start.countDown();
+    producer.join();
+    consumer.join();
+    done.set(true);
+    observer.join();
+
+    if (failure.get() != null) {
+      throw new AssertionError(failure.get());
+    }
+    Assert.assertEquals(COUNT, received[0]);
+    Assert.assertTrue(queue.isEmpty());
+    Assert.assertEquals(0, queue.size());
+  }
+}
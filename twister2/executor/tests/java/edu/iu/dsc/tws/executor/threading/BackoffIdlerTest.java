@@ -0,0 +1,125 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.executor.threading;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import edu.iu.dsc.tws.api.compute.executor.ExecutorContext;
+import edu.iu.dsc.tws.api.config.Config;
+
+public class BackoffIdlerTest {
+
+  private static Config config(long minPark, long maxPark) {
+    return Config.newBuilder()
+        .put(ExecutorContext.IDLE_SPINS, 2)
+        .put(ExecutorContext.IDLE_YIELDS, 2)
+        .put(ExecutorContext.IDLE_PARK_MIN_NANOS, minPark)
+        .put(ExecutorContext.IDLE_PARK_MAX_NANOS, maxPark)
+        .build();
+  }
+
+  @Test
+  public void testBackOff() {
+    long min = TimeUnit.MILLISECONDS.toNanos(1);
+    long max = TimeUnit.MILLISECONDS.toNanos(8);
+    BackoffIdler idler = new BackoffIdler(config(min, max));
+
+    // spins and yields don't park
+    for (int i = 0; i < 4; i++) {
+      idler.idle();
+    }
+    Assert.assertEquals(min, idler.getParkNanos());
+
+    // the park time doubles up to the maximum
+    long[] expected = {2 * min, 4 * min, max, max};
+    for (long e : expected) {
+      long start = System.nanoTime();
+      idler.idle();
+      Assert.assertTrue(System.nanoTime() - start >= e / 2);
+      Assert.assertEquals(e, idler.getParkNanos());
+    }
+
+    idler.reset();
+    Assert.assertEquals(min, idler.getParkNanos());
+  }
+
+  @Test
+  public void testWakeUpWhenWorkArrives() throws Exception {
+    // the thread would park for a long time unless it is woken up
+    long park = TimeUnit.SECONDS.toNanos(30);
+    BackoffIdlers idlers = new BackoffIdlers(config(park, park), 2);
+    BackoffIdler worker = idlers.get(1);
+
+    AtomicBoolean work = new AtomicBoolean();
+    CountDownLatch done = new CountDownLatch(1);
+    Thread t = new Thread(() -> {
+      while (!work.get()) {
+        worker.idle();
+      }
+      done.countDown();
+    });
+    t.start();
+
+    waitForPark(worker);
+    Assert.assertFalse(idlers.wakeUpOne(worker));
+
+    work.set(true);
+    Assert.assertTrue(idlers.wakeUpOne(idlers.get(0)));
+    Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+    t.join();
+  }
+
+  @Test
+  public void testWakeUpOneAtATime() throws Exception {
+    long park = TimeUnit.SECONDS.toNanos(2);
+    BackoffIdlers idlers = new BackoffIdlers(config(park, park), 3);
+
+    AtomicBoolean stop = new AtomicBoolean();
+    Thread[] threads = new Thread[2];
+    for (int i = 0; i < threads.length; i++) {
+      BackoffIdler idler = idlers.get(i + 1);
+      threads[i] = new Thread(() -> {
+        while (!stop.get()) {
+          idler.idle();
+        }
+      });
+      threads[i].start();
+    }
+    waitForPark(idlers.get(1));
+    waitForPark(idlers.get(2));
+
+    // only one thread is woken up, the next wake up has to wait for the interval
+    Assert.assertTrue(idlers.wakeUpOne(idlers.get(0)));
+    Assert.assertFalse(idlers.wakeUpOne(idlers.get(0)));
+    Thread.sleep(100);
+    int parked = (idlers.get(1).isParked() ? 1 : 0) + (idlers.get(2).isParked() ? 1 : 0);
+    Assert.assertTrue(parked >= 1);
+
+    stop.set(true);
+    for (Thread t : threads) {
+      t.join();
+    }
+  }
+
+  private static void waitForPark(BackoffIdler idler) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 10000;
+    while (!idler.isParked()) {
+      Assert.assertTrue("The thread didn't park", System.currentTimeMillis() < deadline);
+      Thread.sleep(1);
+    }
+  }
+}
@@ -11,6 +11,9 @@
 //  limitations under the License.
 package edu.iu.dsc.tws.task.graph;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import edu.iu.dsc.tws.api.comms.messaging.types.MessageType;
 import edu.iu.dsc.tws.api.compute.IFunction;
 import edu.iu.dsc.tws.api.compute.TaskPartitioner;
@@ -29,6 +32,11 @@ public final class GraphBuilder {
 
   private ComputeGraph graph;
 
+  /**
+   * Names referring to another task, used when several nodes are fused in to a single task
+   */
+  private Map<String, String> aliases = new HashMap<>();
+
   private GraphBuilder() {
     graph = new ComputeGraph();
   }
@@ -56,8 +64,24 @@ public final class GraphBuilder {
   }
 
 
+  /**
+   * Refer to an existing task with another name. The configurations and connections made with
+   * the alias are applied to the task.
+   *
+   * @param alias the alias
+   * @param taskName name of the task
+   * @return the builder
+   */
+  public GraphBuilder addAlias(String alias, String taskName) {
+    if (graph.vertex(taskName) == null) {
+      throw new RuntimeException("Failed to add an alias to non-existing task: " + taskName);
+    }
+    aliases.put(alias, taskName);
+    return this;
+  }
+
   public GraphBuilder setParallelism(String taskName, int parallel) {
-    Vertex v = graph.vertex(taskName);
+    Vertex v = vertex(taskName);
     if (v == null) {
       throw new RuntimeException("Failed to add configuration to non-existing task: " + taskName);
     }
@@ -66,7 +90,7 @@ public final class GraphBuilder {
   }
 
   public GraphBuilder addConfiguration(String taskName, String property, Object value) {
-    Vertex v = graph.vertex(taskName);
+    Vertex v = vertex(taskName);
     if (v == null) {
       throw new RuntimeException("Failed to add configuration to non-existing task: " + taskName);
     }
@@ -112,12 +136,12 @@ public final class GraphBuilder {
   }
 
   public GraphBuilder connect(String t1, String t2, Edge edge) {
-    Vertex v1 = graph.vertex(t1);
+    Vertex v1 = vertex(t1);
     if (v1 == null) {
       throw new RuntimeException("Failed to connect non-existing task: " + t1);
     }
 
-    Vertex v2 = graph.vertex(t2);
+    Vertex v2 = vertex(t2);
     if (v2 == null) {
       throw new RuntimeException("Failed to connect non-existing task: " + t2);
     }
@@ -141,6 +165,10 @@ public final class GraphBuilder {
   }
 
   public boolean vertexExists(String name) {
-    return graph.vertex(name) != null;
+    return vertex(name) != null;
+  }
+
+  private Vertex vertex(String name) {
+    return graph.vertex(aliases.getOrDefault(name, name));
   }
 }
@@ -120,6 +120,13 @@ public class TaskExecutor implements FaultAcceptable {
     this.currentExecutors = new ExecutorList();
   }
 
+  /**
+   * The configuration used by this executor
+   */
+  public Config getConfig() {
+    return config;
+  }
+
   /**
    * Create an execution plan from the given graph
    *
@@ -15,6 +15,7 @@ import edu.iu.dsc.tws.api.compute.IMessage;
 import edu.iu.dsc.tws.task.window.api.IWindowMessage;
 import edu.iu.dsc.tws.task.window.core.BaseWindowedSink;
 import edu.iu.dsc.tws.task.window.function.AggregateWindowedFunction;
+import edu.iu.dsc.tws.task.window.function.IWindowFunction;
 
 public abstract class AggregateWindow<T> extends BaseWindowedSink<T> {
 
@@ -30,6 +31,16 @@ public abstract class AggregateWindow<T> extends BaseWindowedSink<T> {
     this.aggregateWindowedFunction = aggregateWindowedFunction;
   }
 
+  @Override
+  protected IWindowFunction<T> getIncrementalFunction() {
+    return aggregateWindowedFunction;
+  }
+
+  @Override
+  protected void onWindowAggregate(T aggregate) {
+    aggregate(aggregate);
+  }
+
   @Override
   public boolean execute(IWindowMessage<T> windowMessage) {
     if (windowMessage != null) {
@@ -14,6 +14,7 @@ package edu.iu.dsc.tws.task.window.collectives;
 import edu.iu.dsc.tws.api.compute.IMessage;
 import edu.iu.dsc.tws.task.window.api.IWindowMessage;
 import edu.iu.dsc.tws.task.window.core.BaseWindowedSink;
+import edu.iu.dsc.tws.task.window.function.IWindowFunction;
 import edu.iu.dsc.tws.task.window.function.ReduceWindowedFunction;
 
 public abstract class ReduceWindow<T> extends BaseWindowedSink<T> {
@@ -26,6 +27,18 @@ public abstract class ReduceWindow<T> extends BaseWindowedSink<T> {
 
   public ReduceWindow(ReduceWindowedFunction<T> reduceWindowedFunction) {
     this.reduceWindowedFunction = reduceWindowedFunction;
+    // reduce functions are associative, so the windows are reduced incrementally by default
+    this.incrementalAggregation = true;
+  }
+
+  @Override
+  protected IWindowFunction<T> getIncrementalFunction() {
+    return reduceWindowedFunction;
+  }
+
+  @Override
+  protected void onWindowAggregate(T aggregate) {
+    reduce(aggregate);
   }
 
   @Override
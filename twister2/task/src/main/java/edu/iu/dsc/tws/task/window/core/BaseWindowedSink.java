@@ -32,6 +32,8 @@ import edu.iu.dsc.tws.task.window.api.WindowLifeCycleListener;
 import edu.iu.dsc.tws.task.window.config.WindowConfig;
 import edu.iu.dsc.tws.task.window.event.WatermarkEventGenerator;
 import edu.iu.dsc.tws.task.window.exceptions.InvalidWindow;
+import edu.iu.dsc.tws.task.window.function.IWindowFunction;
+import edu.iu.dsc.tws.task.window.manage.PaneWindowManager;
 import edu.iu.dsc.tws.task.window.manage.WindowManager;
 import edu.iu.dsc.tws.task.window.policy.eviction.count.CountEvictionPolicy;
 import edu.iu.dsc.tws.task.window.policy.eviction.count.WatermarkCountEvictionPolicy;
@@ -87,6 +89,15 @@ public abstract class BaseWindowedSink<T> extends AbstractSingleWindowDataSink<T
 
   protected WatermarkEventGenerator<T> watermarkEventGenerator;
 
+  /**
+   * Weather to aggregate the windows incrementally when the sink supports it
+   */
+  protected boolean incrementalAggregation = false;
+
+  /**
+   * Aggregates the windows incrementally, null if the events of the windows are buffered
+   */
+  protected PaneWindowManager<T> paneWindowManager;
 
   protected BaseWindowedSink() {
   }
@@ -108,6 +119,16 @@ public abstract class BaseWindowedSink<T> extends AbstractSingleWindowDataSink<T
             this.windowParameter.getSldingDurationSize());
       }
 
+      IWindowFunction<T> function = getIncrementalFunction();
+      if (incrementalAggregation && function != null && !isTimestamped()
+          && PaneWindowManager.isSupported(this.iWindow)) {
+        LOG.info("Aggregating the windows incrementally");
+        this.paneWindowManager = new PaneWindowManager<>(function, this.iWindow,
+            this::onWindowAggregate);
+        this.paneWindowManager.start();
+        return;
+      }
+
       if (iTimestampExtractor != null) {
         // TODO : handle delayed Stream
 
@@ -135,8 +156,29 @@ public abstract class BaseWindowedSink<T> extends AbstractSingleWindowDataSink<T
     }
   }
 
+  /**
+   * The function to aggregate the windows incrementally, null if the sink needs all the events
+   * of a window
+   */
+  protected IWindowFunction<T> getIncrementalFunction() {
+    return null;
+  }
+
+  /**
+   * Called with the aggregate of a window when the windows are aggregated incrementally
+   *
+   * @param aggregate the aggregate of the window
+   */
+  protected void onWindowAggregate(T aggregate) {
+  }
+
   @Override
   public boolean execute(IMessage<T> message) {
+    if (paneWindowManager != null) {
+      paneWindowManager.add(message);
+      return true;
+    }
+
     if (isTimestamped()) {
       long time = iTimestampExtractor.extractTimestamp(message.getContent());
       GlobalStreamId streamId = new GlobalStreamId(message.edge());
@@ -206,6 +248,16 @@ public abstract class BaseWindowedSink<T> extends AbstractSingleWindowDataSink<T
     return this;
   }
 
+  /**
+   * Keep only the partial aggregates of the panes of the window instead of the events. The
+   * function of the window should be associative for this, event time windows and windows
+   * which are not a multiple of the sliding length always buffer the events.
+   */
+  public BaseWindowedSink<T> withIncrementalAggregation(boolean incremental) {
+    this.incrementalAggregation = incremental;
+    return this;
+  }
+
 
   protected WindowLifeCycleListener<T> newWindowLifeCycleListener() {
     return new WindowLifeCycleListener<T>() {
@@ -298,6 +350,9 @@ public abstract class BaseWindowedSink<T> extends AbstractSingleWindowDataSink<T
 
   @Override
   public void close() {
+    if (paneWindowManager != null) {
+      paneWindowManager.shutdown();
+    }
     if (watermarkEventGenerator != null) {
       watermarkEventGenerator.shutdown();
     }
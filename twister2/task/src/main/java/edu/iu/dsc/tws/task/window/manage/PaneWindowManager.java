@@ -0,0 +1,242 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.task.window.manage;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import edu.iu.dsc.tws.api.compute.IMessage;
+import edu.iu.dsc.tws.task.window.api.IWindow;
+import edu.iu.dsc.tws.task.window.config.SlidingCountWindow;
+import edu.iu.dsc.tws.task.window.config.SlidingDurationWindow;
+import edu.iu.dsc.tws.task.window.config.TumblingCountWindow;
+import edu.iu.dsc.tws.task.window.config.TumblingDurationWindow;
+import edu.iu.dsc.tws.task.window.function.IWindowFunction;
+
+/**
+ * Aggregates the windows incrementally instead of buffering the events. A window is split in
+ * to panes of the sliding length, only the partial aggregate of each pane is kept and the
+ * window is the aggregate of its last panes.
+ * <p>
+ * The panes are kept in two stacks. New panes are pushed to the back stack, which keeps the
+ * aggregate of all its panes. The oldest pane is removed from the front stack, which keeps
+ * the aggregate of each pane and the panes after it. When the front stack is empty the back
+ * stack is moved to it. So each slide costs amortized constant applications of the function,
+ * which should be associative and should not modify its arguments. A pane without any events
+ * is kept as an empty aggregate, so the panes of a duration window always cover its length.
+ *
+ * @param <T> message type
+ */
+public class PaneWindowManager<T> implements IManager<T> {
+
+  private static final Logger LOG = Logger.getLogger(PaneWindowManager.class.getName());
+
+  private static final long serialVersionUID = 4675238946215733912L;
+
+  private static final long TIMEOUT = 2;
+
+  /**
+   * Stands for an empty aggregate in the front stack, which doesn't accept nulls. An enum keeps
+   * the identity when the manager is serialized.
+   */
+  private enum Empty {
+    PANE
+  }
+
+  private final IWindowFunction<T> function;
+
+  private final transient Consumer<T> output;
+
+  /**
+   * Number of panes in a window
+   */
+  private final int panesPerWindow;
+
+  /**
+   * Number of events in a pane, 0 for duration windows
+   */
+  private final long paneCount;
+
+  /**
+   * Length of a pane in milliseconds for duration windows
+   */
+  private final long paneDuration;
+
+  /**
+   * Aggregate of the current pane
+   */
+  private T current;
+
+  private long currentCount;
+
+  /**
+   * Aggregate of each pane and the panes after it, the oldest pane is at the head
+   */
+  private final Deque<Object> front = new ArrayDeque<>();
+
+  /**
+   * Panes pushed after the front stack was filled, oldest first
+   */
+  private final List<T> back = new ArrayList<>();
+
+  /**
+   * Aggregate of the back stack
+   */
+  private T backAggregate;
+
+  private transient ScheduledExecutorService executor;
+
+  public PaneWindowManager(IWindowFunction<T> function, IWindow window, Consumer<T> output) {
+    if (!isSupported(window)) {
+      throw new IllegalArgumentException("Panes are not supported for the window " + window);
+    }
+    this.function = function;
+    this.output = output;
+    this.panesPerWindow = (int) (window.getWindowLength() / window.getSlidingLength());
+    if (isCountWindow(window)) {
+      this.paneCount = window.getSlidingLength();
+      this.paneDuration = 0;
+    } else {
+      this.paneCount = 0;
+      this.paneDuration = window.getSlidingLength();
+    }
+  }
+
+  /**
+   * Weather a window can be split in to panes, the window length should be a multiple of the
+   * sliding length
+   */
+  public static boolean isSupported(IWindow window) {
+    return (isCountWindow(window) || window instanceof SlidingDurationWindow
+        || window instanceof TumblingDurationWindow)
+        && window.getSlidingLength() > 0
+        && window.getWindowLength() % window.getSlidingLength() == 0;
+  }
+
+  private static boolean isCountWindow(IWindow window) {
+    return window instanceof SlidingCountWindow || window instanceof TumblingCountWindow;
+  }
+
+  /**
+   * Start the timer that closes the panes of duration windows
+   */
+  public void start() {
+    if (paneDuration > 0) {
+      executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+          .setNameFormat("pane-window-%d").setDaemon(true).build());
+      executor.scheduleAtFixedRate(() -> {
+        try {
+          onEvent();
+        } catch (Throwable t) {
+          // a task that throws is not run again, so the later panes would never be closed
+          LOG.log(Level.SEVERE, "Failed to close the pane", t);
+        }
+      }, paneDuration, paneDuration, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  @Override
+  public void add(IMessage<T> message) {
+    boolean paneFull;
+    synchronized (this) {
+      current = combine(current, message.getContent());
+      paneFull = paneCount > 0 && ++currentCount >= paneCount;
+    }
+    if (paneFull) {
+      onEvent();
+    }
+  }
+
+  /**
+   * Close the current pane and output the aggregate of the window
+   *
+   * @return true if the window had any events
+   */
+  @Override
+  public boolean onEvent() {
+    T windowAggregate;
+    synchronized (this) {
+      back.add(current);
+      backAggregate = combine(backAggregate, current);
+      current = null;
+      currentCount = 0;
+
+      if (front.size() + back.size() > panesPerWindow) {
+        if (front.isEmpty()) {
+          flip();
+        }
+        front.poll();
+      }
+      windowAggregate = combine(aggregate(front.peek()), backAggregate);
+    }
+
+    if (windowAggregate != null) {
+      output.accept(windowAggregate);
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Move the back stack to the front, computing the aggregate of each pane and the ones after it
+   */
+  private void flip() {
+    T suffix = null;
+    for (int i = back.size() - 1; i >= 0; i--) {
+      suffix = combine(back.get(i), suffix);
+      front.addFirst(suffix == null ? Empty.PANE : suffix);
+    }
+    back.clear();
+    backAggregate = null;
+  }
+
+  @SuppressWarnings("unchecked")
+  private T aggregate(Object frontEntry) {
+    return frontEntry == Empty.PANE ? null : (T) frontEntry;
+  }
+
+  /**
+   * Combine two aggregates, null is an empty aggregate
+   */
+  private T combine(T first, T second) {
+    if (first == null) {
+      return second;
+    } else if (second == null) {
+      return first;
+    }
+    return function.onMessage(first, second);
+  }
+
+  public void shutdown() {
+    if (executor != null) {
+      executor.shutdown();
+      try {
+        if (!executor.awaitTermination(TIMEOUT, TimeUnit.SECONDS)) {
+          executor.shutdownNow();
+        }
+      } catch (InterruptedException ie) {
+        executor.shutdownNow();
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
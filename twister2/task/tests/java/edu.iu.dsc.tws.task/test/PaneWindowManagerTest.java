@@ -0,0 +1,116 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.task.test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import edu.iu.dsc.tws.api.compute.TaskMessage;
+import edu.iu.dsc.tws.task.window.config.SlidingCountWindow;
+import edu.iu.dsc.tws.task.window.config.SlidingDurationWindow;
+import edu.iu.dsc.tws.task.window.config.TumblingCountWindow;
+import edu.iu.dsc.tws.task.window.function.IWindowFunction;
+import edu.iu.dsc.tws.task.window.manage.PaneWindowManager;
+
+public class PaneWindowManagerTest {
+
+  private static final IWindowFunction<Integer> SUM = (a, b) -> a + b;
+
+  @Test
+  public void testSlidingCountWindow() {
+    List<Integer> output = new ArrayList<>();
+    PaneWindowManager<Integer> manager = new PaneWindowManager<>(SUM,
+        new SlidingCountWindow(6, 2), output::add);
+
+    List<Integer> expected = new ArrayList<>();
+    for (int i = 1; i <= 20; i++) {
+      manager.add(new TaskMessage<>(i));
+      if (i % 2 == 0) {
+        int sum = 0;
+        for (int j = Math.max(1, i - 5); j <= i; j++) {
+          sum += j;
+        }
+        expected.add(sum);
+      }
+    }
+    Assert.assertEquals(expected, output);
+  }
+
+  @Test
+  public void testTumblingCountWindow() {
+    List<Integer> output = new ArrayList<>();
+    PaneWindowManager<Integer> manager = new PaneWindowManager<>(SUM,
+        new TumblingCountWindow(3), output::add);
+    for (int i = 1; i <= 9; i++) {
+      manager.add(new TaskMessage<>(i));
+    }
+    Assert.assertEquals(Arrays.asList(6, 15, 24), output);
+  }
+
+  @Test
+  public void testIdlePaneInDurationWindow() {
+    List<Integer> output = new ArrayList<>();
+    // three panes in a window, the panes are closed by calling onEvent
+    PaneWindowManager<Integer> manager = new PaneWindowManager<>(SUM,
+        new SlidingDurationWindow(300, 100), output::add);
+
+    manager.add(new TaskMessage<>(1));
+    Assert.assertTrue(manager.onEvent());
+    // an idle pane in the middle of the window
+    Assert.assertTrue(manager.onEvent());
+    manager.add(new TaskMessage<>(2));
+    Assert.assertTrue(manager.onEvent());
+    Assert.assertEquals(Arrays.asList(1, 1, 3), output);
+
+    // the first pane slides out, then the idle one
+    manager.add(new TaskMessage<>(4));
+    Assert.assertTrue(manager.onEvent());
+    Assert.assertTrue(manager.onEvent());
+    Assert.assertTrue(manager.onEvent());
+    Assert.assertEquals(Arrays.asList(1, 1, 3, 6, 6, 4), output);
+
+    // the window has only idle panes
+    Assert.assertFalse(manager.onEvent());
+    Assert.assertFalse(manager.onEvent());
+
+    manager.add(new TaskMessage<>(8));
+    Assert.assertTrue(manager.onEvent());
+    Assert.assertEquals(Integer.valueOf(8), output.get(output.size() - 1));
+  }
+
+  @Test
+  public void testTimerAfterIdlePanes() throws InterruptedException {
+    List<Integer> output = Collections.synchronizedList(new ArrayList<>());
+    PaneWindowManager<Integer> manager = new PaneWindowManager<>(SUM,
+        new SlidingDurationWindow(60, 20), output::add);
+    manager.start();
+    try {
+      manager.add(new TaskMessage<>(1));
+      // let several panes close without any events
+      Thread.sleep(200);
+      manager.add(new TaskMessage<>(100));
+
+      long deadline = System.currentTimeMillis() + 5000;
+      while (!output.contains(100) && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10);
+      }
+      Assert.assertTrue("The timer stopped closing the panes", output.contains(100));
+    } finally {
+      manager.shutdown();
+    }
+  }
+}
@@ -0,0 +1,476 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.tsched.commaware;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import edu.iu.dsc.tws.api.compute.OperationNames;
+import edu.iu.dsc.tws.api.compute.exceptions.TaskSchedulerException;
+import edu.iu.dsc.tws.api.compute.graph.ComputeGraph;
+import edu.iu.dsc.tws.api.compute.graph.DirectedEdge;
+import edu.iu.dsc.tws.api.compute.graph.Edge;
+import edu.iu.dsc.tws.api.compute.graph.Vertex;
+import edu.iu.dsc.tws.api.compute.schedule.ITaskScheduler;
+import edu.iu.dsc.tws.api.compute.schedule.elements.Resource;
+import edu.iu.dsc.tws.api.compute.schedule.elements.TaskInstanceId;
+import edu.iu.dsc.tws.api.compute.schedule.elements.TaskInstancePlan;
+import edu.iu.dsc.tws.api.compute.schedule.elements.TaskSchedulePlan;
+import edu.iu.dsc.tws.api.compute.schedule.elements.Worker;
+import edu.iu.dsc.tws.api.compute.schedule.elements.WorkerPlan;
+import edu.iu.dsc.tws.api.compute.schedule.elements.WorkerSchedulePlan;
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.tsched.spi.common.TaskSchedulerContext;
+import edu.iu.dsc.tws.tsched.utils.TaskAttributes;
+
+/**
+ * This scheduler places the task instances so that the heavy edges of the task graph stay inside
+ * a worker. Every edge gets a weight from its operation, direct and pipe edges are the heaviest
+ * since all the data of an instance goes to one instance, partition, join and gather edges spread
+ * the data over the targets and the broadcast edges are the lightest. The weight is multiplied by
+ * the number of bytes given with the
+ * {@link TaskSchedulerContext#TWISTER2_TASK_SCHEDULER_EDGE_BYTES} edge property, if any.
+ * <p>
+ * The instances are placed one at a time in the graph order, each going to the worker which
+ * already holds most of the weight connected to it. The workers are filled up to an even share
+ * of the instances (or the maximum instances per worker graph constraint) and up to the ram and
+ * cpu of the worker when the worker plan has them. Ties go to the least loaded worker, so the
+ * instances without any placed neighbours are spread like the round robin scheduler.
+ * <p>
+ * After scheduling, {@link #getCommunicationReport()} gives the expected local and remote
+ * instance pairs of the edges.
+ */
+public class CommunicationAwareTaskScheduler implements ITaskScheduler {
+
+  private static final Logger LOG =
+      Logger.getLogger(CommunicationAwareTaskScheduler.class.getName());
+
+  /**
+   * Weight of the edges sending all the data of an instance to one instance
+   */
+  private static final double ONE_TO_ONE_WEIGHT = 4.0;
+
+  /**
+   * Weight of the edges spreading the data of an instance over the targets
+   */
+  private static final double SPREAD_WEIGHT = 2.0;
+
+  /**
+   * Weight of the edges combining the data on the way, like the reductions
+   */
+  private static final double COMBINED_WEIGHT = 1.0;
+
+  /**
+   * Weight of the broadcast edges, these usually carry small values like the model
+   */
+  private static final double BROADCAST_WEIGHT = 0.5;
+
+  //Represents the task instance ram
+  private Double instanceRAM;
+
+  //Represents the task instance disk
+  private Double instanceDisk;
+
+  //Represents the task instance cpu value
+  private Double instanceCPU;
+
+  //Config object
+  private Config config;
+
+  private int workerId;
+
+  private CommunicationReport communicationReport;
+
+  @Override
+  public void initialize(Config cfg) {
+    this.config = cfg;
+    this.instanceRAM = TaskSchedulerContext.taskInstanceRam(config);
+    this.instanceDisk = TaskSchedulerContext.taskInstanceDisk(config);
+    this.instanceCPU = TaskSchedulerContext.taskInstanceCpu(config);
+  }
+
+  @Override
+  public void initialize(Config cfg, int workerid) {
+    this.initialize(cfg);
+    this.workerId = workerid;
+  }
+
+  @Override
+  public TaskSchedulePlan schedule(ComputeGraph computeGraph, WorkerPlan workerPlan) {
+    int numberOfWorkers = workerPlan.getNumberOfWorkers();
+    if (numberOfWorkers <= 0) {
+      throw new TaskSchedulerException("Task scheduling needs at least one worker");
+    }
+
+    List<Vertex> vertices = new ArrayList<>(computeGraph.getTaskVertexSet());
+    Map<String, Integer> vertexIndexes = new HashMap<>();
+    for (int i = 0; i < vertices.size(); i++) {
+      vertexIndexes.put(vertices.get(i).getName(), i);
+    }
+
+    TaskAttributes taskAttributes = new TaskAttributes();
+    int[] parallelism = new int[vertices.size()];
+    int totalInstances = 0;
+    for (int i = 0; i < vertices.size(); i++) {
+      if (!computeGraph.getNodeConstraints().isEmpty()) {
+        parallelism[i] = taskAttributes.getTotalNumberOfInstances(vertices.get(i),
+            computeGraph.getNodeConstraints());
+      } else {
+        parallelism[i] = taskAttributes.getTotalNumberOfInstances(vertices.get(i));
+      }
+      totalInstances += parallelism[i];
+    }
+
+    List<List<Link>> links = buildLinks(computeGraph, vertexIndexes, parallelism);
+
+    Set<Vertex> vertexSet = new LinkedHashSet<>(vertices);
+    Map<String, Double> ramMap = taskAttributes.getTaskRamMap(vertexSet);
+    Map<String, Double> diskMap = taskAttributes.getTaskDiskMap(vertexSet);
+    Map<String, Double> cpuMap = taskAttributes.getTaskCPUMap(vertexSet);
+
+    int slots = taskAttributes.getInstancesPerWorker(computeGraph.getGraphConstraints());
+    if (slots <= 0) {
+      slots = (totalInstances + numberOfWorkers - 1) / numberOfWorkers;
+    }
+
+    // the limits of the workers, the workers without resource values are only limited by slots
+    double[] freeRam = new double[numberOfWorkers];
+    double[] freeCpu = new double[numberOfWorkers];
+    int[] freeSlots = new int[numberOfWorkers];
+    for (int w = 0; w < numberOfWorkers; w++) {
+      Worker worker = workerPlan.getWorker(w);
+      freeRam[w] = worker != null && worker.getRam() > 0 ? worker.getRam() : Double.MAX_VALUE;
+      freeCpu[w] = worker != null && worker.getCpu() > 0 ? worker.getCpu() : Double.MAX_VALUE;
+      freeSlots[w] = slots;
+    }
+
+    // placement of the instances and the number of instances of a task in each worker
+    int[][] placement = new int[vertices.size()][];
+    int[][] instancesInWorker = new int[vertices.size()][numberOfWorkers];
+    Map<Integer, List<TaskInstanceId>> containerInstanceMap = new LinkedHashMap<>();
+    for (int w = 0; w < numberOfWorkers; w++) {
+      containerInstanceMap.put(w, new ArrayList<>());
+    }
+
+    double[] affinity = new double[numberOfWorkers];
+    for (int v = 0; v < vertices.size(); v++) {
+      String taskName = vertices.get(v).getName();
+      double ram = ramMap.get(taskName);
+      double cpu = cpuMap.get(taskName);
+      placement[v] = new int[parallelism[v]];
+
+      for (int i = 0; i < parallelism[v]; i++) {
+        computeAffinity(links.get(v), i, placement, instancesInWorker, affinity);
+
+        int selected = -1;
+        for (int w = 0; w < numberOfWorkers; w++) {
+          if (freeSlots[w] <= 0 || freeRam[w] < ram || freeCpu[w] < cpu) {
+            continue;
+          }
+          if (selected < 0 || affinity[w] > affinity[selected]
+              || (affinity[w] == affinity[selected] && freeSlots[w] > freeSlots[selected])) {
+            selected = w;
+          }
+        }
+
+        if (selected < 0) {
+          throw new TaskSchedulerException("Task Scheduling couldn't be possible for the present"
+              + " configuration, the workers don't have enough resources for " + taskName
+              + " instance " + i);
+        }
+
+        placement[v][i] = selected;
+        instancesInWorker[v][selected]++;
+        freeSlots[selected]--;
+        freeRam[selected] -= ram;
+        freeCpu[selected] -= cpu;
+        containerInstanceMap.get(selected).add(new TaskInstanceId(taskName, v, i));
+      }
+    }
+
+    this.communicationReport = createReport(computeGraph, vertexIndexes, parallelism,
+        placement, numberOfWorkers);
+    if (workerId == 0) {
+      LOG.info(communicationReport.toString());
+    } else {
+      LOG.fine(communicationReport.toString());
+    }
+
+    Set<WorkerSchedulePlan> workerSchedulePlans = new LinkedHashSet<>();
+    for (Map.Entry<Integer, List<TaskInstanceId>> e : containerInstanceMap.entrySet()) {
+      int containerId = e.getKey();
+
+      double containerRAMValue = TaskSchedulerContext.containerRamPadding(config);
+      double containerDiskValue = TaskSchedulerContext.containerDiskPadding(config);
+      double containerCpuValue = TaskSchedulerContext.containerCpuPadding(config);
+
+      Set<TaskInstancePlan> taskInstancePlans = new LinkedHashSet<>();
+      for (TaskInstanceId id : e.getValue()) {
+        double ram = ramMap.getOrDefault(id.getTaskName(), instanceRAM);
+        double disk = diskMap.getOrDefault(id.getTaskName(), instanceDisk);
+        double cpu = cpuMap.getOrDefault(id.getTaskName(), instanceCPU);
+
+        taskInstancePlans.add(new TaskInstancePlan(id.getTaskName(), id.getTaskId(),
+            id.getTaskIndex(), new Resource(ram, disk, cpu)));
+        containerRAMValue += ram;
+        containerDiskValue += disk;
+        containerCpuValue += cpu;
+      }
+
+      Worker worker = workerPlan.getWorker(containerId);
+      Resource containerResource;
+      if (worker != null && worker.getCpu() > 0 && worker.getDisk() > 0 && worker.getRam() > 0) {
+        containerResource = new Resource((double) worker.getRam(), (double) worker.getDisk(),
+            (double) worker.getCpu());
+      } else {
+        containerResource = new Resource(containerRAMValue, containerDiskValue, containerCpuValue);
+      }
+      workerSchedulePlans.add(new WorkerSchedulePlan(containerId, taskInstancePlans,
+          containerResource));
+    }
+    return new TaskSchedulePlan(0, workerSchedulePlans);
+  }
+
+  /**
+   * The expected local and remote edges of the last schedule
+   *
+   * @return the report or null if nothing is scheduled yet
+   */
+  public CommunicationReport getCommunicationReport() {
+    return communicationReport;
+  }
+
+  /**
+   * Sum the weights connecting the given instance to the instances already placed in each worker
+   */
+  private static void computeAffinity(List<Link> vertexLinks, int index, int[][] placement,
+                                      int[][] instancesInWorker, double[] affinity) {
+    for (int w = 0; w < affinity.length; w++) {
+      affinity[w] = 0;
+    }
+    for (Link link : vertexLinks) {
+      int[] placed = placement[link.other];
+      if (placed == null) {
+        continue;
+      }
+      if (link.oneToOne) {
+        affinity[placed[index]] += link.pairWeight;
+      } else {
+        int[] counts = instancesInWorker[link.other];
+        for (int w = 0; w < affinity.length; w++) {
+          affinity[w] += link.pairWeight * counts[w];
+        }
+      }
+    }
+  }
+
+  /**
+   * Create the links of each task, an edge between two tasks is added to both of them. The edges
+   * from a task to itself don't affect the placement, so they are left out.
+   */
+  private static List<List<Link>> buildLinks(ComputeGraph graph,
+                                             Map<String, Integer> vertexIndexes,
+                                             int[] parallelism) {
+    List<List<Link>> links = new ArrayList<>();
+    for (int i = 0; i < parallelism.length; i++) {
+      links.add(new ArrayList<>());
+    }
+
+    for (DirectedEdge<Vertex, Edge> de : graph.getDirectedEdgesSet()) {
+      int source = vertexIndexes.get(de.getSourceVertex().getName());
+      int target = vertexIndexes.get(de.getTargetVertex().getName());
+      if (source == target) {
+        continue;
+      }
+      Edge edge = de.getTaskEdge();
+      boolean oneToOne = isOneToOne(edge, parallelism[source], parallelism[target]);
+      double pairWeight = pairWeight(edge, oneToOne, parallelism[target]);
+
+      links.get(source).add(new Link(target, oneToOne, pairWeight));
+      links.get(target).add(new Link(source, oneToOne, pairWeight));
+    }
+    return links;
+  }
+
+  private static boolean isOneToOne(Edge edge, int sourceParallelism, int targetParallelism) {
+    String operation = edge.getOperation();
+    return sourceParallelism == targetParallelism
+        && (OperationNames.DIRECT.equals(operation) || OperationNames.PIPE.equals(operation)
+        || OperationNames.TABLE_DIRECT.equals(operation)
+        || OperationNames.TABLE_PIPE.equals(operation));
+  }
+
+  /**
+   * The weight between a source instance and a target instance of the edge
+   */
+  private static double pairWeight(Edge edge, boolean oneToOne, int targetParallelism) {
+    double weight = edgeWeight(edge);
+    if (oneToOne || OperationNames.BROADCAST.equals(edge.getOperation())) {
+      return weight;
+    }
+    // the data of a source instance is spread over the targets
+    return weight / targetParallelism;
+  }
+
+  /**
+   * The weight of the data sent by a source instance of the edge
+   */
+  static double edgeWeight(Edge edge) {
+    String operation = edge.getOperation();
+    double weight;
+    if (OperationNames.DIRECT.equals(operation) || OperationNames.PIPE.equals(operation)
+        || OperationNames.TABLE_DIRECT.equals(operation)
+        || OperationNames.TABLE_PIPE.equals(operation)) {
+      weight = ONE_TO_ONE_WEIGHT;
+    } else if (OperationNames.BROADCAST.equals(operation)) {
+      weight = BROADCAST_WEIGHT;
+    } else if (OperationNames.REDUCE.equals(operation)
+        || OperationNames.ALLREDUCE.equals(operation)
+        || OperationNames.KEYED_REDUCE.equals(operation)) {
+      weight = COMBINED_WEIGHT;
+    } else {
+      weight = SPREAD_WEIGHT;
+    }
+
+    Object bytes = edge.getProperty(TaskSchedulerContext.TWISTER2_TASK_SCHEDULER_EDGE_BYTES);
+    if (bytes instanceof Number) {
+      weight *= ((Number) bytes).doubleValue();
+    } else if (bytes != null) {
+      try {
+        weight *= Double.parseDouble(bytes.toString());
+      } catch (NumberFormatException e) {
+        LOG.warning("Invalid byte hint for the edge " + edge.getName() + ": " + bytes);
+      }
+    }
+    return weight;
+  }
+
+  private static CommunicationReport createReport(ComputeGraph graph,
+                                                  Map<String, Integer> vertexIndexes,
+                                                  int[] parallelism, int[][] placement,
+                                                  int numberOfWorkers) {
+    CommunicationReport report = new CommunicationReport();
+    for (DirectedEdge<Vertex, Edge> de : graph.getDirectedEdgesSet()) {
+      int source = vertexIndexes.get(de.getSourceVertex().getName());
+      int target = vertexIndexes.get(de.getTargetVertex().getName());
+      Edge edge = de.getTaskEdge();
+      boolean oneToOne = isOneToOne(edge, parallelism[source], parallelism[target]);
+      double pairWeight = pairWeight(edge, oneToOne, parallelism[target]);
+
+      long local = 0;
+      long remote = 0;
+      if (oneToOne) {
+        for (int i = 0; i < parallelism[source]; i++) {
+          if (placement[source][i] == placement[target][i]) {
+            local++;
+          } else {
+            remote++;
+          }
+        }
+      } else {
+        long[] targetsInWorker = new long[numberOfWorkers];
+        for (int w : placement[target]) {
+          targetsInWorker[w]++;
+        }
+        for (int w : placement[source]) {
+          local += targetsInWorker[w];
+          remote += parallelism[target] - targetsInWorker[w];
+        }
+      }
+      report.add(edge.getName(), local, remote, pairWeight);
+    }
+    return report;
+  }
+
+  /**
+   * A weighted connection from the instances of a task to the instances of another task
+   */
+  private static final class Link {
+    private final int other;
+    private final boolean oneToOne;
+    private final double pairWeight;
+
+    Link(int other, boolean oneToOne, double pairWeight) {
+      this.other = other;
+      this.oneToOne = oneToOne;
+      this.pairWeight = pairWeight;
+    }
+  }
+
+  /**
+   * The instance pairs of the edges expected to communicate inside a worker and across workers
+   */
+  public static final class CommunicationReport {
+    private final Map<String, long[]> edgePairs = new LinkedHashMap<>();
+
+    private long localPairs;
+
+    private long remotePairs;
+
+    private double localWeight;
+
+    private double remoteWeight;
+
+    private void add(String edge, long local, long remote, double pairWeight) {
+      edgePairs.put(edge, new long[]{local, remote});
+      localPairs += local;
+      remotePairs += remote;
+      localWeight += local * pairWeight;
+      remoteWeight += remote * pairWeight;
+    }
+
+    public long getLocalPairs() {
+      return localPairs;
+    }
+
+    public long getRemotePairs() {
+      return remotePairs;
+    }
+
+    public double getLocalWeight() {
+      return localWeight;
+    }
+
+    public double getRemoteWeight() {
+      return remoteWeight;
+    }
+
+    /**
+     * Local and remote instance pairs of an edge
+     *
+     * @param edge name of the edge
+     * @return an array with the local and the remote pairs, or null if there is no such edge
+     */
+    public long[] getEdgePairs(String edge) {
+      return edgePairs.get(edge);
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("Communication report: local pairs ")
+          .append(localPairs).append(", remote pairs ").append(remotePairs)
+          .append(", local weight ").append(localWeight)
+          .append(", remote weight ").append(remoteWeight);
+      for (Map.Entry<String, long[]> e : edgePairs.entrySet()) {
+        sb.append("\n  ").append(e.getKey()).append(": local ").append(e.getValue()[0])
+            .append(", remote ").append(e.getValue()[1]);
+      }
+      return sb.toString();
+    }
+  }
+}
@@ -108,6 +108,13 @@ public class TaskSchedulerContext extends Context {
       + "taskscheduler.container.instance.latency";
   private static final double TWISTER2_TASK_SCHEDULER_CONTAINER_INSTANCE_LATENCY_DEFAULT = 0.02;
 
+  /**
+   * Edge property with the expected bytes sent by a source instance, the communication aware
+   * scheduler uses it to weight the edges
+   */
+  public static final String TWISTER2_TASK_SCHEDULER_EDGE_BYTES = "twister2."
+      + "taskscheduler.edge.bytes";
+
   private static final String TWISTER2_TASK_SCHEDULER_DATANODE_INSTANCE_BANDWIDTH = "twister2."
       + "taskscheduler.datanode.instance.bandwidth";
   private static final double TWISTER2_TASK_SCHEDULER_DATANODE_INSTANCE_BANDWIDTH_DEFAULT = 200;
@@ -0,0 +1,154 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.tsched.commaware;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageTypes;
+import edu.iu.dsc.tws.api.compute.exceptions.TaskSchedulerException;
+import edu.iu.dsc.tws.api.compute.graph.ComputeGraph;
+import edu.iu.dsc.tws.api.compute.graph.OperationMode;
+import edu.iu.dsc.tws.api.compute.schedule.elements.TaskInstancePlan;
+import edu.iu.dsc.tws.api.compute.schedule.elements.TaskSchedulePlan;
+import edu.iu.dsc.tws.api.compute.schedule.elements.Worker;
+import edu.iu.dsc.tws.api.compute.schedule.elements.WorkerPlan;
+import edu.iu.dsc.tws.api.compute.schedule.elements.WorkerSchedulePlan;
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.task.impl.ComputeConnection;
+import edu.iu.dsc.tws.task.impl.ComputeGraphBuilder;
+import edu.iu.dsc.tws.tsched.utils.TaskSchedulerClassTest;
+
+public class CommunicationAwareTaskSchedulerTest {
+
+  @Test
+  public void testDirectEdgesAreLocal() {
+    int parallel = 16;
+    int workers = 4;
+    ComputeGraph graph = createDirectGraph(parallel);
+    CommunicationAwareTaskScheduler scheduler = new CommunicationAwareTaskScheduler();
+    scheduler.initialize(Config.newBuilder().build());
+
+    TaskSchedulePlan plan = scheduler.schedule(graph, createWorkPlan(workers, 0, 0));
+    Assert.assertEquals(workers, plan.getContainers().size());
+
+    Map<String, Integer> workerOfInstance = new HashMap<>();
+    for (WorkerSchedulePlan workerSchedulePlan : plan.getContainers()) {
+      Assert.assertEquals(3 * parallel / workers, workerSchedulePlan.getTaskInstances().size());
+      for (TaskInstancePlan ip : workerSchedulePlan.getTaskInstances()) {
+        workerOfInstance.put(ip.getTaskName() + ip.getTaskIndex(),
+            workerSchedulePlan.getContainerId());
+      }
+    }
+
+    for (int i = 0; i < parallel; i++) {
+      Assert.assertEquals(workerOfInstance.get("source" + i), workerOfInstance.get("compute" + i));
+      Assert.assertEquals(workerOfInstance.get("compute" + i), workerOfInstance.get("sink" + i));
+    }
+
+    CommunicationAwareTaskScheduler.CommunicationReport report =
+        scheduler.getCommunicationReport();
+    Assert.assertEquals(2 * parallel, report.getLocalPairs());
+    Assert.assertEquals(0, report.getRemotePairs());
+  }
+
+  @Test
+  public void testPartitionEdgesAreSpread() {
+    int parallel = 8;
+    int workers = 2;
+    ComputeGraph graph = createPartitionGraph(parallel);
+    CommunicationAwareTaskScheduler scheduler = new CommunicationAwareTaskScheduler();
+    scheduler.initialize(Config.newBuilder().build());
+
+    TaskSchedulePlan plan = scheduler.schedule(graph, createWorkPlan(workers, 0, 0));
+    for (WorkerSchedulePlan workerSchedulePlan : plan.getContainers()) {
+      Assert.assertEquals(parallel, workerSchedulePlan.getTaskInstances().size());
+    }
+
+    long[] pairs = scheduler.getCommunicationReport().getEdgePairs("partition-edge");
+    Assert.assertEquals(parallel * parallel / workers, pairs[0]);
+    Assert.assertEquals(parallel * parallel / workers, pairs[1]);
+  }
+
+  @Test
+  public void testWorkerResources() {
+    int parallel = 8;
+    ComputeGraph graph = createDirectGraph(parallel);
+    CommunicationAwareTaskScheduler scheduler = new CommunicationAwareTaskScheduler();
+    scheduler.initialize(Config.newBuilder().build());
+
+    // every worker has room for 6 instances with the default instance ram and cpu
+    TaskSchedulePlan plan = scheduler.schedule(graph, createWorkPlan(4, 6 * 512, 6 * 2));
+    for (WorkerSchedulePlan workerSchedulePlan : plan.getContainers()) {
+      Assert.assertTrue(workerSchedulePlan.getTaskInstances().size() <= 6);
+    }
+  }
+
+  @Test(expected = TaskSchedulerException.class)
+  public void testNotEnoughResources() {
+    int parallel = 8;
+    ComputeGraph graph = createDirectGraph(parallel);
+    CommunicationAwareTaskScheduler scheduler = new CommunicationAwareTaskScheduler();
+    scheduler.initialize(Config.newBuilder().build());
+
+    scheduler.schedule(graph, createWorkPlan(2, 4 * 512, 4 * 2));
+  }
+
+  private WorkerPlan createWorkPlan(int workers, int ram, int cpu) {
+    WorkerPlan plan = new WorkerPlan();
+    for (int i = 0; i < workers; i++) {
+      Worker worker = new Worker(i);
+      worker.setRam(ram);
+      worker.setCpu(cpu);
+      worker.setDisk(ram > 0 ? 1000 : 0);
+      plan.addWorker(worker);
+    }
+    return plan;
+  }
+
+  private ComputeGraph createDirectGraph(int parallel) {
+    TaskSchedulerClassTest.TestSource testSource = new TaskSchedulerClassTest.TestSource();
+    TaskSchedulerClassTest.TestCompute testCompute = new TaskSchedulerClassTest.TestCompute();
+    TaskSchedulerClassTest.TestSink testSink = new TaskSchedulerClassTest.TestSink();
+
+    ComputeGraphBuilder builder = ComputeGraphBuilder.newBuilder(Config.newBuilder().build());
+    builder.addSource("source", testSource, parallel);
+    ComputeConnection computeConnection = builder.addCompute("compute", testCompute, parallel);
+    ComputeConnection sinkConnection = builder.addCompute("sink", testSink, parallel);
+
+    computeConnection.direct("source")
+        .viaEdge("cdirect-edge")
+        .withDataType(MessageTypes.OBJECT);
+    sinkConnection.direct("compute")
+        .viaEdge("sdirect-edge")
+        .withDataType(MessageTypes.OBJECT);
+    builder.setMode(OperationMode.STREAMING);
+    return builder.build();
+  }
+
+  private ComputeGraph createPartitionGraph(int parallel) {
+    TaskSchedulerClassTest.TestSource testSource = new TaskSchedulerClassTest.TestSource();
+    TaskSchedulerClassTest.TestSink testSink = new TaskSchedulerClassTest.TestSink();
+
+    ComputeGraphBuilder builder = ComputeGraphBuilder.newBuilder(Config.newBuilder().build());
+    builder.addSource("source", testSource, parallel);
+    ComputeConnection c = builder.addCompute("sink", testSink, parallel);
+    c.partition("source")
+        .viaEdge("partition-edge")
+        .withDataType(MessageTypes.OBJECT);
+    builder.setMode(OperationMode.BATCH);
+    return builder.build();
+  }
+}
@@ -17,9 +17,11 @@ import java.util.logging.Logger;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.mapreduce.InputFormat;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
 
 import edu.iu.dsc.tws.api.comms.structs.Tuple;
 import edu.iu.dsc.tws.api.compute.graph.OperationMode;
+import edu.iu.dsc.tws.api.data.Path;
 import edu.iu.dsc.tws.api.dataset.DataObject;
 import edu.iu.dsc.tws.api.dataset.EmptyDataObject;
 import edu.iu.dsc.tws.api.resource.WorkerEnvironment;
@@ -27,6 +29,7 @@ import edu.iu.dsc.tws.api.tset.fn.MapFunc;
 import edu.iu.dsc.tws.api.tset.fn.SourceFunc;
 import edu.iu.dsc.tws.api.tset.sets.StorableTBase;
 import edu.iu.dsc.tws.common.table.Row;
+import edu.iu.dsc.tws.data.api.formatters.ParquetInputPartitioner;
 import edu.iu.dsc.tws.tset.TSetUtils;
 import edu.iu.dsc.tws.tset.fn.impl.ArrowBasedSourceFunction;
 import edu.iu.dsc.tws.tset.fn.impl.CSVBasedSourceFunction;
@@ -35,6 +38,7 @@ import edu.iu.dsc.tws.tset.sets.BaseTSet;
 import edu.iu.dsc.tws.tset.sets.batch.KeyedSourceTSet;
 import edu.iu.dsc.tws.tset.sets.batch.SourceTSet;
 import edu.iu.dsc.tws.tset.sets.batch.row.RowSourceTSet;
+import edu.iu.dsc.tws.tset.sources.FileSource;
 import edu.iu.dsc.tws.tset.sources.HadoopSource;
 import edu.iu.dsc.tws.tset.sources.HadoopSourceWithMap;
 
@@ -98,6 +102,36 @@ public class BatchEnvironment extends TSetEnvironment {
         parallelism);
   }
 
+  /**
+   * Create a source of rows reading the Parquet files in the given path. The row groups are
+   * distributed to the tasks in order.
+   *
+   * @param filePath a Parquet file or a directory of them
+   * @param parallelism parallelism
+   * @return the source
+   */
+  public RowSourceTSet createParquetSource(String filePath, int parallelism) {
+    return createParquetSource(filePath, parallelism, null, null);
+  }
+
+  /**
+   * Create a source of rows reading only the given columns of the Parquet files in the given
+   * path. The row groups whose statistics show that they don't have any matching rows are not
+   * read and the rest of the rows are filtered while reading.
+   *
+   * @param filePath a Parquet file or a directory of them
+   * @param parallelism parallelism
+   * @param columns names of the columns to read in the order of the row values, null for all
+   * @param filter the filter of the rows, for example FilterApi.gt(FilterApi.longColumn("id"),
+   * 10L), null to read all the rows
+   * @return the source
+   */
+  public RowSourceTSet createParquetSource(String filePath, int parallelism, String[] columns,
+                                           FilterPredicate filter) {
+    return createRowSource("parquet-source", new FileSource<>(new ParquetInputPartitioner(
+        new Path(filePath), getConfig(), columns, filter, parallelism)), parallelism);
+  }
+
   @Override
   public BaseTSet<Integer> createArrowSource(String filePath, int parallelism) {
     return null;
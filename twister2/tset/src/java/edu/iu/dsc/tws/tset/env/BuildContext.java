@@ -107,10 +107,19 @@ public class BuildContext {
       graphBuilder.operationMode(operationMode);
 
       // building the individual TBases
-      for (TBase node : buildSequence) {
-        // here, build seq is required for tlinks to filter out nodes that are relevant to this
-        // particular build sequence
-        ((Buildable) node).build(graphBuilder, buildSequence);
+      if (operationMode == OperationMode.BATCH
+          && OperatorChains.isEnabled(taskExecutor.getConfig())) {
+        // computes connected by pipe and direct links are built as single tasks
+        OperatorChains chains = OperatorChains.find(buildSequence);
+        for (TBase node : buildSequence) {
+          chains.build(node, graphBuilder, buildSequence);
+        }
+      } else {
+        for (TBase node : buildSequence) {
+          // here, build seq is required for tlinks to filter out nodes that are relevant to this
+          // particular build sequence
+          ((Buildable) node).build(graphBuilder, buildSequence);
+        }
       }
 
       computeGraph = graphBuilder.build();
@@ -0,0 +1,203 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.tset.env;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.api.tset.TBase;
+import edu.iu.dsc.tws.api.tset.TSetConstants;
+import edu.iu.dsc.tws.task.graph.GraphBuilder;
+import edu.iu.dsc.tws.tset.Buildable;
+import edu.iu.dsc.tws.tset.TBaseGraph;
+import edu.iu.dsc.tws.tset.links.batch.DirectTLink;
+import edu.iu.dsc.tws.tset.links.batch.PipeTLink;
+import edu.iu.dsc.tws.tset.ops.BaseComputeOp;
+import edu.iu.dsc.tws.tset.ops.ChainedComputeOp;
+import edu.iu.dsc.tws.tset.sets.batch.ComputeTSet;
+
+/**
+ * Finds the compute tsets connected by pipe or direct links in a build sequence and builds each
+ * such chain as a single task. A link is fused only when it is the only link between the two
+ * tsets in the build sequence and both the tsets have the same parallelism, so the values of a
+ * task instance always go to the instance with the same index.
+ */
+public final class OperatorChains {
+  private static final Logger LOG = Logger.getLogger(OperatorChains.class.getName());
+
+  /**
+   * Enable or disable fusing the batch compute tsets connected by pipe and direct links
+   */
+  public static final String CONFIG_OPERATOR_CHAINING = "twister2.tset.operator.chaining";
+
+  /**
+   * Chain of a tset, the chains are keyed by every member
+   */
+  private final Map<TBase, List<ComputeTSet<?>>> chains = new HashMap<>();
+
+  /**
+   * Links inside the chains, these are not built
+   */
+  private final Set<TBase> fusedLinks = new HashSet<>();
+
+  /**
+   * Chains that are already added to the graph
+   */
+  private final Set<List<ComputeTSet<?>>> built = new HashSet<>();
+
+  private OperatorChains() {
+  }
+
+  static boolean isEnabled(Config config) {
+    return config.getBooleanValue(CONFIG_OPERATOR_CHAINING, true);
+  }
+
+  /**
+   * Find the chains of the build sequence
+   *
+   * @param buildSequence build sequence
+   * @return the chains
+   */
+  static OperatorChains find(Collection<? extends TBase> buildSequence) {
+    OperatorChains operatorChains = new OperatorChains();
+    for (TBase node : buildSequence) {
+      if (isFusible(node, buildSequence)) {
+        operatorChains.fuse(node, buildSequence);
+      }
+    }
+    return operatorChains;
+  }
+
+  /**
+   * Build the given node, a chain is built as a single task when its first member is visited
+   * and the links inside the chains are skipped
+   *
+   * @param node node of the build sequence
+   * @param graphBuilder graph builder
+   * @param buildSequence build sequence
+   */
+  void build(TBase node, GraphBuilder graphBuilder, Collection<? extends TBase> buildSequence) {
+    if (fusedLinks.contains(node)) {
+      return;
+    }
+
+    List<ComputeTSet<?>> chain = chains.get(node);
+    if (chain == null) {
+      ((Buildable) node).build(graphBuilder, buildSequence);
+      return;
+    }
+
+    if (!built.add(chain)) {
+      return;
+    }
+
+    ComputeTSet<?> head = chain.get(0);
+    ComputeTSet<?> tail = chain.get(chain.size() - 1);
+    ChainedComputeOp op = new ChainedComputeOp((BaseComputeOp<?>) head.getINode());
+    for (int i = 1; i < chain.size(); i++) {
+      TBase link = getTBaseGraph(head).getPredecessors(chain.get(i)).stream()
+          .filter(fusedLinks::contains).findFirst()
+          .orElseThrow(() -> new RuntimeException("Chain link not found"));
+      op.append((BaseComputeOp<?>) chain.get(i).getINode(), link instanceof DirectTLink);
+    }
+
+    graphBuilder.addTask(head.getId(), op, head.getParallelism());
+    for (int i = 1; i < chain.size(); i++) {
+      // links outside the chain refer to the fused tsets by their own ids
+      graphBuilder.addAlias(chain.get(i).getId(), head.getId());
+    }
+    graphBuilder.addConfiguration(head.getId(), TSetConstants.INPUT_SCHEMA_KEY,
+        head.getInputSchema());
+    graphBuilder.addConfiguration(head.getId(), TSetConstants.OUTPUT_SCHEMA_KEY,
+        tail.getOutputSchema());
+    LOG.fine(() -> "Fused " + chain.size() + " tsets in to " + head.getId());
+  }
+
+  private void fuse(TBase link, Collection<? extends TBase> buildSequence) {
+    ComputeTSet<?> pred = (ComputeTSet<?>) single(getTBaseGraph(link).getPredecessors(link),
+        buildSequence);
+    ComputeTSet<?> succ = (ComputeTSet<?>) single(getTBaseGraph(link).getSuccessors(link),
+        buildSequence);
+
+    List<ComputeTSet<?>> first = chains.computeIfAbsent(pred, k -> newChain(pred));
+    List<ComputeTSet<?>> second = chains.computeIfAbsent(succ, k -> newChain(succ));
+
+    // the successor has only this link as the input, so it is always the head of its chain
+    first.addAll(second);
+    for (ComputeTSet<?> member : second) {
+      chains.put(member, first);
+    }
+    fusedLinks.add(link);
+  }
+
+  private static List<ComputeTSet<?>> newChain(ComputeTSet<?> tSet) {
+    List<ComputeTSet<?>> chain = new ArrayList<>();
+    chain.add(tSet);
+    return chain;
+  }
+
+  private static boolean isFusible(TBase node, Collection<? extends TBase> buildSequence) {
+    if (node.getClass() != PipeTLink.class && node.getClass() != DirectTLink.class) {
+      return false;
+    }
+    if (node instanceof DirectTLink && ((DirectTLink<?>) node).isUseDisk()) {
+      // the values of the direct link would have to be kept in memory
+      return false;
+    }
+
+    TBaseGraph graph = getTBaseGraph(node);
+    TBase pred = single(graph.getPredecessors(node), buildSequence);
+    TBase succ = single(graph.getSuccessors(node), buildSequence);
+    if (!isFusibleTSet(pred) || !isFusibleTSet(succ)
+        || ((ComputeTSet<?>) pred).getParallelism() != ((ComputeTSet<?>) succ).getParallelism()) {
+      return false;
+    }
+
+    // the link should be the only output of the predecessor and the only input of the successor
+    return single(graph.getSuccessors(pred), buildSequence) == node
+        && single(graph.getPredecessors(succ), buildSequence) == node;
+  }
+
+  private static boolean isFusibleTSet(TBase tBase) {
+    return tBase != null && tBase.getClass() == ComputeTSet.class
+        && ((ComputeTSet<?>) tBase).getINode() instanceof BaseComputeOp;
+  }
+
+  /**
+   * The only node of the given set that is in the build sequence
+   *
+   * @return the node or null if there are none or more than one
+   */
+  private static TBase single(Set<TBase> nodes, Collection<? extends TBase> buildSequence) {
+    TBase found = null;
+    for (TBase n : nodes) {
+      if (buildSequence.contains(n)) {
+        if (found != null) {
+          return null;
+        }
+        found = n;
+      }
+    }
+    return found;
+  }
+
+  private static TBaseGraph getTBaseGraph(TBase node) {
+    return ((Buildable) node).getTBaseGraph();
+  }
+}
@@ -0,0 +1,71 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.tset.fn.row;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.arrow.memory.BufferAllocator;
+
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageTypes;
+import edu.iu.dsc.tws.api.tset.schema.RowSchema;
+import edu.iu.dsc.tws.common.table.TField;
+import edu.iu.dsc.tws.common.table.Table;
+import edu.iu.dsc.tws.common.table.ops.Aggregation;
+import edu.iu.dsc.tws.common.table.ops.TableGroupBy;
+
+public class RowGroupByCompute implements TableCompute {
+  private int[] keys;
+
+  private List<Aggregation> aggregations;
+
+  public RowGroupByCompute(int[] keys, Aggregation... aggregations) {
+    this.keys = keys;
+    this.aggregations = new ArrayList<>(Arrays.asList(aggregations));
+  }
+
+  @Override
+  public Table compute(Table input, BufferAllocator allocator) {
+    return TableGroupBy.groupBy(input, keys, aggregations, allocator);
+  }
+
+  /**
+   * Schema of the grouped rows, the key columns followed by the aggregated columns
+   *
+   * @param input schema of the input rows
+   * @return the output schema
+   */
+  public RowSchema outputSchema(RowSchema input) {
+    List<TField> inFields = input.getFields();
+    List<TField> fields = new ArrayList<>();
+    for (int key : keys) {
+      fields.add(inFields.get(key));
+    }
+    for (Aggregation a : aggregations) {
+      TField in = inFields.get(a.getColumn());
+      String name = a.columnName(in.getName());
+      switch (a.getType()) {
+        case COUNT:
+          fields.add(new TField(name, MessageTypes.INTEGER));
+          break;
+        case SUM:
+        case MEAN:
+          fields.add(new TField(name, MessageTypes.DOUBLE));
+          break;
+        default:
+          fields.add(new TField(name, in.getType()));
+      }
+    }
+    return new RowSchema(fields);
+  }
+}
@@ -0,0 +1,54 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.tset.fn.row;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+import edu.iu.dsc.tws.api.tset.fn.PartitionFunc;
+import edu.iu.dsc.tws.common.table.Row;
+
+/**
+ * Partitions the rows on the hash of the key value given by the table partition, so the rows
+ * with equal keys of different tables go to the same target
+ */
+public class RowHashingPartitioner implements PartitionFunc<Row> {
+  private List<Integer> destinations = new ArrayList<>();
+
+  @Override
+  public void prepare(Set<Integer> sources, Set<Integer> dests) {
+    destinations = new ArrayList<>(dests);
+    destinations.sort(Comparator.comparingInt(o -> o));
+  }
+
+  @Override
+  public int partition(int sourceIndex, Row val) {
+    Object key = val.get(0);
+    int hash;
+    if (key == null) {
+      hash = 0;
+    } else if (key instanceof byte[]) {
+      hash = Arrays.hashCode((byte[]) key);
+    } else {
+      hash = key.hashCode();
+    }
+    int next = (int) (Math.abs((long) hash) % destinations.size());
+    return destinations.get(next);
+  }
+
+  @Override
+  public void commit(int source, int partition) {
+  }
+}
@@ -0,0 +1,45 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.tset.fn.row;
+
+import org.apache.arrow.memory.BufferAllocator;
+
+import edu.iu.dsc.tws.api.comms.CommunicationContext;
+import edu.iu.dsc.tws.api.tset.fn.TFunction;
+import edu.iu.dsc.tws.common.table.Table;
+import edu.iu.dsc.tws.common.table.ops.TableJoin;
+
+public class RowJoinCompute implements TFunction<Table, Table> {
+  private CommunicationContext.JoinType type;
+
+  private int[] leftKeys;
+
+  private int[] rightKeys;
+
+  public RowJoinCompute(CommunicationContext.JoinType type, int[] leftKeys, int[] rightKeys) {
+    this.type = type;
+    this.leftKeys = leftKeys;
+    this.rightKeys = rightKeys;
+  }
+
+  /**
+   * Join the rows of a partition
+   *
+   * @param left all the left rows of the partition
+   * @param right all the right rows of the partition
+   * @param allocator allocator for the joined vectors
+   * @return the joined table
+   */
+  public Table join(Table left, Table right, BufferAllocator allocator) {
+    return TableJoin.join(left, right, leftKeys, rightKeys, type, allocator);
+  }
+}
@@ -0,0 +1,33 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.tset.fn.row;
+
+import org.apache.arrow.memory.BufferAllocator;
+
+import edu.iu.dsc.tws.common.table.Table;
+import edu.iu.dsc.tws.common.table.ops.TableSort;
+
+public class RowSortCompute implements TableCompute {
+  private int[] columns;
+
+  private boolean[] ascending;
+
+  public RowSortCompute(int[] columns, boolean[] ascending) {
+    this.columns = columns;
+    this.ascending = ascending;
+  }
+
+  @Override
+  public Table compute(Table input, BufferAllocator allocator) {
+    return TableSort.sort(input, columns, ascending, allocator);
+  }
+}
@@ -0,0 +1,31 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.tset.fn.row;
+
+import org.apache.arrow.memory.BufferAllocator;
+
+import edu.iu.dsc.tws.api.tset.fn.TFunction;
+import edu.iu.dsc.tws.common.table.Table;
+
+/**
+ * A function computing a table from all the rows of a partition at once, a column at a time
+ */
+public interface TableCompute extends TFunction<Table, Table> {
+  /**
+   * Compute the output table
+   *
+   * @param input all the rows of the partition
+   * @param allocator allocator for the output vectors
+   * @return the output table
+   */
+  Table compute(Table input, BufferAllocator allocator);
+}
@@ -25,6 +25,7 @@
 
 package edu.iu.dsc.tws.tset.links.batch;
 
+import edu.iu.dsc.tws.api.comms.CommunicationContext;
 import edu.iu.dsc.tws.api.compute.OperationNames;
 import edu.iu.dsc.tws.api.compute.graph.Edge;
 import edu.iu.dsc.tws.api.tset.fn.ReduceFunc;
@@ -42,6 +43,11 @@ import edu.iu.dsc.tws.tset.sets.batch.PersistedTSet;
 public class AllReduceTLink<T> extends BatchSingleLink<T> {
   private ReduceFunc<T> reduceFn;
 
+  /**
+   * The all reduce algorithm, the configured one is used if this is not set
+   */
+  private String algorithm;
+
   public AllReduceTLink(BatchEnvironment tSetEnv, ReduceFunc<T> rFn, int sourceParallelism,
                         Schema schema) {
     super(tSetEnv, "allreduce", sourceParallelism, schema);
@@ -51,10 +57,24 @@ public class AllReduceTLink<T> extends BatchSingleLink<T> {
   @Override
   public Edge getEdge() {
     Edge e = new Edge(getId(), OperationNames.ALLREDUCE, this.getSchema().getDataType(), reduceFn);
+    if (algorithm != null) {
+      e.addProperty(CommunicationContext.ALLREDUCE_ALGO_KEY, algorithm);
+    }
     TLinkUtils.generateCommsSchema(getSchema(), e);
     return e;
   }
 
+  /**
+   * Set the all reduce algorithm of this link, tree, ring, recursive-doubling or auto
+   *
+   * @param allReduceAlgorithm algorithm
+   * @return this link
+   */
+  public AllReduceTLink<T> withAlgorithm(String allReduceAlgorithm) {
+    this.algorithm = allReduceAlgorithm;
+    return this;
+  }
+
   @Override
   public AllReduceTLink<T> setName(String n) {
     rename(n);
@@ -11,7 +11,9 @@
 //  limitations under the License.
 package edu.iu.dsc.tws.tset.links.batch.row;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 import edu.iu.dsc.tws.api.comms.CommunicationContext;
 import edu.iu.dsc.tws.api.comms.messaging.types.MessageTypes;
@@ -31,6 +33,11 @@ public class RowPartitionTLink extends RowBatchTLinkImpl {
 
   private PartitionFunc<Row> partitionFunction;
 
+  /**
+   * Columns used to partition the rows, the table partition uses the first column
+   */
+  private List<Integer> keyColumns;
+
   public RowPartitionTLink(BatchEnvironment tSetEnv,
                            int sourceParallelism, RowSchema schema) {
     this(tSetEnv, null, sourceParallelism, schema);
@@ -70,10 +77,27 @@ public class RowPartitionTLink extends RowBatchTLinkImpl {
     }
     e.addProperty(CommunicationContext.ROW_SCHEMA, ((RowSchema) getSchema()).toArrowSchema());
     e.addProperty(CommunicationContext.USE_DISK, this.useDisk);
+    if (keyColumns != null) {
+      e.addProperty("indexes", keyColumns);
+    }
     TLinkUtils.generateCommsSchema(getSchema(), e);
     return e;
   }
 
+  /**
+   * Partition the rows on the given columns
+   *
+   * @param columns key columns
+   * @return this link
+   */
+  public RowPartitionTLink keyColumns(int... columns) {
+    this.keyColumns = new ArrayList<>();
+    for (int c : columns) {
+      this.keyColumns.add(c);
+    }
+    return this;
+  }
+
   public RowPartitionTLink useDisk() {
     this.useDisk = true;
     return this;
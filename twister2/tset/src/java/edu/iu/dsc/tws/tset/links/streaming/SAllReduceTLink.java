@@ -13,6 +13,7 @@
 
 package edu.iu.dsc.tws.tset.links.streaming;
 
+import edu.iu.dsc.tws.api.comms.CommunicationContext;
 import edu.iu.dsc.tws.api.compute.OperationNames;
 import edu.iu.dsc.tws.api.compute.graph.Edge;
 import edu.iu.dsc.tws.api.tset.fn.ReduceFunc;
@@ -28,6 +29,11 @@ import edu.iu.dsc.tws.tset.links.TLinkUtils;
 public class SAllReduceTLink<T> extends StreamingSingleLink<T> {
   private ReduceFunc<T> reduceFn;
 
+  /**
+   * The all reduce algorithm, the configured one is used if this is not set
+   */
+  private String algorithm;
+
   public SAllReduceTLink(StreamingEnvironment tSetEnv, ReduceFunc<T> rFn, int sourceParallelism,
                          Schema schema) {
     super(tSetEnv, "sallreduce", sourceParallelism, schema);
@@ -37,10 +43,24 @@ public class SAllReduceTLink<T> extends StreamingSingleLink<T> {
   @Override
   public Edge getEdge() {
     Edge e = new Edge(getId(), OperationNames.ALLREDUCE, this.getSchema().getDataType(), reduceFn);
+    if (algorithm != null) {
+      e.addProperty(CommunicationContext.ALLREDUCE_ALGO_KEY, algorithm);
+    }
     TLinkUtils.generateCommsSchema(getSchema(), e);
     return e;
   }
 
+  /**
+   * Set the all reduce algorithm of this link, tree, ring, recursive-doubling or auto
+   *
+   * @param allReduceAlgorithm algorithm
+   * @return this link
+   */
+  public SAllReduceTLink<T> withAlgorithm(String allReduceAlgorithm) {
+    this.algorithm = allReduceAlgorithm;
+    return this;
+  }
+
   @Override
   public SAllReduceTLink<T> setName(String n) {
     rename(n);
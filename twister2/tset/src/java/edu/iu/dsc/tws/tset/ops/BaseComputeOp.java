@@ -28,6 +28,21 @@ import edu.iu.dsc.tws.tset.sets.BaseTSet;
 public abstract class BaseComputeOp<I> extends BaseOp implements ICompute<I>, Closable {
   private MultiEdgeOpAdapter multiEdgeOpAdapter;
 
+  /**
+   * The next op when this op is fused with its successor
+   */
+  private ICompute<Object> nextOp;
+
+  /**
+   * Whether the next op expects all the values as an iterator
+   */
+  private boolean iterateNext;
+
+  /**
+   * Whether the input of this op comes from another op of a fused chain
+   */
+  private boolean chainedInput;
+
   protected BaseComputeOp() {
   }
 
@@ -40,7 +55,25 @@ public abstract class BaseComputeOp<I> extends BaseOp implements ICompute<I>, Cl
     gettSetContext().updateRuntimeInfo(cfg, ctx);
     this.getFunction().prepare(gettSetContext());
 
-    this.multiEdgeOpAdapter = new MultiEdgeOpAdapter(ctx);
+    if (nextOp != null || chainedInput) {
+      this.multiEdgeOpAdapter = new MultiEdgeOpAdapter(ctx, chainedInput, nextOp, iterateNext);
+    } else {
+      this.multiEdgeOpAdapter = new MultiEdgeOpAdapter(ctx);
+    }
+  }
+
+  /**
+   * Hand the output of this op directly to the next op instead of writing to the edges. This
+   * should be called before the ops are prepared.
+   *
+   * @param next the next op
+   * @param iterate true if the next op expects all the values as an iterator
+   */
+  @SuppressWarnings("unchecked")
+  void chainTo(BaseComputeOp<?> next, boolean iterate) {
+    this.nextOp = (ICompute<Object>) next;
+    this.iterateNext = iterate;
+    next.chainedInput = true;
   }
 
   public abstract TFunction getFunction();
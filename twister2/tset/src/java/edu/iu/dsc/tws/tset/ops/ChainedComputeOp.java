@@ -0,0 +1,108 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.tset.ops;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.iu.dsc.tws.api.compute.IMessage;
+import edu.iu.dsc.tws.api.compute.TaskContext;
+import edu.iu.dsc.tws.api.compute.modifiers.Closable;
+import edu.iu.dsc.tws.api.compute.modifiers.IONames;
+import edu.iu.dsc.tws.api.compute.modifiers.Receptor;
+import edu.iu.dsc.tws.api.compute.nodes.ICompute;
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.api.dataset.DataPartition;
+
+/**
+ * Runs a chain of compute ops connected by pipe or direct links as a single task. Each op hands
+ * its output directly to the next op, so the values don't go through the communication, the task
+ * queues or the executor between the ops of the chain.
+ */
+public class ChainedComputeOp implements ICompute<Object>, Closable, Receptor, Serializable {
+  private List<BaseComputeOp<?>> ops;
+
+  public ChainedComputeOp() {
+    //non arg constructor for kryo
+  }
+
+  /**
+   * Create the chain
+   *
+   * @param head the first op
+   */
+  public ChainedComputeOp(BaseComputeOp<?> head) {
+    this.ops = new ArrayList<>();
+    this.ops.add(head);
+  }
+
+  /**
+   * Add an op to the end of the chain
+   *
+   * @param op the op
+   * @param iterate true if the op expects all the values of the previous op as an iterator
+   */
+  public ChainedComputeOp append(BaseComputeOp<?> op, boolean iterate) {
+    ops.get(ops.size() - 1).chainTo(op, iterate);
+    ops.add(op);
+    return this;
+  }
+
+  public int size() {
+    return ops.size();
+  }
+
+  @Override
+  public void prepare(Config cfg, TaskContext ctx) {
+    for (BaseComputeOp<?> op : ops) {
+      op.prepare(cfg, ctx);
+    }
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public boolean execute(IMessage<Object> content) {
+    return ((ICompute<Object>) ops.get(0)).execute(content);
+  }
+
+  @Override
+  public void endExecute() {
+    // the end is passed along the chain
+    ops.get(0).endExecute();
+  }
+
+  @Override
+  public void close() {
+    for (BaseComputeOp<?> op : ops) {
+      op.close();
+    }
+  }
+
+  @Override
+  public void add(String name, DataPartition<?> data) {
+    for (BaseComputeOp<?> op : ops) {
+      if (op.getReceivableNames().contains(name)) {
+        op.add(name, data);
+      }
+    }
+  }
+
+  @Override
+  public IONames getReceivableNames() {
+    IONames names = IONames.declare();
+    for (BaseComputeOp<?> op : ops) {
+      names.addAll(op.getReceivableNames());
+    }
+    return names;
+  }
+}
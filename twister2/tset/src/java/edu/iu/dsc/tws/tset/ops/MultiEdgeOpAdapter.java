@@ -12,10 +12,14 @@
 package edu.iu.dsc.tws.tset.ops;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+import edu.iu.dsc.tws.api.comms.structs.Tuple;
 import edu.iu.dsc.tws.api.compute.TaskContext;
+import edu.iu.dsc.tws.api.compute.TaskMessage;
 import edu.iu.dsc.tws.api.compute.graph.OperationMode;
+import edu.iu.dsc.tws.api.compute.nodes.ICompute;
 
 public class MultiEdgeOpAdapter {
   private TaskContext taskContext;
@@ -29,13 +33,44 @@ public class MultiEdgeOpAdapter {
     // Hence the count is set to 1
     this.inEdgeCount = taskContext.getInEdges() != null ? taskContext.getInEdges().size() : 1;
     this.outEdges = new ArrayList<>(taskContext.getOutEdges().keySet());
+    this.outEdgeWriter = createEdgeWriter();
+  }
+
+  /**
+   * Create an adapter for an op of a fused chain. The output is handed to the next op of the
+   * chain instead of writing to the edges.
+   *
+   * @param taskContext task context of the fused task
+   * @param chainedInput true if the input of this op comes from another op of the chain
+   * @param nextOp the next op, null if this is the last op of the chain
+   * @param iterateNext true if the next op expects all the values as an iterator
+   */
+  public MultiEdgeOpAdapter(TaskContext taskContext, boolean chainedInput,
+                            ICompute<Object> nextOp, boolean iterateNext) {
+    this.taskContext = taskContext;
+    if (chainedInput) {
+      // the previous op of the chain ends only once
+      this.inEdgeCount = 1;
+    } else {
+      this.inEdgeCount = taskContext.getInEdges() != null ? taskContext.getInEdges().size() : 1;
+    }
+
+    if (nextOp != null) {
+      this.outEdges = Collections.emptyList();
+      this.outEdgeWriter = new ChainedWriter(nextOp, iterateNext);
+    } else {
+      this.outEdges = new ArrayList<>(taskContext.getOutEdges().keySet());
+      this.outEdgeWriter = createEdgeWriter();
+    }
+  }
 
+  private EdgeWriter createEdgeWriter() {
     if (outEdges.size() == 1) {
-      this.outEdgeWriter = new OneEdgeWriter();
+      return new OneEdgeWriter();
     } else if (outEdges.size() == 2) {
-      this.outEdgeWriter = new TwoEdgeWriter();
+      return new TwoEdgeWriter();
     } else {
-      this.outEdgeWriter = new MultiEdgeWriter();
+      return new MultiEdgeWriter();
     }
   }
 
@@ -137,4 +172,48 @@ public class MultiEdgeOpAdapter {
       }
     }
   }
+
+  /**
+   * Calls the next op of a fused chain directly. A pipe delivers the values one by one and a
+   * direct link delivers all of them as an iterator at the end, so the values are buffered when
+   * the next op expects an iterator.
+   */
+  private class ChainedWriter implements EdgeWriter {
+    private final ICompute<Object> next;
+
+    private final TaskMessage<Object> message = new TaskMessage<>(null);
+
+    private List<Object> buffered;
+
+    ChainedWriter(ICompute<Object> next, boolean iterate) {
+      this.next = next;
+      this.buffered = iterate ? new ArrayList<>() : null;
+    }
+
+    @Override
+    public <T> void write(T data) {
+      if (buffered != null) {
+        buffered.add(data);
+      } else {
+        message.setContent(data);
+        next.execute(message);
+      }
+    }
+
+    @Override
+    public void writeEnd() {
+      if (buffered != null) {
+        message.setContent(buffered.iterator());
+        next.execute(message);
+        // the graph can be executed again, e.g. in iterations
+        buffered = new ArrayList<>();
+      }
+      next.endExecute();
+    }
+
+    @Override
+    public <K, V> void keyedWriteToEdges(K key, V value) {
+      write(Tuple.of(key, value));
+    }
+  }
 }
@@ -0,0 +1,124 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.tset.ops.row;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import edu.iu.dsc.tws.api.compute.IMessage;
+import edu.iu.dsc.tws.api.compute.TaskContext;
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.api.exceptions.Twister2RuntimeException;
+import edu.iu.dsc.tws.api.resource.WorkerEnvironment;
+import edu.iu.dsc.tws.api.tset.fn.TFunction;
+import edu.iu.dsc.tws.api.tset.schema.RowSchema;
+import edu.iu.dsc.tws.common.table.Table;
+import edu.iu.dsc.tws.common.table.arrow.TableRuntime;
+import edu.iu.dsc.tws.common.table.ops.TableUtils;
+import edu.iu.dsc.tws.tset.fn.row.RowJoinCompute;
+import edu.iu.dsc.tws.tset.ops.BaseComputeOp;
+import edu.iu.dsc.tws.tset.sets.BaseTSet;
+
+/**
+ * Collects the tables of the left and the right partitions and joins them at the end
+ */
+public class RowJoinOp extends BaseComputeOp<Object> {
+  private RowJoinCompute joinFunction;
+
+  /**
+   * The edges from the left tset start with this prefix
+   */
+  private String leftEdgePrefix;
+
+  private RowSchema leftSchema;
+
+  private RowSchema rightSchema;
+
+  private TableRuntime runtime;
+
+  private List<Table> leftTables = new ArrayList<>();
+
+  private List<Table> rightTables = new ArrayList<>();
+
+  public RowJoinOp() {
+  }
+
+  public RowJoinOp(RowJoinCompute joinFunction, String leftEdgePrefix,
+                   RowSchema leftSchema, RowSchema rightSchema,
+                   BaseTSet origin, Map<String, String> receivables) {
+    super(origin, receivables);
+    this.joinFunction = joinFunction;
+    this.leftEdgePrefix = leftEdgePrefix;
+    this.leftSchema = leftSchema;
+    this.rightSchema = rightSchema;
+  }
+
+  @Override
+  public void prepare(Config cfg, TaskContext ctx) {
+    super.prepare(cfg, ctx);
+    runtime = WorkerEnvironment.getSharedValue(TableRuntime.TABLE_RUNTIME_CONF,
+        TableRuntime.class);
+    if (runtime == null) {
+      throw new Twister2RuntimeException("Table runtime must be set");
+    }
+  }
+
+  @Override
+  public boolean execute(IMessage<Object> content) {
+    if (content.edge().startsWith(leftEdgePrefix)) {
+      RowTableComputeOp.addTables(content.getContent(), leftTables);
+    } else {
+      RowTableComputeOp.addTables(content.getContent(), rightTables);
+    }
+    return true;
+  }
+
+  @Override
+  public void endExecute() {
+    Table left = input(leftTables, leftSchema);
+    Table right = input(rightTables, rightSchema);
+    Table joined = joinFunction.join(left, right, runtime.getRootAllocator());
+    if (leftTables.size() != 1) {
+      TableUtils.close(left);
+    }
+    if (rightTables.size() != 1) {
+      TableUtils.close(right);
+    }
+    leftTables.clear();
+    rightTables.clear();
+
+    if (joined.rowCount() > 0) {
+      writeToEdges(joined);
+    } else {
+      TableUtils.close(joined);
+    }
+    writeEndToEdges();
+  }
+
+  private Table input(List<Table> tables, RowSchema schema) {
+    if (tables.isEmpty()) {
+      return TableUtils.empty(schema.toArrowSchema(), runtime.getRootAllocator());
+    }
+    return TableUtils.concat(tables, runtime.getRootAllocator());
+  }
+
+  @Override
+  public void close() {
+    joinFunction.close();
+  }
+
+  @Override
+  public TFunction getFunction() {
+    return joinFunction;
+  }
+}
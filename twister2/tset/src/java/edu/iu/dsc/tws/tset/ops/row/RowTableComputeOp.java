@@ -0,0 +1,112 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.tset.ops.row;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import edu.iu.dsc.tws.api.compute.IMessage;
+import edu.iu.dsc.tws.api.compute.TaskContext;
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.api.exceptions.Twister2RuntimeException;
+import edu.iu.dsc.tws.api.resource.WorkerEnvironment;
+import edu.iu.dsc.tws.api.tset.fn.TFunction;
+import edu.iu.dsc.tws.common.table.Table;
+import edu.iu.dsc.tws.common.table.arrow.TableRuntime;
+import edu.iu.dsc.tws.common.table.ops.TableUtils;
+import edu.iu.dsc.tws.tset.fn.row.TableCompute;
+import edu.iu.dsc.tws.tset.ops.BaseComputeOp;
+import edu.iu.dsc.tws.tset.sets.BaseTSet;
+
+/**
+ * Collects the tables of the partition and applies a table function to all of them at the end
+ */
+public class RowTableComputeOp extends BaseComputeOp<Object> {
+  private TableCompute computeFunction;
+
+  private TableRuntime runtime;
+
+  private List<Table> tables = new ArrayList<>();
+
+  public RowTableComputeOp() {
+  }
+
+  public RowTableComputeOp(TableCompute computeFunction, BaseTSet origin,
+                           Map<String, String> receivables) {
+    super(origin, receivables);
+    this.computeFunction = computeFunction;
+  }
+
+  @Override
+  public void prepare(Config cfg, TaskContext ctx) {
+    super.prepare(cfg, ctx);
+    runtime = WorkerEnvironment.getSharedValue(TableRuntime.TABLE_RUNTIME_CONF,
+        TableRuntime.class);
+    if (runtime == null) {
+      throw new Twister2RuntimeException("Table runtime must be set");
+    }
+  }
+
+  @Override
+  public boolean execute(IMessage<Object> content) {
+    addTables(content.getContent(), tables);
+    return true;
+  }
+
+  /**
+   * Add the tables of a message, the partition gives an iterator and the direct links give
+   * the tables one by one
+   */
+  @SuppressWarnings("unchecked")
+  static void addTables(Object content, List<Table> tables) {
+    if (content instanceof Iterator) {
+      Iterator<Object> it = (Iterator<Object>) content;
+      while (it.hasNext()) {
+        addTables(it.next(), tables);
+      }
+    } else if (content instanceof Table) {
+      Table table = (Table) content;
+      if (table.rowCount() > 0) {
+        tables.add(table);
+      }
+    } else if (content != null) {
+      throw new Twister2RuntimeException("Expected a table, received "
+          + content.getClass().getName());
+    }
+  }
+
+  @Override
+  public void endExecute() {
+    if (!tables.isEmpty()) {
+      Table input = TableUtils.concat(tables, runtime.getRootAllocator());
+      Table output = computeFunction.compute(input, runtime.getRootAllocator());
+      if (tables.size() > 1) {
+        TableUtils.close(input);
+      }
+      tables.clear();
+      writeToEdges(output);
+    }
+    writeEndToEdges();
+  }
+
+  @Override
+  public void close() {
+    computeFunction.close();
+  }
+
+  @Override
+  public TFunction getFunction() {
+    return computeFunction;
+  }
+}
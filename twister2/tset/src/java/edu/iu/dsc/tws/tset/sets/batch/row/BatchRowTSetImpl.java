@@ -22,7 +22,12 @@ import edu.iu.dsc.tws.api.tset.schema.Schema;
 import edu.iu.dsc.tws.api.tset.sets.StorableTBase;
 import edu.iu.dsc.tws.api.tset.sets.batch.BatchRowTSet;
 import edu.iu.dsc.tws.common.table.Row;
+import edu.iu.dsc.tws.common.table.ops.Aggregation;
 import edu.iu.dsc.tws.tset.env.BatchEnvironment;
+import edu.iu.dsc.tws.tset.fn.row.RowGroupByCompute;
+import edu.iu.dsc.tws.tset.fn.row.RowHashingPartitioner;
+import edu.iu.dsc.tws.tset.fn.row.RowJoinCompute;
+import edu.iu.dsc.tws.tset.fn.row.RowSortCompute;
 import edu.iu.dsc.tws.tset.links.batch.row.RowDirectLink;
 import edu.iu.dsc.tws.tset.links.batch.row.RowPartitionTLink;
 import edu.iu.dsc.tws.tset.links.batch.row.RowPipeTLink;
@@ -55,6 +60,58 @@ public abstract class BatchRowTSetImpl extends BaseTSetWithSchema<Row> implement
     return null;
   }
 
+  @Override
+  public BatchRowTSet join(BatchRowTSet rightTSet, CommunicationContext.JoinType type,
+                           int[] leftKeys, int[] rightKeys) {
+    BatchRowTSetImpl right = (BatchRowTSetImpl) rightTSet;
+    if (right instanceof RowStoredTSet) {
+      right = ((RowStoredTSet) right).getStoredSourceTSet();
+    }
+
+    RowPartitionTLink leftLink = hashPartition(this, leftKeys);
+    RowPartitionTLink rightLink = hashPartition(right, rightKeys);
+
+    RowJoinTSet join = new RowJoinTSet(getTSetEnv(), new RowJoinCompute(type, leftKeys,
+        rightKeys), getParallelism(), leftLink.getId(), (RowSchema) getOutputSchema(),
+        (RowSchema) right.getOutputSchema());
+    getTSetEnv().getGraph().connectTSets(leftLink, join);
+    getTSetEnv().getGraph().connectTSets(rightLink, join);
+    return join;
+  }
+
+  @Override
+  public BatchRowTSet groupBy(int[] keyColumns, Aggregation... aggregations) {
+    RowPartitionTLink partition = hashPartition(this, keyColumns);
+    RowSchema schema = (RowSchema) getOutputSchema();
+    RowGroupByCompute groupByFn = new RowGroupByCompute(keyColumns, aggregations);
+    RowTableComputeTSet groupBy = new RowTableComputeTSet(getTSetEnv(), "groupby", groupByFn,
+        getParallelism(), schema, groupByFn.outputSchema(schema));
+    getTSetEnv().getGraph().connectTSets(partition, groupBy);
+    return groupBy;
+  }
+
+  @Override
+  public BatchRowTSet sort(int[] columns, boolean[] ascending) {
+    BatchRowTLink direct = direct();
+    RowSchema schema = (RowSchema) getOutputSchema();
+    RowTableComputeTSet sort = new RowTableComputeTSet(getTSetEnv(), "sort",
+        new RowSortCompute(columns, ascending), getParallelism(), schema, schema);
+    getTSetEnv().getGraph().connectTSets(direct, sort);
+    return sort;
+  }
+
+  /**
+   * Partition the rows of the tset to the parallelism of this tset on the hash of the keys
+   */
+  private RowPartitionTLink hashPartition(BatchRowTSetImpl tSet, int[] keys) {
+    RowPartitionTLink partition = new RowPartitionTLink(getTSetEnv(),
+        new RowHashingPartitioner(), tSet.getParallelism(), getParallelism(),
+        (RowSchema) tSet.getOutputSchema());
+    partition.keyColumns(keys);
+    getTSetEnv().getGraph().connectTSets(tSet, partition);
+    return partition;
+  }
+
   @Override
   public BatchEnvironment getTSetEnv() {
     return (BatchEnvironment) super.getTSetEnv();
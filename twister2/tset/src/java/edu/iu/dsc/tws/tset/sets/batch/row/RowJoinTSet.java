@@ -0,0 +1,58 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.tset.sets.batch.row;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.iu.dsc.tws.api.compute.nodes.INode;
+import edu.iu.dsc.tws.api.tset.schema.RowSchema;
+import edu.iu.dsc.tws.common.table.TField;
+import edu.iu.dsc.tws.tset.env.BatchEnvironment;
+import edu.iu.dsc.tws.tset.fn.row.RowJoinCompute;
+import edu.iu.dsc.tws.tset.ops.row.RowJoinOp;
+
+/**
+ * Joins the partitions of two row tsets, the rows come through a partition link from each side
+ */
+public class RowJoinTSet extends BatchRowTSetImpl {
+  private RowJoinCompute joinFunc;
+
+  /**
+   * Id of the link from the left tset
+   */
+  private String leftLinkId;
+
+  private RowSchema leftSchema;
+
+  private RowSchema rightSchema;
+
+  public RowJoinTSet(BatchEnvironment tSetEnv, RowJoinCompute joinFn, int parallelism,
+                     String leftLinkId, RowSchema leftSchema, RowSchema rightSchema) {
+    super(tSetEnv, "join", parallelism, leftSchema);
+    this.joinFunc = joinFn;
+    this.leftLinkId = leftLinkId;
+    this.leftSchema = leftSchema;
+    this.rightSchema = rightSchema;
+
+    List<TField> fields = new ArrayList<>(leftSchema.getFields());
+    fields.addAll(rightSchema.getFields());
+    setOutputSchema(new RowSchema(fields));
+  }
+
+  @Override
+  public INode getINode() {
+    // the edge names start with the id of the link
+    return new RowJoinOp(joinFunc, leftLinkId + "_", leftSchema, rightSchema, this,
+        getInputs());
+  }
+}
@@ -23,6 +23,7 @@ import edu.iu.dsc.tws.api.tset.schema.RowSchema;
 import edu.iu.dsc.tws.api.tset.sets.StorableTBase;
 import edu.iu.dsc.tws.api.tset.sets.batch.BatchRowTSet;
 import edu.iu.dsc.tws.common.table.Row;
+import edu.iu.dsc.tws.common.table.ops.Aggregation;
 import edu.iu.dsc.tws.tset.env.BatchEnvironment;
 import edu.iu.dsc.tws.tset.ops.row.RowSinkOp;
 import edu.iu.dsc.tws.tset.sources.DataPartitionSourceFunc;
@@ -54,6 +55,22 @@ public abstract class RowStoredTSet extends BatchRowTSetImpl implements Storable
     return getStoredSourceTSet().join(rightTSet, type, keyComparator);
   }
 
+  @Override
+  public BatchRowTSet join(BatchRowTSet rightTSet, CommunicationContext.JoinType type,
+                           int[] leftKeys, int[] rightKeys) {
+    return getStoredSourceTSet().join(rightTSet, type, leftKeys, rightKeys);
+  }
+
+  @Override
+  public BatchRowTSet groupBy(int[] keyColumns, Aggregation... aggregations) {
+    return getStoredSourceTSet().groupBy(keyColumns, aggregations);
+  }
+
+  @Override
+  public BatchRowTSet sort(int[] columns, boolean[] ascending) {
+    return getStoredSourceTSet().sort(columns, ascending);
+  }
+
   @Override
   public BatchRowTLink direct() {
     return getStoredSourceTSet().direct();
@@ -0,0 +1,267 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.tset.env;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.iu.dsc.tws.api.compute.IMessage;
+import edu.iu.dsc.tws.api.compute.TaskMessage;
+import edu.iu.dsc.tws.api.compute.graph.ComputeGraph;
+import edu.iu.dsc.tws.api.compute.graph.Edge;
+import edu.iu.dsc.tws.api.compute.graph.OperationMode;
+import edu.iu.dsc.tws.api.compute.graph.Vertex;
+import edu.iu.dsc.tws.api.compute.nodes.ICompute;
+import edu.iu.dsc.tws.api.config.Config;
+import edu.iu.dsc.tws.api.tset.TBase;
+import edu.iu.dsc.tws.api.tset.fn.ComputeCollectorFunc;
+import edu.iu.dsc.tws.api.tset.fn.SourceFunc;
+import edu.iu.dsc.tws.executor.core.DefaultOutputCollection;
+import edu.iu.dsc.tws.executor.core.TaskContextImpl;
+import edu.iu.dsc.tws.task.graph.GraphBuilder;
+import edu.iu.dsc.tws.tset.links.batch.DirectTLink;
+import edu.iu.dsc.tws.tset.links.batch.PipeTLink;
+import edu.iu.dsc.tws.tset.links.batch.ReduceTLink;
+import edu.iu.dsc.tws.tset.ops.ChainedComputeOp;
+import edu.iu.dsc.tws.tset.sets.batch.ComputeTSet;
+import edu.iu.dsc.tws.tset.sets.batch.SourceTSet;
+
+/**
+ * Builds tset graphs with the operator chains and runs the fused and the separate ops
+ */
+public class OperatorChainsTest {
+  private static final int PARALLELISM = 2;
+
+  private BatchEnvironment env;
+
+  private SourceTSet<Integer> source;
+
+  private DirectTLink<Integer> input;
+
+  private ComputeTSet<Integer> doubled;
+
+  private PipeTLink<Integer> pipe;
+
+  private ComputeTSet<Integer> pairs;
+
+  private DirectTLink<Integer> direct;
+
+  private ComputeTSet<Integer> sums;
+
+  private ReduceTLink<Integer> reduce;
+
+  private ComputeTSet<Integer> result;
+
+  /**
+   * source -direct-> doubled -pipe-> pairs -direct-> sums -reduce-> result
+   */
+  @Before
+  public void setUp() {
+    env = new BatchEnvironment();
+    source = env.createSource(new EmptySource(), PARALLELISM);
+    input = source.direct();
+    doubled = input.map(x -> x * 2);
+    pipe = doubled.pipe();
+    pairs = pipe.flatmap((x, collector) -> {
+      collector.collect(x);
+      collector.collect(x + 1);
+    });
+    direct = pairs.direct();
+    sums = direct.compute((ComputeCollectorFunc<Iterator<Integer>, Integer>) (values, c) -> {
+      // the running sums depend on the order of the values
+      int sum = 0;
+      while (values.hasNext()) {
+        sum += values.next();
+        c.collect(sum);
+      }
+    });
+    reduce = sums.reduce(Integer::sum);
+    result = reduce.map(x -> x);
+  }
+
+  private static ComputeGraph build(BuildContext context) {
+    GraphBuilder graphBuilder = GraphBuilder.newBuilder();
+    graphBuilder.operationMode(OperationMode.BATCH);
+    Set<TBase> buildSequence = context.getBuildSequence();
+    OperatorChains chains = OperatorChains.find(buildSequence);
+    for (TBase node : buildSequence) {
+      chains.build(node, graphBuilder, buildSequence);
+    }
+    return graphBuilder.build();
+  }
+
+  /**
+   * Names of the links the edges are created for, an edge name starts with the link id
+   */
+  private static Set<String> links(Set<Edge> edges) {
+    return edges.stream().map(e -> e.getName().substring(0, e.getName().indexOf("___")))
+        .collect(Collectors.toSet());
+  }
+
+  private static String name(Set<Edge> edges) {
+    Assert.assertEquals(1, edges.size());
+    return edges.iterator().next().getName();
+  }
+
+  @Test
+  public void testEnabled() {
+    Assert.assertTrue(OperatorChains.isEnabled(Config.newBuilder().build()));
+    Assert.assertFalse(OperatorChains.isEnabled(Config.newBuilder()
+        .put(OperatorChains.CONFIG_OPERATOR_CHAINING, false).build()));
+  }
+
+  @Test
+  public void testChainGraph() {
+    ComputeGraph graph = build(env.getGraph().build(result));
+
+    Set<String> vertices = graph.getTaskVertexSet().stream().map(Vertex::getName)
+        .collect(Collectors.toSet());
+    Assert.assertEquals(new HashSet<>(Arrays.asList(source.getId(), doubled.getId(),
+        result.getId())), vertices);
+
+    Vertex head = graph.vertex(doubled.getId());
+    Assert.assertTrue(head.getTask() instanceof ChainedComputeOp);
+    Assert.assertEquals(3, ((ChainedComputeOp) head.getTask()).size());
+    Assert.assertEquals(PARALLELISM, head.getParallelism());
+
+    // the fused links are not edges of the graph
+    Assert.assertEquals(new HashSet<>(Arrays.asList(input.getId(), reduce.getId())),
+        links(graph.taskEdgeSet()));
+    Assert.assertEquals(Collections.singleton(input.getId()), links(graph.inEdges(head)));
+
+    // the reduce is built from the last tset of the chain, it connects through the alias
+    Assert.assertEquals(Collections.singleton(reduce.getId()), links(graph.outEdges(head)));
+    Assert.assertEquals(result.getId(),
+        graph.childOfTask(head, name(graph.outEdges(head))).getName());
+  }
+
+  @Test
+  public void testSharedOutputNotFused() {
+    BatchEnvironment sharedEnv = new BatchEnvironment();
+    ComputeTSet<Integer> mapped = sharedEnv.createSource(new EmptySource(), PARALLELISM)
+        .direct().map(x -> x + 1);
+    ComputeTSet<Integer> first = mapped.pipe().map(x -> x * 2);
+    ComputeTSet<Integer> second = mapped.pipe().map(x -> x * 3);
+
+    ComputeGraph graph = build(sharedEnv.getGraph().build());
+    // the mapped tset has two outputs, so none of the pipes is fused
+    Assert.assertEquals(4, graph.getTaskVertexSet().size());
+    for (ComputeTSet<Integer> tSet : Arrays.asList(mapped, first, second)) {
+      Assert.assertFalse(graph.vertex(tSet.getId()).getTask() instanceof ChainedComputeOp);
+    }
+    Assert.assertEquals(2, graph.outEdges(mapped.getId()).size());
+  }
+
+  @Test
+  public void testSameOutputAsSeparateOps() {
+    ComputeGraph graph = build(env.getGraph().build(result));
+
+    for (int index = 0; index < PARALLELISM; index++) {
+      List<Object> values = new ArrayList<>();
+      for (int i = 0; i < 20; i++) {
+        values.add(index * 100 + i);
+      }
+
+      // each op as its own task, the pipe delivers the values one by one and the direct link
+      // delivers them as one iterator
+      List<Object> out = run(doubled.getINode(), index, input.getId(), pipe.getId(),
+          iterator(values));
+      out = run(pairs.getINode(), index, pipe.getId(), direct.getId(), single(out));
+      List<Object> expected = run(sums.getINode(), index, direct.getId(), reduce.getId(),
+          iterator(out));
+      Assert.assertEquals(40, expected.size());
+
+      // the same input through the fused chain, with the edges of the graph
+      Vertex head = graph.vertex(doubled.getId());
+      Assert.assertEquals(expected, run((ICompute<?>) head.getTask(), index,
+          name(graph.inEdges(head)), name(graph.outEdges(head)), iterator(values)));
+    }
+  }
+
+  @Test
+  public void testEmptyInput() {
+    ComputeGraph graph = build(env.getGraph().build(result));
+    Vertex head = graph.vertex(doubled.getId());
+    Assert.assertTrue(run((ICompute<?>) head.getTask(), 0, name(graph.inEdges(head)),
+        name(graph.outEdges(head)), iterator(Collections.emptyList())).isEmpty());
+  }
+
+  private static List<IMessage<Object>> iterator(List<Object> values) {
+    return Collections.singletonList(new TaskMessage<>(values.iterator()));
+  }
+
+  private static List<IMessage<Object>> single(List<Object> values) {
+    List<IMessage<Object>> messages = new ArrayList<>();
+    for (Object value : values) {
+      messages.add(new TaskMessage<>(value));
+    }
+    return messages;
+  }
+
+  /**
+   * Run a task with the given input, and return the values written to the output edge. The
+   * output edge should be ended once after the end of the input.
+   */
+  @SuppressWarnings("unchecked")
+  private List<Object> run(ICompute<?> task, int index, String inEdge, String outEdge,
+                           List<IMessage<Object>> messages) {
+    LinkedBlockingQueue<IMessage> queue = new LinkedBlockingQueue<>();
+    Map<String, Set<String>> inEdges = new HashMap<>();
+    inEdges.put(inEdge, Collections.singleton("in"));
+    Map<String, String> outEdges = new HashMap<>();
+    outEdges.put(outEdge, "out");
+    TaskContextImpl context = new TaskContextImpl(index, 0, index, "task", PARALLELISM, 0,
+        new DefaultOutputCollection(queue), new HashMap<>(), inEdges, outEdges, null,
+        OperationMode.BATCH);
+
+    ICompute<Object> compute = (ICompute<Object>) task;
+    compute.prepare(Config.newBuilder().build(), context);
+    for (IMessage<Object> message : messages) {
+      compute.execute(message);
+    }
+    Assert.assertFalse(context.isDone(outEdge));
+    compute.endExecute();
+    Assert.assertTrue(context.isDone(outEdge));
+
+    List<Object> out = new ArrayList<>();
+    for (IMessage message : queue) {
+      Assert.assertEquals(outEdge, message.edge());
+      out.add(message.getContent());
+    }
+    return out;
+  }
+
+  private static final class EmptySource implements SourceFunc<Integer> {
+    @Override
+    public boolean hasNext() {
+      return false;
+    }
+
+    @Override
+    public Integer next() {
+      return null;
+    }
+  }
+}
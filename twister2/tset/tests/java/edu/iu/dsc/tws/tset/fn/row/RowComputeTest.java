@@ -0,0 +1,176 @@
+//  Licensed under the Apache License, Version 2.0 (the "License");
+//  you may not use this file except in compliance with the License.
+//  You may obtain a copy of the License at
+//
+//  http://www.apache.org/licenses/LICENSE-2.0
+//
+//  Unless required by applicable law or agreed to in writing, software
+//  distributed under the License is distributed on an "AS IS" BASIS,
+//  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//  See the License for the specific language governing permissions and
+//  limitations under the License.
+package edu.iu.dsc.tws.tset.fn.row;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.iu.dsc.tws.api.comms.CommunicationContext;
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageType;
+import edu.iu.dsc.tws.api.comms.messaging.types.MessageTypes;
+import edu.iu.dsc.tws.api.tset.schema.RowSchema;
+import edu.iu.dsc.tws.common.table.ArrowRow;
+import edu.iu.dsc.tws.common.table.TField;
+import edu.iu.dsc.tws.common.table.Table;
+import edu.iu.dsc.tws.common.table.arrow.ArrowTable;
+import edu.iu.dsc.tws.common.table.arrow.ArrowTypes;
+import edu.iu.dsc.tws.common.table.ops.Aggregation;
+import edu.iu.dsc.tws.common.table.ops.TableUtils;
+
+public class RowComputeTest {
+  private BufferAllocator allocator;
+
+  @Before
+  public void setUp() {
+    allocator = new RootAllocator(Long.MAX_VALUE);
+  }
+
+  @After
+  public void tearDown() {
+    allocator.close();
+  }
+
+  private Table table(int[] keys, double[] values) {
+    IntVector k = new IntVector(new Field("k", ArrowTypes.INT_FIELD_TYPE, null), allocator);
+    Float8Vector v = new Float8Vector(
+        new Field("v", ArrowTypes.DOUBLE_FIELD_TYPE, null), allocator);
+    k.allocateNew(keys.length);
+    v.allocateNew(values.length);
+    for (int i = 0; i < keys.length; i++) {
+      k.set(i, keys[i]);
+      v.set(i, values[i]);
+    }
+    k.setValueCount(keys.length);
+    v.setValueCount(values.length);
+    List<FieldVector> vectors = Arrays.asList(k, v);
+    return new ArrowTable(new Schema(Arrays.asList(k.getField(), v.getField())), vectors);
+  }
+
+  @Test
+  public void testPartitionerSameTargetForEqualKeys() {
+    RowHashingPartitioner partitioner = new RowHashingPartitioner();
+    Set<Integer> targets = new HashSet<>(Arrays.asList(7, 3, 5));
+    partitioner.prepare(new HashSet<>(Arrays.asList(0, 1)), targets);
+
+    for (int key = -50; key < 50; key++) {
+      int target = partitioner.partition(0, ArrowRow.fromValues(key, "left"));
+      Assert.assertTrue(targets.contains(target));
+      // the other columns and the source don't change the target
+      Assert.assertEquals(target, partitioner.partition(1, ArrowRow.fromValues(key, 1.0)));
+    }
+    // byte array keys hash on the content
+    Assert.assertEquals(partitioner.partition(0, ArrowRow.fromValues(new byte[]{1, 2})),
+        partitioner.partition(1, ArrowRow.fromValues(new byte[]{1, 2})));
+    Assert.assertTrue(targets.contains(
+        partitioner.partition(0, ArrowRow.fromValues((Object) null))));
+    Assert.assertTrue(targets.contains(
+        partitioner.partition(0, ArrowRow.fromValues(Integer.MIN_VALUE))));
+  }
+
+  @Test
+  public void testPartitionerSpreadsKeys() {
+    RowHashingPartitioner partitioner = new RowHashingPartitioner();
+    partitioner.prepare(new HashSet<>(Arrays.asList(0)),
+        new HashSet<>(Arrays.asList(0, 1, 2, 3)));
+    Set<Integer> used = new HashSet<>();
+    for (int key = 0; key < 16; key++) {
+      used.add(partitioner.partition(0, ArrowRow.fromValues(key)));
+    }
+    Assert.assertEquals(4, used.size());
+  }
+
+  @Test
+  public void testGroupByOutputSchema() {
+    RowGroupByCompute groupBy = new RowGroupByCompute(new int[]{0},
+        Aggregation.sum(1), Aggregation.count(1), Aggregation.max(1));
+    Table input = table(new int[]{2, 1, 2}, new double[]{1.0, 2.0, 3.0});
+    Table grouped = groupBy.compute(input, allocator);
+    try {
+      RowSchema expected = groupBy.outputSchema(RowSchema.make(
+          new TField("k", MessageTypes.INTEGER), new TField("v", MessageTypes.DOUBLE)));
+      List<String> names = new ArrayList<>();
+      for (int i = 0; i < expected.getNumberOfColumns(); i++) {
+        names.add(expected.getFields().get(i).getName());
+        Assert.assertSame(expected.get(i), columnType(grouped, i));
+        Assert.assertEquals(expected.getFields().get(i).getName(),
+            grouped.getColumns().get(i).getVector().getName());
+      }
+      Assert.assertEquals(Arrays.asList("k", "sum(v)", "count(v)", "max(v)"), names);
+      Assert.assertEquals(2, grouped.rowCount());
+      Assert.assertEquals(4.0, grouped.getColumns().get(1).get(0));
+      Assert.assertEquals(2, grouped.getColumns().get(2).get(0));
+    } finally {
+      TableUtils.close(grouped);
+      TableUtils.close(input);
+    }
+  }
+
+  private static MessageType<?, ?> columnType(Table table, int column) {
+    FieldVector vector = table.getColumns().get(column).getVector();
+    return vector instanceof IntVector ? MessageTypes.INTEGER : MessageTypes.DOUBLE;
+  }
+
+  @Test
+  public void testSortCompute() {
+    Table input = table(new int[]{2, 1, 2, 1}, new double[]{1.0, 2.0, 3.0, 4.0});
+    Table sorted = new RowSortCompute(new int[]{0, 1}, new boolean[]{true, false})
+        .compute(input, allocator);
+    try {
+      int[] keys = new int[4];
+      double[] values = new double[4];
+      for (int i = 0; i < 4; i++) {
+        keys[i] = (Integer) sorted.getColumns().get(0).get(i);
+        values[i] = (Double) sorted.getColumns().get(1).get(i);
+      }
+      Assert.assertArrayEquals(new int[]{1, 1, 2, 2}, keys);
+      Assert.assertArrayEquals(new double[]{4.0, 2.0, 3.0, 1.0}, values, 0);
+    } finally {
+      TableUtils.close(sorted);
+      TableUtils.close(input);
+    }
+  }
+
+  @Test
+  public void testJoinCompute() {
+    Table left = table(new int[]{1, 2, 3}, new double[]{1.0, 2.0, 3.0});
+    Table right = table(new int[]{3, 1, 1}, new double[]{30.0, 10.0, 11.0});
+    Table joined = new RowJoinCompute(CommunicationContext.JoinType.LEFT,
+        new int[]{0}, new int[]{0}).join(left, right, allocator);
+    try {
+      Assert.assertEquals(4, joined.getColumns().size());
+      Assert.assertEquals(4, joined.rowCount());
+      Assert.assertEquals(10.0, joined.getColumns().get(3).get(0));
+      Assert.assertEquals(11.0, joined.getColumns().get(3).get(1));
+      Assert.assertNull(joined.getColumns().get(2).get(2));
+      Assert.assertEquals(30.0, joined.getColumns().get(3).get(3));
+    } finally {
+      TableUtils.close(joined);
+      TableUtils.close(left);
+      TableUtils.close(right);
+    }
+  }
+}